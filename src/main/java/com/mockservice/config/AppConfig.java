@@ -2,15 +2,22 @@ package com.mockservice.config;
 
 import com.github.fge.jsonschema.main.JsonSchemaFactory;
 import com.mockservice.producer.*;
+import com.mockservice.repository.ConfigRepository;
 import com.mockservice.template.TemplateEngine;
 import com.mockservice.template.TemplateEngineImpl;
+import com.mockservice.util.HashedWheelTimer;
 import com.mockservice.util.RandomUtils;
 import com.mockservice.util.RandomUtilsImpl;
-import com.mockservice.validate.DataValidator;
 import com.mockservice.validate.JsonDataValidator;
+import com.mockservice.validate.XmlDataValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class AppConfig {
 
@@ -20,8 +27,15 @@ public class AppConfig {
     }
 
     @Bean
-    public DataValidator jsonDataValidator() {
-        return new JsonDataValidator(jsonSchemaFactory());
+    public JsonDataValidator jsonDataValidator(ConfigRepository configRepository,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${application.validation.streaming-threshold}") int streamingThreshold) {
+        return new JsonDataValidator(jsonSchemaFactory(), configRepository, meterRegistry, streamingThreshold);
+    }
+
+    @Bean
+    public XmlDataValidator xmlDataValidator(ConfigRepository configRepository, MeterRegistry meterRegistry) {
+        return new XmlDataValidator(configRepository, meterRegistry);
     }
 
     @Bean
@@ -48,4 +62,10 @@ public class AppConfig {
     TemplateEngine mockTemplateEngine() {
         return new TemplateEngineImpl();
     }
+
+    @Bean
+    public HashedWheelTimer callbackTimer(@Value("${application.callback.timer.tick-ms}") long tickMillis,
+                                          @Value("${application.callback.timer.wheel-size}") int wheelSize) {
+        return new HashedWheelTimer(tickMillis, TimeUnit.MILLISECONDS, wheelSize, ForkJoinPool.commonPool());
+    }
 }
@@ -0,0 +1,181 @@
+package com.mockservice.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.*;
+
+/**
+ * Faults injected into responses of the routes the profile matches.
+ * A profile matches routes of its group and path, an empty group or path matches any.
+ * Percents are chances per response, error percents are by response status code.
+ */
+public class ChaosProfile {
+
+    private String group = "";
+    private String path = "";
+    private boolean disabled = false;
+    private Long seed;
+    private Map<Integer, Double> errorPercents = new LinkedHashMap<>();
+    private LatencyDistribution latencyDistribution = LatencyDistribution.FIXED;
+    private long latencyMs = 0;
+    private long latencyJitterMs = 0;
+    private double truncatePercent = 0;
+    private double corruptPercent = 0;
+    private List<String> removeHeaders = new ArrayList<>();
+    private double removeHeadersPercent = 0;
+
+    public ChaosProfile() {
+        // default
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public ChaosProfile setGroup(String group) {
+        this.group = group == null ? "" : group;
+        return this;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public ChaosProfile setPath(String path) {
+        this.path = path == null ? "" : path;
+        return this;
+    }
+
+    public boolean getDisabled() {
+        return disabled;
+    }
+
+    public ChaosProfile setDisabled(boolean disabled) {
+        this.disabled = disabled;
+        return this;
+    }
+
+    /**
+     * Seed of fault decisions; if not set, a random one is picked and logged when the profile is loaded.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getSeed() {
+        return seed;
+    }
+
+    public ChaosProfile setSeed(Long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public Map<Integer, Double> getErrorPercents() {
+        return errorPercents;
+    }
+
+    public ChaosProfile setErrorPercents(Map<Integer, Double> errorPercents) {
+        this.errorPercents = errorPercents == null ? new LinkedHashMap<>() : errorPercents;
+        return this;
+    }
+
+    public LatencyDistribution getLatencyDistribution() {
+        return latencyDistribution;
+    }
+
+    public ChaosProfile setLatencyDistribution(LatencyDistribution latencyDistribution) {
+        this.latencyDistribution = latencyDistribution == null ? LatencyDistribution.FIXED : latencyDistribution;
+        return this;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public ChaosProfile setLatencyMs(long latencyMs) {
+        this.latencyMs = Math.max(0, latencyMs);
+        return this;
+    }
+
+    public long getLatencyJitterMs() {
+        return latencyJitterMs;
+    }
+
+    public ChaosProfile setLatencyJitterMs(long latencyJitterMs) {
+        this.latencyJitterMs = Math.max(0, latencyJitterMs);
+        return this;
+    }
+
+    public double getTruncatePercent() {
+        return truncatePercent;
+    }
+
+    public ChaosProfile setTruncatePercent(double truncatePercent) {
+        this.truncatePercent = percent(truncatePercent);
+        return this;
+    }
+
+    public double getCorruptPercent() {
+        return corruptPercent;
+    }
+
+    public ChaosProfile setCorruptPercent(double corruptPercent) {
+        this.corruptPercent = percent(corruptPercent);
+        return this;
+    }
+
+    public List<String> getRemoveHeaders() {
+        return removeHeaders;
+    }
+
+    public ChaosProfile setRemoveHeaders(List<String> removeHeaders) {
+        this.removeHeaders = removeHeaders == null ? new ArrayList<>() : removeHeaders;
+        return this;
+    }
+
+    public double getRemoveHeadersPercent() {
+        return removeHeadersPercent;
+    }
+
+    public ChaosProfile setRemoveHeadersPercent(double removeHeadersPercent) {
+        this.removeHeadersPercent = percent(removeHeadersPercent);
+        return this;
+    }
+
+    private static double percent(double value) {
+        return Math.max(0, Math.min(100, value));
+    }
+
+    public boolean matches(Route route) {
+        return !disabled
+                && (group.isEmpty() || group.equals(route.getGroup()))
+                && (path.isEmpty() || path.equals(route.getPath()));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(group, path, disabled, seed, errorPercents, latencyDistribution, latencyMs,
+                latencyJitterMs, truncatePercent, corruptPercent, removeHeaders, removeHeadersPercent);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof ChaosProfile)) return false;
+        ChaosProfile other = (ChaosProfile) o;
+        return group.equals(other.group)
+                && path.equals(other.path)
+                && disabled == other.disabled
+                && Objects.equals(seed, other.seed)
+                && errorPercents.equals(other.errorPercents)
+                && latencyDistribution == other.latencyDistribution
+                && latencyMs == other.latencyMs
+                && latencyJitterMs == other.latencyJitterMs
+                && truncatePercent == other.truncatePercent
+                && corruptPercent == other.corruptPercent
+                && removeHeaders.equals(other.removeHeaders)
+                && removeHeadersPercent == other.removeHeadersPercent;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(group=%s, path=%s)", group, path);
+    }
+}
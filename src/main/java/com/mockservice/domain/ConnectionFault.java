@@ -0,0 +1,16 @@
+package com.mockservice.domain;
+
+/**
+ * Transport level fault of a route response.
+ */
+public enum ConnectionFault {
+    NONE,
+    /** the connection is closed in the middle of a chunked body */
+    RESET,
+    /** Content-Length is larger than the body, the connection is closed after the body */
+    SHORT_BODY,
+    /** nothing is sent until the stall timeout passes */
+    STALL_HEADERS,
+    /** a chunk size is not a hex number, the connection is closed after the body */
+    MALFORMED_CHUNKED
+}
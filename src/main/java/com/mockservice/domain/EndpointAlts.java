@@ -0,0 +1,109 @@
+package com.mockservice.domain;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Alts a scenario has for one endpoint: an immutable array and a shared cursor.
+ * Strategies advance the cursor atomically, so a step is O(1) and safe under
+ * concurrent requests without locking.
+ * <p>
+ * Alt weights are compiled into an alias table (Vose's method), so a weighted
+ * random pick is O(1) as well.
+ */
+public class EndpointAlts {
+
+    public static class Builder {
+        private final List<String> alts = new ArrayList<>();
+        private final List<Double> weights = new ArrayList<>();
+
+        public Builder add(String alt, double weight) {
+            alts.add(alt);
+            weights.add(weight);
+            return this;
+        }
+
+        public EndpointAlts build(Long seed) {
+            return new EndpointAlts(alts, weights, seed);
+        }
+    }
+
+    private final String[] alts;
+    private final AtomicLong cursor = new AtomicLong();
+    private final double[] probability;
+    private final int[] alias;
+    // null unless seeded; java.util.Random is thread-safe, so the sequence is shared
+    private final Random random;
+
+    private EndpointAlts(List<String> alts, List<Double> weights, Long seed) {
+        this.alts = alts.toArray(String[]::new);
+        this.probability = new double[this.alts.length];
+        this.alias = new int[this.alts.length];
+        this.random = seed == null ? null : new Random(seed);
+        buildAliasTable(weights);
+    }
+
+    public int size() {
+        return alts.length;
+    }
+
+    public String get(int index) {
+        return alts[index];
+    }
+
+    /**
+     * Returns the current cursor position and moves the cursor forward.
+     */
+    public long next() {
+        return cursor.getAndIncrement();
+    }
+
+    /**
+     * Returns an index picked at random with respect to alt weights.
+     */
+    public int sample() {
+        Random rnd = random == null ? ThreadLocalRandom.current() : random;
+        int i = rnd.nextInt(alts.length);
+        return rnd.nextDouble() < probability[i] ? i : alias[i];
+    }
+
+    private void buildAliasTable(List<Double> weights) {
+        int n = alts.length;
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+
+        double[] scaled = new double[n];
+        for (int i = 0; i < n; i++) {
+            // no weights at all means equal weights
+            scaled[i] = total > 0 ? weights.get(i) * n / total : 1.0;
+        }
+
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            (scaled[i] < 1.0 ? small : large).push(i);
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            (scaled[more] < 1.0 ? small : large).push(more);
+        }
+        // whatever is left is 1.0 up to rounding errors
+        while (!large.isEmpty()) {
+            probability[large.pop()] = 1.0;
+        }
+        while (!small.isEmpty()) {
+            probability[small.pop()] = 1.0;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.mockservice.domain;
+
+/**
+ * How chaos latency is spread around ChaosProfile.latencyMs.
+ */
+public enum LatencyDistribution {
+    /** always latencyMs */
+    FIXED,
+    /** latencyMs plus or minus up to latencyJitterMs */
+    UNIFORM,
+    /** mean latencyMs, standard deviation latencyJitterMs */
+    NORMAL,
+    /** mean latencyMs, a long tail of slow responses */
+    EXPONENTIAL
+}
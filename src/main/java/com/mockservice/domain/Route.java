@@ -15,6 +15,8 @@ public class Route implements Comparable<Route> {
     private int responseCode = 200;
     private String response = "";
     private String requestBodySchema = "";
+    private String responseSchema = "";
+    private ConnectionFault fault = ConnectionFault.NONE;
     private boolean disabled = false;
     // generated
     private VariableMatcher matcher;
@@ -136,6 +138,27 @@ public class Route implements Comparable<Route> {
         return this;
     }
 
+    /**
+     * JSON schema of the response, used by the from_schema template function.
+     */
+    public String getResponseSchema() {
+        return responseSchema;
+    }
+
+    public Route setResponseSchema(String responseSchema) {
+        this.responseSchema = responseSchema == null ? "" : responseSchema;
+        return this;
+    }
+
+    public ConnectionFault getFault() {
+        return fault;
+    }
+
+    public Route setFault(ConnectionFault fault) {
+        this.fault = fault == null ? ConnectionFault.NONE : fault;
+        return this;
+    }
+
     public boolean getDisabled() {
         return disabled;
     }
@@ -154,6 +177,8 @@ public class Route implements Comparable<Route> {
         setResponseCode(source.getResponseCode());
         setResponse(source.getResponse());
         setRequestBodySchema(source.getRequestBodySchema());
+        setResponseSchema(source.getResponseSchema());
+        setFault(source.getFault());
         setDisabled(source.getDisabled());
         return this;
     }
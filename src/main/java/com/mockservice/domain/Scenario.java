@@ -1,13 +1,11 @@
 package com.mockservice.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.web.bind.annotation.RequestMethod;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.function.Predicate;
+import java.util.*;
+import java.util.function.BiConsumer;
 
 public class Scenario implements Comparable<Scenario> {
 
@@ -20,9 +18,13 @@ public class Scenario implements Comparable<Scenario> {
     private String alias = "";
     private ScenarioType type = ScenarioType.MAP;
     private String data = "";
+    private Long seed;
 
     private boolean active = false;
-    private final List<Route> routes = new ArrayList<>();
+    // alts of the active scenario by method and path, replaced as a whole on (de)activation
+    private volatile Map<RequestMethod, Map<String, EndpointAlts>> alts = Map.of();
+    // set instead of alts for an active STATEFUL scenario
+    private volatile ScenarioStateMachine stateMachine;
 
     public Scenario() {
         // default
@@ -64,11 +66,25 @@ public class Scenario implements Comparable<Scenario> {
         return this;
     }
 
+    /**
+     * Seed for random picks of WEIGHTED scenarios; if not set, picks are not reproducible.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getSeed() {
+        return seed;
+    }
+
+    public Scenario setSeed(Long seed) {
+        this.seed = seed;
+        return this;
+    }
+
     public void assignFrom(Scenario source) {
         setGroup(source.getGroup());
         setAlias(source.getAlias());
         setType(source.getType());
         setData(source.getData());
+        setSeed(source.getSeed());
 
         if (getActive()) {
             setActive(false);
@@ -113,36 +129,85 @@ public class Scenario implements Comparable<Scenario> {
     }
 
     public Scenario setActive(boolean active) {
+        alts = Map.of();
+        stateMachine = null;
         if (active) {
-            routes.clear();
-            parse();
-        } else {
-            routes.clear();
+            if (ScenarioType.STATEFUL.equals(type)) {
+                stateMachine = ScenarioStateMachine.parse(data);
+            } else {
+                alts = parse();
+            }
         }
         this.active = active;
         return this;
     }
 
-    private void parse() {
+    private Map<RequestMethod, Map<String, EndpointAlts>> parse() {
+        Map<RequestMethod, Map<String, EndpointAlts.Builder>> parsed = new EnumMap<>(RequestMethod.class);
         List<String> list = data.lines().toList();
         for (int i = 0; i < list.size(); i++) {
-            parseLine(routes, list.get(i), i);
+            parseLine(parsed, list.get(i), i);
         }
+
+        Map<RequestMethod, Map<String, EndpointAlts>> result = new EnumMap<>(RequestMethod.class);
+        parsed.forEach((method, byPath) -> {
+            Map<String, EndpointAlts> paths = new HashMap<>();
+            byPath.forEach((path, builder) -> paths.put(path, builder.build(seed)));
+            result.put(method, paths);
+        });
+        return result;
     }
 
-    private void parseLine(List<Route> routes, String s, int i) {
+    // METHOD;PATH[;ALT[;WEIGHT]]
+    private void parseLine(Map<RequestMethod, Map<String, EndpointAlts.Builder>> parsed, String s, int i) {
         if (!s.trim().isEmpty()) {
             String[] parts = s.split(";");
             if (parts.length < 2) {
                 throw new ScenarioParseException("Error parsing scenario line " + i + " [" + s + "]", null);
             }
 
-            routes.add(new Route(parts[0], parts[1], parts.length > 2 ? parts[2] : ""));
+            Route route = new Route(parts[0], parts[1], parts.length > 2 ? parts[2] : "");
+            double weight = parts.length > 3 ? parseWeight(parts[3], s, i) : 1.0;
+            parsed.computeIfAbsent(route.getMethod(), m -> new HashMap<>())
+                    .computeIfAbsent(route.getPath(), p -> new EndpointAlts.Builder())
+                    .add(route.getAlt(), weight);
         }
     }
 
+    private static double parseWeight(String weight, String s, int i) {
+        double result;
+        try {
+            result = Double.parseDouble(weight.trim());
+        } catch (NumberFormatException e) {
+            throw new ScenarioParseException("Error parsing weight at scenario line " + i + " [" + s + "]", e);
+        }
+        if (!Double.isFinite(result)) {
+            throw new ScenarioParseException("Weight must be a finite number at scenario line " + i + " [" + s + "]", null);
+        }
+        if (result < 0) {
+            throw new ScenarioParseException("Weight must not be negative at scenario line " + i + " [" + s + "]", null);
+        }
+        return result;
+    }
+
+    public void forEachEndpoint(BiConsumer<RequestMethod, String> consumer) {
+        ScenarioStateMachine machine = stateMachine;
+        if (machine != null) {
+            machine.forEachEndpoint(consumer);
+        }
+        alts.forEach((method, byPath) -> byPath.keySet().forEach(path -> consumer.accept(method, path)));
+    }
+
     public Optional<String> getAltFor(RequestMethod method, String path) {
-        Predicate<Route> condition = r -> method.equals(r.getMethod()) && path.equals(r.getPath());
-        return type.getStrategy().apply(routes, condition);
+        ScenarioStateMachine machine = stateMachine;
+        if (machine != null) {
+            return machine.getAltFor(method, path);
+        }
+        Map<String, EndpointAlts> byPath = alts.get(method);
+        EndpointAlts endpointAlts = byPath == null ? null : byPath.get(path);
+        if (endpointAlts == null) {
+            return Optional.empty();
+        }
+        return type.getStrategy().apply(endpointAlts);
     }
 }
@@ -0,0 +1,134 @@
+package com.mockservice.domain;
+
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Compiled STATEFUL scenario. Data is split into states by {@code [state]} headers,
+ * each line within a state is {@code METHOD;PATH;ALT[;NEXT_STATE]}.
+ * The first state is the initial one; lines before the first header form an unnamed state.
+ * <p>
+ * A request matching a line in the current state gets its alt and moves the machine
+ * to the next state, if any. The current state is a single atomic index, so a lookup
+ * costs two hash probes and a transition is one CAS.
+ */
+public class ScenarioStateMachine {
+
+    private static final class Transition {
+        private final String alt;
+        private final int next;
+
+        private Transition(String alt, int next) {
+            this.alt = alt;
+            this.next = next;
+        }
+    }
+
+    private final String[] names;
+    private final List<Map<RequestMethod, Map<String, Transition>>> states;
+    private final AtomicInteger current = new AtomicInteger();
+
+    private ScenarioStateMachine(String[] names, List<Map<RequestMethod, Map<String, Transition>>> states) {
+        this.names = names;
+        this.states = states;
+    }
+
+    public static ScenarioStateMachine parse(String data) {
+        List<String> lines = data.lines().toList();
+
+        List<String> names = new ArrayList<>();
+        Optional<String> first = lines.stream().filter(s -> !s.trim().isEmpty()).findFirst();
+        if (first.isEmpty() || !isHeader(first.get())) {
+            names.add("");
+        }
+        for (String line : lines) {
+            if (isHeader(line)) {
+                String name = headerName(line);
+                if (names.contains(name)) {
+                    throw new ScenarioParseException("Duplicate scenario state [" + name + "]", null);
+                }
+                names.add(name);
+            }
+        }
+
+        List<Map<RequestMethod, Map<String, Transition>>> states = new ArrayList<>();
+        Map<RequestMethod, Map<String, Transition>> state = null;
+        for (int i = 0; i < lines.size(); i++) {
+            String s = lines.get(i);
+            if (isHeader(s)) {
+                state = new EnumMap<>(RequestMethod.class);
+                states.add(state);
+            } else if (!s.trim().isEmpty()) {
+                if (state == null) {
+                    state = new EnumMap<>(RequestMethod.class);
+                    states.add(state);
+                }
+                parseLine(state, names, s, i);
+            }
+        }
+        if (states.isEmpty()) {
+            states.add(new EnumMap<>(RequestMethod.class));
+        }
+
+        return new ScenarioStateMachine(names.toArray(String[]::new), states);
+    }
+
+    private static boolean isHeader(String s) {
+        String trimmed = s.trim();
+        return trimmed.startsWith("[") && trimmed.endsWith("]");
+    }
+
+    private static String headerName(String s) {
+        String trimmed = s.trim();
+        return trimmed.substring(1, trimmed.length() - 1).trim();
+    }
+
+    private static void parseLine(Map<RequestMethod, Map<String, Transition>> state, List<String> names, String s, int i) {
+        String[] parts = s.split(";");
+        if (parts.length < 2) {
+            throw new ScenarioParseException("Error parsing scenario line " + i + " [" + s + "]", null);
+        }
+
+        Route route = new Route(parts[0], parts[1], parts.length > 2 ? parts[2] : "");
+        int next = -1;
+        if (parts.length > 3 && !parts[3].trim().isEmpty()) {
+            next = names.indexOf(parts[3].trim());
+            if (next < 0) {
+                throw new ScenarioParseException("Unknown state at scenario line " + i + " [" + s + "]", null);
+            }
+        }
+        // the first line for an endpoint wins, as with MAP
+        state.computeIfAbsent(route.getMethod(), m -> new HashMap<>())
+                .putIfAbsent(route.getPath(), new Transition(route.getAlt(), next));
+    }
+
+    public Optional<String> getAltFor(RequestMethod method, String path) {
+        while (true) {
+            int state = current.get();
+            Map<String, Transition> byPath = states.get(state).get(method);
+            Transition transition = byPath == null ? null : byPath.get(path);
+            if (transition == null) {
+                return Optional.empty();
+            }
+            // a concurrent request moved the machine first: look again in the new state
+            if (transition.next < 0 || transition.next == state || current.compareAndSet(state, transition.next)) {
+                return Optional.of(transition.alt);
+            }
+        }
+    }
+
+    public String getState() {
+        return names[current.get()];
+    }
+
+    public void forEachEndpoint(BiConsumer<RequestMethod, String> consumer) {
+        Map<RequestMethod, Set<String>> endpoints = new EnumMap<>(RequestMethod.class);
+        states.forEach(state -> state.forEach((method, byPath) ->
+                endpoints.computeIfAbsent(method, m -> new HashSet<>()).addAll(byPath.keySet())
+        ));
+        endpoints.forEach((method, paths) -> paths.forEach(path -> consumer.accept(method, path)));
+    }
+}
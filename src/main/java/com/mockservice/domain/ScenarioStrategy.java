@@ -1,10 +1,12 @@
 package com.mockservice.domain;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.function.Predicate;
 
+/**
+ * Picks an alt out of the alts a scenario has for one endpoint.
+ * Called concurrently, so implementations must not rely on external locking.
+ */
 @FunctionalInterface
 public interface ScenarioStrategy {
-    Optional<String> apply(List<Route> routes, Predicate<Route> condition);
+    Optional<String> apply(EndpointAlts alts);
 }
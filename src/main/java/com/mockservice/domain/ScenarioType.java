@@ -4,7 +4,10 @@ public enum ScenarioType {
 
     MAP(new MapScenarioStrategy()),
     QUEUE(new QueueScenarioStrategy()),
-    CIRCULAR_QUEUE(new CircularQueueScenarioStrategy());
+    CIRCULAR_QUEUE(new CircularQueueScenarioStrategy()),
+    WEIGHTED(new WeightedScenarioStrategy()),
+    // alts are picked by ScenarioStateMachine, the strategy is never applied
+    STATEFUL(new MapScenarioStrategy());
 
     private final ScenarioStrategy strategy;
 
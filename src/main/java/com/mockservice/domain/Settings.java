@@ -1,10 +1,16 @@
 package com.mockservice.domain;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class Settings {
 
     private boolean randomAlt = false;
     private boolean quantum = false;
     private boolean alt400OnFailedRequestValidation = true;
+    private ValidationMode validationMode = ValidationMode.SYNC;
+    private int validationSamplePercent = 100;
+    private List<ChaosProfile> chaosProfiles = new ArrayList<>();
 
     public Settings() {
         /* default */
@@ -36,4 +42,34 @@ public class Settings {
         this.alt400OnFailedRequestValidation = alt400OnFailedRequestValidation;
         return this;
     }
+
+    public ValidationMode getValidationMode() {
+        return validationMode;
+    }
+
+    public Settings setValidationMode(ValidationMode validationMode) {
+        this.validationMode = validationMode == null ? ValidationMode.SYNC : validationMode;
+        return this;
+    }
+
+    public int getValidationSamplePercent() {
+        return validationSamplePercent;
+    }
+
+    public Settings setValidationSamplePercent(int validationSamplePercent) {
+        this.validationSamplePercent = Math.max(0, Math.min(100, validationSamplePercent));
+        return this;
+    }
+
+    /**
+     * Applied regardless of quantum; for a route the first matching profile is used.
+     */
+    public List<ChaosProfile> getChaosProfiles() {
+        return chaosProfiles;
+    }
+
+    public Settings setChaosProfiles(List<ChaosProfile> chaosProfiles) {
+        this.chaosProfiles = chaosProfiles == null ? new ArrayList<>() : chaosProfiles;
+        return this;
+    }
 }
@@ -0,0 +1,13 @@
+package com.mockservice.domain;
+
+/**
+ * How request bodies are validated against route schemas.
+ */
+public enum ValidationMode {
+    /** every request, before the response */
+    SYNC,
+    /** a share of requests (see Settings.validationSamplePercent), before the response */
+    SAMPLED,
+    /** every request, in background; failures are counted and logged, the response is not affected */
+    ASYNC
+}
@@ -0,0 +1,13 @@
+package com.mockservice.domain;
+
+import java.util.Optional;
+
+public class WeightedScenarioStrategy implements ScenarioStrategy {
+
+    public Optional<String> apply(EndpointAlts alts) {
+        if (alts.size() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(alts.get(alts.sample()));
+    }
+}
@@ -22,6 +22,8 @@ public class RouteMapperImpl implements RouteMapper {
             .setResponseCode(route.getResponseCode())
             .setResponse(route.getResponse())
             .setRequestBodySchema(route.getRequestBodySchema())
+            .setResponseSchema(route.getResponseSchema())
+            .setFault(route.getFault())
             .setDisabled(route.getDisabled());
         if (postProcess != null) {
             postProcess.accept(route, dto);
@@ -40,6 +42,8 @@ public class RouteMapperImpl implements RouteMapper {
             .setResponseCode(dto.getResponseCode())
             .setResponse(dto.getResponse())
             .setRequestBodySchema(dto.getRequestBodySchema())
+            .setResponseSchema(dto.getResponseSchema())
+            .setFault(dto.getFault())
             .setDisabled(dto.getDisabled());
     }
 
@@ -0,0 +1,87 @@
+package com.mockservice.model;
+
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rendered callback request waiting to be executed.
+ * Holds only the resolved request parts, not the response template it came from.
+ */
+public class Callback {
+
+    private long id;
+    private RequestMethod method = RequestMethod.GET;
+    private String url = "";
+    private Map<String, List<String>> headers = new LinkedHashMap<>();
+    private String body = "";
+    private long executeAt;
+
+    public Callback() {
+        // default
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Callback setId(long id) {
+        this.id = id;
+        return this;
+    }
+
+    public RequestMethod getMethod() {
+        return method;
+    }
+
+    public Callback setMethod(RequestMethod method) {
+        this.method = method == null ? RequestMethod.GET : method;
+        return this;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Callback setUrl(String url) {
+        this.url = url == null ? "" : url;
+        return this;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public Callback setHeaders(Map<String, List<String>> headers) {
+        this.headers = headers == null ? new LinkedHashMap<>() : new LinkedHashMap<>(headers);
+        return this;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Callback setBody(String body) {
+        this.body = body == null ? "" : body;
+        return this;
+    }
+
+    /**
+     * Epoch milliseconds at which the callback is due.
+     */
+    public long getExecuteAt() {
+        return executeAt;
+    }
+
+    public Callback setExecuteAt(long executeAt) {
+        this.executeAt = executeAt;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(id=%d, method=%s, url=%s)", id, method, url);
+    }
+}
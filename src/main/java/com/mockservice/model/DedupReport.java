@@ -0,0 +1,57 @@
+package com.mockservice.model;
+
+/**
+ * Memory taken by route response bodies, with and without deduplication.
+ * Sizes are estimated content bytes, object headers are not counted.
+ */
+public class DedupReport {
+
+    private int routes;
+    private int distinctBodies;
+    private long bytesWithoutDedup;
+    private long bytesWithDedup;
+
+    public DedupReport() {
+        // default
+    }
+
+    public int getRoutes() {
+        return routes;
+    }
+
+    public DedupReport setRoutes(int routes) {
+        this.routes = routes;
+        return this;
+    }
+
+    public int getDistinctBodies() {
+        return distinctBodies;
+    }
+
+    public DedupReport setDistinctBodies(int distinctBodies) {
+        this.distinctBodies = distinctBodies;
+        return this;
+    }
+
+    public long getBytesWithoutDedup() {
+        return bytesWithoutDedup;
+    }
+
+    public DedupReport setBytesWithoutDedup(long bytesWithoutDedup) {
+        this.bytesWithoutDedup = bytesWithoutDedup;
+        return this;
+    }
+
+    public long getBytesWithDedup() {
+        return bytesWithDedup;
+    }
+
+    public DedupReport setBytesWithDedup(long bytesWithDedup) {
+        this.bytesWithDedup = bytesWithDedup;
+        return this;
+    }
+
+    public long getBytesSaved() {
+        return bytesWithoutDedup - bytesWithDedup;
+    }
+}
@@ -1,5 +1,6 @@
 package com.mockservice.model;
 
+import com.mockservice.domain.ConnectionFault;
 import com.mockservice.domain.RouteType;
 import org.springframework.web.bind.annotation.RequestMethod;
 
@@ -16,6 +17,8 @@ public class RouteDto {
     private int responseCode = 200;
     private String response = "";
     private String requestBodySchema = "";
+    private String responseSchema = "";
+    private ConnectionFault fault = ConnectionFault.NONE;
     private boolean disabled = false;
     private List<RouteVariable> variables;
 
@@ -95,6 +98,24 @@ public class RouteDto {
         return this;
     }
 
+    public String getResponseSchema() {
+        return responseSchema;
+    }
+
+    public RouteDto setResponseSchema(String responseSchema) {
+        this.responseSchema = responseSchema;
+        return this;
+    }
+
+    public ConnectionFault getFault() {
+        return fault;
+    }
+
+    public RouteDto setFault(ConnectionFault fault) {
+        this.fault = fault;
+        return this;
+    }
+
     public boolean getDisabled() {
         return disabled;
     }
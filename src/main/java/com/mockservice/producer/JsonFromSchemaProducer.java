@@ -4,4 +4,10 @@ import java.util.Map;
 
 public interface JsonFromSchemaProducer {
     String jsonFromSchema(Map<String, Object> map);
+
+    /**
+     * @param schema JSON schema text
+     * @throws IllegalArgumentException if the schema is not valid JSON
+     */
+    String jsonFromSchemaText(String schema);
 }
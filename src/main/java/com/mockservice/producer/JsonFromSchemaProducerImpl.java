@@ -1,18 +1,38 @@
 package com.mockservice.producer;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mockservice.util.RandomUtils;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
+/**
+ * Schemas are compiled into a {@link SchemaPlan} once and cached by their JSON text,
+ * so generating from the same schema again only writes values.
+ */
 @SuppressWarnings("unchecked")
 public class JsonFromSchemaProducerImpl implements JsonFromSchemaProducer {
 
-    private static final int MIN_NUMBER_OF_ELEMENTS = 1;
-    private static final int MAX_NUMBER_OF_ELEMENTS = 3;
+    private static final int MAX_CACHED_PLANS = 1024;
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+    private static final DefaultPrettyPrinter prettyPrinter =
+            new DefaultPrettyPrinter().withObjectIndenter(new DefaultIndenter("    ", "\n"));
+    private static final ObjectMapper jsonMapper = new ObjectMapper();
 
     private final ValueProducer valueProducer;
     private final RandomUtils randomUtils;
+    // keyed by text: a schema map may change after the call and rehashes on every lookup
+    private final Map<String, SchemaPlan> plans = new ConcurrentHashMap<>();
 
     public JsonFromSchemaProducerImpl(ValueProducer valueProducer, RandomUtils randomUtils) {
         this.valueProducer = valueProducer;
@@ -21,130 +41,49 @@ public class JsonFromSchemaProducerImpl implements JsonFromSchemaProducer {
 
     @Override
     public String jsonFromSchema(Map<String, Object> map) {
-        return jsonFromSchema(map, 0);
-    }
-
-    private String jsonFromSchema(Map<String, Object> map, int level) {
-        String type = getJsonSchemaType(map);
-        switch (type) {
-            case "array":
-                return makeArray(map, level);
-            case "object":
-                return makeObject(map, level);
-            case "number":
-                return valueProducer.randomNumberString();
-            case "integer":
-                return valueProducer.randomIntegerString();
-            case "string":
-                return makeString(map);
-            case "boolean":
-                return valueProducer.randomBooleanString();
-            case "enum":
-                return makeEnum(map);
-            default:
-                return "null";
+        if (map == null) {
+            return "null";
         }
-    }
-
-    private String getJsonSchemaType(Map<String, Object> map) {
-        String type = String.valueOf(map.get("type"));
-        if (map.containsKey("enum")) type = "enum";
-        return type;
-    }
-
-    private String padWithSpaces(int level) {
-        StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < level; i++) builder.append("    ");
-        return builder.toString();
-    }
-
-    private String makeArray(Map<String, Object> map, int level) {
-        Map<String, Object> items = (Map) map.get("items");
-        int numberOfElements = randomUtils.rnd(MIN_NUMBER_OF_ELEMENTS, MAX_NUMBER_OF_ELEMENTS);
-
-        StringBuilder sb = new StringBuilder("[");
-        String delimiter = "";
-        for (int i = 0; i < numberOfElements; i++) {
-            sb.append(delimiter);
-            sb.append(jsonFromSchema(items, level + 1));
-            delimiter = ", ";
+        String schema;
+        try {
+            schema = jsonMapper.writeValueAsString(map);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON schema: " + e.getOriginalMessage(), e);
         }
-        return sb.append("]").toString();
+        return write(plan(schema, () -> SchemaPlan.compile(map, randomUtils)));
     }
 
-    private String makeObject(Map<String, Object> map, int level) {
-        StringBuilder sb = new StringBuilder("{");
-        String delimiter = "";
-
-        Map<String, Object> properties = (Map) map.get("properties");
-        if (properties != null) {
-            for (Map.Entry<String, Object> e : properties.entrySet()) {
-                sb.append(delimiter);
-                sb.append("\n");
-                sb.append(makeObjectKey(e.getKey(), e.getValue(),  level + 1));
-                delimiter = ",";
+    @Override
+    public String jsonFromSchemaText(String schema) {
+        return write(plan(schema, () -> {
+            try {
+                return SchemaPlan.compile(jsonMapper.readValue(schema, Map.class), randomUtils);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid JSON schema: " + e.getOriginalMessage(), e);
             }
-        }
-
-        return sb
-                .append("\n")
-                .append(padWithSpaces(level))
-                .append("}")
-                .toString();
-    }
-
-    private String makeObjectKey(String key, Object value, int level) {
-        return padWithSpaces(level)
-                + "\""
-                + key
-                + "\": "
-                + jsonFromSchema((Map) value, level);
-    }
-
-    private String makeString(Map<String, Object> map) {
-        if (map.containsKey("example")) return makeStringFromExample(map);
-        if (map.containsKey("format")) return makeStringFromFormat(map);
-        return "\"" + valueProducer.randomString() + "\"";
+        }));
     }
 
-    private String makeStringFromExample(Map<String, Object> map) {
-        return "\"" + map.get("example").toString() + "\"";
-    }
-
-    private String makeStringFromFormat(Map<String, Object> map) {
-        String format = String.valueOf(map.get("format"));
-        switch (format) {
-            case "date-time":
-                return "\"2018-11-13T20:20:39+00:00\"";
-            case "time":
-                return "\"20:20:39+00:00\"";
-            case "date":
-                return "\"2018-11-13\"";
-            case "email":
-                return "\"example@gmail.com\"";
-            case "hostname":
-                return "\"some-domain.com\"";
-            case "ipv4":
-                return "\"127.0.0.1\"";
-            case "ipv6":
-                return "\"::1\"";
-            case "uri":
-                return "\"http://some-domain.com/\"";
-            default:
-                return "";
+    private SchemaPlan plan(String key, Supplier<SchemaPlan> compiler) {
+        SchemaPlan plan = plans.get(key);
+        if (plan != null) {
+            return plan;
         }
+        // schemas posted to the generator page are endless, keep the cache bounded
+        if (plans.size() >= MAX_CACHED_PLANS) {
+            plans.clear();
+        }
+        return plans.computeIfAbsent(key, k -> compiler.get());
     }
 
-    private String makeEnum(Map<String, Object> map) {
-        List<Object> enumList = (List) map.get("enum");
-        if (enumList != null) return getRandomItem(enumList);
-        return "null";
-    }
-
-    private String getRandomItem(List<Object> enumList) {
-        int index = randomUtils.rnd(enumList.size());
-        Object item = enumList.get(index);
-        String quote = item instanceof String ? "\"" : "";
-        return quote + item.toString() + quote;
+    private String write(SchemaPlan plan) {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.setPrettyPrinter(prettyPrinter.createInstance());
+            plan.write(generator, valueProducer, randomUtils);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
     }
 }
@@ -1,7 +1,17 @@
 package com.mockservice.producer;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
 public interface JsonProducer {
     String generate();
     String generate(JsonValueType rootElementType);
     String generateArray(int level, int numberOfElements, JsonValueType elementType);
+
+    /**
+     * Writes a random document of about {@code size} chars (not counting indentation)
+     * nested no deeper than {@code maxDepth}, indented like {@link #generate()} if {@code pretty}.
+     */
+    void write(JsonGenerator generator, long size, int maxDepth, boolean pretty) throws IOException;
 }
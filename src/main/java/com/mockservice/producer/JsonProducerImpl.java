@@ -1,14 +1,22 @@
 package com.mockservice.producer;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.mockservice.util.RandomUtils;
 
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 
+/**
+ * Writes random JSON token by token to a {@link JsonGenerator}.
+ * Only the keys of the object being written are kept, so memory does not depend on the document size.
+ */
 public class JsonProducerImpl implements JsonProducer {
 
     private static final int MAX_NUMBER_OF_ELEMENTS = 10;
+    private static final int DEFAULT_DEPTH = 3;
+    private static final int KEY_ATTEMPTS = 10;
 
     private static final JsonValueType[] rootValueTypes = {
             JsonValueType.OBJECT,
@@ -31,6 +39,8 @@ public class JsonProducerImpl implements JsonProducer {
             JsonValueType.OBJECT,
     };
 
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
     private final ValueProducer valueProducer;
     private final RandomUtils randomUtils;
 
@@ -46,51 +56,152 @@ public class JsonProducerImpl implements JsonProducer {
 
     @Override
     public String generate(JsonValueType rootElementType) {
-        return generateValue(rootElementType, 0);
+        return asString((generator, budget) -> writeValue(generator, rootElementType, 0, budget));
+    }
+
+    @Override
+    public String generateArray(int level, int numberOfElements, JsonValueType elementType) {
+        return asString((generator, budget) -> {
+            if (stopAtLevel(level, budget)) {
+                generator.writeNull();
+            } else {
+                writeArray(generator, level, numberOfElements, elementType, budget);
+            }
+        });
+    }
+
+    @Override
+    public void write(JsonGenerator generator, long size, int maxDepth, boolean pretty) throws IOException {
+        if (pretty) {
+            generator.setPrettyPrinter(new ProducerPrettyPrinter());
+        }
+        Budget budget = new Budget(size, Math.max(1, maxDepth));
+        // the root is never null and takes as many elements as the size allows
+        if (JsonValueType.OBJECT.equals(getRandomJsonValueType(rootValueTypes))) {
+            writeObject(generator, 0, Integer.MAX_VALUE, budget);
+        } else {
+            writeArray(generator, 0, Integer.MAX_VALUE, getRandomJsonValueType(valueTypes), budget);
+        }
+        generator.flush();
+    }
+
+    private interface Writing {
+        void write(JsonGenerator generator, Budget budget) throws IOException;
     }
 
-    private String generateValue(JsonValueType elementType, int level) {
+    private static String asString(Writing writing) {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.setPrettyPrinter(new ProducerPrettyPrinter());
+            writing.write(generator, new Budget(Long.MAX_VALUE, DEFAULT_DEPTH));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    private void writeValue(JsonGenerator generator, JsonValueType elementType, int level, Budget budget)
+            throws IOException {
         switch (elementType) {
             case STRING:
-                return "\"" + valueProducer.randomString() + "\"";
+                String string = valueProducer.randomString();
+                generator.writeString(string);
+                budget.spend(string.length() + 3);
+                break;
             case NUMBER:
-                return valueProducer.randomNumberString();
+                writeNumber(generator, valueProducer.randomNumberString(), budget);
+                break;
             case INTEGER:
-                return valueProducer.randomIntegerString();
+                writeNumber(generator, valueProducer.randomIntegerString(), budget);
+                break;
             case BOOLEAN:
-                return valueProducer.randomBooleanString();
+                generator.writeBoolean(Boolean.parseBoolean(valueProducer.randomBooleanString()));
+                budget.spend(6);
+                break;
             case ARRAY:
-                return generateArray(level);
+                if (stopAtLevel(level, budget)) {
+                    writeNull(generator, budget);
+                } else {
+                    writeArray(generator, level, getRandomNumberOfElements(), getRandomJsonValueType(valueTypes), budget);
+                }
+                break;
             case OBJECT:
-                return generateObjectValue(level);
+                if (stopAtLevel(level, budget)) {
+                    writeNull(generator, budget);
+                } else {
+                    writeObject(generator, level, getRandomNumberOfElements(), budget);
+                }
+                break;
             default:
-                return "null";
+                writeNull(generator, budget);
+                break;
         }
     }
 
-    private String generateArray(int level) {
-        int numberOfElements = getRandomNumberOfElements();
-        JsonValueType elementType = getRandomJsonValueType(valueTypes);
-        return generateArray(level, numberOfElements, elementType);
+    private static void writeNumber(JsonGenerator generator, String number, Budget budget) throws IOException {
+        generator.writeNumber(number);
+        budget.spend(number.length() + 1);
     }
 
-    @Override
-    public String generateArray(int level, int numberOfElements, JsonValueType elementType) {
-        if (stopAtLevel(level)) {
-            return "null";
+    private static void writeNull(JsonGenerator generator, Budget budget) throws IOException {
+        generator.writeNull();
+        budget.spend(5);
+    }
+
+    private void writeArray(JsonGenerator generator,
+                            int level,
+                            int numberOfElements,
+                            JsonValueType elementType,
+                            Budget budget) throws IOException {
+        if (generator.getPrettyPrinter() instanceof ProducerPrettyPrinter printer) {
+            printer.nextArrayInline(!JsonValueType.OBJECT.equals(elementType) && !JsonValueType.ARRAY.equals(elementType));
+        }
+        generator.writeStartArray();
+        budget.spend(2);
+        for (int i = 0; i < numberOfElements && !budget.isSpent(); i++) {
+            writeValue(generator, elementType, level + 1, budget);
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeObject(JsonGenerator generator, int level, int numberOfElements, Budget budget)
+            throws IOException {
+        generator.writeStartObject();
+        budget.spend(2);
+        String[] keys = new String[Math.min(numberOfElements, MAX_NUMBER_OF_ELEMENTS)];
+        for (int i = 0; i < numberOfElements && !budget.isSpent(); i++) {
+            String key = i < keys.length ? uniqueKey(keys, i) : valueProducer.randomWords(1) + "_" + i;
+            generator.writeFieldName(key);
+            budget.spend(key.length() + 4);
+            writeValue(generator, getRandomJsonValueType(valueTypes), level + 1, budget);
         }
+        generator.writeEndObject();
+    }
 
-        if (JsonValueType.OBJECT.equals(elementType) || JsonValueType.ARRAY.equals(elementType)) {
-            String content = createArrayElements(elementType, numberOfElements, level + 1, ",\n");
-            return "[\n" + content + "\n" + padWithSpaces(level) + "]";
+    private String uniqueKey(String[] keys, int count) {
+        String key = valueProducer.randomWords(1);
+        for (int attempt = 0; attempt < KEY_ATTEMPTS && contains(keys, count, key); attempt++) {
+            key = valueProducer.randomWords(1);
+        }
+        if (contains(keys, count, key)) {
+            key = key + "_" + count;
         }
+        keys[count] = key;
+        return key;
+    }
 
-        String content = createArrayElements(elementType, numberOfElements, 0, ", ");
-        return "[" + content + "]";
+    private static boolean contains(String[] keys, int count, String key) {
+        for (int i = 0; i < count; i++) {
+            if (keys[i].equals(key)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private boolean stopAtLevel(int level) {
-        int percent = 95 - level * 30;
+    // the deeper the level the more likely a container is cut, none is nested deeper than maxDepth
+    private boolean stopAtLevel(int level, Budget budget) {
+        int percent = 95 - level * 90 / budget.maxDepth;
         return percent < 10 || randomUtils.withChance(100 - percent);
     }
 
@@ -102,54 +213,24 @@ public class JsonProducerImpl implements JsonProducer {
         return valueTypes[randomUtils.rnd(valueTypes.length)];
     }
 
-    private String createArrayElements(JsonValueType elementType,
-                                              int numberOfElements,
-                                              int elementsIndentationLevel,
-                                              String elementsDelimiter) {
-        return IntStream.range(0, numberOfElements)
-                .boxed()
-                .map(i -> makeArrayElement(elementType, elementsIndentationLevel))
-                .collect(Collectors.joining(elementsDelimiter));
-    }
-
-    private String makeArrayElement(JsonValueType elementType, int level) {
-        return padWithSpaces(level) + generateValue(elementType, level);
-    }
+    /**
+     * Approximate number of chars left to write (indentation is not counted).
+     */
+    private static class Budget {
+        private long remaining;
+        private final int maxDepth;
 
-    private String generateObjectValue(int level) {
-        if (stopAtLevel(level)) {
-            return "null";
+        Budget(long size, int maxDepth) {
+            this.remaining = size;
+            this.maxDepth = maxDepth;
         }
 
-        int numberOfElements = getRandomNumberOfElements();
-        return generateObjectValueInt(level, numberOfElements);
-    }
-
-    private String generateObjectValueInt(int level, int numberOfElements) {
-        String content = Stream
-                .generate(() -> valueProducer.randomWords(1))
-                .distinct()
-                .limit(numberOfElements)
-                .map(keyName -> makeObjectElement(keyName, level + 1))
-                .collect(Collectors.joining(",\n"));
-        if (content.isEmpty()) {
-            return "{}";
+        void spend(int chars) {
+            remaining -= chars;
         }
-        return "{\n" + content + "\n" + padWithSpaces(level) + "}";
-    }
 
-    private String makeObjectElement(String name, int level) {
-        String value = generateValue(getRandomJsonValueType(valueTypes), level);
-        return padWithSpaces(level) + makeKey(name, value);
-    }
-
-    private static String makeKey(String name, String value) {
-        return "\"" + name + "\": " + value;
-    }
-
-    private static String padWithSpaces(int level) {
-        StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < level; i++) builder.append("    ");
-        return builder.toString();
+        boolean isSpent() {
+            return remaining <= 0;
+        }
     }
 }
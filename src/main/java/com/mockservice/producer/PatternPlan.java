@@ -0,0 +1,266 @@
+package com.mockservice.producer;
+
+import com.mockservice.util.RandomUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Produces strings matching a regular expression.
+ * Supports literals, classes, \d \w \s, groups, alternation and quantifiers;
+ * compile() returns null for anything else (back references, lookarounds).
+ */
+final class PatternPlan {
+
+    private static final int MAX_REPEAT = 5;
+    private static final char[] PRINTABLE = range(' ', '~');
+    private static final char[] DIGITS = range('0', '9');
+    private static final char[] WORD = concat(range('a', 'z'), range('A', 'Z'), DIGITS, new char[]{'_'});
+    private static final char[] SPACE = {' '};
+
+    private interface Part {
+        void append(StringBuilder builder, RandomUtils random);
+    }
+
+    private final Part root;
+
+    private PatternPlan(Part root) {
+        this.root = root;
+    }
+
+    static PatternPlan compile(String regex, RandomUtils random) {
+        try {
+            Pattern pattern = Pattern.compile(regex);
+            Parser parser = new Parser(regex);
+            Part root = parser.alternation();
+            if (parser.pos < regex.length()) {
+                return null;
+            }
+            PatternPlan plan = new PatternPlan(root);
+            // the subset is parsed loosely, a sample shows whether it was understood
+            return pattern.matcher(plan.produce(random)).find() ? plan : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    String produce(RandomUtils random) {
+        StringBuilder builder = new StringBuilder();
+        root.append(builder, random);
+        return builder.toString();
+    }
+
+    private static class Parser {
+        private final String regex;
+        private int pos = 0;
+
+        Parser(String regex) {
+            this.regex = regex;
+        }
+
+        Part alternation() {
+            List<Part> options = new ArrayList<>();
+            options.add(sequence());
+            while (pos < regex.length() && regex.charAt(pos) == '|') {
+                pos++;
+                options.add(sequence());
+            }
+            if (options.size() == 1) {
+                return options.get(0);
+            }
+            Part[] parts = options.toArray(new Part[0]);
+            return (builder, random) -> parts[random.rnd(parts.length)].append(builder, random);
+        }
+
+        private Part sequence() {
+            List<Part> parts = new ArrayList<>();
+            while (pos < regex.length() && regex.charAt(pos) != '|' && regex.charAt(pos) != ')') {
+                Part atom = atom();
+                if (atom != null) {
+                    parts.add(quantified(atom));
+                }
+            }
+            Part[] array = parts.toArray(new Part[0]);
+            return (builder, random) -> {
+                for (Part part : array) {
+                    part.append(builder, random);
+                }
+            };
+        }
+
+        private Part atom() {
+            char ch = regex.charAt(pos++);
+            switch (ch) {
+                case '^':
+                case '$':
+                    return null;
+                case '.':
+                    return chars(PRINTABLE);
+                case '[':
+                    return chars(charClass());
+                case '(':
+                    if (regex.startsWith("?:", pos)) {
+                        pos += 2;
+                    } else if (pos < regex.length() && regex.charAt(pos) == '?') {
+                        throw new IllegalArgumentException("Lookarounds are not supported");
+                    }
+                    Part group = alternation();
+                    expect(')');
+                    return group;
+                case '\\':
+                    char escaped = regex.charAt(pos++);
+                    if (escaped == 'b' || escaped == 'B') {
+                        return null;
+                    }
+                    return chars(escape(escaped));
+                default:
+                    return (builder, random) -> builder.append(ch);
+            }
+        }
+
+        private char[] escape(char escaped) {
+            switch (escaped) {
+                case 'd':
+                    return DIGITS;
+                case 'w':
+                    return WORD;
+                case 's':
+                    return SPACE;
+                case 'D':
+                    return except(DIGITS);
+                case 'W':
+                    return except(WORD);
+                case 'S':
+                    return except(SPACE);
+                case 't':
+                    return new char[]{'\t'};
+                case 'n':
+                    return new char[]{'\n'};
+                case 'r':
+                    return new char[]{'\r'};
+                default:
+                    if (Character.isLetterOrDigit(escaped)) {
+                        throw new IllegalArgumentException("Unsupported escape \\" + escaped);
+                    }
+                    return new char[]{escaped};
+            }
+        }
+
+        private char[] charClass() {
+            boolean negated = pos < regex.length() && regex.charAt(pos) == '^';
+            if (negated) {
+                pos++;
+            }
+            StringBuilder chars = new StringBuilder();
+            boolean first = true;
+            while (regex.charAt(pos) != ']' || first) {
+                first = false;
+                char from = regex.charAt(pos++);
+                if (from == '\\') {
+                    chars.append(escape(regex.charAt(pos++)));
+                    continue;
+                }
+                if (regex.charAt(pos) == '-' && regex.charAt(pos + 1) != ']') {
+                    char to = regex.charAt(pos + 1);
+                    pos += 2;
+                    chars.append(range(from, to));
+                } else {
+                    chars.append(from);
+                }
+            }
+            pos++;
+            char[] array = chars.toString().toCharArray();
+            return negated ? except(array) : array;
+        }
+
+        private Part quantified(Part atom) {
+            if (pos >= regex.length()) {
+                return atom;
+            }
+            int min;
+            int max;
+            char ch = regex.charAt(pos);
+            if (ch == '?') {
+                min = 0;
+                max = 1;
+                pos++;
+            } else if (ch == '*') {
+                min = 0;
+                max = MAX_REPEAT;
+                pos++;
+            } else if (ch == '+') {
+                min = 1;
+                max = MAX_REPEAT;
+                pos++;
+            } else if (ch == '{' && regex.indexOf('}', pos) > 0) {
+                int end = regex.indexOf('}', pos);
+                String[] bounds = regex.substring(pos + 1, end).split(",", -1);
+                min = Integer.parseInt(bounds[0].trim());
+                if (bounds.length == 1) {
+                    max = min;
+                } else if (bounds[1].isBlank()) {
+                    max = min + MAX_REPEAT;
+                } else {
+                    max = Integer.parseInt(bounds[1].trim());
+                }
+                pos = end + 1;
+            } else {
+                return atom;
+            }
+            // lazy and possessive quantifiers match the same strings
+            if (pos < regex.length() && (regex.charAt(pos) == '?' || regex.charAt(pos) == '+')) {
+                pos++;
+            }
+            int from = min;
+            int to = Math.max(min, max);
+            return (builder, random) -> {
+                int count = from + random.rnd(to - from + 1);
+                for (int i = 0; i < count; i++) {
+                    atom.append(builder, random);
+                }
+            };
+        }
+
+        private void expect(char ch) {
+            if (pos >= regex.length() || regex.charAt(pos) != ch) {
+                throw new IllegalArgumentException("'" + ch + "' expected at " + pos);
+            }
+            pos++;
+        }
+    }
+
+    private static Part chars(char[] chars) {
+        if (chars.length == 0) {
+            throw new IllegalArgumentException("Empty class");
+        }
+        return (builder, random) -> builder.append(chars[random.rnd(chars.length)]);
+    }
+
+    private static char[] range(char from, char to) {
+        char[] chars = new char[Math.max(0, to - from + 1)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (from + i);
+        }
+        return chars;
+    }
+
+    private static char[] concat(char[]... arrays) {
+        StringBuilder builder = new StringBuilder();
+        for (char[] array : arrays) {
+            builder.append(array);
+        }
+        return builder.toString().toCharArray();
+    }
+
+    private static char[] except(char[] excluded) {
+        String string = new String(excluded);
+        StringBuilder builder = new StringBuilder();
+        for (char ch : PRINTABLE) {
+            if (string.indexOf(ch) < 0) {
+                builder.append(ch);
+            }
+        }
+        return builder.toString().toCharArray();
+    }
+}
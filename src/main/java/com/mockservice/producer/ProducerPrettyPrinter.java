@@ -0,0 +1,110 @@
+package com.mockservice.producer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.PrettyPrinter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Layout of generated JSON: four spaces per level, {@code "key": value}, {@code {}} and {@code []}
+ * when empty. An array of scalars stays on one line ({@code [1, 2]}), see {@link #nextArrayInline}.
+ * One instance per document, it keeps the nesting state.
+ */
+final class ProducerPrettyPrinter implements PrettyPrinter {
+
+    private static final String INDENT = "    ";
+
+    private final Deque<Boolean> inlineArrays = new ArrayDeque<>();
+    private boolean nextArrayInline = false;
+    private int nesting = 0;
+
+    /**
+     * Sets the layout of the array started next.
+     */
+    void nextArrayInline(boolean inline) {
+        nextArrayInline = inline;
+    }
+
+    private void indent(JsonGenerator g) throws IOException {
+        g.writeRaw('\n');
+        for (int i = 0; i < nesting; i++) {
+            g.writeRaw(INDENT);
+        }
+    }
+
+    @Override
+    public void writeRootValueSeparator(JsonGenerator g) throws IOException {
+        g.writeRaw(' ');
+    }
+
+    @Override
+    public void writeStartObject(JsonGenerator g) throws IOException {
+        g.writeRaw('{');
+        nesting++;
+    }
+
+    @Override
+    public void beforeObjectEntries(JsonGenerator g) throws IOException {
+        indent(g);
+    }
+
+    @Override
+    public void writeObjectFieldValueSeparator(JsonGenerator g) throws IOException {
+        g.writeRaw(": ");
+    }
+
+    @Override
+    public void writeObjectEntrySeparator(JsonGenerator g) throws IOException {
+        g.writeRaw(',');
+        indent(g);
+    }
+
+    @Override
+    public void writeEndObject(JsonGenerator g, int nrOfEntries) throws IOException {
+        nesting--;
+        if (nrOfEntries > 0) {
+            indent(g);
+        }
+        g.writeRaw('}');
+    }
+
+    @Override
+    public void writeStartArray(JsonGenerator g) throws IOException {
+        inlineArrays.push(nextArrayInline);
+        if (!nextArrayInline) {
+            nesting++;
+        }
+        nextArrayInline = false;
+        g.writeRaw('[');
+    }
+
+    @Override
+    public void beforeArrayValues(JsonGenerator g) throws IOException {
+        if (!inlineArrays.peek()) {
+            indent(g);
+        }
+    }
+
+    @Override
+    public void writeArrayValueSeparator(JsonGenerator g) throws IOException {
+        g.writeRaw(',');
+        if (inlineArrays.peek()) {
+            g.writeRaw(' ');
+        } else {
+            indent(g);
+        }
+    }
+
+    @Override
+    public void writeEndArray(JsonGenerator g, int nrOfValues) throws IOException {
+        if (!inlineArrays.pop()) {
+            nesting--;
+            if (nrOfValues > 0) {
+                indent(g);
+            }
+        }
+        g.writeRaw(']');
+    }
+}
@@ -0,0 +1,544 @@
+package com.mockservice.producer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockservice.util.RandomUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * JSON schema compiled into a tree of value writers.
+ * Types, refs, formats and constraints are resolved once, writing a value only draws random numbers.
+ * <p>
+ * Supported: type (a list picks its first non-null type), enum, const, example, $ref within the schema,
+ * allOf (merged), oneOf/anyOf (one is picked), properties, required, additionalProperties,
+ * items (a list for tuples), minItems/maxItems, minimum/maximum (exclusive ones of drafts 4 and 6+),
+ * multipleOf, minLength/maxLength, pattern and common string formats.
+ */
+@SuppressWarnings("unchecked")
+final class SchemaPlan {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaPlan.class);
+
+    private static final int MIN_NUMBER_OF_ELEMENTS = 1;
+    private static final int MAX_NUMBER_OF_ELEMENTS = 3;
+    private static final int OPTIONAL_PROPERTY_PERCENT = 75;
+    // how many times a $ref may be entered within itself
+    private static final int MAX_REF_DEPTH = 2;
+    private static final long NUMBER_RANGE = 10_000;
+    private static final long EPOCH_DAY_FROM = LocalDate.of(2000, 1, 1).toEpochDay();
+    private static final long EPOCH_DAY_TO = LocalDate.of(2030, 1, 1).toEpochDay();
+    private static final char[] LETTERS = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final Node NULL = (generator, draw) -> generator.writeNull();
+    private static final Node BOOLEAN = (generator, draw) -> generator.writeBoolean(draw.random.rnd(2) == 1);
+    private static final Node INTEGER = (generator, draw) -> generator.writeNumber(draw.values.randomIntegerString());
+    private static final Node NUMBER = (generator, draw) -> generator.writeNumber(draw.values.randomNumberString());
+
+    private interface Node {
+        void write(JsonGenerator generator, Draw draw) throws IOException;
+    }
+
+    private static class Draw {
+        private final ValueProducer values;
+        private final RandomUtils random;
+        private final int[] refDepths;
+
+        Draw(ValueProducer values, RandomUtils random, int refs) {
+            this.values = values;
+            this.random = random;
+            this.refDepths = new int[refs];
+        }
+    }
+
+    private final Node root;
+    private final int refs;
+
+    private SchemaPlan(Node root, int refs) {
+        this.root = root;
+        this.refs = refs;
+    }
+
+    static SchemaPlan compile(Map<String, Object> schema, RandomUtils randomUtils) {
+        Compiler compiler = new Compiler(schema, randomUtils);
+        Node root = compiler.compile(schema);
+        return new SchemaPlan(root, compiler.refs.size());
+    }
+
+    void write(JsonGenerator generator, ValueProducer valueProducer, RandomUtils randomUtils) throws IOException {
+        root.write(generator, new Draw(valueProducer, randomUtils, refs));
+    }
+
+    //--------------------------------------------------------------------------
+    //
+    // compiler
+    //
+    //--------------------------------------------------------------------------
+
+    private static class Compiler {
+        private final Map<String, Object> rootSchema;
+        private final RandomUtils randomUtils;
+        private final Map<String, RefNode> refs = new HashMap<>();
+
+        Compiler(Map<String, Object> rootSchema, RandomUtils randomUtils) {
+            this.rootSchema = rootSchema;
+            this.randomUtils = randomUtils;
+        }
+
+        Node compile(Object value) {
+            if (!(value instanceof Map)) {
+                return NULL;
+            }
+            Map<String, Object> schema = (Map<String, Object>) value;
+
+            if (schema.get("$ref") instanceof String ref) {
+                return ref(ref);
+            }
+            if (schema.get("allOf") instanceof List<?> allOf) {
+                return compile(mergeAllOf(schema, allOf));
+            }
+            for (String key : List.of("oneOf", "anyOf")) {
+                if (schema.get(key) instanceof List<?> options && !options.isEmpty()) {
+                    Node[] nodes = options.stream().map(this::compile).toArray(Node[]::new);
+                    return (generator, draw) -> nodes[draw.random.rnd(nodes.length)].write(generator, draw);
+                }
+            }
+            if (schema.containsKey("const")) {
+                return raw(schema.get("const"));
+            }
+            if (schema.get("enum") instanceof List<?> values && !values.isEmpty()) {
+                String[] raws = values.stream().map(SchemaPlan::serialize).toArray(String[]::new);
+                return (generator, draw) -> generator.writeRawValue(raws[draw.random.rnd(raws.length)]);
+            }
+
+            String type = type(schema);
+            if (schema.get("example") != null && !"string".equals(type)) {
+                return raw(schema.get("example"));
+            }
+            switch (type) {
+                case "object":
+                    return object(schema);
+                case "array":
+                    return array(schema);
+                case "string":
+                    return string(schema);
+                case "integer":
+                    return integer(schema);
+                case "number":
+                    return number(schema);
+                case "boolean":
+                    return BOOLEAN;
+                default:
+                    return NULL;
+            }
+        }
+
+        private static String type(Map<String, Object> schema) {
+            Object type = schema.get("type");
+            if (type instanceof List<?> types) {
+                return types.stream()
+                        .map(String::valueOf)
+                        .filter(t -> !"null".equals(t))
+                        .findFirst()
+                        .orElse("null");
+            }
+            if (type != null) {
+                return String.valueOf(type);
+            }
+            if (schema.containsKey("properties") || schema.containsKey("additionalProperties")) return "object";
+            if (schema.containsKey("items")) return "array";
+            if (schema.containsKey("pattern") || schema.containsKey("format")
+                    || schema.containsKey("minLength") || schema.containsKey("maxLength")) return "string";
+            if (schema.containsKey("minimum") || schema.containsKey("maximum")) return "number";
+            return "null";
+        }
+
+        // refs are compiled once, so a recursive schema compiles into a cycle
+        private Node ref(String ref) {
+            RefNode node = refs.get(ref);
+            if (node == null) {
+                node = new RefNode(refs.size());
+                refs.put(ref, node);
+                Object target = resolve(ref);
+                if (target == null) {
+                    log.warn("Schema $ref {} is not found, null is generated", ref);
+                }
+                node.target = compile(target);
+            }
+            return node;
+        }
+
+        private Object resolve(String ref) {
+            if (!ref.startsWith("#")) {
+                return null;
+            }
+            Object current = rootSchema;
+            for (String token : ref.substring(1).split("/")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                if (!(current instanceof Map)) {
+                    return null;
+                }
+                current = ((Map<String, Object>) current).get(token.replace("~1", "/").replace("~0", "~"));
+            }
+            return current;
+        }
+
+        private Map<String, Object> deref(Object value) {
+            Object current = value;
+            for (int i = 0; i < 16 && current instanceof Map && ((Map<?, ?>) current).get("$ref") instanceof String ref; i++) {
+                current = resolve(ref);
+            }
+            return current instanceof Map ? (Map<String, Object>) current : Map.of();
+        }
+
+        private Map<String, Object> mergeAllOf(Map<String, Object> schema, List<?> allOf) {
+            Map<String, Object> merged = new LinkedHashMap<>(schema);
+            merged.remove("allOf");
+            Map<String, Object> properties = new LinkedHashMap<>();
+            Set<Object> required = new LinkedHashSet<>();
+            addParts(merged, properties, required);
+            for (Object part : allOf) {
+                Map<String, Object> partSchema = deref(part);
+                if (partSchema.get("allOf") instanceof List<?> nested) {
+                    partSchema = mergeAllOf(partSchema, nested);
+                }
+                addParts(partSchema, properties, required);
+                partSchema.forEach(merged::putIfAbsent);
+            }
+            if (!properties.isEmpty()) {
+                merged.put("properties", properties);
+            }
+            if (!required.isEmpty()) {
+                merged.put("required", new ArrayList<>(required));
+            }
+            return merged;
+        }
+
+        private static void addParts(Map<String, Object> schema, Map<String, Object> properties, Set<Object> required) {
+            if (schema.get("properties") instanceof Map<?, ?> partProperties) {
+                properties.putAll((Map<String, Object>) partProperties);
+            }
+            if (schema.get("required") instanceof List<?> partRequired) {
+                required.addAll(partRequired);
+            }
+        }
+
+        private Node object(Map<String, Object> schema) {
+            Map<String, Object> properties = schema.get("properties") instanceof Map
+                    ? (Map<String, Object>) schema.get("properties")
+                    : Map.of();
+            // without a required list every property is generated
+            Set<Object> required = schema.get("required") instanceof List<?> list ? new HashSet<>(list) : null;
+
+            int count = properties.size();
+            String[] names = new String[count];
+            Node[] nodes = new Node[count];
+            boolean[] optional = new boolean[count];
+            int i = 0;
+            for (Map.Entry<String, Object> entry : properties.entrySet()) {
+                names[i] = entry.getKey();
+                nodes[i] = compile(entry.getValue());
+                optional[i] = required != null && !required.contains(entry.getKey());
+                i++;
+            }
+
+            Node additional = count == 0 && schema.get("additionalProperties") instanceof Map
+                    ? compile(schema.get("additionalProperties"))
+                    : null;
+
+            return (generator, draw) -> {
+                generator.writeStartObject();
+                for (int n = 0; n < count; n++) {
+                    if (!optional[n] || !isExhausted(nodes[n], draw) && draw.random.withChance(OPTIONAL_PROPERTY_PERCENT)) {
+                        generator.writeFieldName(names[n]);
+                        nodes[n].write(generator, draw);
+                    }
+                }
+                if (additional != null) {
+                    int entries = MIN_NUMBER_OF_ELEMENTS + draw.random.rnd(MAX_NUMBER_OF_ELEMENTS);
+                    for (int n = 0; n < entries; n++) {
+                        generator.writeFieldName(draw.values.randomWords(1) + "_" + n);
+                        additional.write(generator, draw);
+                    }
+                }
+                generator.writeEndObject();
+            };
+        }
+
+        private Node array(Map<String, Object> schema) {
+            if (schema.get("items") instanceof List<?> tuple) {
+                Node[] nodes = tuple.stream().map(this::compile).toArray(Node[]::new);
+                return (generator, draw) -> {
+                    generator.writeStartArray();
+                    for (Node node : nodes) {
+                        node.write(generator, draw);
+                    }
+                    generator.writeEndArray();
+                };
+            }
+
+            Node items = compile(schema.get("items"));
+            Long minItems = longValue(schema.get("minItems"));
+            Long maxItems = longValue(schema.get("maxItems"));
+            int min = (int) Math.max(0, minItems != null
+                    ? minItems
+                    : Math.min(MIN_NUMBER_OF_ELEMENTS, maxItems != null ? maxItems : MIN_NUMBER_OF_ELEMENTS));
+            int max = (int) Math.max(min, maxItems != null ? maxItems : Math.max(min, MAX_NUMBER_OF_ELEMENTS));
+            int spread = Math.min(max, min + MAX_NUMBER_OF_ELEMENTS) - min + 1;
+            // an exhausted ref writes null, so only the items the schema requires are written
+            int required = minItems == null ? 0 : min;
+
+            return (generator, draw) -> {
+                int count = isExhausted(items, draw) ? required : min + draw.random.rnd(spread);
+                generator.writeStartArray();
+                for (int n = 0; n < count; n++) {
+                    items.write(generator, draw);
+                }
+                generator.writeEndArray();
+            };
+        }
+
+        private Node string(Map<String, Object> schema) {
+            if (schema.get("example") != null) {
+                String example = schema.get("example").toString();
+                return (generator, draw) -> generator.writeString(example);
+            }
+
+            if (schema.get("pattern") instanceof String regex) {
+                PatternPlan pattern = PatternPlan.compile(regex, randomUtils);
+                if (pattern != null) {
+                    return (generator, draw) -> generator.writeString(pattern.produce(draw.random));
+                }
+                log.warn("Schema pattern {} is not supported, it is ignored", regex);
+            }
+
+            Long minLengthValue = longValue(schema.get("minLength"));
+            Long maxLengthValue = longValue(schema.get("maxLength"));
+            int minLength = minLengthValue == null ? 0 : minLengthValue.intValue();
+            int maxLength = maxLengthValue == null ? Integer.MAX_VALUE : Math.max(minLength, maxLengthValue.intValue());
+            String format = schema.get("format") == null ? "" : schema.get("format").toString();
+
+            return (generator, draw) -> {
+                String value = format(format, draw);
+                if (value.length() < minLength) {
+                    value = pad(value, minLength, draw.random);
+                }
+                if (value.length() > maxLength) {
+                    value = value.substring(0, maxLength);
+                }
+                generator.writeString(value);
+            };
+        }
+
+        private Node integer(Map<String, Object> schema) {
+            Bounds bounds = new Bounds(schema, true);
+            Long multipleOf = longValue(schema.get("multipleOf"));
+            if (!bounds.isSet() && multipleOf == null) {
+                return INTEGER;
+            }
+
+            long min;
+            if (bounds.min != null) {
+                min = (long) Math.ceil(bounds.min.doubleValue());
+            } else if (bounds.max == null || bounds.max.longValue() >= 0) {
+                min = 0;
+            } else {
+                min = bounds.max.longValue() - NUMBER_RANGE;
+            }
+            long max = bounds.max == null ? min + NUMBER_RANGE : (long) Math.floor(bounds.max.doubleValue());
+            long from = Math.min(min, max);
+            long to = Math.max(min, max);
+            long step = multipleOf == null || multipleOf <= 0 ? 1 : multipleOf;
+            long first = Math.floorDiv(from + step - 1, step);
+            long last = Math.max(first, Math.floorDiv(to, step));
+
+            return (generator, draw) ->
+                    generator.writeNumber(draw.random.rndLong(first, last + 1) * step);
+        }
+
+        private Node number(Map<String, Object> schema) {
+            Bounds bounds = new Bounds(schema, false);
+            Double multipleOf = schema.get("multipleOf") instanceof Number n ? n.doubleValue() : null;
+            if (!bounds.isSet() && multipleOf == null) {
+                return NUMBER;
+            }
+
+            double min;
+            if (bounds.min != null) {
+                min = bounds.min.doubleValue();
+            } else if (bounds.max == null || bounds.max.doubleValue() >= 0) {
+                min = 0;
+            } else {
+                min = bounds.max.doubleValue() - NUMBER_RANGE;
+            }
+            double max = bounds.max == null ? min + NUMBER_RANGE : bounds.max.doubleValue();
+            double from = Math.min(min, max);
+            double to = Math.max(min, max);
+
+            if (multipleOf != null && multipleOf > 0) {
+                long first = (long) Math.ceil(from / multipleOf);
+                long last = Math.max(first, (long) Math.floor(to / multipleOf));
+                return (generator, draw) -> generator.writeNumber(
+                        round(draw.random.rndLong(first, last + 1) * multipleOf));
+            }
+            return (generator, draw) -> {
+                double value = from == to ? from : draw.random.rndDouble(from, to);
+                double rounded = round(value);
+                generator.writeNumber(rounded >= from && rounded <= to ? rounded : value);
+            };
+        }
+    }
+
+    private static class RefNode implements Node {
+        private final int index;
+        private Node target = NULL;
+
+        RefNode(int index) {
+            this.index = index;
+        }
+
+        boolean isExhausted(Draw draw) {
+            return draw.refDepths[index] > MAX_REF_DEPTH;
+        }
+
+        @Override
+        public void write(JsonGenerator generator, Draw draw) throws IOException {
+            if (isExhausted(draw)) {
+                generator.writeNull();
+                return;
+            }
+            draw.refDepths[index]++;
+            try {
+                target.write(generator, draw);
+            } finally {
+                draw.refDepths[index]--;
+            }
+        }
+    }
+
+    /**
+     * Inclusive bounds; exclusive ones are moved in by one for integers and by a hundredth for numbers.
+     */
+    private static class Bounds {
+        private Number min;
+        private Number max;
+
+        Bounds(Map<String, Object> schema, boolean integer) {
+            double delta = integer ? 1 : 0.01;
+            min = schema.get("minimum") instanceof Number n ? n : null;
+            max = schema.get("maximum") instanceof Number n ? n : null;
+            // draft 4 flags
+            if (min != null && Boolean.TRUE.equals(schema.get("exclusiveMinimum"))) min = min.doubleValue() + delta;
+            if (max != null && Boolean.TRUE.equals(schema.get("exclusiveMaximum"))) max = max.doubleValue() - delta;
+            // draft 6 and later values
+            if (schema.get("exclusiveMinimum") instanceof Number n) min = n.doubleValue() + delta;
+            if (schema.get("exclusiveMaximum") instanceof Number n) max = n.doubleValue() - delta;
+        }
+
+        boolean isSet() {
+            return min != null || max != null;
+        }
+    }
+
+    //--------------------------------------------------------------------------
+    //
+    // helpers
+    //
+    //--------------------------------------------------------------------------
+
+    // a recursive schema ends where it can: optional properties and extra array items are left out
+    private static boolean isExhausted(Node node, Draw draw) {
+        return node instanceof RefNode ref && ref.isExhausted(draw);
+    }
+
+    private static Node raw(Object value) {
+        String raw = serialize(value);
+        return (generator, draw) -> generator.writeRawValue(raw);
+    }
+
+    private static String serialize(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            return "null";
+        }
+    }
+
+    private static Long longValue(Object value) {
+        return value instanceof Number n ? n.longValue() : null;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String pad(String value, int length, RandomUtils random) {
+        StringBuilder builder = new StringBuilder(value);
+        while (builder.length() < length) {
+            builder.append(LETTERS[random.rnd(LETTERS.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static String format(String format, Draw draw) {
+        RandomUtils random = draw.random;
+        switch (format) {
+            case "date-time":
+                return appendTime(appendDate(new StringBuilder(20), random).append('T'), random).append('Z').toString();
+            case "date":
+                return appendDate(new StringBuilder(10), random).toString();
+            case "time":
+                return appendTime(new StringBuilder(9), random).append('Z').toString();
+            case "email":
+            case "idn-email":
+                return draw.values.randomWords(1) + "@" + draw.values.randomWords(1) + ".com";
+            case "hostname":
+            case "idn-hostname":
+                return draw.values.randomWords(1) + ".com";
+            case "ipv4":
+                return (1 + random.rnd(254)) + "." + random.rnd(256) + "." + random.rnd(256) + "." + (1 + random.rnd(254));
+            case "ipv6":
+                return "2001:db8::" + Integer.toHexString(random.rnd(0x10000)) + ":" + Integer.toHexString(random.rnd(0x10000));
+            case "uri":
+            case "url":
+            case "iri":
+                return "http://" + draw.values.randomWords(1) + ".com/" + draw.values.randomWords(1);
+            case "uri-reference":
+            case "iri-reference":
+                return "/" + draw.values.randomWords(1) + "/" + draw.values.randomWords(1);
+            case "uuid":
+                return new UUID(random.rndLong(Long.MIN_VALUE, Long.MAX_VALUE), random.rndLong(Long.MIN_VALUE, Long.MAX_VALUE)).toString();
+            case "byte":
+                return Base64.getEncoder().encodeToString(draw.values.randomString().getBytes(StandardCharsets.UTF_8));
+            default:
+                return draw.values.randomString();
+        }
+    }
+
+    // formatters are slow for a value that is generated on every response
+    private static StringBuilder appendDate(StringBuilder builder, RandomUtils random) {
+        LocalDate date = LocalDate.ofEpochDay(random.rndLong(EPOCH_DAY_FROM, EPOCH_DAY_TO));
+        builder.append(date.getYear()).append('-');
+        return appendTwoDigits(appendTwoDigits(builder, date.getMonthValue()).append('-'), date.getDayOfMonth());
+    }
+
+    private static StringBuilder appendTime(StringBuilder builder, RandomUtils random) {
+        int second = random.rnd(86400);
+        appendTwoDigits(builder, second / 3600).append(':');
+        appendTwoDigits(builder, second / 60 % 60).append(':');
+        return appendTwoDigits(builder, second % 60);
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder builder, int value) {
+        return builder.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
@@ -3,7 +3,6 @@ package com.mockservice.producer;
 import com.mockservice.util.RandomUtils;
 
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
 
 public class ValueProducerImpl implements ValueProducer {
 
@@ -55,22 +54,25 @@ public class ValueProducerImpl implements ValueProducer {
 
     @Override
     public String randomWords(int numberOfWords) {
-        return ThreadLocalRandom.current()
-                .ints(0, vocabulary.length)
-                .limit(numberOfWords)
-                .boxed()
-                .map(i -> vocabulary[i])
-                .collect(Collectors.joining(" "));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (numberOfWords == 1) {
+            return vocabulary[random.nextInt(vocabulary.length)];
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < numberOfWords; i++) {
+            if (i > 0) builder.append(' ');
+            builder.append(vocabulary[random.nextInt(vocabulary.length)]);
+        }
+        return builder.toString();
     }
 
     private static String randomChars() {
-        int len = ThreadLocalRandom.current().nextInt(1, 31);
-        return ThreadLocalRandom.current()
-                .ints(0, CHARS.length)
-                .limit(len)
-                .map(i -> CHARS[i])
-                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
-                .toString();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] chars = new char[random.nextInt(1, 31)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = CHARS[random.nextInt(CHARS.length)];
+        }
+        return new String(chars);
     }
 
     @Override
@@ -81,17 +83,15 @@ public class ValueProducerImpl implements ValueProducer {
     @Override
     public String randomIntegerString() {
         int len = randomUtils.rnd(8) + 1;
-        String number = ThreadLocalRandom.current()
-                .ints(0, 9)
-                .limit(len)
-                .boxed()
-                .map(String::valueOf)
-                .collect(Collectors.joining());
-        return stripLeadingZeroes(number);
-    }
-
-    private static String stripLeadingZeroes(String str) {
-        return str.replaceFirst("^0+(?!$)", "");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] digits = new char[len];
+        int start = -1;
+        for (int i = 0; i < len; i++) {
+            digits[i] = (char) ('0' + random.nextInt(9));
+            if (start < 0 && digits[i] != '0') start = i;
+        }
+        // leading zeroes are stripped, a zero is kept
+        return start < 0 ? "0" : new String(digits, start, len - start);
     }
 
     private String maybeFloatify(String number) {
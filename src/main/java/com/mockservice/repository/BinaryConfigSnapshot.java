@@ -0,0 +1,102 @@
+package com.mockservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.mockservice.domain.Config;
+import com.mockservice.util.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary (Smile) copy of the YAML config, parsed much faster than YAML.
+ * <p>
+ * The header holds the length and checksum of the YAML it was made from and a checksum
+ * of the payload. The snapshot is used only when both match, so an edited YAML or a torn
+ * snapshot falls back to YAML.
+ */
+public class BinaryConfigSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryConfigSnapshot.class);
+
+    private static final int MAGIC = 0x4D53_4346; // MSCF
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8;
+
+    private final Path path;
+    private final ObjectMapper smileMapper;
+
+    public BinaryConfigSnapshot(Path path, ObjectMapper yamlMapper) {
+        this.path = path;
+        this.smileMapper = yamlMapper.copyWith(new SmileFactory());
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Optional<Config> read(byte[] yaml) {
+        byte[] data;
+        try {
+            data = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Could not read config snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+
+        if (data.length < HEADER_SIZE) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+            long yamlLength = in.readLong();
+            long yamlChecksum = in.readLong();
+            long payloadChecksum = in.readLong();
+            if (yamlLength != yaml.length
+                    || yamlChecksum != checksum(yaml, 0, yaml.length)
+                    || payloadChecksum != checksum(data, HEADER_SIZE, data.length - HEADER_SIZE)) {
+                log.info("Config snapshot {} is stale.", path);
+                return Optional.empty();
+            }
+            Config config = smileMapper.readValue(data, HEADER_SIZE, data.length - HEADER_SIZE, Config.class);
+            return Optional.ofNullable(config);
+        } catch (IOException e) {
+            log.warn("Could not read config snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public byte[] serialize(Config config, byte[] yaml) throws IOException {
+        byte[] payload = smileMapper.writeValueAsBytes(config);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + payload.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(yaml.length);
+            out.writeLong(checksum(yaml, 0, yaml.length));
+            out.writeLong(checksum(payload, 0, payload.length));
+            out.write(payload);
+        }
+        return bytes.toByteArray();
+    }
+
+    public void write(byte[] snapshot) throws IOException {
+        IOUtils.writeAtomically(path.toFile(), snapshot);
+    }
+
+    private static long checksum(byte[] data, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(data, offset, length);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,13 @@
+package com.mockservice.repository;
+
+import com.mockservice.model.Callback;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface CallbackOutbox {
+    boolean isEnabled();
+    List<Callback> recover();
+    void append(Callback callback) throws IOException;
+    void markDone(long callbackId);
+}
@@ -0,0 +1,496 @@
+package com.mockservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mockservice.model.Callback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of pending callbacks.
+ * <p>
+ * Records are JSON lines written to numbered segment files. A single writer thread
+ * drains all queued records, writes them and forces the file once per batch
+ * (group commit), so {@link #append} returns only after its record is on disk.
+ * <p>
+ * Compaction runs on the writer thread: once at most half of the records in sealed
+ * segments are alive, the live records are copied into the active segment and all
+ * sealed segments are removed together, so a "done" record never outlives the record
+ * it cancels and a single long-living callback does not pin old segments.
+ */
+@Service
+public class CallbackOutboxImpl implements CallbackOutbox, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CallbackOutboxImpl.class);
+
+    private static final String SEGMENT_PREFIX = "outbox-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final byte NEW_LINE = '\n';
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentSize;
+    private final long compactionIntervalMillis;
+    private final ObjectWriter recordWriter;
+    private final ObjectReader recordReader;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final List<Callback> recovered = new ArrayList<>();
+    private volatile boolean running;
+    private Thread writer;
+
+    // owned by the writer thread once it is started
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Map<Long, Segment> liveRecords = new HashMap<>();
+    private Segment active;
+    private FileChannel channel;
+
+    public CallbackOutboxImpl(@Value("${application.callback.outbox.enabled}") boolean enabled,
+                              @Value("${application.callback.outbox.directory}") String directory,
+                              @Value("${application.callback.outbox.segment-size}") long segmentSize,
+                              @Value("${application.callback.outbox.compaction-interval-ms}") long compactionIntervalMillis,
+                              @Qualifier("jsonMapper") ObjectMapper jsonMapper) {
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSize;
+        this.compactionIntervalMillis = compactionIntervalMillis;
+        this.recordWriter = jsonMapper.writerFor(OutboxRecord.class).without(SerializationFeature.INDENT_OUTPUT);
+        this.recordReader = jsonMapper.readerFor(OutboxRecord.class);
+        this.enabled = enabled && open();
+
+        if (this.enabled) {
+            running = true;
+            writer = new Thread(this::run, "callback-outbox-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    private boolean open() {
+        try {
+            Files.createDirectories(directory);
+            readSegments();
+            long number = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+            openSegment(number);
+            log.info("Callback outbox opened: {}, pending callbacks: {}", directory, recovered.size());
+            return true;
+        } catch (IOException e) {
+            log.error("Could not open callback outbox " + directory + ". Outbox disabled.", e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public synchronized List<Callback> recover() {
+        List<Callback> result = new ArrayList<>(recovered);
+        recovered.clear();
+        return result;
+    }
+
+    @Override
+    public void append(Callback callback) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = new Entry(serialize(OutboxRecord.add(callback)), callback.getId(), true, new CompletableFuture<>());
+        enqueue(entry);
+        try {
+            entry.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing callback to outbox.");
+        } catch (ExecutionException e) {
+            throw new IOException("Could not write callback to outbox. " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public void markDone(long callbackId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            enqueue(new Entry(serialize(OutboxRecord.done(callbackId)), callbackId, false, null));
+        } catch (IOException e) {
+            log.warn("Could not mark callback {} as done: {}", callbackId, e.getMessage());
+        }
+    }
+
+    private byte[] serialize(OutboxRecord outboxRecord) throws IOException {
+        byte[] json = recordWriter.writeValueAsBytes(outboxRecord);
+        byte[] line = Arrays.copyOf(json, json.length + 1);
+        line[json.length] = NEW_LINE;
+        return line;
+    }
+
+    private void enqueue(Entry entry) throws IOException {
+        if (!running) {
+            throw new IOException("Callback outbox is closed.");
+        }
+        queue.add(entry);
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //----------------------------------------------------------------------
+    //
+    //   recovery
+    //
+    //----------------------------------------------------------------------
+
+    private void readSegments() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(p -> segmentNumber(p) > 0).toList();
+        }
+        for (Path file : files) {
+            Segment segment = new Segment(segmentNumber(file), file);
+            segment.size = Files.size(file);
+            segments.put(segment.number, segment);
+        }
+
+        Map<Long, Callback> pending = new LinkedHashMap<>();
+        for (Segment segment : segments.values()) {
+            readSegment(segment, pending);
+        }
+        recovered.addAll(pending.values());
+    }
+
+    private void readSegment(Segment segment, Map<Long, Callback> pending) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(segment.path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                OutboxRecord outboxRecord = parse(line, segment);
+                if (outboxRecord == null) {
+                    continue;
+                }
+                segment.total++;
+                if (outboxRecord.isAdd()) {
+                    pending.put(outboxRecord.getCallback().getId(), outboxRecord.getCallback());
+                    liveRecords.put(outboxRecord.getCallback().getId(), segment);
+                    segment.live++;
+                } else {
+                    pending.remove(outboxRecord.getId());
+                    releaseLiveRecord(outboxRecord.getId());
+                }
+            }
+        }
+    }
+
+    private OutboxRecord parse(String line, Segment segment) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            OutboxRecord outboxRecord = recordReader.readValue(line);
+            if (outboxRecord.isAdd() && outboxRecord.getCallback() == null) {
+                return null;
+            }
+            return outboxRecord;
+        } catch (IOException e) {
+            // most likely a torn write at the end of a segment
+            log.warn("Skipping malformed record in {}: {}", segment.path, e.getMessage());
+            return null;
+        }
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    //----------------------------------------------------------------------
+    //
+    //   writer
+    //
+    //----------------------------------------------------------------------
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>();
+        long nextCompaction = System.currentTimeMillis() + compactionIntervalMillis;
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry entry = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    batch.add(entry);
+                    queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                    writeBatch(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (System.currentTimeMillis() >= nextCompaction) {
+                compact();
+                nextCompaction = System.currentTimeMillis() + compactionIntervalMillis;
+            }
+        }
+        failPending();
+        closeChannel();
+    }
+
+    private void writeBatch(List<Entry> batch) {
+        try {
+            for (Entry entry : batch) {
+                write(entry.bytes);
+                account(entry);
+            }
+            channel.force(false);
+            batch.forEach(Entry::complete);
+        } catch (IOException e) {
+            log.error("Could not write to callback outbox.", e);
+            batch.forEach(entry -> entry.fail(e));
+        }
+        maybeRollSegment();
+    }
+
+    private void account(Entry entry) {
+        active.total++;
+        if (entry.add) {
+            liveRecords.put(entry.id, active);
+            active.live++;
+        } else {
+            releaseLiveRecord(entry.id);
+        }
+    }
+
+    private void releaseLiveRecord(long id) {
+        Segment segment = liveRecords.remove(id);
+        if (segment != null) {
+            segment.live--;
+        }
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        active.size += bytes.length;
+    }
+
+    private void failPending() {
+        IOException e = new IOException("Callback outbox is closed.");
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            entry.fail(e);
+        }
+    }
+
+    //----------------------------------------------------------------------
+    //
+    //   segments
+    //
+    //----------------------------------------------------------------------
+
+    private void openSegment(long number) throws IOException {
+        Path path = directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        active = new Segment(number, path);
+        active.size = channel.size();
+        segments.put(number, active);
+    }
+
+    private void maybeRollSegment() {
+        if (active.size < segmentSize) {
+            return;
+        }
+        try {
+            channel.close();
+            openSegment(active.number + 1);
+        } catch (IOException e) {
+            log.error("Could not roll callback outbox segment.", e);
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Could not close callback outbox segment: {}", e.getMessage());
+        }
+    }
+
+    private void compact() {
+        List<Segment> sealed = new ArrayList<>(segments.headMap(active.number).values());
+        long live = sealed.stream().mapToLong(s -> s.live).sum();
+        long total = sealed.stream().mapToLong(s -> s.total).sum();
+        if (sealed.isEmpty() || live * 2 > total) {
+            return;
+        }
+        try {
+            for (Segment segment : sealed) {
+                if (segment.live > 0) {
+                    moveLiveRecords(segment);
+                }
+            }
+            channel.force(false);
+            for (Segment segment : sealed) {
+                Files.deleteIfExists(segment.path);
+                segments.remove(segment.number);
+            }
+            log.debug("Callback outbox compacted: {} segments, {} live records moved.", sealed.size(), live);
+        } catch (IOException e) {
+            log.error("Could not compact callback outbox.", e);
+        }
+        maybeRollSegment();
+    }
+
+    private void moveLiveRecords(Segment segment) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(segment.path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                OutboxRecord outboxRecord = parse(line, segment);
+                if (outboxRecord != null
+                        && outboxRecord.isAdd()
+                        && liveRecords.get(outboxRecord.getCallback().getId()) == segment) {
+                    write((line + (char) NEW_LINE).getBytes(StandardCharsets.UTF_8));
+                    account(new Entry(null, outboxRecord.getCallback().getId(), true, null));
+                }
+            }
+        }
+        segment.live = 0;
+    }
+
+    private static class Segment {
+        private final long number;
+        private final Path path;
+        private long size;
+        private long total;
+        private long live;
+
+        Segment(long number, Path path) {
+            this.number = number;
+            this.path = path;
+        }
+    }
+
+    private static class Entry {
+        private final byte[] bytes;
+        private final long id;
+        private final boolean add;
+        private final CompletableFuture<Void> future;
+
+        Entry(byte[] bytes, long id, boolean add, CompletableFuture<Void> future) {
+            this.bytes = bytes;
+            this.id = id;
+            this.add = add;
+            this.future = future;
+        }
+
+        void complete() {
+            if (future != null) {
+                future.complete(null);
+            }
+        }
+
+        void fail(Exception e) {
+            if (future != null) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    public static class OutboxRecord {
+        private static final String ADD = "add";
+        private static final String DONE = "done";
+
+        private String op = ADD;
+        private long id;
+        private Callback callback;
+
+        public OutboxRecord() {
+            // default
+        }
+
+        static OutboxRecord add(Callback callback) {
+            OutboxRecord outboxRecord = new OutboxRecord();
+            outboxRecord.setId(callback.getId());
+            outboxRecord.setCallback(callback);
+            return outboxRecord;
+        }
+
+        static OutboxRecord done(long id) {
+            OutboxRecord outboxRecord = new OutboxRecord();
+            outboxRecord.setOp(DONE);
+            outboxRecord.setId(id);
+            return outboxRecord;
+        }
+
+        boolean isAdd() {
+            return ADD.equals(op);
+        }
+
+        public String getOp() {
+            return op;
+        }
+
+        public void setOp(String op) {
+            this.op = op;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public Callback getCallback() {
+            return callback;
+        }
+
+        public void setCallback(Callback callback) {
+            this.callback = callback;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.mockservice.repository;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mockservice.domain.Config;
+import com.mockservice.domain.Route;
+import com.mockservice.domain.Scenario;
+import com.mockservice.domain.Settings;
+
+/**
+ * Single config change as stored in the config journal.
+ * <p>
+ * Changes are upserts and deletes by key, so replaying a change that is already
+ * contained in the snapshot leaves the config unchanged.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConfigChange {
+
+    public enum Type {
+        CONFIG,
+        PUT_ROUTE,
+        DELETE_ROUTE,
+        PUT_SCENARIO,
+        DELETE_SCENARIO,
+        SETTINGS
+    }
+
+    private Type type;
+    private long timestamp;
+    private Route originalRoute;
+    private Route route;
+    private Scenario originalScenario;
+    private Scenario scenario;
+    private Settings settings;
+    private Config config;
+
+    public ConfigChange() {
+        // default
+    }
+
+    public static ConfigChange config(Config config) {
+        return new ConfigChange(Type.CONFIG).setConfig(config);
+    }
+
+    public static ConfigChange putRoute(Route originalRoute, Route route) {
+        return new ConfigChange(Type.PUT_ROUTE).setOriginalRoute(originalRoute).setRoute(route);
+    }
+
+    public static ConfigChange deleteRoute(Route route) {
+        return new ConfigChange(Type.DELETE_ROUTE).setRoute(route);
+    }
+
+    public static ConfigChange putScenario(Scenario originalScenario, Scenario scenario) {
+        return new ConfigChange(Type.PUT_SCENARIO).setOriginalScenario(originalScenario).setScenario(scenario);
+    }
+
+    public static ConfigChange deleteScenario(Scenario scenario) {
+        return new ConfigChange(Type.DELETE_SCENARIO).setScenario(scenario);
+    }
+
+    public static ConfigChange settings(Settings settings) {
+        return new ConfigChange(Type.SETTINGS).setSettings(settings);
+    }
+
+    private ConfigChange(Type type) {
+        this.type = type;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public ConfigChange setType(Type type) {
+        this.type = type;
+        return this;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public ConfigChange setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+        return this;
+    }
+
+    public Route getOriginalRoute() {
+        return originalRoute;
+    }
+
+    public ConfigChange setOriginalRoute(Route originalRoute) {
+        this.originalRoute = originalRoute;
+        return this;
+    }
+
+    public Route getRoute() {
+        return route;
+    }
+
+    public ConfigChange setRoute(Route route) {
+        this.route = route;
+        return this;
+    }
+
+    public Scenario getOriginalScenario() {
+        return originalScenario;
+    }
+
+    public ConfigChange setOriginalScenario(Scenario originalScenario) {
+        this.originalScenario = originalScenario;
+        return this;
+    }
+
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    public ConfigChange setScenario(Scenario scenario) {
+        this.scenario = scenario;
+        return this;
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public ConfigChange setSettings(Settings settings) {
+        this.settings = settings;
+        return this;
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    public ConfigChange setConfig(Config config) {
+        this.config = config;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(type=%s, timestamp=%d)", type, timestamp);
+    }
+}
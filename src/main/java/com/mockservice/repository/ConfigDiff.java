@@ -0,0 +1,89 @@
+package com.mockservice.repository;
+
+/**
+ * Counts of changes applied by a config reload.
+ */
+public class ConfigDiff {
+
+    private int routesAdded;
+    private int routesChanged;
+    private int routesDeleted;
+    private int scenariosAdded;
+    private int scenariosChanged;
+    private int scenariosDeleted;
+    private boolean settingsChanged;
+
+    public ConfigDiff() {
+        // default
+    }
+
+    public int getRoutesAdded() {
+        return routesAdded;
+    }
+
+    public int getRoutesChanged() {
+        return routesChanged;
+    }
+
+    public int getRoutesDeleted() {
+        return routesDeleted;
+    }
+
+    public int getScenariosAdded() {
+        return scenariosAdded;
+    }
+
+    public int getScenariosChanged() {
+        return scenariosChanged;
+    }
+
+    public int getScenariosDeleted() {
+        return scenariosDeleted;
+    }
+
+    public boolean getSettingsChanged() {
+        return settingsChanged;
+    }
+
+    void routeAdded() {
+        routesAdded++;
+    }
+
+    void routeChanged() {
+        routesChanged++;
+    }
+
+    void routeDeleted() {
+        routesDeleted++;
+    }
+
+    void scenarioAdded() {
+        scenariosAdded++;
+    }
+
+    void scenarioChanged() {
+        scenariosChanged++;
+    }
+
+    void scenarioDeleted() {
+        scenariosDeleted++;
+    }
+
+    void settingsChanged() {
+        settingsChanged = true;
+    }
+
+    public boolean isEmpty() {
+        return routesAdded + routesChanged + routesDeleted
+                + scenariosAdded + scenariosChanged + scenariosDeleted == 0
+                && !settingsChanged;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(routes +%d ~%d -%d, scenarios +%d ~%d -%d, settings %s)",
+                routesAdded, routesChanged, routesDeleted,
+                scenariosAdded, scenariosChanged, scenariosDeleted,
+                settingsChanged ? "changed" : "unchanged");
+    }
+}
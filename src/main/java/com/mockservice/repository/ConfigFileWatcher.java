@@ -0,0 +1,194 @@
+package com.mockservice.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Watches the config file and reloads it when it is changed outside of the service.
+ * For a config directory the manifest and the group files are watched.
+ * <p>
+ * File system events come in bursts (an editor or a GitOps sync may write, truncate
+ * and rename), so a reload runs only after no event was seen for the debounce interval.
+ * Writes made by the service itself are recognized by the store and do not reload.
+ */
+@Service
+public class ConfigFileWatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigFileWatcher.class);
+
+    private static final String METRIC_PREFIX = "mockservice.config.";
+
+    private final ConfigRepository configRepository;
+    private final long debounceMillis;
+    private final Path file;
+    private final List<Path> groupDirectories;
+    private final Timer reloadTimer;
+    private final Counter routesAdded;
+    private final Counter routesChanged;
+    private final Counter routesDeleted;
+    private final Counter reloadErrors;
+    private WatchService watchService;
+    private Thread watcher;
+    private ScheduledExecutorService reloader;
+    private ScheduledFuture<?> pendingReload; // guarded by this
+
+    public ConfigFileWatcher(@Value("${application.config-watch-enabled}") boolean enabled,
+                             @Value("${application.config-filename}") String fileConfigPath,
+                             @Value("${application.config-directory}") String configDirectory,
+                             @Value("${application.config-watch-debounce-ms}") long debounceMillis,
+                             ConfigRepository configRepository,
+                             MeterRegistry meterRegistry) {
+        this.configRepository = configRepository;
+        this.debounceMillis = debounceMillis;
+        if (configDirectory == null || configDirectory.isEmpty()) {
+            this.file = Path.of(fileConfigPath).toAbsolutePath();
+            this.groupDirectories = List.of();
+        } else {
+            Path directory = Path.of(configDirectory).toAbsolutePath();
+            this.file = directory.resolve(DirectoryConfigStore.MANIFEST);
+            this.groupDirectories = List.of(
+                    directory.resolve(DirectoryConfigStore.ROUTES),
+                    directory.resolve(DirectoryConfigStore.SCENARIOS));
+        }
+
+        Gauge.builder(METRIC_PREFIX + "routes", configRepository, r -> r.findAllRoutes().size())
+                .description("Routes in the live config")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "scenarios", configRepository, r -> r.findAllScenarios().size())
+                .description("Scenarios in the live config")
+                .register(meterRegistry);
+        reloadTimer = Timer.builder(METRIC_PREFIX + "reload")
+                .description("Time to reload the config file")
+                .register(meterRegistry);
+        routesAdded = routeCounter(meterRegistry, "added");
+        routesChanged = routeCounter(meterRegistry, "changed");
+        routesDeleted = routeCounter(meterRegistry, "deleted");
+        reloadErrors = Counter.builder(METRIC_PREFIX + "reload.errors")
+                .description("Config reloads failed")
+                .register(meterRegistry);
+
+        if (enabled) {
+            start();
+        }
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String change) {
+        return Counter.builder(METRIC_PREFIX + "reload.routes")
+                .description("Routes changed by config reloads")
+                .tag("change", change)
+                .register(meterRegistry);
+    }
+
+    private void start() {
+        Path directory = file.getParent();
+        try {
+            Files.createDirectories(directory);
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            for (Path groupDirectory : groupDirectories) {
+                Files.createDirectories(groupDirectory);
+                groupDirectory.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            log.error("Could not watch config file " + file + ". Config watch disabled.", e);
+            return;
+        }
+
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "config-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher = new Thread(this::watch, "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching config file {}", file);
+    }
+
+    private void watch() {
+        Path fileName = file.getFileName();
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            boolean groupDirectory = groupDirectories.contains((Path) key.watchable());
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (StandardWatchEventKinds.OVERFLOW.equals(event.kind())
+                        || (!groupDirectory && fileName.equals(event.context()))
+                        || (groupDirectory && isGroupFile(event.context()))) {
+                    scheduleReload();
+                }
+            }
+            if (!key.reset()) {
+                log.warn("Config file directory is no longer accessible, config watch stopped.");
+                return;
+            }
+        }
+    }
+
+    private static boolean isGroupFile(Object context) {
+        return context instanceof Path && context.toString().endsWith(DirectoryConfigStore.GROUP_FILE_SUFFIX);
+    }
+
+    private synchronized void scheduleReload() {
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+        try {
+            pendingReload = reloader.schedule(this::reload, debounceMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // closed
+        }
+    }
+
+    void reload() {
+        long start = System.nanoTime();
+        try {
+            ConfigDiff diff = configRepository.reloadConfig();
+            reloadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!diff.isEmpty()) {
+                routesAdded.increment(diff.getRoutesAdded());
+                routesChanged.increment(diff.getRoutesChanged());
+                routesDeleted.increment(diff.getRoutesDeleted());
+                log.info("Config reloaded {} in {} ms: {}",
+                        file, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), diff);
+            }
+        } catch (Exception e) {
+            reloadErrors.increment();
+            log.error("Could not reload config file " + file + ".", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (watcher == null) {
+            return;
+        }
+        watcher.interrupt();
+        reloader.shutdownNow();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("Could not close config watch service: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mockservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only file of config changes.
+ * <p>
+ * Every change is a YAML document enclosed in start ({@code ---}) and end ({@code ...})
+ * markers. A document without the end marker is a torn write and is ignored on read.
+ * Not thread safe, callers synchronize.
+ */
+public class ConfigJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigJournal.class);
+
+    private static final String DOCUMENT_START = "---";
+    private static final String DOCUMENT_END = "...";
+
+    private final Path path;
+    private final ObjectMapper yamlMapper;
+    private FileChannel channel;
+
+    public ConfigJournal(Path path, ObjectMapper yamlMapper) throws IOException {
+        this.path = path;
+        this.yamlMapper = yamlMapper;
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        channel = open();
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    public List<ConfigChange> read() throws IOException {
+        List<ConfigChange> changes = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            StringBuilder document = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (DOCUMENT_START.equals(line)) {
+                    document = new StringBuilder();
+                } else if (DOCUMENT_END.equals(line) && document != null) {
+                    changes.add(yamlMapper.readValue(document.toString(), ConfigChange.class));
+                    document = null;
+                } else if (document != null) {
+                    document.append(line).append('\n');
+                }
+            }
+            if (document != null) {
+                log.warn("Incomplete change at the end of config journal {} ignored.", path);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Writes the changes as one batch and forces them to disk before returning.
+     */
+    public void append(ConfigChange... changes) throws IOException {
+        StringBuilder documents = new StringBuilder();
+        for (ConfigChange change : changes) {
+            String yaml = yamlMapper.writeValueAsString(change);
+            documents.append(DOCUMENT_START).append('\n')
+                    .append(yaml).append(yaml.endsWith("\n") ? "" : "\n")
+                    .append(DOCUMENT_END).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(documents.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * Removes the first {@code length} bytes, i.e. changes already contained in a snapshot.
+     * Changes appended after that point are kept.
+     */
+    public void truncateHead(long length) throws IOException {
+        channel.force(false);
+        if (length >= channel.size()) {
+            channel.truncate(0);
+            return;
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = length;
+            long size = source.size();
+            while (position < size) {
+                position += source.transferTo(position, size - position, target);
+            }
+            target.force(false);
+        }
+        channel.close();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = open();
+    }
+
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
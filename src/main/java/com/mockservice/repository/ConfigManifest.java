@@ -0,0 +1,48 @@
+package com.mockservice.repository;
+
+import com.mockservice.domain.Settings;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Index of a config directory: settings and the names of route and scenario groups
+ * stored in separate files.
+ */
+public class ConfigManifest {
+
+    private Settings settings = new Settings();
+    private List<String> routeGroups = new ArrayList<>();
+    private List<String> scenarioGroups = new ArrayList<>();
+
+    public ConfigManifest() {
+        // default
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public ConfigManifest setSettings(Settings settings) {
+        this.settings = settings == null ? new Settings() : settings;
+        return this;
+    }
+
+    public List<String> getRouteGroups() {
+        return routeGroups;
+    }
+
+    public ConfigManifest setRouteGroups(List<String> routeGroups) {
+        this.routeGroups = routeGroups == null ? new ArrayList<>() : routeGroups;
+        return this;
+    }
+
+    public List<String> getScenarioGroups() {
+        return scenarioGroups;
+    }
+
+    public ConfigManifest setScenarioGroups(List<String> scenarioGroups) {
+        this.scenarioGroups = scenarioGroups == null ? new ArrayList<>() : scenarioGroups;
+        return this;
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.mockservice.domain.Route;
 import com.mockservice.domain.Scenario;
 import com.mockservice.domain.Settings;
+import com.mockservice.model.DedupReport;
 import com.mockservice.model.RouteVariable;
 
 import javax.annotation.Nonnull;
@@ -17,6 +18,7 @@ public interface ConfigRepository {
     void writeConfigData(String data) throws IOException;
     void backup() throws IOException;
     void restore() throws IOException;
+    ConfigDiff reloadConfig() throws IOException;
 
     Settings getSettings();
     void setSettings(Settings settings) throws IOException;
@@ -24,6 +26,7 @@ public interface ConfigRepository {
     List<Route> findAllRoutes();
     Optional<Route> findRoute(Route route);
     List<RouteVariable> getRouteVariables(Route route);
+    DedupReport getDedupReport();
     void putRoute(@Nullable Route reference, @Nonnull Route route) throws IOException;
     void putRoutes(List<Route> routes, boolean overwrite) throws IOException;
     void deleteRoutes(List<Route> routes) throws IOException;
@@ -3,11 +3,14 @@ package com.mockservice.repository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mockservice.domain.*;
+import com.mockservice.model.DedupReport;
 import com.mockservice.model.RouteVariable;
 import com.mockservice.template.TemplateEngine;
 import com.mockservice.template.TokenParser;
 import com.mockservice.util.Cache;
 import com.mockservice.util.ConcurrentHashMapCache;
+import com.mockservice.util.ContentPool;
+import com.mockservice.util.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,10 +22,26 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
-
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Config is kept in memory. Changes are persisted write-behind: a change only marks
+ * the config dirty, and a background writer saves all changes made within the flush
+ * interval in one atomic write. A zero interval persists every change synchronously.
+ * <p>
+ * With the journal enabled every change is appended to the journal instead, and the
+ * full config is written (compacting the journal) only when the journal grows over
+ * its limit and on shutdown. On startup the journal is replayed over the config file.
+ */
 @Service
-public class ConfigRepositoryImpl implements ConfigRepository {
+public class ConfigRepositoryImpl implements ConfigRepository, AutoCloseable {
 
     private static final Logger log = LoggerFactory.getLogger(ConfigRepositoryImpl.class);
 
@@ -30,18 +49,55 @@ public class ConfigRepositoryImpl implements ConfigRepository {
     private final String fileConfigPath;
     private final String fileConfigBackupPath;
     private final ObjectMapper yamlMapper;
+    private final ConfigStore store;
     private List<ConfigObserver> configObservers;
     private List<RouteObserver> routeObservers;
+    private List<ScenarioObserver> scenarioObservers;
     private final Cache<Route, List<RouteVariable>> routeVariablesCache;
-
+    private final long flushIntervalMillis;
+    private final ScheduledExecutorService writer;
+    private final ReentrantLock fileLock = new ReentrantLock(); // held while the store is written or reloaded
+    private long version; // guarded by this
+    private long writtenVersion; // guarded by this
+    private boolean flushScheduled; // guarded by this
+    private final long journalMaxSize;
+    private ConfigJournal journal; // null if disabled
+    private final List<ConfigChange> pendingChanges = new ArrayList<>(); // guarded by this
+    private final ContentPool responsePool = new ContentPool();
+
+    @Autowired
     public ConfigRepositoryImpl(@Value("${application.config-filename}") String fileConfigPath,
                                 @Value("${application.config-backup-filename}") String fileConfigBackupPath,
+                                @Value("${application.config-directory}") String configDirectory,
+                                @Value("${application.config-binary-snapshot}") boolean binarySnapshot,
+                                @Value("${application.config-flush-interval-ms}") long flushIntervalMillis,
+                                @Value("${application.config-journal-enabled}") boolean journalEnabled,
+                                @Value("${application.config-journal-max-size}") long journalMaxSize,
                                 @Qualifier("yamlMapper") ObjectMapper yamlMapper,
                                 TemplateEngine templateEngine
+    ) {
+        this(fileConfigPath, fileConfigBackupPath, flushIntervalMillis, journalEnabled, journalMaxSize, yamlMapper, templateEngine,
+                mapper -> configDirectory == null || configDirectory.isEmpty()
+                        ? new FileConfigStore(new File(fileConfigPath), mapper, binarySnapshot)
+                        : new DirectoryConfigStore(Path.of(configDirectory), mapper));
+    }
+
+    ConfigRepositoryImpl(String fileConfigPath,
+                         String fileConfigBackupPath,
+                         long flushIntervalMillis,
+                         boolean journalEnabled,
+                         long journalMaxSize,
+                         ObjectMapper yamlMapper,
+                         TemplateEngine templateEngine,
+                         Function<ObjectMapper, ConfigStore> storeFactory
     ) {
         this.fileConfigPath = fileConfigPath;
         this.fileConfigBackupPath = fileConfigBackupPath;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.journalMaxSize = journalMaxSize;
         this.yamlMapper = yamlMapper.copy().setMixIns(getMixIns());
+        this.writer = flushIntervalMillis > 0 ? createWriter() : null;
+        this.store = storeFactory.apply(this.yamlMapper);
 
         routeVariablesCache = new ConcurrentHashMapCache<>(r ->
                 TokenParser
@@ -61,14 +117,21 @@ public class ConfigRepositoryImpl implements ConfigRepository {
                         .toList()
         );
 
-        try {
-            readConfigFromFile();
-        } catch (IOException e) {
-            log.warn("Could not read config file {}. Using empty config.", this.fileConfigPath);
-            config = new Config();
+        readConfig();
+
+        if (journalEnabled) {
+            openJournal();
         }
     }
 
+    private static ScheduledExecutorService createWriter() {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "config-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     @Autowired(required = false)
     public void setConfigObservers(List<ConfigObserver> configObservers) {
         this.configObservers = configObservers;
@@ -79,14 +142,38 @@ public class ConfigRepositoryImpl implements ConfigRepository {
         this.routeObservers = routeObservers;
     }
 
-    private Map<Class<?>, Class<?>> getMixIns() {
+    @Autowired(required = false)
+    public void setScenarioObservers(List<ScenarioObserver> scenarioObservers) {
+        this.scenarioObservers = scenarioObservers;
+    }
+
+    private static Map<Class<?>, Class<?>> getMixIns() {
         Map<Class<?>, Class<?>> mixins = new HashMap<>();
         mixins.put(Scenario.class, Scenario.MixInIgnoreIdActive.class);
         return mixins;
     }
 
-    private void readConfigFromFile() throws IOException {
+    private void readConfig() {
+        try {
+            if (!store.exists() && !(store instanceof FileConfigStore) && getConfigFile().exists()) {
+                migrateConfigFile();
+                return;
+            }
+            config = store.read();
+            poolResponses();
+            sortRoutes();
+            sortScenarios();
+        } catch (IOException e) {
+            log.warn("Could not read config {}. Using empty config.", store);
+            config = new Config();
+        }
+    }
+
+    private void migrateConfigFile() throws IOException {
         readConfigFromFile(getConfigFile());
+        pendingChanges.add(ConfigChange.config(config));
+        version++;
+        log.info("Config file {} is moved to {} on next write.", fileConfigPath, store);
     }
 
     private void readConfigFromFile(File file) throws IOException {
@@ -94,10 +181,71 @@ public class ConfigRepositoryImpl implements ConfigRepository {
         if (config == null) {
             throw new IOException("Mapper returned null Config.");
         }
+        poolResponses();
         sortRoutes();
         sortScenarios();
     }
 
+    private void openJournal() {
+        Path journalPath = store.getJournalPath();
+        try {
+            journal = new ConfigJournal(journalPath, yamlMapper);
+            List<ConfigChange> changes = journal.read();
+            changes.forEach(this::applyChange);
+            pendingChanges.addAll(changes);
+            poolResponses();
+            sortRoutes();
+            sortScenarios();
+            if (!changes.isEmpty()) {
+                version++;
+                log.info("Config journal replayed: {} changes.", changes.size());
+            }
+        } catch (IOException e) {
+            log.error("Could not open config journal " + journalPath + ". Journal disabled.", e);
+            journal = null;
+        }
+    }
+
+    private void applyChange(ConfigChange change) {
+        switch (change.getType()) {
+            case CONFIG:
+                if (change.getConfig() != null) {
+                    config = change.getConfig();
+                }
+                break;
+            case SETTINGS:
+                config.setSettings(change.getSettings());
+                break;
+            case PUT_ROUTE:
+                config.getRoutes().remove(change.getOriginalRoute());
+                config.getRoutes().remove(change.getRoute());
+                config.getRoutes().add(change.getRoute());
+                break;
+            case DELETE_ROUTE:
+                config.getRoutes().remove(change.getRoute());
+                break;
+            case PUT_SCENARIO:
+                config.getScenarios().remove(change.getOriginalScenario());
+                config.getScenarios().remove(change.getScenario());
+                config.getScenarios().add(change.getScenario());
+                break;
+            case DELETE_SCENARIO:
+                config.getScenarios().remove(change.getScenario());
+                break;
+            default:
+                log.warn("Unknown config change skipped: {}", change);
+        }
+    }
+
+    private void poolResponses() {
+        config.getRoutes().forEach(this::poolResponse);
+    }
+
+    // routes with equal bodies share one instance (OpenAPI imports repeat a body per base path)
+    private Route poolResponse(Route route) {
+        return route.setResponse(responsePool.intern(route.getResponse()));
+    }
+
     private void sortRoutes() {
         config.getRoutes().sort(Route::compareTo);
     }
@@ -112,6 +260,7 @@ public class ConfigRepositoryImpl implements ConfigRepository {
             if (config == null) {
                 throw new IOException("Mapper returned null Config.");
             }
+            poolResponses();
             sortRoutes();
             sortScenarios();
         } catch (IOException e) {
@@ -119,18 +268,187 @@ public class ConfigRepositoryImpl implements ConfigRepository {
         }
     }
 
-    private void tryPersistConfig() throws IOException {
-        tryPersistConfig(getConfigFile());
+    private void tryPersistConfig(ConfigChange... changes) throws IOException {
+        version++;
+        addPendingChanges(Arrays.asList(changes));
+        if (journal != null) {
+            appendToJournal(changes);
+            if (journal.size() < journalMaxSize) {
+                return;
+            }
+        }
+        if (writer == null) {
+            persistNow();
+            return;
+        }
+        scheduleFlush();
+    }
+
+    private void appendToJournal(ConfigChange... changes) throws IOException {
+        try {
+            journal.append(changes);
+        } catch (IOException e) {
+            throw new IOException("Could not write config change to journal. " + e.getMessage(), e);
+        }
+    }
+
+    private void addPendingChanges(List<ConfigChange> changes) {
+        if (changes.stream().anyMatch(c -> ConfigChange.Type.CONFIG.equals(c.getType()))) {
+            pendingChanges.clear();
+        }
+        pendingChanges.addAll(changes);
+    }
+
+    private List<ConfigChange> drainPendingChanges() {
+        List<ConfigChange> changes = new ArrayList<>(pendingChanges);
+        pendingChanges.clear();
+        return changes;
+    }
+
+    private void persistNow() throws IOException {
+        List<ConfigChange> changes = drainPendingChanges();
+        fileLock.lock();
+        try {
+            store.prepare(config, changes).execute();
+        } catch (IOException e) {
+            pendingChanges.addAll(0, changes);
+            throw new IOException("Could not write config to file. " + e.getMessage(), e);
+        } finally {
+            fileLock.unlock();
+        }
+        writtenVersion = version;
+        if (journal != null) {
+            journal.truncateHead(journal.size());
+        }
+    }
+
+    private void scheduleFlush() throws IOException {
+        if (flushScheduled) {
+            return;
+        }
+        try {
+            writer.schedule(this::flushQuietly, flushIntervalMillis, TimeUnit.MILLISECONDS);
+            flushScheduled = true;
+        } catch (RejectedExecutionException e) {
+            // writer is closed, nothing would flush the change later
+            persistNow();
+        }
     }
 
     private void tryPersistConfig(File file) throws IOException {
         try {
-            yamlMapper.writeValue(file, config);
+            IOUtils.writeAtomically(file, yamlMapper.writeValueAsBytes(config));
         } catch (IOException e) {
             throw new IOException("Could not write config to file. " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Writes the latest config version if it was not written yet and drops journaled
+     * changes contained in it. Only a copy of the config is taken under the repository
+     * lock, serialization and file IO run without it.
+     * <p>
+     * The file lock is always taken inside the repository lock. Here it is taken before
+     * the repository lock is released, so no reload or synchronous write gets between
+     * the copy and the write.
+     */
+    private void flush() throws IOException {
+        Config snapshot;
+        List<ConfigChange> changes;
+        long snapshotVersion;
+        long journalLength;
+        synchronized (this) {
+            flushScheduled = false;
+            if (version == writtenVersion) {
+                return;
+            }
+            changes = drainPendingChanges();
+            snapshot = snapshot();
+            snapshotVersion = version;
+            journalLength = journal == null ? 0 : journal.size();
+            fileLock.lock();
+        }
+        IOException failure = null;
+        try {
+            store.prepare(snapshot, changes).execute();
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            fileLock.unlock();
+        }
+        synchronized (this) {
+            if (failure != null) {
+                pendingChanges.addAll(0, changes);
+                throw new IOException("Could not write config to file. " + failure.getMessage(), failure);
+            }
+            // a reload or a later write since the unlock has already moved on, journal included
+            if (writtenVersion < snapshotVersion) {
+                writtenVersion = snapshotVersion;
+                if (journal != null) {
+                    journal.truncateHead(journalLength);
+                }
+            }
+        }
+    }
+
+    // routes and scenarios are changed in place, settings are only replaced
+    private Config snapshot() {
+        Config snapshot = new Config();
+        snapshot.setSettings(config.getSettings());
+        config.getRoutes().forEach(route -> snapshot.getRoutes().add(new Route(route)));
+        config.getScenarios().forEach(scenario -> snapshot.getScenarios().add(copyOf(scenario)));
+        return snapshot;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            log.error("", e);
+            synchronized (this) {
+                try {
+                    scheduleFlush();
+                } catch (IOException ex) {
+                    log.error("", ex);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (writer != null) {
+            writer.shutdownNow();
+            try {
+                if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                    log.warn("Config writer did not stop in time.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        } catch (IOException e) {
+            log.error("Could not flush config on shutdown.", e);
+        }
+        synchronized (this) {
+            closeJournal();
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Could not close config journal: {}", e.getMessage());
+        }
+        journal = null;
+    }
+
     private String configToString() throws JsonProcessingException {
         return yamlMapper.writeValueAsString(config);
     }
@@ -159,7 +477,7 @@ public class ConfigRepositoryImpl implements ConfigRepository {
         notifyBeforeConfigChanged();
         configFromString(data);
         notifyAfterConfigChanged();
-        tryPersistConfig();
+        tryPersistConfig(ConfigChange.config(config));
     }
 
     @Override
@@ -172,7 +490,141 @@ public class ConfigRepositoryImpl implements ConfigRepository {
         notifyBeforeConfigChanged();
         readConfigFromFile(getConfigBackupFile());
         notifyAfterConfigChanged();
-        tryPersistConfig();
+        tryPersistConfig(ConfigChange.config(config));
+    }
+
+    /**
+     * Applies only the difference between the live config and a store modified outside
+     * of the service: unchanged routes stay registered and scenarios keep their state.
+     * The store is not written back, its content becomes the persisted baseline.
+     * A flush in progress finishes first, so it cannot write its older copy over the reloaded store.
+     */
+    @Override
+    public synchronized ConfigDiff reloadConfig() throws IOException {
+        fileLock.lock();
+        try {
+            return reloadStore();
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    private ConfigDiff reloadStore() throws IOException {
+        ConfigDiff diff = new ConfigDiff();
+        if (!store.isModifiedExternally()) {
+            return diff;
+        }
+
+        Config loaded = store.read();
+        List<ConfigChange> changes = new ArrayList<>();
+        reloadRoutes(loaded.getRoutes(), diff, changes);
+        reloadScenarios(loaded.getScenarios(), diff, changes);
+        if (!sameSettings(config.getSettings(), loaded.getSettings())) {
+            config.setSettings(loaded.getSettings());
+            diff.settingsChanged();
+            changes.add(ConfigChange.settings(loaded.getSettings()));
+        }
+
+        if (!changes.isEmpty()) {
+            sortRoutes();
+            sortScenarios();
+        }
+        markPersisted();
+        return diff;
+    }
+
+    // the live config equals the store content: nothing is pending, journaled changes are obsolete
+    private void markPersisted() throws IOException {
+        version++;
+        writtenVersion = version;
+        pendingChanges.clear();
+        if (journal != null) {
+            journal.truncateHead(journal.size());
+        }
+    }
+
+    private void reloadRoutes(List<Route> loaded, ConfigDiff diff, List<ConfigChange> changes) {
+        Map<Route, Route> loadedByKey = new HashMap<>();
+        loaded.forEach(r -> loadedByKey.put(r, r));
+
+        Iterator<Route> it = config.getRoutes().iterator();
+        while (it.hasNext()) {
+            Route existing = it.next();
+            Route route = loadedByKey.remove(existing);
+            if (route == null) {
+                it.remove();
+                notifyRouteDeleted(existing);
+                diff.routeDeleted();
+                changes.add(ConfigChange.deleteRoute(existing));
+            } else if (!sameRoute(existing, route)) {
+                Route replaced = new Route(existing);
+                putExistingRoute(existing, route);
+                diff.routeChanged();
+                changes.add(ConfigChange.putRoute(replaced, route));
+            }
+        }
+        for (Route route : loadedByKey.values()) {
+            putNewRoute(route);
+            diff.routeAdded();
+            changes.add(ConfigChange.putRoute(null, route));
+        }
+    }
+
+    private void reloadScenarios(List<Scenario> loaded, ConfigDiff diff, List<ConfigChange> changes) {
+        Map<Scenario, Scenario> loadedByKey = new HashMap<>();
+        loaded.forEach(s -> loadedByKey.put(s, s));
+
+        Iterator<Scenario> it = config.getScenarios().iterator();
+        while (it.hasNext()) {
+            Scenario existing = it.next();
+            Scenario scenario = loadedByKey.remove(existing);
+            if (scenario == null) {
+                it.remove();
+                notifyScenarioDeleted(existing);
+                diff.scenarioDeleted();
+                changes.add(ConfigChange.deleteScenario(existing));
+            } else if (!sameScenario(existing, scenario)) {
+                Scenario replaced = copyOf(existing);
+                notifyScenarioDeleted(existing);
+                existing.assignFrom(scenario);
+                notifyScenarioCreated(existing);
+                diff.scenarioChanged();
+                changes.add(ConfigChange.putScenario(replaced, scenario));
+            }
+        }
+        for (Scenario scenario : loadedByKey.values()) {
+            config.getScenarios().add(scenario);
+            notifyScenarioCreated(scenario);
+            diff.scenarioAdded();
+            changes.add(ConfigChange.putScenario(null, scenario));
+        }
+    }
+
+    private static boolean sameRoute(Route a, Route b) {
+        return a.getGroup().equals(b.getGroup())
+                && a.getType().equals(b.getType())
+                && a.getResponseCode() == b.getResponseCode()
+                && a.getResponse().equals(b.getResponse())
+                && a.getRequestBodySchema().equals(b.getRequestBodySchema())
+                && a.getResponseSchema().equals(b.getResponseSchema())
+                && a.getFault() == b.getFault()
+                && a.getDisabled() == b.getDisabled();
+    }
+
+    private static boolean sameScenario(Scenario a, Scenario b) {
+        return a.getGroup().equals(b.getGroup())
+                && a.getType().equals(b.getType())
+                && a.getData().equals(b.getData())
+                && Objects.equals(a.getSeed(), b.getSeed());
+    }
+
+    private static boolean sameSettings(Settings a, Settings b) {
+        return a.getRandomAlt() == b.getRandomAlt()
+                && a.getQuantum() == b.getQuantum()
+                && a.getAlt400OnFailedRequestValidation() == b.getAlt400OnFailedRequestValidation()
+                && a.getValidationMode() == b.getValidationMode()
+                && a.getValidationSamplePercent() == b.getValidationSamplePercent()
+                && a.getChaosProfiles().equals(b.getChaosProfiles());
     }
 
     //----------------------------------------------------------------------
@@ -189,7 +641,7 @@ public class ConfigRepositoryImpl implements ConfigRepository {
     @Override
     public synchronized void setSettings(Settings settings) throws IOException {
         config.setSettings(settings);
-        tryPersistConfig();
+        tryPersistConfig(ConfigChange.settings(settings));
     }
 
     //----------------------------------------------------------------------
@@ -219,11 +671,34 @@ public class ConfigRepositoryImpl implements ConfigRepository {
     }
 
     @Override
-    public void putRoute(@Nullable Route originalRoute, @Nonnull Route route) throws IOException {
+    public synchronized DedupReport getDedupReport() {
+        Map<String, Boolean> stored = new IdentityHashMap<>();
+        Set<String> distinct = new HashSet<>();
+        long bytesWithoutDedup = 0;
+        long bytesWithDedup = 0;
+        for (Route route : config.getRoutes()) {
+            String response = route.getResponse();
+            long size = ContentPool.sizeOf(response);
+            bytesWithoutDedup += size;
+            if (stored.put(response, Boolean.TRUE) == null) {
+                bytesWithDedup += size;
+            }
+            distinct.add(response);
+        }
+        return new DedupReport()
+                .setRoutes(config.getRoutes().size())
+                .setDistinctBodies(distinct.size())
+                .setBytesWithoutDedup(bytesWithoutDedup)
+                .setBytesWithDedup(bytesWithDedup);
+    }
+
+    @Override
+    public synchronized void putRoute(@Nullable Route originalRoute, @Nonnull Route route) throws IOException {
         Objects.requireNonNull(route, "Route could not be null.");
+        Route replaced = findRoute(originalRoute).map(Route::new).orElse(null);
         putRouteToConfig(originalRoute, route);
         sortRoutes();
-        tryPersistConfig();
+        tryPersistConfig(ConfigChange.putRoute(replaced, route));
     }
 
     private void putRouteToConfig(Route originalRoute, Route route) {
@@ -240,7 +715,7 @@ public class ConfigRepositoryImpl implements ConfigRepository {
         if (existing != null) {
             throw new RouteAlreadyExistsException(route);
         }
-        config.getRoutes().add(route);
+        config.getRoutes().add(poolResponse(route));
         notifyRouteCreated(route);
     }
 
@@ -250,61 +725,63 @@ public class ConfigRepositoryImpl implements ConfigRepository {
             throw new RouteAlreadyExistsException(route);
         }
         notifyRouteDeleted(existingOriginal);
-        existingOriginal.assignFrom(route);
+        poolResponse(existingOriginal.assignFrom(route));
         notifyRouteCreated(existingOriginal);
     }
 
     @Override
-    public void putRoutes(List<Route> routes, boolean overwrite) throws IOException {
-        boolean modified = false;
+    public synchronized void putRoutes(List<Route> routes, boolean overwrite) throws IOException {
+        List<ConfigChange> changes = new ArrayList<>();
 
         for (Route route : routes) {
-            modified |= putRouteInternal(route, overwrite);
+            putRouteInternal(route, overwrite).ifPresent(changes::add);
         }
 
-        if (modified) {
+        if (!changes.isEmpty()) {
             sortRoutes();
-            tryPersistConfig();
+            tryPersistConfig(changes.toArray(ConfigChange[]::new));
         }
     }
 
-    private boolean putRouteInternal(@Nonnull Route route, boolean overwrite) {
+    private Optional<ConfigChange> putRouteInternal(@Nonnull Route route, boolean overwrite) {
         Objects.requireNonNull(route, "Route could not be null.");
         Route existing = findRoute(route).orElse(null);
         if (existing == null) {
             putNewRoute(route);
-            return true;
+            return Optional.of(ConfigChange.putRoute(null, route));
         } else if (overwrite) {
+            Route replaced = new Route(existing);
             putExistingRoute(existing, route);
-            return true;
+            return Optional.of(ConfigChange.putRoute(replaced, route));
         }
-        return false;
+        return Optional.empty();
     }
 
     private void putNewRoute(Route route) {
-        config.getRoutes().add(route);
+        config.getRoutes().add(poolResponse(route));
         notifyRouteCreated(route);
     }
 
     private void putExistingRoute(Route existing, Route route) {
         notifyRouteDeleted(existing);
-        existing.assignFrom(route);
+        poolResponse(existing.assignFrom(route));
         notifyRouteCreated(existing);
     }
 
     @Override
-    public void deleteRoutes(List<Route> routes) throws IOException {
-        boolean modified = false;
+    public synchronized void deleteRoutes(List<Route> routes) throws IOException {
+        List<ConfigChange> changes = new ArrayList<>();
 
         for (Route route : routes) {
-            if (config.getRoutes().remove(route)) {
+            Route existing = findRoute(route).orElse(null);
+            if (existing != null && config.getRoutes().remove(existing)) {
                 notifyRouteDeleted(route);
-                modified = true;
+                changes.add(ConfigChange.deleteRoute(existing));
             }
         }
 
-        if (modified) {
-            tryPersistConfig();
+        if (!changes.isEmpty()) {
+            tryPersistConfig(changes.toArray(ConfigChange[]::new));
         }
     }
 
@@ -330,11 +807,18 @@ public class ConfigRepositoryImpl implements ConfigRepository {
     }
 
     @Override
-    public void putScenario(@Nullable Scenario originalScenario, @Nonnull Scenario scenario) throws IOException {
+    public synchronized void putScenario(@Nullable Scenario originalScenario, @Nonnull Scenario scenario) throws IOException {
         Objects.requireNonNull(scenario, "Scenario could not be null.");
+        Scenario replaced = findScenario(originalScenario).map(ConfigRepositoryImpl::copyOf).orElse(null);
         putScenarioToConfig(originalScenario, scenario);
         sortScenarios();
-        tryPersistConfig();
+        tryPersistConfig(ConfigChange.putScenario(replaced, scenario));
+    }
+
+    private static Scenario copyOf(Scenario scenario) {
+        Scenario copy = new Scenario();
+        copy.assignFrom(scenario);
+        return copy;
     }
 
     private void putScenarioToConfig(Scenario originalScenario, Scenario scenario) {
@@ -352,6 +836,7 @@ public class ConfigRepositoryImpl implements ConfigRepository {
             throw new ScenarioAlreadyExistsException(scenario);
         }
         config.getScenarios().add(scenario);
+        notifyScenarioCreated(scenario);
     }
 
     private void putScenarioExisting(Scenario scenario, Scenario existingOriginal) {
@@ -359,13 +844,17 @@ public class ConfigRepositoryImpl implements ConfigRepository {
         if (existingScenario != null && !existingOriginal.equals(existingScenario)) {
             throw new ScenarioAlreadyExistsException(scenario);
         }
+        notifyScenarioDeleted(existingOriginal);
         existingOriginal.assignFrom(scenario);
+        notifyScenarioCreated(existingOriginal);
     }
 
     @Override
-    public void deleteScenario(Scenario scenario) throws IOException {
-        if (config.getScenarios().remove(scenario)) {
-            tryPersistConfig();
+    public synchronized void deleteScenario(Scenario scenario) throws IOException {
+        Scenario existing = findScenario(scenario).orElse(null);
+        if (existing != null && config.getScenarios().remove(existing)) {
+            notifyScenarioDeleted(existing);
+            tryPersistConfig(ConfigChange.deleteScenario(existing));
         }
     }
 
@@ -400,4 +889,16 @@ public class ConfigRepositoryImpl implements ConfigRepository {
             routeObservers.forEach(o -> o.onRouteDeleted(route));
         }
     }
+
+    private void notifyScenarioCreated(Scenario scenario) {
+        if (scenarioObservers != null) {
+            scenarioObservers.forEach(o -> o.onScenarioCreated(scenario));
+        }
+    }
+
+    private void notifyScenarioDeleted(Scenario scenario) {
+        if (scenarioObservers != null) {
+            scenarioObservers.forEach(o -> o.onScenarioDeleted(scenario));
+        }
+    }
 }
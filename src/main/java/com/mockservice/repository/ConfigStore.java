@@ -0,0 +1,31 @@
+package com.mockservice.repository;
+
+import com.mockservice.domain.Config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Where the config snapshot lives.
+ * <p>
+ * Writing is split in two steps: {@link #prepare} serializes the config and
+ * {@link Write#execute} does the file IO. The repository passes a copy of its config,
+ * so neither step holds the repository lock.
+ */
+public interface ConfigStore {
+
+    interface Write {
+        void execute() throws IOException;
+    }
+
+    boolean exists();
+    Config read() throws IOException;
+    Write prepare(Config config, List<ConfigChange> changes) throws IOException;
+    Path getJournalPath();
+
+    /**
+     * True if the store content differs from what was last read or written through it.
+     */
+    boolean isModifiedExternally() throws IOException;
+}
@@ -0,0 +1,247 @@
+package com.mockservice.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mockservice.domain.Config;
+import com.mockservice.domain.Route;
+import com.mockservice.domain.Scenario;
+import com.mockservice.util.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Config split into a directory: a manifest with settings and group names,
+ * and one file per route group and per scenario group.
+ * <p>
+ * Group files are read in parallel. A write touches only the groups affected
+ * by the changes (plus the small manifest), so a change in one group does not
+ * rewrite the others. Checksums of the files last read or written here tell
+ * external edits apart from own writes.
+ */
+public class DirectoryConfigStore implements ConfigStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryConfigStore.class);
+
+    static final String MANIFEST = "config.yml";
+    static final String ROUTES = "routes";
+    static final String SCENARIOS = "scenarios";
+    static final String GROUP_FILE_SUFFIX = ".yml";
+    private static final String JOURNAL = "config.yml.journal";
+    private static final String GROUP_FILE_PREFIX = "group-";
+
+    private final Path directory;
+    private final ObjectMapper yamlMapper;
+    private final ObjectReader routesReader;
+    private final ObjectWriter routesWriter;
+    private final ObjectReader scenariosReader;
+    private final ObjectWriter scenariosWriter;
+    private final Map<Path, Long> checksums = new ConcurrentHashMap<>();
+
+    public DirectoryConfigStore(Path directory, ObjectMapper yamlMapper) {
+        this.directory = directory;
+        this.yamlMapper = yamlMapper;
+        TypeReference<List<Route>> routeList = new TypeReference<>() {};
+        TypeReference<List<Scenario>> scenarioList = new TypeReference<>() {};
+        this.routesReader = yamlMapper.readerFor(routeList);
+        this.routesWriter = yamlMapper.writerFor(routeList);
+        this.scenariosReader = yamlMapper.readerFor(scenarioList);
+        this.scenariosWriter = yamlMapper.writerFor(scenarioList);
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.exists(directory.resolve(MANIFEST));
+    }
+
+    @Override
+    public Config read() throws IOException {
+        checksums.clear();
+        ConfigManifest manifest = yamlMapper.readValue(readFile(directory.resolve(MANIFEST)), ConfigManifest.class);
+        if (manifest == null) {
+            throw new IOException("Mapper returned null manifest.");
+        }
+
+        Config config = new Config();
+        config.setSettings(manifest.getSettings());
+        try {
+            manifest.getRouteGroups().parallelStream()
+                    .map(group -> this.<Route>readGroup(ROUTES, group, routesReader))
+                    .flatMap(List::stream)
+                    .forEachOrdered(config.getRoutes()::add);
+            manifest.getScenarioGroups().parallelStream()
+                    .map(group -> this.<Scenario>readGroup(SCENARIOS, group, scenariosReader))
+                    .flatMap(List::stream)
+                    .forEachOrdered(config.getScenarios()::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return config;
+    }
+
+    private <T> List<T> readGroup(String kind, String group, ObjectReader reader) {
+        Path file = groupFile(kind, group);
+        try {
+            List<T> items = reader.readValue(readFile(file));
+            return items == null ? List.of() : items;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file + ". " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] readFile(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        checksums.put(file, checksum(data));
+        return data;
+    }
+
+    @Override
+    public Write prepare(Config config, List<ConfigChange> changes) throws IOException {
+        boolean all = changes.stream().anyMatch(c -> ConfigChange.Type.CONFIG.equals(c.getType()));
+        Set<String> dirtyRouteGroups = new HashSet<>();
+        Set<String> dirtyScenarioGroups = new HashSet<>();
+        changes.forEach(c -> {
+            addGroup(dirtyRouteGroups, c.getOriginalRoute(), Route::getGroup);
+            addGroup(dirtyRouteGroups, c.getRoute(), Route::getGroup);
+            addGroup(dirtyScenarioGroups, c.getOriginalScenario(), Scenario::getGroup);
+            addGroup(dirtyScenarioGroups, c.getScenario(), Scenario::getGroup);
+        });
+
+        Map<String, List<Route>> routes = config.getRoutes().stream()
+                .collect(Collectors.groupingBy(Route::getGroup, TreeMap::new, Collectors.toList()));
+        Map<String, List<Scenario>> scenarios = config.getScenarios().stream()
+                .collect(Collectors.groupingBy(Scenario::getGroup, TreeMap::new, Collectors.toList()));
+
+        Map<Path, byte[]> files = new LinkedHashMap<>();
+        Set<Path> deleted = new HashSet<>();
+        prepareGroups(ROUTES, routes, all ? routes.keySet() : dirtyRouteGroups, routesWriter, files, deleted);
+        prepareGroups(SCENARIOS, scenarios, all ? scenarios.keySet() : dirtyScenarioGroups, scenariosWriter, files, deleted);
+
+        ConfigManifest manifest = new ConfigManifest()
+                .setSettings(config.getSettings())
+                .setRouteGroups(new ArrayList<>(routes.keySet()))
+                .setScenarioGroups(new ArrayList<>(scenarios.keySet()));
+        files.put(directory.resolve(MANIFEST), yamlMapper.writeValueAsBytes(manifest));
+
+        if (all) {
+            deleted.addAll(staleGroupFiles(ROUTES, routes.keySet()));
+            deleted.addAll(staleGroupFiles(SCENARIOS, scenarios.keySet()));
+        }
+
+        return () -> write(files, deleted);
+    }
+
+    private static <T> void addGroup(Set<String> groups, T item, Function<T, String> group) {
+        if (item != null) {
+            groups.add(group.apply(item));
+        }
+    }
+
+    private <T> void prepareGroups(String kind,
+                                   Map<String, List<T>> items,
+                                   Set<String> groups,
+                                   ObjectWriter writer,
+                                   Map<Path, byte[]> files,
+                                   Set<Path> deleted) throws IOException {
+        for (String group : groups) {
+            List<T> groupItems = items.get(group);
+            if (groupItems == null || groupItems.isEmpty()) {
+                deleted.add(groupFile(kind, group));
+            } else {
+                files.put(groupFile(kind, group), writer.writeValueAsBytes(groupItems));
+            }
+        }
+    }
+
+    private Set<Path> staleGroupFiles(String kind, Set<String> groups) throws IOException {
+        Path dir = directory.resolve(kind);
+        if (!Files.isDirectory(dir)) {
+            return Set.of();
+        }
+        Set<Path> current = groups.stream().map(g -> groupFile(kind, g)).collect(Collectors.toSet());
+        try (Stream<Path> list = Files.list(dir)) {
+            return list
+                    .filter(p -> p.getFileName().toString().startsWith(GROUP_FILE_PREFIX))
+                    .filter(p -> !current.contains(p))
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    // group files go first: the manifest never references a group file not written yet
+    private void write(Map<Path, byte[]> files, Set<Path> deleted) throws IOException {
+        Files.createDirectories(directory.resolve(ROUTES));
+        Files.createDirectories(directory.resolve(SCENARIOS));
+        for (Map.Entry<Path, byte[]> file : files.entrySet()) {
+            checksums.put(file.getKey(), checksum(file.getValue()));
+            IOUtils.writeAtomically(file.getKey().toFile(), file.getValue());
+        }
+        for (Path file : deleted) {
+            checksums.remove(file);
+            Files.deleteIfExists(file);
+        }
+        log.debug("Config directory written: {} files, {} deleted.", files.size(), deleted.size());
+    }
+
+    // no upper case in file names: groups differing in case only must not share a file
+    // on a case-insensitive file system, so everything else is escaped as %xx
+    private Path groupFile(String kind, String group) {
+        StringBuilder name = new StringBuilder(GROUP_FILE_PREFIX);
+        for (byte b : group.getBytes(StandardCharsets.UTF_8)) {
+            if (b >= 'a' && b <= 'z' || b >= '0' && b <= '9' || b == '-' || b == '_' || b == '.') {
+                name.append((char) b);
+            } else {
+                name.append('%')
+                        .append(Character.forDigit((b >> 4) & 0xF, 16))
+                        .append(Character.forDigit(b & 0xF, 16));
+            }
+        }
+        return directory.resolve(kind).resolve(name.append(GROUP_FILE_SUFFIX).toString());
+    }
+
+    @Override
+    public Path getJournalPath() {
+        return directory.resolve(JOURNAL);
+    }
+
+    // a group added or removed outside the service changes the manifest as well
+    @Override
+    public boolean isModifiedExternally() throws IOException {
+        Path manifest = directory.resolve(MANIFEST);
+        if (!Files.exists(manifest)) {
+            return false;
+        }
+        if (!checksums.containsKey(manifest)) {
+            return true;
+        }
+        for (Map.Entry<Path, Long> file : checksums.entrySet()) {
+            if (!Files.exists(file.getKey()) || checksum(Files.readAllBytes(file.getKey())) != file.getValue()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long checksum(byte[] data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    @Override
+    public String toString() {
+        return directory.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package com.mockservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockservice.domain.Config;
+import com.mockservice.util.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Whole config in a single YAML file, optionally with a binary snapshot next to it
+ * to speed up startup.
+ */
+public class FileConfigStore implements ConfigStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FileConfigStore.class);
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private final File file;
+    private final ObjectMapper yamlMapper;
+    private final BinaryConfigSnapshot snapshot;
+    private volatile long checksum = -1; // of the content last read or written here
+
+    public FileConfigStore(File file, ObjectMapper yamlMapper) {
+        this(file, yamlMapper, false);
+    }
+
+    public FileConfigStore(File file, ObjectMapper yamlMapper, boolean binarySnapshot) {
+        this.file = file;
+        this.yamlMapper = yamlMapper;
+        this.snapshot = binarySnapshot
+                ? new BinaryConfigSnapshot(Path.of(file.getPath() + SNAPSHOT_SUFFIX), yamlMapper)
+                : null;
+    }
+
+    @Override
+    public boolean exists() {
+        return file.exists();
+    }
+
+    @Override
+    public Config read() throws IOException {
+        byte[] yaml = Files.readAllBytes(file.toPath());
+        checksum = checksum(yaml);
+        if (snapshot == null) {
+            return parse(yamlMapper.readValue(yaml, Config.class));
+        }
+
+        Optional<Config> fromSnapshot = snapshot.read(yaml);
+        if (fromSnapshot.isPresent()) {
+            log.info("Config read from snapshot {}", snapshot.getPath());
+            return fromSnapshot.get();
+        }
+
+        Config config = parse(yamlMapper.readValue(yaml, Config.class));
+        try {
+            snapshot.write(snapshot.serialize(config, yaml));
+        } catch (IOException e) {
+            log.warn("Could not write config snapshot {}: {}", snapshot.getPath(), e.getMessage());
+        }
+        return config;
+    }
+
+    private static Config parse(Config config) throws IOException {
+        if (config == null) {
+            throw new IOException("Mapper returned null Config.");
+        }
+        return config;
+    }
+
+    @Override
+    public Write prepare(Config config, List<ConfigChange> changes) throws IOException {
+        byte[] data = yamlMapper.writeValueAsBytes(config);
+        long dataChecksum = checksum(data);
+        if (snapshot == null) {
+            return () -> {
+                checksum = dataChecksum;
+                IOUtils.writeAtomically(file, data);
+            };
+        }
+        byte[] snapshotData = snapshot.serialize(config, data);
+        // the snapshot is written last: if it is lost, the checksum sends readers to YAML
+        return () -> {
+            checksum = dataChecksum;
+            IOUtils.writeAtomically(file, data);
+            snapshot.write(snapshotData);
+        };
+    }
+
+    @Override
+    public boolean isModifiedExternally() throws IOException {
+        if (!file.exists()) {
+            return false;
+        }
+        return checksum(Files.readAllBytes(file.toPath())) != checksum;
+    }
+
+    private static long checksum(byte[] data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    @Override
+    public Path getJournalPath() {
+        return Path.of(file.getPath() + JOURNAL_SUFFIX);
+    }
+
+    @Override
+    public String toString() {
+        return file.getPath();
+    }
+}
@@ -5,6 +5,7 @@ import com.mockservice.template.MockVariables;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.servlet.HandlerMapping;
 
@@ -13,6 +14,8 @@ import java.util.stream.Collectors;
 
 public abstract class AbstractRequestFacade implements RequestFacade {
 
+    public static final String SESSION_HEADER = "Mock-Session";
+
     private static final Logger log = LoggerFactory.getLogger(AbstractRequestFacade.class);
 
     private static final String REQUEST_MAPPING_DELIMITER = "/";
@@ -31,7 +34,9 @@ public abstract class AbstractRequestFacade implements RequestFacade {
     private final List<String[]> mockVarHeaders;
     private final List<String[]> mockAltHeaders;
     final List<String[]> authHeaders;
+    private final String session;
     private String body = "";
+    private ParsedBody parsedBody;
 
     @SuppressWarnings("unchecked")
     AbstractRequestFacade(HttpServletRequest request, ObjectMapper jsonMapper) {
@@ -54,12 +59,50 @@ public abstract class AbstractRequestFacade implements RequestFacade {
         mockVarHeaders = getHeadersParts(request, VARIABLE_HEADER);
         mockAltHeaders = getHeadersParts(request, ALT_HEADER);
         authHeaders = getHeadersParts(request, AUTH_HEADER);
+        session = request.getHeader(SESSION_HEADER);
 
         try {
             body = request.getReader().lines().collect(Collectors.joining(System.lineSeparator()));
         } catch (Exception e) {
             log.warn("Request body processed elsewhere");
         }
+        parsedBody = new ParsedBody(body, jsonMapper);
+    }
+
+    /**
+     * Builds a facade from already resolved request parts, e.g. for a request
+     * dispatched in-process rather than received by the servlet container.
+     */
+    AbstractRequestFacade(RequestMethod method,
+                          String endpoint,
+                          Map<String, String> pathVariables,
+                          Map<String, String> requestParams,
+                          Map<String, List<String>> headers,
+                          String body,
+                          ObjectMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+        this.endpoint = endpoint == null ? "" : endpoint;
+        encodedEndpoint = encodeEndpoint(this.endpoint);
+        requestMethod = method.name();
+
+        if (pathVariables != null) {
+            this.pathVariables.putAll(pathVariables);
+        }
+        if (requestParams != null) {
+            this.requestParams.putAll(requestParams);
+        }
+
+        HttpHeaders httpHeaders = new HttpHeaders();
+        if (headers != null) {
+            headers.forEach(httpHeaders::addAll);
+        }
+        mockVarHeaders = getHeadersParts(httpHeaders.getOrEmpty(VARIABLE_HEADER));
+        mockAltHeaders = getHeadersParts(httpHeaders.getOrEmpty(ALT_HEADER));
+        authHeaders = getHeadersParts(httpHeaders.getOrEmpty(AUTH_HEADER));
+        session = httpHeaders.getFirst(SESSION_HEADER);
+
+        this.body = body == null ? "" : body;
+        parsedBody = new ParsedBody(this.body, jsonMapper);
     }
 
     private String encodeEndpoint(String endpoint) {
@@ -72,14 +115,15 @@ public abstract class AbstractRequestFacade implements RequestFacade {
     }
 
     private List<String[]> getHeadersParts(HttpServletRequest request, String headerName) {
-        List<String[]> result = new ArrayList<>();
         Enumeration<String> headers = request.getHeaders(headerName);
-        if (headers != null) {
-            while (headers.hasMoreElements()) {
-                String header = headers.nextElement();
-                if (header != null && !header.isEmpty()) {
-                    result.add(header.trim().split(HEADER_SPLIT));
-                }
+        return getHeadersParts(headers == null ? List.of() : Collections.list(headers));
+    }
+
+    private List<String[]> getHeadersParts(List<String> headers) {
+        List<String[]> result = new ArrayList<>();
+        for (String header : headers) {
+            if (header != null && !header.isEmpty()) {
+                result.add(header.trim().split(HEADER_SPLIT));
             }
         }
         return result;
@@ -105,11 +149,28 @@ public abstract class AbstractRequestFacade implements RequestFacade {
         return Optional.empty();
     }
 
+    @Override
+    public Optional<String> getSession() {
+        return session(session);
+    }
+
+    /**
+     * Session key from the {@link #SESSION_HEADER} value: trimmed, a blank value means no session.
+     */
+    public static Optional<String> session(String header) {
+        return header == null || header.isBlank() ? Optional.empty() : Optional.of(header.trim());
+    }
+
     @Override
     public String getBody() {
         return body;
     }
 
+    @Override
+    public ParsedBody getParsedBody() {
+        return parsedBody;
+    }
+
     MockVariables getPathVariables() {
         return pathVariables;
     }
@@ -0,0 +1,92 @@
+package com.mockservice.request;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Request body text with its JSON tree, parsed at most once per request
+ * and shared by request validation and variable extraction.
+ * <p>
+ * Floats are read as BigDecimal, as the schema validator does with its own parser,
+ * so that no precision is lost for checks like multipleOf. Variables are taken
+ * from the tree with floats as Double, see {@link com.mockservice.util.MapUtils#jsonToMap(JsonNode)}.
+ */
+public class ParsedBody {
+
+    private final String text;
+    private final ObjectMapper jsonMapper;
+    private boolean parsed;
+    private JsonNode json;
+    private IOException error;
+
+    public ParsedBody(String text, ObjectMapper jsonMapper) {
+        this.text = text == null ? "" : text;
+        this.jsonMapper = jsonMapper;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * First non-whitespace char of the body or -1, a hint at the content without parsing it.
+     */
+    public int firstChar() {
+        return firstChar(text);
+    }
+
+    public static int firstChar(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    public Optional<JsonNode> getJson() {
+        parse();
+        return Optional.ofNullable(json);
+    }
+
+    /**
+     * Same as {@link #getJson()}, but throws the parse error if the body is not JSON.
+     */
+    public JsonNode readJson() throws IOException {
+        parse();
+        if (json == null) {
+            throw error;
+        }
+        return json;
+    }
+
+    // validation may run in background while the request thread reads the tree
+    private synchronized void parse() {
+        if (parsed) {
+            return;
+        }
+        parsed = true;
+        try {
+            JsonNode node = jsonMapper.reader()
+                    .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                    .readTree(text);
+            if (node == null || node.isMissingNode()) {
+                error = new IOException("No JSON content in request body");
+            } else {
+                json = node;
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -9,6 +9,8 @@ public interface RequestFacade {
     RequestMethod getRequestMethod();
     String getEndpoint();
     Optional<String> getAlt();
+    Optional<String> getSession();
     MockVariables getVariables(Optional<MockVariables> baseVariables);
     String getBody();
+    ParsedBody getParsedBody();
 }
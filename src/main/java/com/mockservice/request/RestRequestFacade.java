@@ -1,24 +1,40 @@
 package com.mockservice.request;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mockservice.template.MockVariables;
 import com.mockservice.util.MapUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.RequestMethod;
 
 import java.util.Base64;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class RestRequestFacade extends AbstractRequestFacade {
 
     private static final Logger log = LoggerFactory.getLogger(RestRequestFacade.class);
 
+    private Optional<MockVariables> bodyVariables;
+
     public RestRequestFacade(HttpServletRequest request, ObjectMapper jsonMapper) {
         super(request, jsonMapper);
     }
 
+    public RestRequestFacade(RequestMethod method,
+                             String endpoint,
+                             Map<String, String> pathVariables,
+                             Map<String, String> requestParams,
+                             Map<String, List<String>> headers,
+                             String body,
+                             ObjectMapper jsonMapper) {
+        super(method, endpoint, pathVariables, requestParams, headers, body, jsonMapper);
+    }
+
     @Override
     public MockVariables getVariables(Optional<MockVariables> baseVariables) {
         MockVariables vars = new MockVariables();
@@ -31,16 +47,24 @@ public class RestRequestFacade extends AbstractRequestFacade {
         return vars;
     }
 
+    // variables are asked for more than once per request, the body is flattened once;
+    // only objects give variables, so other bodies (like bulk arrays) are never parsed into a tree
     private Optional<MockVariables> getBodyAsVariables() {
-        String body = getBody();
-        try {
-            MockVariables vars = new MockVariables();
-            vars.putAll(MapUtils.flattenMap(MapUtils.jsonToMap(body, jsonMapper)));
-            return Optional.of(vars);
-        } catch (JsonProcessingException e) {
-            log.warn("Invalid JSON:\n{}", body);
+        if (bodyVariables == null) {
+            ParsedBody body = getParsedBody();
+            Optional<JsonNode> json = body.firstChar() == '{' ? body.getJson() : Optional.empty();
+            if (json.isPresent() && json.get().isObject()) {
+                MockVariables vars = new MockVariables();
+                vars.putAll(MapUtils.flattenMap(MapUtils.jsonToMap(json.get())));
+                bodyVariables = Optional.of(vars);
+            } else {
+                if (body.firstChar() == '{') {
+                    log.warn("Invalid JSON:\n{}", body);
+                }
+                bodyVariables = Optional.empty();
+            }
         }
-        return Optional.empty();
+        return bodyVariables;
     }
 
     private Optional<MockVariables> getAuthorizationAsVariables() {
@@ -6,7 +6,10 @@ import com.mockservice.util.MapUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.RequestMethod;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class SoapRequestFacade extends AbstractRequestFacade {
@@ -17,6 +20,16 @@ public class SoapRequestFacade extends AbstractRequestFacade {
         super(request, jsonMapper);
     }
 
+    public SoapRequestFacade(RequestMethod method,
+                             String endpoint,
+                             Map<String, String> pathVariables,
+                             Map<String, String> requestParams,
+                             Map<String, List<String>> headers,
+                             String body,
+                             ObjectMapper jsonMapper) {
+        super(method, endpoint, pathVariables, requestParams, headers, body, jsonMapper);
+    }
+
     @Override
     public MockVariables getVariables(Optional<MockVariables> baseVariables) {
         MockVariables vars = new MockVariables();
@@ -6,6 +6,7 @@ import com.mockservice.template.StringTemplate;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 
+import java.util.Optional;
 import java.util.function.Consumer;
 
 public class BaseMockResponse implements MockResponse {
@@ -13,28 +14,41 @@ public class BaseMockResponse implements MockResponse {
     private final MockVariables variables = new MockVariables();
     private final MockFunctions functions = new MockFunctions();
     private final int responseCode;
-    final HttpHeaders responseHeaders = new HttpHeaders();
+    final HttpHeaders responseHeaders;
     final StringTemplate responseBody;
+    private MappedBody mappedResponseBody;
     boolean containsRequest = false;
     HttpMethod requestMethod = HttpMethod.GET;
     final StringTemplate requestUrl;
-    final HttpHeaders requestHeaders = new HttpHeaders();
+    final HttpHeaders requestHeaders;
     final StringTemplate requestBody;
 
     BaseMockResponse(int responseCode) {
         this.responseCode = responseCode;
+        responseHeaders = new HttpHeaders();
         responseBody = new StringTemplate();
+        requestHeaders = new HttpHeaders();
         requestBody = new StringTemplate();
         requestUrl = new StringTemplate();
     }
 
-    @Override
-    public MockResponse setVariables(MockVariables variables, MockFunctions functions) {
-        this.variables.clear();
+    private BaseMockResponse(BaseMockResponse template, MockVariables variables, MockFunctions functions) {
+        this.responseCode = template.responseCode;
+        this.responseHeaders = template.responseHeaders;
+        this.responseBody = template.responseBody;
+        this.mappedResponseBody = template.mappedResponseBody;
+        this.containsRequest = template.containsRequest;
+        this.requestMethod = template.requestMethod;
+        this.requestUrl = template.requestUrl;
+        this.requestHeaders = template.requestHeaders;
+        this.requestBody = template.requestBody;
         this.variables.putAll(variables);
-        this.functions.clear();
         this.functions.putAll(functions);
-        return this;
+    }
+
+    @Override
+    public MockResponse withVariables(MockVariables variables, MockFunctions functions) {
+        return new BaseMockResponse(this, variables, functions);
     }
 
     @Override
@@ -55,9 +69,34 @@ public class BaseMockResponse implements MockResponse {
 
     @Override
     public String getResponseBody() {
+        if (mappedResponseBody != null) {
+            return mappedResponseBody.asString();
+        }
         return responseBody.toString(variables, functions);
     }
 
+    @Override
+    public Optional<String> getConstantResponseBody() {
+        if (mappedResponseBody != null || !responseBody.isConstant()) {
+            return Optional.empty();
+        }
+        return Optional.of(responseBody.toString(variables, functions));
+    }
+
+    @Override
+    public Optional<MappedBody> getMappedResponseBody() {
+        return Optional.ofNullable(mappedResponseBody);
+    }
+
+    /**
+     * Replaces the constant body with its off-heap copy, dropping the one on heap.
+     */
+    @Override
+    public void setMappedResponseBody(MappedBody body) {
+        mappedResponseBody = body;
+        responseBody.clear();
+    }
+
     @Override
     public void ifHasRequest(Consumer<MockResponse> consumer) {
         if (containsRequest) {
@@ -0,0 +1,32 @@
+package com.mockservice.response;
+
+import com.mockservice.domain.ConnectionFault;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Response body (UTF-8) to be sent with a connection fault of its route.
+ */
+public class FaultyBody {
+
+    private final byte[] body;
+    private final ConnectionFault fault;
+
+    public FaultyBody(String body, ConnectionFault fault) {
+        this.body = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        this.fault = fault;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public ConnectionFault getFault() {
+        return fault;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%s, %d bytes)", fault, body.length);
+    }
+}
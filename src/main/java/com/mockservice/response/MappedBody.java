@@ -0,0 +1,46 @@
+package com.mockservice.response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Response body (UTF-8) kept off-heap in a memory-mapped buffer.
+ * The buffer is shared, every reader works on its own view.
+ */
+public class MappedBody {
+
+    private final ByteBuffer buffer;
+
+    public MappedBody(ByteBuffer buffer) {
+        this.buffer = buffer.asReadOnlyBuffer();
+    }
+
+    public int length() {
+        return buffer.limit();
+    }
+
+    public ByteBuffer getBuffer() {
+        return buffer.duplicate();
+    }
+
+    public String asString() {
+        return StandardCharsets.UTF_8.decode(getBuffer()).toString();
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        ByteBuffer view = getBuffer();
+        WritableByteChannel channel = Channels.newChannel(out);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(mapped body, %d bytes)", length());
+    }
+}
@@ -5,14 +5,22 @@ import com.mockservice.template.MockVariables;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 
+import java.util.Optional;
 import java.util.function.Consumer;
 
 public interface MockResponse {
-    MockResponse setVariables(MockVariables variables, MockFunctions functions);
+    /**
+     * Returns a copy rendered with the given variables and functions.
+     * The parsed template is shared, this response is not modified.
+     */
+    MockResponse withVariables(MockVariables variables, MockFunctions functions);
     MockResponse addVariables(MockVariables variables);
 
     int getResponseCode();
     String getResponseBody();
+    Optional<String> getConstantResponseBody();
+    Optional<MappedBody> getMappedResponseBody();
+    void setMappedResponseBody(MappedBody body);
     HttpHeaders getResponseHeaders();
     void ifHasRequest(Consumer<MockResponse> consumer);
     HttpMethod getRequestMethod();
@@ -0,0 +1,7 @@
+package com.mockservice.service;
+
+import com.mockservice.domain.Route;
+
+public interface AsyncValidationService {
+    void submit(Route route, Runnable validation);
+}
@@ -0,0 +1,78 @@
+package com.mockservice.service;
+
+import com.mockservice.domain.Route;
+import com.mockservice.validate.DataValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs request body validation off the request thread.
+ * The queue is bounded: when validation can not keep up, requests are dropped (and counted)
+ * rather than held in memory.
+ */
+@Service
+public class AsyncValidationServiceImpl implements AsyncValidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncValidationServiceImpl.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Counter passed;
+    private final Counter failed;
+    private final Counter dropped;
+
+    public AsyncValidationServiceImpl(@Value("${application.validation.async.threads}") int threads,
+                                      @Value("${application.validation.async.queue-size}") int queueSize,
+                                      MeterRegistry meterRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                r -> {
+                    Thread thread = new Thread(r, "async-validation-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        passed = counter(meterRegistry, "passed");
+        failed = counter(meterRegistry, "failed");
+        dropped = counter(meterRegistry, "dropped");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("mockservice.validation.async")
+                .description("Request bodies validated in background")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void submit(Route route, Runnable validation) {
+        try {
+            executor.execute(() -> validate(route, validation));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    private void validate(Route route, Runnable validation) {
+        try {
+            validation.run();
+            passed.increment();
+        } catch (DataValidationException e) {
+            failed.increment();
+            log.warn("Request body validation failed (async). Route: {}\n{}", route, e.getMessage());
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("Request body validation error (async). Route: " + route, e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.mockservice.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Faults decided for one response by a chaos profile.
+ * All random picks come from the decision, so the same decision always alters a response the same way.
+ */
+public class ChaosFaults {
+
+    private static final int MAX_CORRUPTED_CHARS = 8;
+
+    private final Object profile;
+    private final long seed;
+    private final long sequence;
+    private int statusCode = 0;
+    private long delayMs = 0;
+    private double truncateAt = -1;
+    private boolean corrupt = false;
+    private long corruptSeed = 0;
+    private List<String> removeHeaders = List.of();
+
+    ChaosFaults(Object profile, long seed, long sequence) {
+        this.profile = profile;
+        this.seed = seed;
+        this.sequence = sequence;
+    }
+
+    ChaosFaults setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+        return this;
+    }
+
+    ChaosFaults setDelayMs(long delayMs) {
+        this.delayMs = delayMs;
+        return this;
+    }
+
+    ChaosFaults setTruncateAt(double truncateAt) {
+        this.truncateAt = truncateAt;
+        return this;
+    }
+
+    ChaosFaults setCorruptSeed(long corruptSeed) {
+        this.corrupt = true;
+        this.corruptSeed = corruptSeed;
+        return this;
+    }
+
+    ChaosFaults setRemoveHeaders(List<String> removeHeaders) {
+        this.removeHeaders = removeHeaders;
+        return this;
+    }
+
+    boolean isEmpty() {
+        return statusCode == 0 && delayMs == 0 && truncateAt < 0 && !corrupt && removeHeaders.isEmpty();
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public long getDelayMs() {
+        return delayMs;
+    }
+
+    public boolean isTruncated() {
+        return truncateAt >= 0;
+    }
+
+    public boolean isCorrupted() {
+        return corrupt;
+    }
+
+    public List<String> getRemoveHeaders() {
+        return removeHeaders;
+    }
+
+    /**
+     * Alters the response, except for the latency, see {@link #delay}.
+     */
+    public ResponseEntity<String> apply(ResponseEntity<String> response) {
+        String body = response.getBody();
+        if (body != null && truncateAt >= 0) {
+            body = body.substring(0, (int) (body.length() * truncateAt));
+        }
+        if (body != null && corrupt && !body.isEmpty()) {
+            body = corrupt(body);
+        }
+
+        HttpHeaders headers = response.getHeaders();
+        if (!removeHeaders.isEmpty()) {
+            headers = new HttpHeaders();
+            headers.addAll(response.getHeaders());
+            removeHeaders.forEach(headers::remove);
+        }
+
+        return ResponseEntity
+                .status(statusCode > 0 ? statusCode : response.getStatusCode().value())
+                .headers(headers)
+                .body(body);
+    }
+
+    /**
+     * Completes with the response after the latency. Nothing waits on a thread meanwhile.
+     */
+    public <T> CompletableFuture<T> delay(T response) {
+        if (delayMs <= 0) {
+            return CompletableFuture.completedFuture(response);
+        }
+        return CompletableFuture.supplyAsync(() -> response,
+                CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS));
+    }
+
+    private String corrupt(String body) {
+        SplittableRandom random = new SplittableRandom(corruptSeed);
+        char[] chars = body.toCharArray();
+        int count = Math.min(MAX_CORRUPTED_CHARS, 1 + chars.length / 512);
+        for (int i = 0; i < count; i++) {
+            // printable ASCII, so the damage is visible in logs
+            chars[random.nextInt(chars.length)] = (char) random.nextInt('!', '~' + 1);
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder()
+                .append("profile ").append(profile).append(" seed ").append(seed).append(" #").append(sequence);
+        if (statusCode > 0) builder.append(", status=").append(statusCode);
+        if (delayMs > 0) builder.append(", delay=").append(delayMs).append("ms");
+        if (truncateAt >= 0) builder.append(", truncated");
+        if (corrupt) builder.append(", corrupted");
+        if (!removeHeaders.isEmpty()) builder.append(", removed headers=").append(removeHeaders);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,9 @@
+package com.mockservice.service;
+
+import com.mockservice.domain.Route;
+
+import java.util.Optional;
+
+public interface ChaosService {
+    Optional<ChaosFaults> decide(Route route);
+}
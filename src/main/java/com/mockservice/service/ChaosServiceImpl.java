@@ -0,0 +1,210 @@
+package com.mockservice.service;
+
+import com.mockservice.domain.ChaosProfile;
+import com.mockservice.domain.Route;
+import com.mockservice.repository.ConfigRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides faults of chaos profiles (see Settings.chaosProfiles).
+ * <p>
+ * Each profile numbers the responses it decides for. The decision for response N
+ * only depends on the profile seed and N, so a run with the same seed and
+ * the same order of requests gets the same faults; sequences restart when settings change.
+ * A decision is a few draws from a fresh SplittableRandom, no locks are taken.
+ * Its seed is hashed, so the streams of neighbouring responses do not overlap.
+ */
+@Service
+public class ChaosServiceImpl implements ChaosService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChaosServiceImpl.class);
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final ConfigRepository configRepository;
+    private final Counter statusFaults;
+    private final Counter latencyFaults;
+    private final Counter truncateFaults;
+    private final Counter corruptFaults;
+    private final Counter headerFaults;
+    private volatile CompiledProfiles profiles = new CompiledProfiles(List.of());
+
+    public ChaosServiceImpl(ConfigRepository configRepository, MeterRegistry meterRegistry) {
+        this.configRepository = configRepository;
+
+        statusFaults = counter(meterRegistry, "status");
+        latencyFaults = counter(meterRegistry, "latency");
+        truncateFaults = counter(meterRegistry, "truncate");
+        corruptFaults = counter(meterRegistry, "corrupt");
+        headerFaults = counter(meterRegistry, "headers");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String fault) {
+        return Counter.builder("mockservice.chaos.faults")
+                .description("Faults injected by chaos profiles")
+                .tag("fault", fault)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<ChaosFaults> decide(Route route) {
+        List<ChaosProfile> source = configRepository.getSettings().getChaosProfiles();
+        if (source.isEmpty()) {
+            return Optional.empty();
+        }
+
+        for (CompiledProfile profile : compiled(source).profiles) {
+            if (profile.profile.matches(route)) {
+                ChaosFaults faults = profile.next();
+                if (faults.isEmpty()) {
+                    return Optional.empty();
+                }
+                count(faults);
+                log.info("Chaos {}: {}", route, faults);
+                return Optional.of(faults);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private CompiledProfiles compiled(List<ChaosProfile> source) {
+        CompiledProfiles current = profiles;
+        if (current.source == source) {
+            return current;
+        }
+        synchronized (this) {
+            if (profiles.source != source) {
+                profiles = new CompiledProfiles(source);
+            }
+            return profiles;
+        }
+    }
+
+    private void count(ChaosFaults faults) {
+        if (faults.getStatusCode() > 0) statusFaults.increment();
+        if (faults.getDelayMs() > 0) latencyFaults.increment();
+        if (faults.isTruncated()) truncateFaults.increment();
+        if (faults.isCorrupted()) corruptFaults.increment();
+        if (!faults.getRemoveHeaders().isEmpty()) headerFaults.increment();
+    }
+
+    private static class CompiledProfiles {
+        private final List<ChaosProfile> source;
+        private final List<CompiledProfile> profiles;
+
+        CompiledProfiles(List<ChaosProfile> source) {
+            this.source = source;
+            this.profiles = source.stream().map(CompiledProfile::new).toList();
+        }
+    }
+
+    private static class CompiledProfile {
+        private final ChaosProfile profile;
+        private final long seed;
+        private final int[] errorCodes;
+        // cumulative, so a single draw picks the status
+        private final double[] errorThresholds;
+        private final AtomicLong sequence = new AtomicLong();
+
+        CompiledProfile(ChaosProfile profile) {
+            this.profile = profile;
+            this.seed = profile.getSeed() != null ? profile.getSeed() : ThreadLocalRandom.current().nextLong();
+
+            Map<Integer, Double> errorPercents = profile.getErrorPercents();
+            int[] codes = new int[errorPercents.size()];
+            double[] thresholds = new double[errorPercents.size()];
+            int n = 0;
+            double total = 0;
+            for (Map.Entry<Integer, Double> entry : errorPercents.entrySet()) {
+                int code = entry.getKey();
+                double percent = entry.getValue() == null ? 0 : entry.getValue();
+                if (code < 100 || code > 599 || percent <= 0) {
+                    log.warn("Chaos profile {}: error {}% of status {} ignored", profile, percent, code);
+                    continue;
+                }
+                total += percent;
+                codes[n] = code;
+                thresholds[n] = total;
+                n++;
+            }
+            if (total > 100) {
+                log.warn("Chaos profile {}: error percents add up to {}%, the last ones are cut", profile, total);
+            }
+            this.errorCodes = Arrays.copyOf(codes, n);
+            this.errorThresholds = Arrays.copyOf(thresholds, n);
+
+            log.info("Chaos profile {} seed: {}", profile, seed);
+        }
+
+        ChaosFaults next() {
+            long n = sequence.getAndIncrement();
+            SplittableRandom random = new SplittableRandom(fmix64(seed + n * GOLDEN_GAMMA));
+            ChaosFaults faults = new ChaosFaults(profile, seed, n);
+
+            if (errorCodes.length > 0) {
+                double roll = random.nextDouble() * 100;
+                for (int i = 0; i < errorCodes.length; i++) {
+                    if (roll < errorThresholds[i]) {
+                        faults.setStatusCode(errorCodes[i]);
+                        break;
+                    }
+                }
+            }
+            faults.setDelayMs(latency(random));
+            if (chance(random, profile.getTruncatePercent())) {
+                faults.setTruncateAt(random.nextDouble());
+            }
+            if (chance(random, profile.getCorruptPercent())) {
+                faults.setCorruptSeed(random.nextLong());
+            }
+            if (!profile.getRemoveHeaders().isEmpty() && chance(random, profile.getRemoveHeadersPercent())) {
+                faults.setRemoveHeaders(profile.getRemoveHeaders());
+            }
+            return faults;
+        }
+
+        private long latency(SplittableRandom random) {
+            long mean = profile.getLatencyMs();
+            long jitter = profile.getLatencyJitterMs();
+            double latency;
+            switch (profile.getLatencyDistribution()) {
+                case UNIFORM:
+                    latency = jitter == 0 ? mean : mean + random.nextLong(-jitter, jitter + 1);
+                    break;
+                case NORMAL:
+                    latency = mean + random.nextGaussian() * jitter;
+                    break;
+                case EXPONENTIAL:
+                    latency = mean == 0 ? 0 : random.nextExponential() * mean;
+                    break;
+                default:
+                    latency = mean;
+                    break;
+            }
+            return Math.max(0, Math.round(latency));
+        }
+
+        // murmur3 finalizer
+        private static long fmix64(long z) {
+            z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+            z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return z ^ (z >>> 33);
+        }
+
+        private static boolean chance(SplittableRandom random, double percent) {
+            return percent > 0 && random.nextDouble() * 100 < percent;
+        }
+    }
+}
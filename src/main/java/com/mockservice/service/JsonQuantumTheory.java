@@ -1,14 +1,18 @@
 package com.mockservice.service;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.mockservice.producer.JsonProducer;
 import com.mockservice.producer.ValueProducer;
 import com.mockservice.util.JsonUtils;
 import com.mockservice.util.RandomUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.StringWriter;
 
 @Service
 public class JsonQuantumTheory implements QuantumTheory {
@@ -20,18 +24,27 @@ public class JsonQuantumTheory implements QuantumTheory {
             500, 501, 502, 503, 504, 505, 506, 507, 508, 509, 510, 511
     };
 
-    private static final String REGEX_JSON_STRING_VALUE = "\"(\\w+)\"\\s*:\\s*\"((\\\\\"|[^\"])*)\"";
-    private static final String REGEX_JSON_NUMERIC_VALUE = "\"(\\w+)\"\\s*:\\s*(-?[\\d\\.e]+)";
-    private static final String REGEX_JSON_BOOLEAN_VALUE = "\"(\\w+)\"\\s*:\\s*(false|true)";
-
     private final ValueProducer valueProducer;
     private final JsonProducer jsonProducer;
     private final RandomUtils randomUtils;
-
-    public JsonQuantumTheory(ValueProducer valueProducer, JsonProducer jsonProducer, RandomUtils randomUtils) {
+    private final int mutatePercent;
+    private final int nullPercent;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * @param mutatePercent chance for each string, number and boolean value to get a random value
+     * @param nullPercent   chance for a randomized string or number to become null instead
+     */
+    public JsonQuantumTheory(ValueProducer valueProducer,
+                             JsonProducer jsonProducer,
+                             RandomUtils randomUtils,
+                             @Value("${application.quantum.mutate-percent}") int mutatePercent,
+                             @Value("${application.quantum.null-percent}") int nullPercent) {
         this.valueProducer = valueProducer;
         this.jsonProducer = jsonProducer;
         this.randomUtils = randomUtils;
+        this.mutatePercent = mutatePercent;
+        this.nullPercent = nullPercent;
     }
 
     @Override
@@ -75,46 +88,43 @@ public class JsonQuantumTheory implements QuantumTheory {
         return randomizeJsonValues(input); // 43,2% chance
     }
 
+    // one pass of the parser, values anywhere in the document (arrays included) are randomized;
+    // a body that turns out not to be JSON is returned as is
     private String randomizeJsonValues(String data) {
-        Pattern pattern = Pattern.compile(REGEX_JSON_STRING_VALUE);
-        Matcher matcher = pattern.matcher(data);
-        if (matcher.find()) {
-            data = matcher.replaceAll(this::stringReplacer);
-        }
-
-        pattern = Pattern.compile(REGEX_JSON_NUMERIC_VALUE);
-        matcher = pattern.matcher(data);
-        if (matcher.find()) {
-            data = matcher.replaceAll(this::numberReplacer);
-        }
-
-        pattern = Pattern.compile(REGEX_JSON_BOOLEAN_VALUE);
-        matcher = pattern.matcher(data);
-        if (matcher.find()) {
-            data = matcher.replaceAll(this::booleanReplacer);
+        StringWriter writer = new StringWriter(data.length());
+        try (JsonParser parser = jsonFactory.createParser(data);
+             JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (isMutable(token) && randomUtils.withChance(mutatePercent)) {
+                    writeRandomValue(generator, token);
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+            }
+        } catch (IOException e) {
+            return data;
         }
-
-        return data;
+        return writer.toString();
     }
 
-    private String stringReplacer(MatchResult matchResult) {
-        String name = matchResult.group(1);
-        if (randomUtils.withChance(10)) {
-            return "\"" + name + "\": null";
-        }
-        return "\"" + name + "\": \"" + valueProducer.randomString() + "\"";
+    private static boolean isMutable(JsonToken token) {
+        return token == JsonToken.VALUE_STRING
+                || token == JsonToken.VALUE_NUMBER_INT
+                || token == JsonToken.VALUE_NUMBER_FLOAT
+                || token == JsonToken.VALUE_TRUE
+                || token == JsonToken.VALUE_FALSE;
     }
 
-    private String numberReplacer(MatchResult matchResult) {
-        String name = matchResult.group(1);
-        if (randomUtils.withChance(10)) {
-            return "\"" + name + "\": null";
+    private void writeRandomValue(JsonGenerator generator, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            generator.writeBoolean(Boolean.parseBoolean(valueProducer.randomBooleanString()));
+        } else if (randomUtils.withChance(nullPercent)) {
+            generator.writeNull();
+        } else if (token == JsonToken.VALUE_STRING) {
+            generator.writeString(valueProducer.randomString());
+        } else {
+            generator.writeNumber(valueProducer.randomNumberString());
         }
-        return "\"" + name + "\": " + valueProducer.randomNumberString();
-    }
-
-    private String booleanReplacer(MatchResult matchResult) {
-        String name = matchResult.group(1);
-        return "\"" + name + "\": " + valueProducer.randomBooleanString();
     }
 }
@@ -0,0 +1,11 @@
+package com.mockservice.service;
+
+import com.mockservice.model.Callback;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+
+public interface LoopbackService {
+    boolean isLoopback(Callback callback);
+    Optional<ResponseEntity<String>> dispatch(Callback callback);
+}
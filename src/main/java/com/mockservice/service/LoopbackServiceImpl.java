@@ -0,0 +1,167 @@
+package com.mockservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockservice.domain.Route;
+import com.mockservice.domain.RouteType;
+import com.mockservice.model.Callback;
+import com.mockservice.repository.ConfigRepository;
+import com.mockservice.request.RequestFacade;
+import com.mockservice.request.RestRequestFacade;
+import com.mockservice.request.SoapRequestFacade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Dispatches callbacks addressed to this instance directly to {@link MockService},
+ * bypassing the network stack.
+ * Path patterns and host lookups are cached in bounded LRU caches, callback URLs are arbitrary.
+ */
+@Service
+public class LoopbackServiceImpl implements LoopbackService {
+
+    private static final Logger log = LoggerFactory.getLogger(LoopbackServiceImpl.class);
+    private static final int CACHE_SIZE = 256;
+
+    private final boolean enabled;
+    private final int serverPort;
+    private final String contextPath;
+    private final MockService mockService;
+    private final ConfigRepository configRepository;
+    private final ObjectMapper jsonMapper;
+    private final PathPatternParser patternParser = new PathPatternParser();
+    private final ConcurrentLruCache<String, PathPattern> patterns = new ConcurrentLruCache<>(CACHE_SIZE, patternParser::parse);
+    private final ConcurrentLruCache<String, Boolean> localHosts = new ConcurrentLruCache<>(CACHE_SIZE, LoopbackServiceImpl::isLocalHost);
+
+    public LoopbackServiceImpl(@Value("${application.callback.loopback}") boolean enabled,
+                               @Value("${server.port}") int serverPort,
+                               @Value("${server.servlet.context-path}") String contextPath,
+                               @Lazy MockService mockService,
+                               ConfigRepository configRepository,
+                               @Qualifier("jsonMapper") ObjectMapper jsonMapper) {
+        this.enabled = enabled;
+        this.serverPort = serverPort;
+        this.contextPath = contextPath == null ? "" : contextPath;
+        this.mockService = mockService;
+        this.configRepository = configRepository;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public boolean isLoopback(Callback callback) {
+        if (!enabled) {
+            return false;
+        }
+        UriComponents uri = parse(callback.getUrl());
+        return uri != null
+                && uri.getHost() != null
+                && port(uri) == serverPort
+                && path(uri) != null
+                && localHosts.get(uri.getHost().toLowerCase());
+    }
+
+    @Override
+    public Optional<ResponseEntity<String>> dispatch(Callback callback) {
+        if (!isLoopback(callback)) {
+            return Optional.empty();
+        }
+
+        UriComponents uri = parse(callback.getUrl());
+        PathContainer path = PathContainer.parsePath(Objects.requireNonNull(path(uri)));
+
+        Route route = null;
+        PathPattern routePattern = null;
+        for (Route candidate : configRepository.findAllRoutes()) {
+            if (candidate.getDisabled() || !candidate.getMethod().equals(callback.getMethod())) {
+                continue;
+            }
+            PathPattern pattern = patterns.get(candidate.getPath());
+            if (pattern.matches(path)
+                    && (routePattern == null || PathPattern.SPECIFICITY_COMPARATOR.compare(pattern, routePattern) < 0)) {
+                route = candidate;
+                routePattern = pattern;
+            }
+        }
+        if (route == null) {
+            log.info("Callback to self has no matching route, sending over network: {}", callback);
+            return Optional.empty();
+        }
+
+        PathPattern.PathMatchInfo matchInfo = routePattern.matchAndExtract(path);
+        Map<String, String> pathVariables = matchInfo == null ? Map.of() : matchInfo.getUriVariables();
+        Map<String, String> requestParams = new LinkedHashMap<>();
+        uri.getQueryParams().forEach((k, v) -> requestParams.put(
+                decode(k),
+                v.isEmpty() || v.get(0) == null ? "" : decode(v.get(0))));
+
+        RequestFacade facade = RouteType.SOAP.equals(route.getType())
+                ? new SoapRequestFacade(callback.getMethod(), route.getPath(), pathVariables, requestParams, callback.getHeaders(), callback.getBody(), jsonMapper)
+                : new RestRequestFacade(callback.getMethod(), route.getPath(), pathVariables, requestParams, callback.getHeaders(), callback.getBody(), jsonMapper);
+        return Optional.of(mockService.mock(facade));
+    }
+
+    private static UriComponents parse(String url) {
+        try {
+            return UriComponentsBuilder.fromUriString(url).build();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // the path within the servlet context, null if the URL is outside of it
+    private String path(UriComponents uri) {
+        String path = uri.getPath() == null || uri.getPath().isEmpty() ? "/" : uri.getPath();
+        if (contextPath.isEmpty()) {
+            return path;
+        }
+        if (path.equals(contextPath)) {
+            return "/";
+        }
+        return path.startsWith(contextPath + "/") ? path.substring(contextPath.length()) : null;
+    }
+
+    private static int port(UriComponents uri) {
+        if (uri.getPort() >= 0) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    private static String decode(String value) {
+        return UriUtils.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isLocalHost(String host) {
+        if ("localhost".equals(host)) {
+            return true;
+        }
+        try {
+            InetAddress address = InetAddress.getByName(host);
+            return address.isLoopbackAddress()
+                    || address.isAnyLocalAddress()
+                    || NetworkInterface.getByInetAddress(address) != null;
+        } catch (UnknownHostException e) {
+            return false;
+        } catch (Exception e) {
+            log.warn("Could not resolve callback host {}: {}", host, e.getMessage());
+            return false;
+        }
+    }
+}
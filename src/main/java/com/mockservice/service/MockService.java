@@ -4,7 +4,10 @@ import com.mockservice.domain.Route;
 import com.mockservice.request.RequestFacade;
 import org.springframework.http.ResponseEntity;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface MockService {
     void cacheRemove(Route route);
     ResponseEntity<String> mock(RequestFacade request);
+    CompletableFuture<ResponseEntity<?>> serve(RequestFacade request);
 }
@@ -1,13 +1,20 @@
 package com.mockservice.service;
 
+import com.mockservice.domain.ConnectionFault;
 import com.mockservice.domain.Route;
 import com.mockservice.domain.RouteType;
+import com.mockservice.domain.Settings;
 import com.mockservice.exception.NoRouteFoundException;
+import com.mockservice.producer.JsonFromSchemaProducer;
 import com.mockservice.repository.ConfigRepository;
+import com.mockservice.request.ParsedBody;
 import com.mockservice.request.RequestFacade;
+import com.mockservice.response.FaultyBody;
+import com.mockservice.response.MappedBody;
 import com.mockservice.response.MockResponse;
 import com.mockservice.response.RestMockResponse;
 import com.mockservice.response.SoapMockResponse;
+import com.mockservice.template.MockFunctions;
 import com.mockservice.template.MockVariables;
 import com.mockservice.template.TemplateEngine;
 import com.mockservice.validate.DataValidationException;
@@ -22,7 +29,10 @@ import org.springframework.util.ConcurrentLruCache;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class MockServiceImpl implements MockService {
@@ -36,7 +46,11 @@ public class MockServiceImpl implements MockService {
     private final RequestService requestService;
     private final List<QuantumTheory> quantumTheories;
     private final List<DataValidator> dataValidators;
-    private final ConcurrentLruCache<Route, MockResponse> responseCache;
+    private final ResponseBodyStore responseBodyStore;
+    private final AsyncValidationService asyncValidationService;
+    private final ChaosService chaosService;
+    private final JsonFromSchemaProducer jsonFromSchemaProducer;
+    private final ConcurrentLruCache<ResponseKey, MockResponse> responseCache;
 
     public MockServiceImpl(@Value("${application.mock-service.cache-size}") int cacheSize,
                            TemplateEngine templateEngine,
@@ -45,7 +59,11 @@ public class MockServiceImpl implements MockService {
                            ConfigRepository configRepository,
                            RequestService requestService,
                            List<QuantumTheory> quantumTheories,
-                           List<DataValidator> dataValidators) {
+                           List<DataValidator> dataValidators,
+                           ResponseBodyStore responseBodyStore,
+                           AsyncValidationService asyncValidationService,
+                           ChaosService chaosService,
+                           JsonFromSchemaProducer jsonFromSchemaProducer) {
         this.templateEngine = templateEngine;
         this.routeService = routeService;
         this.scenarioService = scenarioService;
@@ -53,43 +71,113 @@ public class MockServiceImpl implements MockService {
         this.requestService = requestService;
         this.quantumTheories = quantumTheories;
         this.dataValidators = dataValidators;
+        this.responseBodyStore = responseBodyStore;
+        this.asyncValidationService = asyncValidationService;
+        this.chaosService = chaosService;
+        this.jsonFromSchemaProducer = jsonFromSchemaProducer;
         responseCache = new ConcurrentLruCache<>(cacheSize, this::mockResponseFromRoute);
     }
 
-    private MockResponse mockResponseFromRoute(Route route) {
-        if (RouteType.REST.equals(route.getType())) {
-            return new RestMockResponse(route.getResponseCode(), route.getResponse());
+    private MockResponse mockResponseFromRoute(ResponseKey key) {
+        MockResponse response;
+        if (RouteType.REST.equals(key.type)) {
+            response = new RestMockResponse(key.responseCode, key.response);
         } else {
-            return new SoapMockResponse(route.getResponseCode(), route.getResponse());
+            response = new SoapMockResponse(key.responseCode, key.response);
         }
+        response.getConstantResponseBody()
+                .flatMap(responseBodyStore::store)
+                .ifPresent(body -> {
+                    response.setMappedResponseBody(body);
+                    log.info("Response body mapped off-heap: {}, {}", key, body);
+                });
+        return response;
     }
 
     @Override
     public void cacheRemove(Route route) {
-        if (responseCache.remove(route)) {
+        if (responseCache.remove(new ResponseKey(route))) {
             log.info("Route evicted: {}", route);
         }
     }
 
     @Override
     public ResponseEntity<String> mock(RequestFacade request) {
-        Route route = findRouteForRequest(request);
+        RequestBodyValidationResult validationResult = findValidatedRoute(request);
+        MockResponse response = mockResponse(request, validationResult);
+        Optional<ChaosFaults> chaos = chaosService.decide(validationResult.getRoute());
 
-        var validationResult = validateRequestBody(route, request.getBody());
-        route = validationResult.getRoute();
+        ResponseEntity<String> responseEntity = responseEntityFromResponse(response);
+        responseEntity = maybeApplyQuantumTheory(responseEntity);
+        responseEntity = maybeApplyChaos(chaos, responseEntity);
 
-        MockResponse response = responseCache.get(route);
+        response.ifHasRequest(requestService::schedule);
 
-        MockVariables variables = request.getVariables(Optional.ofNullable(routeService.getRouteVariables(route)));
-        response.setVariables(variables, templateEngine.getFunctions());
-        validationResult.ifError(response::addVariables);
+        // the caller waits for the response anyway, like for a remote callback
+        return maybeDelay(chaos, responseEntity).join();
+    }
 
-        ResponseEntity<String> responseEntity = responseEntityFromResponse(response);
-        responseEntity = maybeApplyQuantumTheory(responseEntity);
+    /**
+     * Same as {@link #mock}, but a body mapped off-heap is returned as is
+     * to be written to the socket straight from the mapped buffer.
+     * A body of a route with a connection fault is returned as {@link FaultyBody}.
+     * The future completes after the chaos latency, if any.
+     */
+    @Override
+    public CompletableFuture<ResponseEntity<?>> serve(RequestFacade request) {
+        RequestBodyValidationResult validationResult = findValidatedRoute(request);
+        MockResponse response = mockResponse(request, validationResult);
+        Optional<ChaosFaults> chaos = chaosService.decide(validationResult.getRoute());
+        ConnectionFault fault = validationResult.getRoute().getFault();
+
+        Optional<MappedBody> mappedBody = response.getMappedResponseBody();
+        ResponseEntity<?> responseEntity;
+        if (fault != ConnectionFault.NONE) {
+            ResponseEntity<String> faulty = maybeApplyChaos(chaos, maybeApplyQuantumTheory(responseEntityFromResponse(response)));
+            log.info("Connection fault {}: {}", fault, validationResult.getRoute());
+            responseEntity = ResponseEntity
+                    .status(faulty.getStatusCode())
+                    .headers(faulty.getHeaders())
+                    .body(new FaultyBody(faulty.getBody(), fault));
+        } else if (mappedBody.isPresent() && !configRepository.getSettings().getQuantum() && chaos.isEmpty()) {
+            responseEntity = ResponseEntity
+                    .status(response.getResponseCode())
+                    .headers(response.getResponseHeaders())
+                    .body(mappedBody.get());
+        } else {
+            responseEntity = maybeApplyChaos(chaos, maybeApplyQuantumTheory(responseEntityFromResponse(response)));
+        }
 
         response.ifHasRequest(requestService::schedule);
 
-        return responseEntity;
+        return maybeDelay(chaos, responseEntity);
+    }
+
+    private static <T> CompletableFuture<T> maybeDelay(Optional<ChaosFaults> chaos, T responseEntity) {
+        return chaos.map(faults -> faults.delay(responseEntity))
+                .orElseGet(() -> CompletableFuture.completedFuture(responseEntity));
+    }
+
+    private RequestBodyValidationResult findValidatedRoute(RequestFacade request) {
+        Route route = findRouteForRequest(request);
+        return validateRequestBody(route, request.getParsedBody());
+    }
+
+    private MockResponse mockResponse(RequestFacade request, RequestBodyValidationResult validationResult) {
+        Route route = validationResult.getRoute();
+
+        MockResponse template = responseCache.get(new ResponseKey(route));
+
+        MockVariables variables = request.getVariables(Optional.ofNullable(getRouteVariables(request, route)));
+        MockFunctions functions = templateEngine.getFunctions();
+        String responseSchema = route.getResponseSchema();
+        if (!responseSchema.isEmpty()) {
+            functions.put(TemplateEngine.FROM_SCHEMA, args -> jsonFromSchemaProducer.jsonFromSchemaText(responseSchema));
+        }
+        MockResponse response = template.withVariables(variables, functions);
+        validationResult.ifError(response::addVariables);
+
+        return response;
     }
 
     private Route findRouteForRequest(RequestFacade request) {
@@ -104,7 +192,7 @@ public class MockServiceImpl implements MockService {
         }
 
         String alt = request.getAlt()
-                .or(() -> scenarioService.getAltFor(request.getRequestMethod(), request.getEndpoint()))
+                .or(() -> getScenarioAltFor(request))
                 .or(() -> maybeGetRandomAltFor(request.getRequestMethod(), request.getEndpoint()))
                 .orElse("");
 
@@ -120,6 +208,23 @@ public class MockServiceImpl implements MockService {
                 .orElseThrow(() -> new NoRouteFoundException(searchRoute));
     }
 
+    // a request within a session sees the session state only
+    private Optional<String> getScenarioAltFor(RequestFacade request) {
+        Optional<String> session = request.getSession();
+        if (session.isPresent()) {
+            return scenarioService.getAltFor(session.get(), request.getRequestMethod(), request.getEndpoint());
+        }
+        return scenarioService.getAltFor(request.getRequestMethod(), request.getEndpoint());
+    }
+
+    private MockVariables getRouteVariables(RequestFacade request, Route route) {
+        Optional<String> session = request.getSession();
+        if (session.isPresent()) {
+            return routeService.getRouteVariables(session.get(), route);
+        }
+        return routeService.getRouteVariables(route);
+    }
+
     private Optional<String> maybeGetRandomAltFor(RequestMethod method, String path) {
         if (configRepository.getSettings().getRandomAlt() || configRepository.getSettings().getQuantum()) {
             return routeService.getRandomAltFor(method, path);
@@ -127,22 +232,42 @@ public class MockServiceImpl implements MockService {
         return Optional.empty();
     }
 
-    private RequestBodyValidationResult validateRequestBody(Route route, String body) {
+    private RequestBodyValidationResult validateRequestBody(Route route, ParsedBody body) {
         String schema = route.getRequestBodySchema();
-        try {
-            if (!schema.isEmpty()) {
-                for (DataValidator validator : dataValidators) {
-                    if (validator.applicable(body)) {
-                        validator.validate(body, schema);
-                    }
+        if (schema.isEmpty()) {
+            return RequestBodyValidationResult.success(route);
+        }
+
+        Settings settings = configRepository.getSettings();
+        switch (settings.getValidationMode()) {
+            case ASYNC:
+                asyncValidationService.submit(route, () -> validate(body, schema));
+                return RequestBodyValidationResult.success(route);
+            case SAMPLED:
+                if (ThreadLocalRandom.current().nextInt(100) >= settings.getValidationSamplePercent()) {
+                    return RequestBodyValidationResult.success(route);
                 }
-            }
+                break;
+            default:
+                break;
+        }
+
+        try {
+            validate(body, schema);
         } catch (DataValidationException e) {
             return handleValidationException(e, route);
         }
         return RequestBodyValidationResult.success(route);
     }
 
+    private void validate(ParsedBody body, String schema) {
+        for (DataValidator validator : dataValidators) {
+            if (validator.applicable(body, schema)) {
+                validator.validate(body, schema);
+            }
+        }
+    }
+
     private RequestBodyValidationResult handleValidationException(DataValidationException e, Route route) {
         if (configRepository.getSettings().getAlt400OnFailedRequestValidation()) {
             Route route400 = getRoute400For(route);
@@ -184,4 +309,43 @@ public class MockServiceImpl implements MockService {
         }
         return responseEntity;
     }
+
+    private ResponseEntity<String> maybeApplyChaos(Optional<ChaosFaults> chaos, ResponseEntity<String> responseEntity) {
+        return chaos.map(faults -> faults.apply(responseEntity)).orElse(responseEntity);
+    }
+
+    /**
+     * Compiled responses are cached by content, so routes with equal responses share one.
+     * Each request renders its own copy, see {@link MockResponse#withVariables}.
+     */
+    private static final class ResponseKey {
+        private final RouteType type;
+        private final int responseCode;
+        private final String response;
+
+        private ResponseKey(Route route) {
+            this.type = route.getType();
+            this.responseCode = route.getResponseCode();
+            this.response = route.getResponse();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, responseCode, response);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ResponseKey)) return false;
+            ResponseKey other = (ResponseKey) o;
+            return type.equals(other.type)
+                    && responseCode == other.responseCode
+                    && response.equals(other.response);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("(type=%s, code=%d, %d chars)", type, responseCode, response.length());
+        }
+    }
 }
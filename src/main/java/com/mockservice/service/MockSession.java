@@ -0,0 +1,53 @@
+package com.mockservice.service;
+
+import com.mockservice.domain.Route;
+import com.mockservice.domain.Scenario;
+import com.mockservice.template.MockVariables;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * State of one client session: scenarios activated within the session and route variables.
+ * <p>
+ * The session works on its own copies of the scenarios, so queue positions
+ * are not shared with other sessions or with the global scenarios.
+ */
+public class MockSession {
+
+    private final String key;
+    private final Set<String> activeAliases = ConcurrentHashMap.newKeySet();
+    private volatile List<Scenario> scenarios = List.of();
+    private final Map<Route, MockVariables> routesVariablesValues = new ConcurrentHashMap<>();
+
+    public MockSession(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Set<String> getActiveAliases() {
+        return activeAliases;
+    }
+
+    public List<Scenario> getScenarios() {
+        return scenarios;
+    }
+
+    public void setScenarios(List<Scenario> scenarios) {
+        this.scenarios = List.copyOf(scenarios);
+    }
+
+    public Map<Route, MockVariables> getRoutesVariablesValues() {
+        return routesVariablesValues;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(key=%s, scenarios=%s)", key, activeAliases);
+    }
+}
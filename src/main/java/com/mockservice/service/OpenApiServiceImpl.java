@@ -186,12 +186,12 @@ public class OpenApiServiceImpl implements OpenApiService {
                                       ApiResponse apiResponse,
                                       String requestBodySchema) {
         MediaType mediaType = mediaTypeFromContent(apiResponse.getContent());
+        String responseSchema = mediaType == null || mediaType.getSchema() == null ? "" : schemaFromMediaType(mediaType);
 
         String response = exampleFromMediaType(mediaType);
         if (response.isEmpty()) {
             try {
-                String jsonSchema = schemaFromMediaType(mediaType);
-                Map<String, Object> jsonSchemaMap = jsonMapper.readValue(jsonSchema, Map.class);
+                Map<String, Object> jsonSchemaMap = jsonMapper.readValue(responseSchema, Map.class);
                 response = jsonFromSchemaProducer.jsonFromSchema(jsonSchemaMap);
             } catch (JsonProcessingException e) {
                 //
@@ -208,6 +208,7 @@ public class OpenApiServiceImpl implements OpenApiService {
                         .setResponseCodeString(responseCode)
                         .setResponse(response)
                         .setRequestBodySchema(requestBodySchema)
+                        .setResponseSchema(responseSchema)
         );
     }
 
@@ -1,7 +1,12 @@
 package com.mockservice.service;
 
+import com.mockservice.model.Callback;
 import com.mockservice.response.MockResponse;
 
+import java.util.List;
+
 public interface RequestService {
     void schedule(MockResponse response);
+    List<Callback> getPendingCallbacks(int limit);
+    boolean cancelCallback(long id);
 }
@@ -1,46 +1,155 @@
 package com.mockservice.service;
 
+import com.mockservice.model.Callback;
+import com.mockservice.repository.CallbackOutbox;
 import com.mockservice.response.MockResponse;
+import com.mockservice.util.HashedWheelTimer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.concurrent.CompletableFuture;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class RequestServiceImpl implements RequestService {
 
     private static final Logger log = LoggerFactory.getLogger(RequestServiceImpl.class);
 
-    private static final long EXECUTION_DELAY_SECONDS = 2;
     private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
 
+    private final long executionDelayMillis;
+    private final HashedWheelTimer timer;
+    private final CallbackOutbox outbox;
+    private final LoopbackService loopbackService;
+    private final WebClient webClient = WebClient.create();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, PendingCallback> pendingCallbacks = new ConcurrentHashMap<>();
+
+    public RequestServiceImpl(@Value("${application.callback.delay-ms}") long executionDelayMillis,
+                              @Qualifier("callbackTimer") HashedWheelTimer timer,
+                              CallbackOutbox outbox,
+                              LoopbackService loopbackService) {
+        this.executionDelayMillis = executionDelayMillis;
+        this.timer = timer;
+        this.outbox = outbox;
+        this.loopbackService = loopbackService;
+        recover();
+    }
+
+    private void recover() {
+        List<Callback> callbacks = outbox.recover();
+        if (callbacks.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Callback callback : callbacks) {
+            sequence.accumulateAndGet(callback.getId(), Math::max);
+            schedule(callback, Math.max(0, callback.getExecuteAt() - now));
+        }
+        log.info("Callbacks recovered from outbox: {}", callbacks.size());
+    }
+
     @Override
     public void schedule(MockResponse response) {
-        CompletableFuture.runAsync(
-                () -> executeRequest(response),
-                CompletableFuture.delayedExecutor(EXECUTION_DELAY_SECONDS, TimeUnit.SECONDS)
-        );
+        Callback callback = new Callback()
+                .setId(sequence.incrementAndGet())
+                .setMethod(RequestMethod.valueOf(response.getRequestMethod().name()))
+                .setUrl(response.getRequestUrl())
+                .setHeaders(response.getRequestHeaders())
+                .setBody(response.getRequestBody())
+                .setExecuteAt(System.currentTimeMillis() + executionDelayMillis);
+        try {
+            outbox.append(callback);
+        } catch (IOException e) {
+            log.error("Callback is not persisted and will be lost on restart: " + callback, e);
+        }
+        schedule(callback, executionDelayMillis);
     }
 
-    private void executeRequest(MockResponse mockResponse) {
-        try {
-            String url = mockResponse.getRequestUrl();
+    private void schedule(Callback callback, long delayMillis) {
+        PendingCallback pending = new PendingCallback(callback);
+        pendingCallbacks.put(callback.getId(), pending);
+        pending.timeout = timer.schedule(() -> execute(callback), delayMillis, TimeUnit.MILLISECONDS);
+    }
 
+    @Override
+    public List<Callback> getPendingCallbacks(int limit) {
+        return pendingCallbacks.values().stream()
+                .map(p -> p.callback)
+                .sorted(Comparator.comparingLong(Callback::getExecuteAt).thenComparingLong(Callback::getId))
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    @Override
+    public boolean cancelCallback(long id) {
+        PendingCallback pending = pendingCallbacks.remove(id);
+        if (pending == null) {
+            return false;
+        }
+        HashedWheelTimer.Timeout timeout = pending.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        outbox.markDone(id);
+        log.info("Callback cancelled: {}", pending.callback);
+        return true;
+    }
+
+    private void execute(Callback callback) {
+        // a callback cancelled concurrently with its expiration is not executed
+        if (pendingCallbacks.remove(callback.getId()) != null) {
+            executeRequest(callback);
+            outbox.markDone(callback.getId());
+        }
+    }
+
+    private void executeRequest(Callback callback) {
+        try {
             log.info("Callback request: {}, {}, {}, {}",
-                    mockResponse.getRequestMethod(),
-                    url,
-                    mockResponse.getRequestBody(),
-                    mockResponse.getRequestHeaders());
-
-            String response = WebClient.create()
-                    .method(mockResponse.getRequestMethod())
-                    .uri(url)
-                    .bodyValue(mockResponse.getRequestBody())
-                    .headers(c -> c.putAll(mockResponse.getRequestHeaders()))
+                    callback.getMethod(),
+                    callback.getUrl(),
+                    callback.getBody(),
+                    callback.getHeaders());
+
+            Optional<ResponseEntity<String>> loopbackResponse = loopbackService.dispatch(callback);
+            if (loopbackResponse.isPresent()) {
+                ResponseEntity<String> response = loopbackResponse.get();
+                // same as retrieve() does for a remote error status
+                if (response.getStatusCode().isError()) {
+                    throw WebClientResponseException.create(
+                            response.getStatusCode().value(),
+                            "Loopback callback failed",
+                            response.getHeaders(),
+                            response.getBody() == null ? new byte[0] : response.getBody().getBytes(StandardCharsets.UTF_8),
+                            StandardCharsets.UTF_8);
+                }
+                log.info("Callback request response (loopback): {}, {}",
+                        response.getStatusCode().value(),
+                        response.getBody());
+                return;
+            }
+
+            String response = webClient
+                    .method(callback.getMethod().asHttpMethod())
+                    .uri(callback.getUrl())
+                    .bodyValue(callback.getBody())
+                    .headers(c -> c.putAll(callback.getHeaders()))
                     .retrieve()
                     .bodyToMono(String.class)
                     .block(REQUEST_TIMEOUT);
@@ -49,4 +158,13 @@ public class RequestServiceImpl implements RequestService {
             log.error("", e);
         }
     }
+
+    private static class PendingCallback {
+        private final Callback callback;
+        private volatile HashedWheelTimer.Timeout timeout;
+
+        PendingCallback(Callback callback) {
+            this.callback = callback;
+        }
+    }
 }
@@ -0,0 +1,9 @@
+package com.mockservice.service;
+
+import com.mockservice.response.MappedBody;
+
+import java.util.Optional;
+
+public interface ResponseBodyStore {
+    Optional<MappedBody> store(String body);
+}
@@ -0,0 +1,79 @@
+package com.mockservice.service;
+
+import com.mockservice.response.MappedBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Moves large response bodies out of the heap into memory-mapped files.
+ * <p>
+ * Each body gets its own file, which is deleted right after mapping: the mapping
+ * keeps the content alive until the body is garbage collected, and nothing is left
+ * on disk after a restart.
+ */
+@Service
+public class ResponseBodyStoreImpl implements ResponseBodyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseBodyStoreImpl.class);
+
+    private final int threshold;
+    private final Path directory;
+
+    public ResponseBodyStoreImpl(@Value("${application.mock-service.off-heap-threshold}") int threshold,
+                                 @Value("${application.mock-service.off-heap-directory}") String directory) {
+        this.threshold = threshold;
+        this.directory = directory == null || directory.isEmpty()
+                ? Path.of(System.getProperty("java.io.tmpdir"))
+                : Path.of(directory);
+    }
+
+    @Override
+    public Optional<MappedBody> store(String body) {
+        // a char takes at least one byte, so a shorter string is never over the threshold
+        if (threshold <= 0 || body == null || body.length() < threshold) {
+            return Optional.empty();
+        }
+        byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        try {
+            return Optional.of(new MappedBody(map(data)));
+        } catch (IOException e) {
+            log.warn("Could not map response body of {} bytes, keeping it on heap: {}", data.length, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private MappedByteBuffer map(byte[] data) throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, "body-", ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, data.length);
+        } finally {
+            deleteMapped(file);
+        }
+    }
+
+    private static void deleteMapped(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // mapped files can not be deleted on some platforms
+            file.toFile().deleteOnExit();
+        }
+    }
+}
@@ -21,4 +21,7 @@ public interface RouteService {
     MockVariables getRouteVariables(Route route);
     RouteVariableDto setRouteVariable(RouteVariableDto variable);
     RouteVariableDto clearRouteVariable(RouteVariableDto variable);
+    MockVariables getRouteVariables(String session, Route route);
+    RouteVariableDto setRouteVariable(String session, RouteVariableDto variable);
+    RouteVariableDto clearRouteVariable(String session, RouteVariableDto variable);
 }
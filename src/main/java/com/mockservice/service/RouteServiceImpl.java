@@ -25,16 +25,19 @@ public class RouteServiceImpl implements RouteService {
     private final ConfigRepository configRepository;
     private final RouteMapper routeMapper;
     private final RandomUtils randomUtils;
+    private final SessionService sessionService;
 
     private final Map<Route, MockVariables> routesVariablesValues = new ConcurrentHashMap<>();
 
     public RouteServiceImpl(ConfigRepository configRepository,
                             RouteMapper routeMapper,
-                            RandomUtils randomUtils
+                            RandomUtils randomUtils,
+                            SessionService sessionService
     ) {
         this.configRepository = configRepository;
         this.routeMapper = routeMapper;
         this.randomUtils = randomUtils;
+        this.sessionService = sessionService;
     }
 
     @Override
@@ -118,20 +121,52 @@ public class RouteServiceImpl implements RouteService {
 
     @Override
     public RouteVariableDto setRouteVariable(RouteVariableDto variable) {
+        return setRouteVariable(routesVariablesValues, variable);
+    }
+
+    @Override
+    public RouteVariableDto clearRouteVariable(RouteVariableDto variable) {
+        return clearRouteVariable(routesVariablesValues, variable);
+    }
+
+    //----------------------------------------------------------------------------------
+
+    @Override
+    public MockVariables getRouteVariables(String session, Route route) {
+        return sessionService.findSession(session)
+                .map(s -> s.getRoutesVariablesValues().get(route))
+                .orElse(null);
+    }
+
+    @Override
+    public RouteVariableDto setRouteVariable(String session, RouteVariableDto variable) {
+        MockSession mockSession = sessionService.getOrCreateSession(session);
+        return setRouteVariable(mockSession.getRoutesVariablesValues(), variable);
+    }
+
+    @Override
+    public RouteVariableDto clearRouteVariable(String session, RouteVariableDto variable) {
+        Optional<MockSession> mockSession = sessionService.findSession(session);
+        if (mockSession.isEmpty()) {
+            return variable.setValue(null);
+        }
+        return clearRouteVariable(mockSession.get().getRoutesVariablesValues(), variable);
+    }
+
+    private static RouteVariableDto setRouteVariable(Map<Route, MockVariables> variablesValues, RouteVariableDto variable) {
         Route route = new Route(variable.getMethod(), variable.getPath(), variable.getAlt());
-        MockVariables values = routesVariablesValues.computeIfAbsent(route, r -> new MockVariables());
+        MockVariables values = variablesValues.computeIfAbsent(route, r -> new MockVariables());
         values.put(variable.getName(), variable.getValue());
         return variable;
     }
 
-    @Override
-    public RouteVariableDto clearRouteVariable(RouteVariableDto variable) {
+    private static RouteVariableDto clearRouteVariable(Map<Route, MockVariables> variablesValues, RouteVariableDto variable) {
         Route route = new Route(variable.getMethod(), variable.getPath(), variable.getAlt());
-        MockVariables values = routesVariablesValues.get(route);
+        MockVariables values = variablesValues.get(route);
         if (values != null) {
             values.remove(variable.getName());
             if (values.isEmpty()) {
-                routesVariablesValues.remove(route);
+                variablesValues.remove(route);
             }
         }
         return variable.setValue(null);
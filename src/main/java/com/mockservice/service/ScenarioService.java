@@ -19,4 +19,9 @@ public interface ScenarioService {
     Set<String> activateScenario(String alias);
     Set<String> deactivateScenario(String alias);
     Optional<String> getAltFor(RequestMethod method, String path);
+
+    Set<String> getActiveScenarios(String session);
+    Set<String> activateScenario(String session, String alias);
+    Set<String> deactivateScenario(String session, String alias);
+    Optional<String> getAltFor(String session, RequestMethod method, String path);
 }
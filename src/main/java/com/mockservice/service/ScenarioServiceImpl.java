@@ -3,6 +3,7 @@ package com.mockservice.service;
 import com.mockservice.domain.Scenario;
 import com.mockservice.repository.ConfigObserver;
 import com.mockservice.repository.ConfigRepository;
+import com.mockservice.repository.ScenarioObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -11,23 +12,33 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * Active scenarios are indexed by method and path, so looking up an alt for a request
+ * costs a hash probe instead of a scan over all scenarios. The index is immutable and
+ * rebuilt whenever a scenario is activated, deactivated or changed.
+ * <p>
+ * Scenarios activated within a client session are tracked by the session itself
+ * and do not affect the global ones nor other sessions.
+ */
 @Service
-public class ScenarioServiceImpl implements ScenarioService, ConfigObserver {
+public class ScenarioServiceImpl implements ScenarioService, ConfigObserver, ScenarioObserver {
 
     private static final Logger log = LoggerFactory.getLogger(ScenarioServiceImpl.class);
 
     private final ConfigRepository configRepository;
+    private final SessionService sessionService;
     private Set<String> active;
+    private volatile Map<RequestMethod, Map<String, List<Scenario>>> index = Map.of();
+    // not this: the repository rebuilds the index under its own lock
+    private final Object indexLock = new Object();
 
-    public ScenarioServiceImpl(ConfigRepository configRepository) {
+    public ScenarioServiceImpl(ConfigRepository configRepository, SessionService sessionService) {
         this.configRepository = configRepository;
+        this.sessionService = sessionService;
     }
 
     @Override
@@ -66,6 +77,7 @@ public class ScenarioServiceImpl implements ScenarioService, ConfigObserver {
         Scenario scenario = findByAlias(alias)
                 .orElseThrow(() -> new IllegalArgumentException("Scenario not found: " + alias));
         activateScenarioInternal(scenario);
+        rebuildIndex();
         log.info("Scenario activated: {}", scenario);
         return getActiveScenarios();
     }
@@ -79,6 +91,7 @@ public class ScenarioServiceImpl implements ScenarioService, ConfigObserver {
         Scenario scenario = findByAlias(alias)
                 .orElseThrow(() -> new IllegalArgumentException("Scenario not found: " + alias));
         deactivateScenarioInternal(scenario);
+        rebuildIndex();
         log.info("Scenario deactivated: {}", alias);
         return getActiveScenarios();
     }
@@ -89,11 +102,115 @@ public class ScenarioServiceImpl implements ScenarioService, ConfigObserver {
 
     @Override
     public Optional<String> getAltFor(RequestMethod method, String path) {
-        return getActiveScenariosStream()
-                .map(s -> s.getAltFor(method, path))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .findFirst();
+        Map<String, List<Scenario>> byPath = index.get(method);
+        List<Scenario> scenarios = byPath == null ? null : byPath.get(path);
+        if (scenarios == null) {
+            return Optional.empty();
+        }
+        for (Scenario scenario : scenarios) {
+            Optional<String> alt = scenario.getAltFor(method, path);
+            if (alt.isPresent()) {
+                return alt;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // scenarios keep the config order, so the first active scenario still wins
+    private void rebuildIndex() {
+        synchronized (indexLock) {
+            Map<RequestMethod, Map<String, List<Scenario>>> building = new EnumMap<>(RequestMethod.class);
+            getActiveScenariosStream().forEach(scenario ->
+                    scenario.forEachEndpoint((method, path) ->
+                            building.computeIfAbsent(method, m -> new HashMap<>())
+                                    .computeIfAbsent(path, p -> new ArrayList<>())
+                                    .add(scenario)
+                    )
+            );
+            Map<RequestMethod, Map<String, List<Scenario>>> built = new EnumMap<>(RequestMethod.class);
+            building.forEach((method, byPath) -> {
+                Map<String, List<Scenario>> paths = new HashMap<>();
+                byPath.forEach((path, scenarios) -> paths.put(path, List.copyOf(scenarios)));
+                built.put(method, paths);
+            });
+            index = built;
+        }
+    }
+
+    // --- session scenarios ----------------------------------------------------------
+
+    @Override
+    public Set<String> getActiveScenarios(String session) {
+        return sessionService.findSession(session)
+                .map(s -> Set.copyOf(s.getActiveAliases()))
+                .orElse(Set.of());
+    }
+
+    @Override
+    public Set<String> activateScenario(String session, String alias) {
+        Scenario scenario = findByAlias(alias)
+                .orElseThrow(() -> new IllegalArgumentException("Scenario not found: " + alias));
+        MockSession mockSession = sessionService.getOrCreateSession(session);
+        synchronized (mockSession) {
+            mockSession.getActiveAliases().add(scenario.getAlias());
+            refreshSession(mockSession);
+        }
+        log.info("Scenario activated in session {}: {}", session, scenario);
+        return getActiveScenarios(session);
+    }
+
+    @Override
+    public Set<String> deactivateScenario(String session, String alias) {
+        Scenario scenario = findByAlias(alias)
+                .orElseThrow(() -> new IllegalArgumentException("Scenario not found: " + alias));
+        sessionService.findSession(session).ifPresent(mockSession -> {
+            synchronized (mockSession) {
+                if (mockSession.getActiveAliases().remove(scenario.getAlias())) {
+                    refreshSession(mockSession);
+                }
+            }
+        });
+        log.info("Scenario deactivated in session {}: {}", session, alias);
+        return getActiveScenarios(session);
+    }
+
+    @Override
+    public Optional<String> getAltFor(String session, RequestMethod method, String path) {
+        Optional<MockSession> mockSession = sessionService.findSession(session);
+        if (mockSession.isEmpty()) {
+            return Optional.empty();
+        }
+        for (Scenario scenario : mockSession.get().getScenarios()) {
+            Optional<String> alt = scenario.getAltFor(method, path);
+            if (alt.isPresent()) {
+                return alt;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // session copies start over from the first alt, in config order
+    private void refreshSession(MockSession mockSession) {
+        Set<String> aliases = mockSession.getActiveAliases();
+        List<Scenario> scenarios = configRepository.findAllScenarios().stream()
+                .filter(s -> aliases.contains(s.getAlias()))
+                .map(s -> {
+                    Scenario copy = new Scenario();
+                    copy.assignFrom(s);
+                    return copy.setActive(true);
+                })
+                .toList();
+        mockSession.setScenarios(scenarios);
+    }
+
+    private void refreshSessions(Scenario changed) {
+        for (MockSession mockSession : sessionService.getSessions()) {
+            synchronized (mockSession) {
+                if (changed == null || mockSession.getActiveAliases().contains(changed.getAlias())) {
+                    refreshSession(mockSession);
+                }
+            }
+        }
     }
 
     private Optional<Scenario> findByAlias(String alias) {
@@ -123,5 +240,23 @@ public class ScenarioServiceImpl implements ScenarioService, ConfigObserver {
     public void onAfterConfigChanged() {
         List<Scenario> scenarios = findByAliases(active);
         scenarios.forEach(this::activateScenarioInternal);
+        rebuildIndex();
+        refreshSessions(null);
+    }
+
+    @Override
+    public void onScenarioCreated(Scenario scenario) {
+        if (scenario.getActive()) {
+            rebuildIndex();
+        }
+        refreshSessions(scenario);
+    }
+
+    @Override
+    public void onScenarioDeleted(Scenario scenario) {
+        if (scenario.getActive()) {
+            rebuildIndex();
+        }
+        refreshSessions(scenario);
     }
 }
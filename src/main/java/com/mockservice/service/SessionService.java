@@ -0,0 +1,13 @@
+package com.mockservice.service;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+public interface SessionService {
+    Optional<MockSession> findSession(String key);
+    MockSession getOrCreateSession(String key);
+    Collection<MockSession> getSessions();
+    Set<String> getSessionKeys();
+    void deleteSession(String key);
+}
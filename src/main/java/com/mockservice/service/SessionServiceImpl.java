@@ -0,0 +1,57 @@
+package com.mockservice.service;
+
+import com.mockservice.util.ExpiringMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Client sessions by key. A session is created on first use and forgotten
+ * after being idle for the configured timeout.
+ */
+@Service
+public class SessionServiceImpl implements SessionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionServiceImpl.class);
+
+    private final ExpiringMap<String, MockSession> sessions;
+
+    public SessionServiceImpl(@Value("${application.session.idle-timeout-ms}") long idleTimeoutMs) {
+        sessions = new ExpiringMap<>(idleTimeoutMs);
+    }
+
+    @Override
+    public Optional<MockSession> findSession(String key) {
+        return Optional.ofNullable(sessions.get(key));
+    }
+
+    @Override
+    public MockSession getOrCreateSession(String key) {
+        return sessions.computeIfAbsent(key, k -> {
+            log.info("Session created: {}", k);
+            return new MockSession(k);
+        });
+    }
+
+    @Override
+    public Collection<MockSession> getSessions() {
+        return sessions.values();
+    }
+
+    @Override
+    public Set<String> getSessionKeys() {
+        return sessions.keySet();
+    }
+
+    @Override
+    public void deleteSession(String key) {
+        if (sessions.remove(key) != null) {
+            log.info("Session deleted: {}", key);
+        }
+    }
+}
@@ -60,6 +60,15 @@ public class StringTemplate {
         }
     }
 
+    public boolean isConstant() {
+        return strings.stream().noneMatch(TokenParser::isToken);
+    }
+
+    public void clear() {
+        strings.clear();
+        state = State.EMPTY;
+    }
+
     // builder
 
     public String toString(MockVariables variables, MockFunctions functions) {
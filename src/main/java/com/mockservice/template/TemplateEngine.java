@@ -1,6 +1,11 @@
 package com.mockservice.template;
 
 public interface TemplateEngine {
+    /**
+     * Generates a value of the route response schema, bound per route by MockService.
+     */
+    String FROM_SCHEMA = "from_schema";
+
     MockFunctions getFunctions();
     boolean isFunction(String arg0);
 }
@@ -27,6 +27,7 @@ public class TemplateEngineImpl implements TemplateEngine {
         suppliers.put("random_timestamp", () -> TemplateEngineImpl::randomTimestamp);
         suppliers.put("current_date", () -> TemplateEngineImpl::currentDate);
         suppliers.put("current_timestamp", () -> TemplateEngineImpl::currentTimestamp);
+        suppliers.put(FROM_SCHEMA, () -> TemplateEngineImpl::noSchema);
     }
 
     @Override
@@ -120,6 +121,11 @@ public class TemplateEngineImpl implements TemplateEngine {
                 .format(DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss.SSS"));
     }
 
+    @SuppressWarnings("unused")
+    private static String noSchema(String[] args) {
+        return "null";
+    }
+
     //--------------------------------------------------------------------------
     //
     // helper functions
@@ -0,0 +1,45 @@
+package com.mockservice.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Content-addressed pool of strings: equal contents resolve to one shared instance.
+ * <p>
+ * Entries are held weakly and disappear once no route references the content.
+ */
+public class ContentPool {
+
+    private final Map<String, WeakReference<String>> pool = new WeakHashMap<>();
+
+    public synchronized String intern(String content) {
+        if (content == null || content.isEmpty()) {
+            return content;
+        }
+        WeakReference<String> ref = pool.get(content);
+        String pooled = ref == null ? null : ref.get();
+        if (pooled != null) {
+            return pooled;
+        }
+        pool.put(content, new WeakReference<>(content));
+        return content;
+    }
+
+    public synchronized int size() {
+        return pool.size();
+    }
+
+    /**
+     * Estimated heap size of the string content: compact strings take a byte per char
+     * when all chars are Latin-1 and two bytes otherwise.
+     */
+    public static long sizeOf(String content) {
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) > 0xFF) {
+                return 2L * content.length();
+            }
+        }
+        return content.length();
+    }
+}
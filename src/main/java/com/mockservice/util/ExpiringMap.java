@@ -0,0 +1,113 @@
+package com.mockservice.util;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Concurrent map whose entries expire after a period without access.
+ * <p>
+ * There is no cleanup thread: expired entries are ignored on access and swept
+ * out at most once per idle timeout by whichever call comes first.
+ * A non-positive idle timeout disables expiration.
+ */
+public class ExpiringMap<K, V> {
+
+    private static final class Entry<V> {
+        private final V value;
+        private volatile long lastAccess;
+
+        private Entry(V value, long now) {
+            this.value = value;
+            this.lastAccess = now;
+        }
+    }
+
+    private final Map<K, Entry<V>> map = new ConcurrentHashMap<>();
+    private final long idleTimeoutMs;
+    private final LongSupplier clock;
+    private final AtomicLong lastSweep;
+
+    public ExpiringMap(long idleTimeoutMs) {
+        this(idleTimeoutMs, System::currentTimeMillis);
+    }
+
+    public ExpiringMap(long idleTimeoutMs, LongSupplier clock) {
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.clock = clock;
+        this.lastSweep = new AtomicLong(clock.getAsLong());
+    }
+
+    public V get(K key) {
+        long now = now();
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, now)) {
+            map.remove(key, entry);
+            return null;
+        }
+        entry.lastAccess = now;
+        return entry.value;
+    }
+
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        long now = now();
+        Entry<V> entry = map.compute(key, (k, existing) ->
+                existing == null || isExpired(existing, now)
+                        ? new Entry<>(mappingFunction.apply(k), now)
+                        : existing
+        );
+        entry.lastAccess = now;
+        return entry.value;
+    }
+
+    public V remove(K key) {
+        Entry<V> entry = map.remove(key);
+        return entry == null || isExpired(entry, now()) ? null : entry.value;
+    }
+
+    public Set<K> keySet() {
+        long now = now();
+        return map.entrySet().stream()
+                .filter(e -> !isExpired(e.getValue(), now))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    public Collection<V> values() {
+        long now = now();
+        return map.values().stream()
+                .filter(e -> !isExpired(e, now))
+                .map(e -> e.value)
+                .toList();
+    }
+
+    public int size() {
+        return keySet().size();
+    }
+
+    public void evictExpired() {
+        long now = clock.getAsLong();
+        map.entrySet().removeIf(e -> isExpired(e.getValue(), now));
+    }
+
+    private long now() {
+        long now = clock.getAsLong();
+        long last = lastSweep.get();
+        if (idleTimeoutMs > 0 && now - last >= idleTimeoutMs && lastSweep.compareAndSet(last, now)) {
+            map.entrySet().removeIf(e -> isExpired(e.getValue(), now));
+        }
+        return now;
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return idleTimeoutMs > 0 && now - entry.lastAccess >= idleTimeoutMs;
+    }
+}
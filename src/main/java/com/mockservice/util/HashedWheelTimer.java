@@ -0,0 +1,272 @@
+package com.mockservice.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timer optimized for a large number of pending one-shot tasks.
+ * <p>
+ * Tasks are put into a circular array of buckets (the wheel), one bucket per tick.
+ * Scheduling and cancelling are O(1): both only enqueue the timeout, and the worker
+ * thread moves it into (or out of) its bucket at the next tick. Expired tasks are
+ * handed over to the executor, so a slow task never delays the wheel.
+ * <p>
+ * Precision is limited by tick duration: a task runs within one tick after its deadline.
+ */
+public class HashedWheelTimer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    public interface Timeout {
+        boolean cancel();
+        boolean isCancelled();
+        boolean isExpired();
+    }
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor executor;
+    private final Queue<WheelTimeout> timeoutsToAdd = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout> timeoutsToCancel = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingTimeouts = new AtomicLong();
+    private final Thread worker;
+    private final long startTime;
+    private volatile boolean running = true;
+    private long tick;
+
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, Executor executor) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Wheel size must be in (0, 2^30]: " + wheelSize);
+        }
+
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = createWheel(wheelSize);
+        this.mask = wheel.length - 1;
+        this.executor = executor;
+        this.startTime = System.nanoTime();
+
+        worker = new Thread(this::run, "wheel-timer-" + INSTANCES.incrementAndGet());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private static Bucket[] createWheel(int wheelSize) {
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        Bucket[] buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+        return buckets;
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timer is stopped.");
+        }
+        long deadline = System.nanoTime() - startTime + Math.max(0, unit.toNanos(delay));
+        WheelTimeout timeout = new WheelTimeout(this, task, deadline);
+        pendingTimeouts.incrementAndGet();
+        timeoutsToAdd.add(timeout);
+        return timeout;
+    }
+
+    public long pendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.NANOSECONDS.toMillis(tickNanos) + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //----------------------------------------------------------------------
+    //
+    //   worker
+    //
+    //----------------------------------------------------------------------
+
+    private void run() {
+        while (running) {
+            if (!waitForNextTick()) {
+                continue;
+            }
+            processCancelled();
+            transferTimeoutsToBuckets();
+            wheel[(int) (tick & mask)].expireTimeouts();
+            tick++;
+        }
+    }
+
+    private boolean waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        long sleepNanos = deadline - (System.nanoTime() - startTime);
+        if (sleepNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void processCancelled() {
+        WheelTimeout timeout;
+        while ((timeout = timeoutsToCancel.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferTimeoutsToBuckets() {
+        WheelTimeout timeout;
+        while ((timeout = timeoutsToAdd.poll()) != null) {
+            if (timeout.state.get() != WheelTimeout.ST_INIT) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            long ticks = Math.max(calculated, tick); // never schedule into the past
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expire(WheelTimeout timeout) {
+        if (!timeout.state.compareAndSet(WheelTimeout.ST_INIT, WheelTimeout.ST_EXPIRED)) {
+            return;
+        }
+        pendingTimeouts.decrementAndGet();
+        try {
+            executor.execute(timeout.task);
+        } catch (Exception e) {
+            log.error("Timer task rejected.", e);
+        }
+    }
+
+    //----------------------------------------------------------------------
+    //
+    //   timeouts and buckets
+    //
+    //----------------------------------------------------------------------
+
+    private static final class WheelTimeout implements Timeout {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+        // accessed by worker thread only
+        private long remainingRounds;
+        private Bucket bucket;
+        private WheelTimeout next;
+        private WheelTimeout prev;
+
+        WheelTimeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timer.pendingTimeouts.decrementAndGet();
+            timer.timeoutsToCancel.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts, so that removal of a cancelled timeout is O(1).
+     */
+    private static final class Bucket {
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expireTimeouts() {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.timer.expire(timeout);
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(WheelTimeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            WheelTimeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
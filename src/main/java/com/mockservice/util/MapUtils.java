@@ -2,15 +2,13 @@ package com.mockservice.util;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.underscore.lodash.U;
 
-import java.util.ArrayDeque;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Queue;
+import java.util.*;
 
 @SuppressWarnings("unchecked")
 public class MapUtils {
@@ -39,6 +37,40 @@ public class MapUtils {
         return mapper.readValue(json, Map.class);
     }
 
+    /**
+     * Same as {@link #jsonToMap(String, ObjectMapper)} for an already parsed object.
+     * Floats come out as Double even if the tree holds them as BigDecimal.
+     */
+    public static Map<String, Object> jsonToMap(JsonNode json) {
+        return (Map<String, Object>) plainValue(json);
+    }
+
+    private static Object plainValue(JsonNode node) {
+        if (node.isObject()) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            node.fields().forEachRemaining(e -> map.put(e.getKey(), plainValue(e.getValue())));
+            return map;
+        }
+        if (node.isArray()) {
+            List<Object> list = new ArrayList<>(node.size());
+            node.forEach(item -> list.add(plainValue(item)));
+            return list;
+        }
+        if (node.isFloatingPointNumber()) {
+            return node.doubleValue();
+        }
+        if (node.isNumber()) {
+            return node.numberValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        if (node.isNull() || node.isMissingNode()) {
+            return null;
+        }
+        return node.asText();
+    }
+
     public static Map<String, Object> xmlToMap(String data) {
         if (data == null || data.isEmpty()) {
             return new HashMap<>();
@@ -4,4 +4,8 @@ public interface RandomUtils {
     int rnd(int numberOfAlternatives);
     int rnd(int min, int max);
     boolean withChance(int percent);
+    /** from {@code from} inclusive to {@code to} exclusive */
+    long rndLong(long from, long to);
+    /** from {@code from} inclusive to {@code to} exclusive */
+    double rndDouble(double from, double to);
 }
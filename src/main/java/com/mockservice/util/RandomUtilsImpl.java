@@ -15,4 +15,12 @@ public class RandomUtilsImpl implements RandomUtils {
     public boolean withChance(int percent) {
         return rnd(100) < percent;
     }
+
+    public long rndLong(long from, long to) {
+        return ThreadLocalRandom.current().nextLong(from, to);
+    }
+
+    public double rndDouble(double from, double to) {
+        return ThreadLocalRandom.current().nextDouble(from, to);
+    }
 }
@@ -1,7 +1,12 @@
 package com.mockservice.validate;
 
+import com.mockservice.request.ParsedBody;
+
 public interface DataValidator {
 
-    boolean applicable(String data);
-    void validate(String data, String schema);
+    /**
+     * Whether this validator handles the body with the schema of the route.
+     */
+    boolean applicable(ParsedBody data, String schema);
+    void validate(ParsedBody data, String schema);
 }
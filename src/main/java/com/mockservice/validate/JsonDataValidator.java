@@ -1,60 +1,167 @@
 package com.mockservice.validate;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.fge.jackson.JsonLoader;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.main.JsonSchema;
 import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.mockservice.domain.Route;
+import com.mockservice.repository.ConfigObserver;
+import com.mockservice.repository.ConfigRepository;
+import com.mockservice.repository.RouteObserver;
+import com.mockservice.request.ParsedBody;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.io.IOException;
+import java.util.List;
 
-public class JsonDataValidator implements DataValidator {
+/**
+ * Compiled schemas are cached by schema content, see {@link SchemaCache}.
+ * <p>
+ * Bodies of streamingThreshold chars and more are validated while reading tokens,
+ * without building the tree, if the schema supports it (see {@link StreamingJsonSchema}).
+ * Such bodies are taken as JSON by their first char, so a malformed one fails validation
+ * instead of being skipped.
+ */
+public class JsonDataValidator implements DataValidator, RouteObserver, ConfigObserver {
+
+    private static final int MAX_STREAMING_ERRORS = 100;
 
     private final JsonSchemaFactory jsonSchemaFactory;
+    private final ConfigRepository configRepository;
+    private final int streamingThreshold;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final SchemaCache<CompiledSchema> schemas;
 
-    public JsonDataValidator(JsonSchemaFactory jsonSchemaFactory) {
+    public JsonDataValidator(JsonSchemaFactory jsonSchemaFactory,
+                             ConfigRepository configRepository,
+                             MeterRegistry meterRegistry,
+                             int streamingThreshold) {
         this.jsonSchemaFactory = jsonSchemaFactory;
+        this.configRepository = configRepository;
+        this.streamingThreshold = streamingThreshold;
+        this.schemas = new SchemaCache<>("mockservice.validation.schema.", "request body schema",
+                JsonDataValidator::isJsonSchema, this::compile, meterRegistry);
+
+        configRepository.findAllRoutes().forEach(schemas::warm);
+    }
+
+    private static boolean isJsonSchema(String schema) {
+        return ParsedBody.firstChar(schema) == '{';
     }
 
     @Override
-    public boolean applicable(String data) {
-        try {
-            JsonLoader.fromString(data);
-            return true;
-        } catch (Exception e) {
+    public boolean applicable(ParsedBody data, String schema) {
+        if (!isJsonSchema(schema)) {
             return false;
         }
+        if (isLarge(data)) {
+            int first = data.firstChar();
+            return first == '{' || first == '[';
+        }
+        return data.getJson().isPresent();
+    }
+
+    private boolean isLarge(ParsedBody data) {
+        return streamingThreshold > 0 && data.getText().length() >= streamingThreshold;
     }
 
     @Override
-    public void validate(String data, String schema) {
-        final JsonNode nodeSchema;
+    public void validate(ParsedBody data, String schema) {
+        CompiledSchema compiled = schemas.get(schema);
+        if (isLarge(data) && compiled.streaming != null) {
+            validateStreaming(data, compiled.streaming);
+            return;
+        }
+
         final JsonNode nodeJson;
         try {
-            nodeSchema = JsonLoader.fromString(schema);
-            nodeJson = JsonLoader.fromString(data);
+            nodeJson = data.readJson();
         } catch (IOException e) {
             throw new DataValidationException("Error loading data or schema.", e);
         }
-        final JsonSchema jsonSchema;
+
+        ProcessingReport report = compiled.tree.validateUnchecked(nodeJson);
+
+        if (report != null && !report.isSuccess()) {
+            StringBuilder builder = new StringBuilder();
+            report.forEach(message -> append(builder, message.asJson()));
+            throw new DataValidationException(builder.toString());
+        }
+    }
+
+    private void validateStreaming(ParsedBody data, StreamingJsonSchema schema) {
+        final List<ObjectNode> errors;
+        try (JsonParser parser = jsonFactory.createParser(data.getText())) {
+            errors = schema.validate(parser);
+        } catch (IOException e) {
+            throw new DataValidationException("Error loading data or schema.", e);
+        }
+
+        if (!errors.isEmpty()) {
+            StringBuilder builder = new StringBuilder();
+            errors.forEach(error -> append(builder, error));
+            throw new DataValidationException(builder.toString());
+        }
+    }
+
+    private static void append(StringBuilder builder, JsonNode message) {
+        if (builder.length() > 0) {
+            builder.append("\n\n");
+        }
+        builder.append(message.toString());
+    }
+
+    private CompiledSchema compile(String schema) {
         try {
-            jsonSchema = jsonSchemaFactory.getJsonSchema(nodeSchema);
+            JsonNode schemaJson = JsonLoader.fromString(schema);
+            return new CompiledSchema(
+                    jsonSchemaFactory.getJsonSchema(schemaJson),
+                    StreamingJsonSchema.compile(schemaJson, MAX_STREAMING_ERRORS).orElse(null));
+        } catch (IOException e) {
+            throw new DataValidationException("Error loading data or schema.", e);
         } catch (ProcessingException e) {
             throw new DataValidationException(e);
         }
+    }
 
-        ProcessingReport report = jsonSchema.validateUnchecked(nodeJson);
+    private static class CompiledSchema {
+        private final JsonSchema tree;
+        private final StreamingJsonSchema streaming;
 
-        if (report != null && !report.isSuccess()) {
-            StringBuilder builder = new StringBuilder();
-            report.forEach(message -> {
-                if (builder.length() > 0) {
-                    builder.append("\n\n");
-                }
-                builder.append(message.asJson().toString());
-            });
-            throw new DataValidationException(builder.toString());
+        CompiledSchema(JsonSchema tree, StreamingJsonSchema streaming) {
+            this.tree = tree;
+            this.streaming = streaming;
         }
     }
+
+    //----------------------------------------------------------------------
+    //
+    //   cache maintenance
+    //
+    //----------------------------------------------------------------------
+
+    @Override
+    public void onRouteCreated(Route route) {
+        schemas.warm(route);
+    }
+
+    @Override
+    public void onRouteDeleted(Route route) {
+        schemas.evict(route);
+    }
+
+    @Override
+    public void onBeforeConfigChanged() {
+        schemas.clear();
+    }
+
+    @Override
+    public void onAfterConfigChanged() {
+        configRepository.findAllRoutes().forEach(schemas::warm);
+    }
 }
@@ -0,0 +1,124 @@
+package com.mockservice.validate;
+
+import com.mockservice.domain.Route;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Compiled schemas cached by schema content, so routes with equal schemas share one.
+ * The cache is warmed when routes are registered and entries are dropped
+ * when the last route with the schema is deleted.
+ */
+class SchemaCache<S> {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaCache.class);
+
+    private final Predicate<String> accepts;
+    private final Function<String, S> compiler;
+    private final Map<String, S> schemas = new ConcurrentHashMap<>();
+    private final Map<Route, String> routeSchemas = new ConcurrentHashMap<>();
+    // routes per schema, so an eviction does not scan all routes
+    private final Map<String, Integer> references = new ConcurrentHashMap<>();
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Timer compileTimer;
+
+    /**
+     * @param accepts  which route schemas belong to this cache
+     * @param compiler throws DataValidationException if the schema does not compile
+     */
+    SchemaCache(String metricPrefix,
+                String what,
+                Predicate<String> accepts,
+                Function<String, S> compiler,
+                MeterRegistry meterRegistry) {
+        this.accepts = accepts;
+        this.compiler = compiler;
+
+        cacheHits = cacheCounter(meterRegistry, metricPrefix, what, "hit");
+        cacheMisses = cacheCounter(meterRegistry, metricPrefix, what, "miss");
+        compileTimer = Timer.builder(metricPrefix + "compile")
+                .description("Time to compile a " + what)
+                .register(meterRegistry);
+        Gauge.builder(metricPrefix + "cache.size", schemas, Map::size)
+                .description("Compiled " + what + "s in the cache")
+                .register(meterRegistry);
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String metricPrefix, String what, String result) {
+        return Counter.builder(metricPrefix + "cache")
+                .description("Compiled " + what + " lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    S get(String schema) {
+        S compiled = schemas.get(schema);
+        if (compiled != null) {
+            cacheHits.increment();
+            return compiled;
+        }
+        cacheMisses.increment();
+        return schemas.computeIfAbsent(schema, this::compile);
+    }
+
+    private S compile(String schema) {
+        long start = System.nanoTime();
+        try {
+            return compiler.apply(schema);
+        } finally {
+            compileTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void warm(Route route) {
+        String schema = route.getRequestBodySchema();
+        if (schema.isEmpty() || !accepts.test(schema)) {
+            return;
+        }
+        // routes are mutable, keep a copy as the key
+        String previous = routeSchemas.put(new Route(route), schema);
+        references.merge(schema, 1, Integer::sum);
+        if (previous != null) {
+            release(previous);
+        }
+        try {
+            schemas.computeIfAbsent(schema, this::compile);
+        } catch (DataValidationException e) {
+            log.warn("Request body schema of route {} does not compile: {}", route, e.getMessage());
+        }
+    }
+
+    void evict(Route route) {
+        String schema = routeSchemas.remove(route);
+        if (schema != null) {
+            release(schema);
+        }
+    }
+
+    private void release(String schema) {
+        references.computeIfPresent(schema, (key, count) -> {
+            if (count > 1) {
+                return count - 1;
+            }
+            schemas.remove(key);
+            return null;
+        });
+    }
+
+    void clear() {
+        routeSchemas.clear();
+        references.clear();
+        schemas.clear();
+    }
+}
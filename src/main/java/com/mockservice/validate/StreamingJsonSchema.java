@@ -0,0 +1,607 @@
+package com.mockservice.validate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * JSON schema checked against a token stream, the instance is never built as a tree.
+ * <p>
+ * Only keywords that need bounded state per open container are supported:
+ * type, enum of scalars, numeric and string constraints, properties, patternProperties,
+ * additionalProperties, required, min/maxProperties, items, additionalItems and min/maxItems.
+ * A schema using any other validation keyword ($ref, combinators, uniqueItems, format)
+ * does not compile, see {@link #compile}.
+ * <p>
+ * Errors are reported in the format of the tree validator. Unlike it, children of
+ * a container are checked even if another part of the instance failed.
+ */
+public class StreamingJsonSchema {
+
+    private static final Set<String> UNSUPPORTED = Set.of(
+            "$ref", "allOf", "anyOf", "oneOf", "not", "dependencies", "uniqueItems", "format");
+    private static final JsonNodeFactory nodes = JsonNodeFactory.instance;
+
+    private final Rule root;
+    private final int maxErrors;
+
+    private StreamingJsonSchema(Rule root, int maxErrors) {
+        this.root = root;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Empty if the schema uses keywords that can not be checked while streaming.
+     * Validation stops once maxErrors errors are found.
+     */
+    public static Optional<StreamingJsonSchema> compile(JsonNode schema, int maxErrors) {
+        try {
+            return Optional.of(new StreamingJsonSchema(rule(schema, ""), maxErrors));
+        } catch (NotStreamableException e) {
+            return Optional.empty();
+        }
+    }
+
+    public List<ObjectNode> validate(JsonParser parser) throws IOException {
+        List<ObjectNode> errors = new ArrayList<>();
+        Deque<Frame> stack = new ArrayDeque<>();
+        JsonToken token;
+        while (errors.size() < maxErrors && (token = parser.nextToken()) != null) {
+            if (token == JsonToken.FIELD_NAME) {
+                stack.element().field = parser.getCurrentName();
+                continue;
+            }
+            if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                stack.pop().end(errors);
+                continue;
+            }
+
+            Frame parent = stack.peek();
+            String name = null;
+            List<Rule> rules;
+            if (parent == null) {
+                rules = List.of(root);
+            } else {
+                name = parent.object ? parent.field : String.valueOf(parent.count);
+                rules = parent.childRules(name);
+                parent.count++;
+            }
+
+            if (rules.isEmpty()) {
+                parser.skipChildren();
+                continue;
+            }
+
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                Frame frame = new Frame(parent, name, token == JsonToken.START_OBJECT, rules, maxErrors);
+                String type = frame.object ? "object" : "array";
+                rules.forEach(rule -> rule.checkType(type, frame, errors));
+                stack.push(frame);
+            } else {
+                JsonNode value = scalar(parser, token);
+                String type = typeOf(token);
+                for (Rule rule : rules) {
+                    rule.checkScalar(value, type, () -> parent == null ? "" : parent.childPointer(), errors);
+                }
+            }
+        }
+        return errors.size() > maxErrors ? errors.subList(0, maxErrors) : errors;
+    }
+
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static JsonNode scalar(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return nodes.textNode(parser.getText());
+            case VALUE_NUMBER_INT:
+                return nodes.numberNode(parser.getBigIntegerValue());
+            case VALUE_NUMBER_FLOAT:
+                return nodes.numberNode(parser.getDecimalValue());
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return nodes.booleanNode(token == JsonToken.VALUE_TRUE);
+            default:
+                return nodes.nullNode();
+        }
+    }
+
+    private static String typeOf(JsonToken token) {
+        switch (token) {
+            case VALUE_STRING:
+                return "string";
+            case VALUE_NUMBER_INT:
+                return "integer";
+            case VALUE_NUMBER_FLOAT:
+                return "number";
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return "boolean";
+            default:
+                return "null";
+        }
+    }
+
+    private static ObjectNode error(Rule rule, String instance, String keyword, String message) {
+        ObjectNode error = nodes.objectNode();
+        error.put("level", "error");
+        error.putObject("schema").put("loadingURI", "#").put("pointer", rule.pointer);
+        error.putObject("instance").put("pointer", instance);
+        error.put("domain", "validation");
+        error.put("keyword", keyword);
+        error.put("message", message);
+        return error;
+    }
+
+    private static ArrayNode array(Collection<String> values) {
+        ArrayNode array = nodes.arrayNode();
+        values.forEach(array::add);
+        return array;
+    }
+
+    //----------------------------------------------------------------------
+    //
+    //   compilation
+    //
+    //----------------------------------------------------------------------
+
+    private static class NotStreamableException extends Exception {
+    }
+
+    private static Rule rule(JsonNode schema, String pointer) throws NotStreamableException {
+        if (!schema.isObject()) {
+            throw new NotStreamableException();
+        }
+        for (String keyword : UNSUPPORTED) {
+            if (schema.has(keyword)) {
+                throw new NotStreamableException();
+            }
+        }
+
+        Rule rule = new Rule(pointer);
+
+        JsonNode type = schema.get("type");
+        if (type != null) {
+            rule.types = new TreeSet<>();
+            if (type.isArray()) {
+                type.forEach(t -> rule.types.add(t.asText()));
+            } else {
+                rule.types.add(type.asText());
+            }
+            if (rule.types.contains("number")) {
+                rule.types.add("integer");
+            }
+        }
+
+        JsonNode enumValues = schema.get("enum");
+        if (enumValues != null) {
+            for (JsonNode value : enumValues) {
+                if (value.isContainerNode()) {
+                    throw new NotStreamableException();
+                }
+            }
+            rule.enumValues = enumValues;
+        }
+
+        rule.minimum = schema.get("minimum");
+        rule.maximum = schema.get("maximum");
+        rule.exclusiveMinimum = schema.path("exclusiveMinimum").asBoolean(false);
+        rule.exclusiveMaximum = schema.path("exclusiveMaximum").asBoolean(false);
+        rule.multipleOf = schema.get("multipleOf");
+        rule.minLength = intOrNull(schema, "minLength");
+        rule.maxLength = intOrNull(schema, "maxLength");
+        if (schema.has("pattern")) {
+            rule.regex = schema.get("pattern").asText();
+            rule.pattern = pattern(rule.regex);
+        }
+
+        JsonNode properties = schema.get("properties");
+        if (properties != null) {
+            var fields = properties.fields();
+            while (fields.hasNext()) {
+                var field = fields.next();
+                rule.properties.put(field.getKey(),
+                        rule(field.getValue(), pointer + "/properties/" + escape(field.getKey())));
+            }
+        }
+        JsonNode patternProperties = schema.get("patternProperties");
+        if (patternProperties != null) {
+            var fields = patternProperties.fields();
+            while (fields.hasNext()) {
+                var field = fields.next();
+                rule.patternProperties.put(pattern(field.getKey()),
+                        rule(field.getValue(), pointer + "/patternProperties/" + escape(field.getKey())));
+            }
+        }
+        JsonNode additionalProperties = schema.get("additionalProperties");
+        if (additionalProperties != null) {
+            if (additionalProperties.isBoolean()) {
+                rule.additionalPropertiesAllowed = additionalProperties.asBoolean();
+            } else {
+                rule.additionalProperties = rule(additionalProperties, pointer + "/additionalProperties");
+            }
+        }
+        JsonNode required = schema.get("required");
+        if (required != null) {
+            required.forEach(r -> rule.required.add(r.asText()));
+        }
+        rule.minProperties = intOrNull(schema, "minProperties");
+        rule.maxProperties = intOrNull(schema, "maxProperties");
+
+        JsonNode items = schema.get("items");
+        if (items != null) {
+            if (items.isArray()) {
+                rule.tupleItems = new ArrayList<>();
+                for (int i = 0; i < items.size(); i++) {
+                    rule.tupleItems.add(rule(items.get(i), pointer + "/items/" + i));
+                }
+            } else {
+                rule.items = rule(items, pointer + "/items");
+            }
+        }
+        JsonNode additionalItems = schema.get("additionalItems");
+        if (additionalItems != null) {
+            if (additionalItems.isBoolean()) {
+                rule.additionalItemsAllowed = additionalItems.asBoolean();
+            } else {
+                rule.additionalItems = rule(additionalItems, pointer + "/additionalItems");
+            }
+        }
+        rule.minItems = intOrNull(schema, "minItems");
+        rule.maxItems = intOrNull(schema, "maxItems");
+
+        return rule;
+    }
+
+    private static Integer intOrNull(JsonNode schema, String keyword) {
+        JsonNode value = schema.get(keyword);
+        return value == null ? null : value.asInt();
+    }
+
+    private static Pattern pattern(String regex) throws NotStreamableException {
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new NotStreamableException();
+        }
+    }
+
+    //----------------------------------------------------------------------
+    //
+    //   rules
+    //
+    //----------------------------------------------------------------------
+
+    private static class Rule {
+        private final String pointer;
+        private Set<String> types;
+        private JsonNode enumValues;
+        private JsonNode minimum;
+        private JsonNode maximum;
+        private boolean exclusiveMinimum;
+        private boolean exclusiveMaximum;
+        private JsonNode multipleOf;
+        private Integer minLength;
+        private Integer maxLength;
+        private String regex;
+        private Pattern pattern;
+        private final Map<String, Rule> properties = new HashMap<>();
+        private final Map<Pattern, Rule> patternProperties = new LinkedHashMap<>();
+        private boolean additionalPropertiesAllowed = true;
+        private Rule additionalProperties;
+        private final List<String> required = new ArrayList<>();
+        private Integer minProperties;
+        private Integer maxProperties;
+        private Rule items;
+        private List<Rule> tupleItems;
+        private boolean additionalItemsAllowed = true;
+        private Rule additionalItems;
+        private Integer minItems;
+        private Integer maxItems;
+
+        Rule(String pointer) {
+            this.pointer = pointer;
+        }
+
+        void checkType(String type, Frame frame, List<ObjectNode> errors) {
+            if (types != null && !types.contains(type)) {
+                ObjectNode error = error(this, frame.pointer(), "type",
+                        "instance type (" + type + ") does not match any allowed primitive type (allowed: "
+                                + array(types) + ")");
+                error.put("found", type);
+                error.set("expected", array(types));
+                errors.add(error);
+            }
+            // enum values are scalars, so a container never matches
+            if (enumValues != null) {
+                errors.add(error(this, frame.pointer(), "enum",
+                        "instance value (" + type + ") not found in enum (possible values: " + enumValues + ")"));
+            }
+        }
+
+        void checkScalar(JsonNode value, String type, Supplier<String> instance, List<ObjectNode> errors) {
+            if (types != null && !types.contains(type)) {
+                ObjectNode error = error(this, instance.get(), "type",
+                        "instance type (" + type + ") does not match any allowed primitive type (allowed: "
+                                + array(types) + ")");
+                error.put("found", type);
+                error.set("expected", array(types));
+                errors.add(error);
+            }
+            if (enumValues != null && !inEnum(value)) {
+                ObjectNode error = error(this, instance.get(), "enum",
+                        "instance value (" + value + ") not found in enum (possible values: " + enumValues + ")");
+                error.set("value", value);
+                error.set("enum", enumValues);
+                errors.add(error);
+            }
+            if (value.isNumber()) {
+                checkNumber(value, instance, errors);
+            } else if (value.isTextual()) {
+                checkString(value, instance, errors);
+            }
+        }
+
+        private boolean inEnum(JsonNode value) {
+            for (JsonNode candidate : enumValues) {
+                if (value.isNumber() && candidate.isNumber()
+                        ? value.decimalValue().compareTo(candidate.decimalValue()) == 0
+                        : value.equals(candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void checkNumber(JsonNode value, Supplier<String> instance, List<ObjectNode> errors) {
+            BigDecimal number = value.decimalValue();
+            if (maximum != null) {
+                int cmp = number.compareTo(maximum.decimalValue());
+                if (exclusiveMaximum && cmp >= 0) {
+                    ObjectNode error = error(this, instance.get(), "maximum",
+                            "numeric instance is not strictly lower than the required maximum " + maximum);
+                    error.set("maximum", maximum);
+                    error.put("exclusiveMaximum", true);
+                    errors.add(error);
+                } else if (cmp > 0) {
+                    ObjectNode error = error(this, instance.get(), "maximum",
+                            "numeric instance is greater than the required maximum (maximum: " + maximum
+                                    + ", found: " + value + ")");
+                    error.set("maximum", maximum);
+                    error.set("found", value);
+                    errors.add(error);
+                }
+            }
+            if (minimum != null) {
+                int cmp = number.compareTo(minimum.decimalValue());
+                if (exclusiveMinimum && cmp <= 0) {
+                    ObjectNode error = error(this, instance.get(), "minimum",
+                            "numeric instance is not strictly greater than the required minimum " + minimum);
+                    error.set("minimum", minimum);
+                    error.put("exclusiveMinimum", true);
+                    errors.add(error);
+                } else if (cmp < 0) {
+                    ObjectNode error = error(this, instance.get(), "minimum",
+                            "numeric instance is lower than the required minimum (minimum: " + minimum
+                                    + ", found: " + value + ")");
+                    error.set("minimum", minimum);
+                    error.set("found", value);
+                    errors.add(error);
+                }
+            }
+            if (multipleOf != null && multipleOf.decimalValue().signum() != 0
+                    && number.remainder(multipleOf.decimalValue()).signum() != 0) {
+                ObjectNode error = error(this, instance.get(), "multipleOf",
+                        "remainder of division is not zero (" + value + " / " + multipleOf + ")");
+                error.set("value", value);
+                error.set("divisor", multipleOf);
+                errors.add(error);
+            }
+        }
+
+        private void checkString(JsonNode value, Supplier<String> instance, List<ObjectNode> errors) {
+            String text = value.asText();
+            int length = text.codePointCount(0, text.length());
+            if (maxLength != null && length > maxLength) {
+                ObjectNode error = error(this, instance.get(), "maxLength",
+                        "string " + value + " is too long (length: " + length + ", maximum allowed: " + maxLength + ")");
+                error.set("value", value);
+                error.put("found", length);
+                error.put("maxLength", maxLength);
+                errors.add(error);
+            }
+            if (minLength != null && length < minLength) {
+                ObjectNode error = error(this, instance.get(), "minLength",
+                        "string " + value + " is too short (length: " + length + ", required minimum: " + minLength + ")");
+                error.set("value", value);
+                error.put("found", length);
+                error.put("minLength", minLength);
+                errors.add(error);
+            }
+            if (pattern != null && !pattern.matcher(text).find()) {
+                ObjectNode error = error(this, instance.get(), "pattern",
+                        "ECMA 262 regex " + nodes.textNode(regex) + " does not match input string " + value);
+                error.put("regex", regex);
+                error.put("string", text);
+                errors.add(error);
+            }
+        }
+    }
+
+    //----------------------------------------------------------------------
+    //
+    //   open containers
+    //
+    //----------------------------------------------------------------------
+
+    private static class RuleState {
+        private final Rule rule;
+        private final Set<String> missing;
+        private final List<String> unwanted = new ArrayList<>();
+
+        RuleState(Rule rule) {
+            this.rule = rule;
+            this.missing = rule.required.isEmpty() ? Set.of() : new LinkedHashSet<>(rule.required);
+        }
+    }
+
+    private static class Frame {
+        private final Frame parent;
+        private final String name;
+        private final boolean object;
+        private final List<RuleState> states = new ArrayList<>();
+        private final int maxUnwanted;
+        private String field;
+        private int count;
+
+        Frame(Frame parent, String name, boolean object, List<Rule> rules, int maxUnwanted) {
+            this.parent = parent;
+            this.name = name;
+            this.object = object;
+            this.maxUnwanted = maxUnwanted;
+            rules.forEach(rule -> states.add(new RuleState(rule)));
+        }
+
+        String pointer() {
+            return parent == null ? "" : parent.pointer() + "/" + escape(name);
+        }
+
+        // pointer of the child being read, the count is already past it
+        String childPointer() {
+            return pointer() + "/" + escape(object ? field : String.valueOf(count - 1));
+        }
+
+        List<Rule> childRules(String child) {
+            List<Rule> rules = new ArrayList<>(1);
+            for (RuleState state : states) {
+                if (object) {
+                    objectChildRules(state, child, rules);
+                } else {
+                    arrayChildRules(state.rule, rules);
+                }
+            }
+            return rules;
+        }
+
+        private void objectChildRules(RuleState state, String child, List<Rule> rules) {
+            Rule rule = state.rule;
+            boolean matched = false;
+            Rule property = rule.properties.get(child);
+            if (property != null) {
+                rules.add(property);
+                matched = true;
+            }
+            for (Map.Entry<Pattern, Rule> entry : rule.patternProperties.entrySet()) {
+                if (entry.getKey().matcher(child).find()) {
+                    rules.add(entry.getValue());
+                    matched = true;
+                }
+            }
+            if (!matched) {
+                if (rule.additionalProperties != null) {
+                    rules.add(rule.additionalProperties);
+                } else if (!rule.additionalPropertiesAllowed && state.unwanted.size() < maxUnwanted) {
+                    state.unwanted.add(child);
+                }
+            }
+            if (!state.missing.isEmpty()) {
+                state.missing.remove(child);
+            }
+        }
+
+        private void arrayChildRules(Rule rule, List<Rule> rules) {
+            if (rule.tupleItems != null) {
+                if (count < rule.tupleItems.size()) {
+                    rules.add(rule.tupleItems.get(count));
+                } else if (rule.additionalItems != null) {
+                    rules.add(rule.additionalItems);
+                }
+            } else if (rule.items != null) {
+                rules.add(rule.items);
+            }
+        }
+
+        // keywords are reported in the same order as the tree validator does
+        void end(List<ObjectNode> errors) {
+            for (RuleState state : states) {
+                if (object) {
+                    endObject(state, errors);
+                } else {
+                    endArray(state.rule, errors);
+                }
+            }
+        }
+
+        private void endObject(RuleState state, List<ObjectNode> errors) {
+            Rule rule = state.rule;
+            if (!state.unwanted.isEmpty()) {
+                ObjectNode error = error(rule, pointer(), "additionalProperties",
+                        "object instance has properties which are not allowed by the schema: " + array(state.unwanted));
+                error.set("unwanted", array(state.unwanted));
+                errors.add(error);
+            }
+            if (rule.maxProperties != null && count > rule.maxProperties) {
+                ObjectNode error = error(rule, pointer(), "maxProperties",
+                        "object has too many properties (found " + count + " but schema requires at most "
+                                + rule.maxProperties + ")");
+                error.put("found", count);
+                error.put("required", rule.maxProperties);
+                errors.add(error);
+            }
+            if (rule.minProperties != null && count < rule.minProperties) {
+                ObjectNode error = error(rule, pointer(), "minProperties",
+                        "object has too few properties (found " + count + " but schema requires at least "
+                                + rule.minProperties + ")");
+                error.put("found", count);
+                error.put("required", rule.minProperties);
+                errors.add(error);
+            }
+            if (!state.missing.isEmpty()) {
+                ObjectNode error = error(rule, pointer(), "required",
+                        "object has missing required properties (" + array(state.missing) + ")");
+                error.set("required", array(rule.required));
+                error.set("missing", array(state.missing));
+                errors.add(error);
+            }
+        }
+
+        private void endArray(Rule rule, List<ObjectNode> errors) {
+            if (rule.tupleItems != null && !rule.additionalItemsAllowed && count > rule.tupleItems.size()) {
+                ObjectNode error = error(rule, pointer(), "additionalItems",
+                        "schema only allows " + rule.tupleItems.size() + " elements in array but instance has "
+                                + count + " elements");
+                error.put("allowed", rule.tupleItems.size());
+                error.put("found", count);
+                errors.add(error);
+            }
+            if (rule.maxItems != null && count > rule.maxItems) {
+                ObjectNode error = error(rule, pointer(), "maxItems",
+                        "array is too long: must have at most " + rule.maxItems + " elements but instance has "
+                                + count + " elements");
+                error.put("maxItems", rule.maxItems);
+                error.put("found", count);
+                errors.add(error);
+            }
+            if (rule.minItems != null && count < rule.minItems) {
+                ObjectNode error = error(rule, pointer(), "minItems",
+                        "array is too short: must have at least " + rule.minItems + " elements but instance has "
+                                + count + " elements");
+                error.put("minItems", rule.minItems);
+                error.put("found", count);
+                errors.add(error);
+            }
+        }
+    }
+}
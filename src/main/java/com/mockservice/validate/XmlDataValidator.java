@@ -0,0 +1,223 @@
+package com.mockservice.validate;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mockservice.domain.Route;
+import com.mockservice.repository.ConfigObserver;
+import com.mockservice.repository.ConfigRepository;
+import com.mockservice.repository.RouteObserver;
+import com.mockservice.request.ParsedBody;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stax.StAXSource;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Validates XML request bodies against an XSD route schema.
+ * For a SOAP envelope each element within Body is validated, other documents are validated as a whole.
+ * <p>
+ * The body is read with StAX. Compiled schemas are cached by schema content (see {@link SchemaCache}),
+ * validators are not thread-safe, so each thread reuses its own per schema.
+ * Errors are reported as JSON objects, like the ones of {@link JsonDataValidator}.
+ */
+public class XmlDataValidator implements DataValidator, RouteObserver, ConfigObserver {
+
+    private static final Set<String> SOAP_ENVELOPE_NAMESPACES = Set.of(
+            "http://schemas.xmlsoap.org/soap/envelope/",
+            "http://www.w3.org/2003/05/soap-envelope");
+    private static final JsonNodeFactory nodes = JsonNodeFactory.instance;
+
+    private final ConfigRepository configRepository;
+    private final XMLInputFactory inputFactory;
+    private final SchemaCache<CompiledSchema> schemas;
+
+    public XmlDataValidator(ConfigRepository configRepository, MeterRegistry meterRegistry) {
+        this.configRepository = configRepository;
+
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        schemas = new SchemaCache<>("mockservice.validation.xsd.", "request body XSD",
+                XmlDataValidator::isXsd, XmlDataValidator::compile, meterRegistry);
+
+        configRepository.findAllRoutes().forEach(schemas::warm);
+    }
+
+    private static boolean isXsd(String schema) {
+        return ParsedBody.firstChar(schema) == '<';
+    }
+
+    @Override
+    public boolean applicable(ParsedBody data, String schema) {
+        return isXsd(schema) && data.firstChar() == '<';
+    }
+
+    @Override
+    public void validate(ParsedBody data, String schema) {
+        CompiledSchema compiled = schemas.get(schema);
+        Validator validator = compiled.validator.get();
+        validator.reset();
+        List<ObjectNode> errors = new ArrayList<>();
+        validator.setErrorHandler(new CollectingErrorHandler(errors));
+
+        XMLStreamReader reader = null;
+        try {
+            reader = inputFactory.createXMLStreamReader(new StringReader(data.getText()));
+            validatePayload(reader, validator);
+        } catch (SAXParseException e) {
+            errors.add(error(e));
+        } catch (XMLStreamException | SAXException | IOException e) {
+            throw new DataValidationException("Error loading data or schema.", e);
+        } finally {
+            close(reader);
+        }
+
+        if (!errors.isEmpty()) {
+            StringBuilder builder = new StringBuilder();
+            errors.forEach(error -> {
+                if (builder.length() > 0) {
+                    builder.append("\n\n");
+                }
+                builder.append(error.toString());
+            });
+            throw new DataValidationException(builder.toString());
+        }
+    }
+
+    private static void validatePayload(XMLStreamReader reader, Validator validator)
+            throws XMLStreamException, SAXException, IOException {
+        reader.nextTag();
+        if (!isSoap(reader, "Envelope")) {
+            validator.validate(new StAXSource(reader));
+            return;
+        }
+
+        while (!isSoap(reader, "Body")) {
+            if (reader.next() == XMLStreamConstants.END_DOCUMENT) {
+                return;
+            }
+        }
+
+        // the validator stops at the event after the end of an element, which may be the next element
+        int event = reader.next();
+        while (event != XMLStreamConstants.END_ELEMENT && event != XMLStreamConstants.END_DOCUMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                validator.validate(new StAXSource(reader));
+                event = reader.getEventType();
+            } else {
+                event = reader.next();
+            }
+        }
+    }
+
+    private static boolean isSoap(XMLStreamReader reader, String localName) {
+        return reader.isStartElement()
+                && localName.equals(reader.getLocalName())
+                && SOAP_ENVELOPE_NAMESPACES.contains(reader.getNamespaceURI());
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // nothing to do
+            }
+        }
+    }
+
+    private static ObjectNode error(SAXParseException e) {
+        ObjectNode error = nodes.objectNode();
+        error.put("level", "error");
+        error.put("domain", "validation");
+        error.put("line", e.getLineNumber());
+        error.put("column", e.getColumnNumber());
+        error.put("message", e.getMessage());
+        return error;
+    }
+
+    private static CompiledSchema compile(String schema) {
+        try {
+            SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            return new CompiledSchema(factory.newSchema(new StreamSource(new StringReader(schema))));
+        } catch (SAXException e) {
+            throw new DataValidationException("Error loading data or schema.", e);
+        }
+    }
+
+    private static class CompiledSchema {
+        private final ThreadLocal<Validator> validator;
+
+        CompiledSchema(Schema schema) {
+            this.validator = ThreadLocal.withInitial(schema::newValidator);
+        }
+    }
+
+    private static class CollectingErrorHandler implements ErrorHandler {
+        private final List<ObjectNode> errors;
+
+        CollectingErrorHandler(List<ObjectNode> errors) {
+            this.errors = errors;
+        }
+
+        @Override
+        public void warning(SAXParseException exception) {
+            // not an error
+        }
+
+        @Override
+        public void error(SAXParseException exception) {
+            errors.add(XmlDataValidator.error(exception));
+        }
+
+        @Override
+        public void fatalError(SAXParseException exception) throws SAXException {
+            throw exception;
+        }
+    }
+
+    //----------------------------------------------------------------------
+    //
+    //   cache maintenance
+    //
+    //----------------------------------------------------------------------
+
+    @Override
+    public void onRouteCreated(Route route) {
+        schemas.warm(route);
+    }
+
+    @Override
+    public void onRouteDeleted(Route route) {
+        schemas.evict(route);
+    }
+
+    @Override
+    public void onBeforeConfigChanged() {
+        schemas.clear();
+    }
+
+    @Override
+    public void onAfterConfigChanged() {
+        configRepository.findAllRoutes().forEach(schemas::warm);
+    }
+}
@@ -14,6 +14,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -40,8 +41,10 @@ public class ConfigBasedRestController implements RouteRegisteringController, Co
     private final ObjectMapper jsonMapper;
     private final Map<String, Integer> registeredRoutes = new ConcurrentHashMap<>();
     private final RequestMappingInfo.BuilderConfiguration options;
+    private final long stallMs;
 
-    public ConfigBasedRestController(HttpServletRequest request,
+    public ConfigBasedRestController(@Value("${application.connection-fault.stall-ms}") long stallMs,
+                                     HttpServletRequest request,
                                      MockService mockService,
                                      RequestMappingHandlerMapping requestMappingHandlerMapping,
                                      ConfigRepository configRepository,
@@ -51,6 +54,7 @@ public class ConfigBasedRestController implements RouteRegisteringController, Co
         this.requestMappingHandlerMapping = requestMappingHandlerMapping;
         this.configRepository = configRepository;
         this.jsonMapper = jsonMapper;
+        this.stallMs = stallMs;
 
         mockMethod = this.getClass().getMethod("mock");
 
@@ -60,9 +64,11 @@ public class ConfigBasedRestController implements RouteRegisteringController, Co
         register();
     }
 
-    public CompletableFuture<ResponseEntity<String>> mock() {
+    public CompletableFuture<ResponseEntity<?>> mock() {
         RestRequestFacade facade = new RestRequestFacade(request, jsonMapper);
-        return CompletableFuture.supplyAsync(() -> mockService.mock(facade));
+        return CompletableFuture.supplyAsync(() -> facade)
+                .thenCompose(mockService::serve)
+                .thenCompose(response -> stallIfFaulty(response, stallMs));
     }
 
     @Override
@@ -47,8 +47,10 @@ public class ConfigBasedSoapController implements RouteRegisteringController, Co
     private final Map<String, Integer> registeredRoutes = new ConcurrentHashMap<>();
     private String errorBody;
     private final RequestMappingInfo.BuilderConfiguration options;
+    private final long stallMs;
 
     public ConfigBasedSoapController(@Value("${application.soap-error-data-file}") String soapErrorDataFile,
+                                     @Value("${application.connection-fault.stall-ms}") long stallMs,
                                      HttpServletRequest request,
                                      MockService mockService,
                                      RequestMappingHandlerMapping requestMappingHandlerMapping,
@@ -59,6 +61,7 @@ public class ConfigBasedSoapController implements RouteRegisteringController, Co
         this.requestMappingHandlerMapping = requestMappingHandlerMapping;
         this.configRepository = configRepository;
         this.jsonMapper = jsonMapper;
+        this.stallMs = stallMs;
 
         mockMethod = this.getClass().getMethod("mock");
 
@@ -75,9 +78,11 @@ public class ConfigBasedSoapController implements RouteRegisteringController, Co
         register();
     }
 
-    public CompletableFuture<ResponseEntity<String>> mock() {
+    public CompletableFuture<ResponseEntity<?>> mock() {
         RequestFacade facade = new SoapRequestFacade(request, jsonMapper);
-        return CompletableFuture.supplyAsync(() -> mockService.mock(facade));
+        return CompletableFuture.supplyAsync(() -> facade)
+                .thenCompose(mockService::serve)
+                .thenCompose(response -> stallIfFaulty(response, stallMs));
     }
 
     @Override
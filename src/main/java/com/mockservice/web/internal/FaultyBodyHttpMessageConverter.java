@@ -0,0 +1,104 @@
+package com.mockservice.web.internal;
+
+import com.mockservice.response.FaultyBody;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a {@link FaultyBody} breaking the HTTP framing the way its fault says.
+ * <p>
+ * The servlet API can not abort a connection, so chunked faults frame the body here:
+ * with Connection: close and no Content-Length the container writes the body as is
+ * and closes the connection after it.
+ */
+public class FaultyBodyHttpMessageConverter extends AbstractHttpMessageConverter<FaultyBody> {
+
+    private static final long SHORT_BODY_MISSING_BYTES = 1024;
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] MALFORMED_CHUNK_SIZE = "zz\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    public FaultyBodyHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return FaultyBody.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected FaultyBody readInternal(Class<? extends FaultyBody> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Faulty body can not be read.", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(FaultyBody body, MediaType contentType) {
+        switch (body.getFault()) {
+            case RESET:
+            case MALFORMED_CHUNKED:
+                return null;
+            case SHORT_BODY:
+                return body.getBody().length + SHORT_BODY_MISSING_BYTES;
+            default:
+                return (long) body.getBody().length;
+        }
+    }
+
+    @Override
+    protected void writeInternal(FaultyBody body, HttpOutputMessage outputMessage) throws IOException {
+        byte[] bytes = body.getBody();
+        switch (body.getFault()) {
+            case RESET:
+                setChunkedClose(outputMessage.getHeaders());
+                writeChunk(bytes, 0, bytes.length / 2, outputMessage.getBody());
+                break;
+            case SHORT_BODY:
+                outputMessage.getHeaders().set(HttpHeaders.CONNECTION, "close");
+                outputMessage.getBody().write(bytes);
+                break;
+            case MALFORMED_CHUNKED:
+                setChunkedClose(outputMessage.getHeaders());
+                writeMalformedChunks(bytes, outputMessage.getBody());
+                break;
+            default:
+                outputMessage.getBody().write(bytes);
+                break;
+        }
+    }
+
+    private static void setChunkedClose(HttpHeaders headers) {
+        headers.set(HttpHeaders.CONNECTION, "close");
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+    }
+
+    // a valid chunk, the last (empty) chunk is never sent
+    private static void writeChunk(byte[] bytes, int offset, int length, OutputStream out) throws IOException {
+        if (length > 0) {
+            out.write(Integer.toHexString(length).getBytes(StandardCharsets.US_ASCII));
+            out.write(CRLF);
+            out.write(bytes, offset, length);
+            out.write(CRLF);
+        }
+    }
+
+    private static void writeMalformedChunks(byte[] bytes, OutputStream out) throws IOException {
+        int half = bytes.length / 2;
+        writeChunk(bytes, 0, half, out);
+        out.write(MALFORMED_CHUNK_SIZE);
+        out.write(bytes, half, bytes.length - half);
+        out.write(CRLF);
+    }
+}
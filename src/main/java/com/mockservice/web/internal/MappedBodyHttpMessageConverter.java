@@ -0,0 +1,46 @@
+package com.mockservice.web.internal;
+
+import com.mockservice.response.MappedBody;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link MappedBody} to the response straight from its mapped buffer,
+ * without materializing the body on heap.
+ */
+public class MappedBodyHttpMessageConverter extends AbstractHttpMessageConverter<MappedBody> {
+
+    public MappedBodyHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return MappedBody.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected MappedBody readInternal(Class<? extends MappedBody> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Mapped body can not be read.", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(MappedBody body, MediaType contentType) {
+        return (long) body.length();
+    }
+
+    @Override
+    protected void writeInternal(MappedBody body, HttpOutputMessage outputMessage) throws IOException {
+        body.writeTo(outputMessage.getBody());
+    }
+}
@@ -1,14 +1,19 @@
 package com.mockservice.web.internal;
 
+import com.mockservice.domain.ConnectionFault;
 import com.mockservice.domain.Route;
 import com.mockservice.domain.RouteType;
+import com.mockservice.response.FaultyBody;
 import com.mockservice.service.MockService;
 import org.slf4j.Logger;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public interface RouteRegisteringController {
 
@@ -77,6 +82,18 @@ public interface RouteRegisteringController {
         log.info("Unregister route (success): {}", route);
     }
 
+    /**
+     * A response of a route with STALL_HEADERS fault completes after the stall timeout.
+     * Nothing waits on a thread meanwhile, the request stays async.
+     */
+    default CompletableFuture<ResponseEntity<?>> stallIfFaulty(ResponseEntity<?> response, long stallMs) {
+        if (response.getBody() instanceof FaultyBody body && body.getFault() == ConnectionFault.STALL_HEADERS) {
+            return CompletableFuture.supplyAsync(() -> response,
+                    CompletableFuture.delayedExecutor(stallMs, TimeUnit.MILLISECONDS));
+        }
+        return CompletableFuture.completedFuture(response);
+    }
+
     default String routeRegistrationKey(Route route) {
         return route.getMethod().toString() + "-" + route.getPath();
     }
@@ -0,0 +1,45 @@
+package com.mockservice.web.webapp;
+
+import com.mockservice.model.Callback;
+import com.mockservice.service.RequestService;
+import io.swagger.annotations.ApiOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("web-api/callbacks")
+@CrossOrigin(origins = "*")
+public class WebApiCallbacksController {
+
+    private static final Logger log = LoggerFactory.getLogger(WebApiCallbacksController.class);
+
+    private final RequestService requestService;
+
+    public WebApiCallbacksController(RequestService requestService) {
+        this.requestService = requestService;
+    }
+
+    @ApiOperation(value = "Return pending callbacks, earliest first", tags = "callbacks")
+    @GetMapping
+    public List<Callback> getPendingCallbacks(@RequestParam(defaultValue = "1000") int limit) {
+        return requestService.getPendingCallbacks(limit);
+    }
+
+    @ApiOperation(value = "Cancel pending callback", tags = "callbacks")
+    @DeleteMapping("{id}")
+    public boolean cancelCallback(@PathVariable long id) {
+        return requestService.cancelCallback(id);
+    }
+
+    @ExceptionHandler
+    protected ResponseEntity<ErrorInfo> handleException(Exception e) {
+        log.error("", e);
+        return ResponseEntity
+                .badRequest()
+                .body(new ErrorInfo(e));
+    }
+}
@@ -1,6 +1,7 @@
 package com.mockservice.web.webapp;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.mockservice.model.DedupReport;
 import com.mockservice.repository.ConfigRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +43,11 @@ public class WebApiConfigController {
         configRepository.restore();
     }
 
+    @GetMapping("dedup")
+    public DedupReport getDedupReport() {
+        return configRepository.getDedupReport();
+    }
+
     @ExceptionHandler
     protected ResponseEntity<ErrorInfo> handleException(Exception e) {
         log.error("", e);
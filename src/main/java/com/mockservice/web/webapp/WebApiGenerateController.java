@@ -1,5 +1,6 @@
 package com.mockservice.web.webapp;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mockservice.producer.JsonFromSchemaProducer;
@@ -8,8 +9,11 @@ import com.mockservice.util.JsonUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Map;
 
@@ -24,15 +28,21 @@ public class WebApiGenerateController {
     private final ObjectMapper yamlMapper;
     private final JsonProducer jsonProducer;
     private final JsonFromSchemaProducer jsonFromSchemaProducer;
+    private final long jsonMaxSize;
+    private final int jsonMaxDepth;
 
     public WebApiGenerateController(@Qualifier("jsonMapper") ObjectMapper jsonMapper,
                                     @Qualifier("yamlMapper") ObjectMapper yamlMapper,
                                     JsonProducer jsonProducer,
-                                    JsonFromSchemaProducer jsonFromSchemaProducer) {
+                                    JsonFromSchemaProducer jsonFromSchemaProducer,
+                                    @Value("${application.generate.json-max-size}") long jsonMaxSize,
+                                    @Value("${application.generate.json-max-depth}") int jsonMaxDepth) {
         this.jsonMapper = jsonMapper;
         this.yamlMapper = yamlMapper;
         this.jsonProducer = jsonProducer;
         this.jsonFromSchemaProducer = jsonFromSchemaProducer;
+        this.jsonMaxSize = jsonMaxSize;
+        this.jsonMaxDepth = jsonMaxDepth;
     }
 
     @GetMapping("json")
@@ -40,6 +50,29 @@ public class WebApiGenerateController {
         return jsonProducer.generate();
     }
 
+    /**
+     * Streams a document of about {@code size} chars straight to the response.
+     */
+    @GetMapping(value = "json", params = "size")
+    public ResponseEntity<StreamingResponseBody> jsonOfSize(@RequestParam long size,
+                                                            @RequestParam(defaultValue = "8") int depth,
+                                                            @RequestParam(defaultValue = "false") boolean pretty) {
+        if (size < 0 || size > jsonMaxSize) {
+            throw new IllegalArgumentException("Size must be from 0 to " + jsonMaxSize + ", got " + size);
+        }
+        if (depth < 1 || depth > jsonMaxDepth) {
+            throw new IllegalArgumentException("Depth must be from 1 to " + jsonMaxDepth + ", got " + depth);
+        }
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = jsonMapper.getFactory().createGenerator(out)) {
+                jsonProducer.write(generator, size, depth, pretty);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @PostMapping("json")
     @SuppressWarnings("unchecked")
     public String jsonFromSchema(@RequestBody String schema) throws JsonProcessingException {
@@ -2,6 +2,7 @@ package com.mockservice.web.webapp;
 
 import com.mockservice.model.RouteDto;
 import com.mockservice.model.RouteVariableDto;
+import com.mockservice.request.AbstractRequestFacade;
 import com.mockservice.service.RouteService;
 import io.swagger.annotations.ApiOperation;
 import org.slf4j.Logger;
@@ -12,6 +13,8 @@ import org.springframework.web.bind.annotation.*;
 import java.io.IOException;
 import java.util.List;
 
+import static com.mockservice.request.AbstractRequestFacade.SESSION_HEADER;
+
 @RestController
 @RequestMapping("web-api/routes")
 @CrossOrigin(origins = "*")
@@ -68,13 +71,19 @@ public class WebApiRoutesController {
 
     @ApiOperation(value = "Set specific variable for the specified route", tags = "routes")
     @PutMapping("variables")
-    public RouteVariableDto setVariable(@RequestBody RouteVariableDto variable) {
-        return routeService.setRouteVariable(variable);
+    public RouteVariableDto setVariable(@RequestHeader(value = SESSION_HEADER, required = false) String session,
+                                        @RequestBody RouteVariableDto variable) {
+        return AbstractRequestFacade.session(session)
+                .map(key -> routeService.setRouteVariable(key, variable))
+                .orElseGet(() -> routeService.setRouteVariable(variable));
     }
 
     @ApiOperation(value = "Clear specific variable for the specified route", tags = "routes")
     @DeleteMapping("variables")
-    public RouteVariableDto clearVariable(@RequestBody RouteVariableDto variable) {
-        return routeService.clearRouteVariable(variable);
+    public RouteVariableDto clearVariable(@RequestHeader(value = SESSION_HEADER, required = false) String session,
+                                          @RequestBody RouteVariableDto variable) {
+        return AbstractRequestFacade.session(session)
+                .map(key -> routeService.clearRouteVariable(key, variable))
+                .orElseGet(() -> routeService.clearRouteVariable(variable));
     }
 }
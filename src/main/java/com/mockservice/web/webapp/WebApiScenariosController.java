@@ -3,6 +3,7 @@ package com.mockservice.web.webapp;
 import com.mockservice.domain.Scenario;
 import com.mockservice.domain.ScenarioAlreadyExistsException;
 import com.mockservice.domain.ScenarioParseException;
+import com.mockservice.request.AbstractRequestFacade;
 import com.mockservice.service.ScenarioService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +14,8 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 
+import static com.mockservice.request.AbstractRequestFacade.SESSION_HEADER;
+
 @RestController
 @RequestMapping("web-api")
 @CrossOrigin(origins = "*")
@@ -42,13 +45,19 @@ public class WebApiScenariosController {
     }
 
     @PutMapping("scenarios/active")
-    public Set<String> activateScenario(@RequestBody String alias) {
-        return scenarioService.activateScenario(alias);
+    public Set<String> activateScenario(@RequestHeader(value = SESSION_HEADER, required = false) String session,
+                                        @RequestBody String alias) {
+        return AbstractRequestFacade.session(session)
+                .map(key -> scenarioService.activateScenario(key, alias))
+                .orElseGet(() -> scenarioService.activateScenario(alias));
     }
 
     @DeleteMapping("scenarios/active")
-    public Set<String> deactivateScenario(@RequestBody String alias) {
-        return scenarioService.deactivateScenario(alias);
+    public Set<String> deactivateScenario(@RequestHeader(value = SESSION_HEADER, required = false) String session,
+                                          @RequestBody String alias) {
+        return AbstractRequestFacade.session(session)
+                .map(key -> scenarioService.deactivateScenario(key, alias))
+                .orElseGet(() -> scenarioService.deactivateScenario(alias));
     }
 
     @ExceptionHandler({ScenarioAlreadyExistsException.class, ScenarioParseException.class})
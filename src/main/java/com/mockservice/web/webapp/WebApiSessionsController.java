@@ -0,0 +1,40 @@
+package com.mockservice.web.webapp;
+
+import com.mockservice.service.SessionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("web-api/sessions")
+@CrossOrigin(origins = "*")
+public class WebApiSessionsController {
+
+    private static final Logger log = LoggerFactory.getLogger(WebApiSessionsController.class);
+
+    private final SessionService sessionService;
+
+    public WebApiSessionsController(SessionService sessionService) {
+        this.sessionService = sessionService;
+    }
+
+    @GetMapping
+    public Set<String> getSessions() {
+        return sessionService.getSessionKeys();
+    }
+
+    @DeleteMapping
+    public Set<String> deleteSession(@RequestBody String key) {
+        sessionService.deleteSession(key);
+        return sessionService.getSessionKeys();
+    }
+
+    @ExceptionHandler
+    protected ResponseEntity<ErrorInfo> handleException(Exception e) {
+        log.error("", e);
+        return ResponseEntity.badRequest().body(new ErrorInfo(e));
+    }
+}
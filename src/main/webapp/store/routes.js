@@ -96,6 +96,7 @@ export const actions = {
             path: '/',
             alt: '',
             response: '',
+            fault: 'NONE',
             disabled: false,
             variables: null,
             _new: true,
@@ -40,6 +40,11 @@ public class RouteTest {
         assertTrue(new Route().setRequestBodySchema(null).getRequestBodySchema().isEmpty());
     }
 
+    @Test
+    public void setResponseSchema_Null_ResponseSchemaIsEmptyString() {
+        assertTrue(new Route().setResponseSchema(null).getResponseSchema().isEmpty());
+    }
+
     @Test
     public void setType_Null_TypeIsRest() {
         assertTrue(new Route().setType(null).isRest());
@@ -0,0 +1,116 @@
+package com.mockservice.domain;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScenarioStateMachineTest {
+
+    private static final String ORDER = "/order";
+    private static final String ORDER_FLOW = """
+            GET;/order;404
+            POST;/order;201;created
+
+            [created]
+            GET;/order;processing;processing
+            [processing]
+            GET;/order;processing;done
+            [done]
+            GET;/order;done
+            """;
+
+    @Test
+    public void getAltFor_OrderFlow_AltsFollowTransitions() {
+        ScenarioStateMachine machine = ScenarioStateMachine.parse(ORDER_FLOW);
+
+        assertEquals(Optional.of("404"), machine.getAltFor(RequestMethod.GET, ORDER));
+        assertEquals(Optional.of("404"), machine.getAltFor(RequestMethod.GET, ORDER));
+        assertEquals(Optional.of("201"), machine.getAltFor(RequestMethod.POST, ORDER));
+        assertEquals("created", machine.getState());
+        assertEquals(Optional.of("processing"), machine.getAltFor(RequestMethod.GET, ORDER));
+        assertEquals(Optional.of("processing"), machine.getAltFor(RequestMethod.GET, ORDER));
+        assertEquals(Optional.of("done"), machine.getAltFor(RequestMethod.GET, ORDER));
+        assertEquals(Optional.of("done"), machine.getAltFor(RequestMethod.GET, ORDER));
+        assertEquals("done", machine.getState());
+    }
+
+    @Test
+    public void getAltFor_EndpointNotInCurrentState_Empty() {
+        ScenarioStateMachine machine = ScenarioStateMachine.parse(ORDER_FLOW);
+        machine.getAltFor(RequestMethod.POST, ORDER);
+
+        assertTrue(machine.getAltFor(RequestMethod.POST, ORDER).isEmpty());
+        assertEquals("created", machine.getState());
+    }
+
+    @Test
+    public void parse_UnknownNextState_ExceptionThrown() {
+        assertThrows(ScenarioParseException.class, () -> ScenarioStateMachine.parse("GET;/order;200;missing"));
+    }
+
+    @Test
+    public void parse_DuplicateState_ExceptionThrown() {
+        assertThrows(ScenarioParseException.class, () -> ScenarioStateMachine.parse("[a]\nGET;/order;1\n[a]"));
+    }
+
+    @Test
+    public void parse_EmptyData_NoAlts() {
+        assertTrue(ScenarioStateMachine.parse("").getAltFor(RequestMethod.GET, ORDER).isEmpty());
+    }
+
+    @Test
+    public void scenario_StatefulReactivated_StartsFromInitialState() {
+        Scenario scenario = new Scenario().setType(ScenarioType.STATEFUL).setData(ORDER_FLOW).setActive(true);
+        scenario.getAltFor(RequestMethod.POST, ORDER);
+
+        scenario.setActive(false).setActive(true);
+
+        assertEquals(Optional.of("404"), scenario.getAltFor(RequestMethod.GET, ORDER));
+    }
+
+    @Test
+    public void getAltFor_ConcurrentRequests_EachTransitionTakenOnce() throws Exception {
+        int steps = 200;
+        String data = IntStream.range(0, steps)
+                .mapToObj(i -> "[" + i + "]\nGET;/a;" + i + ";" + (i + 1))
+                .collect(Collectors.joining("\n")) + "\n[" + steps + "]\nGET;/a;last";
+        ScenarioStateMachine machine = ScenarioStateMachine.parse(data);
+
+        Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = IntStream.range(0, 8)
+                    .mapToObj(t -> executor.submit(() -> {
+                        for (int i = 0; i < 1000; i++) {
+                            machine.getAltFor(RequestMethod.GET, "/a")
+                                    .ifPresent(a -> counts.computeIfAbsent(a, k -> new AtomicInteger()).incrementAndGet());
+                        }
+                    }))
+                    .collect(Collectors.toList());
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < steps; i++) {
+            assertEquals(1, counts.get("" + i).get(), "alt " + i);
+        }
+        assertEquals(8 * 1000 - steps, counts.get("last").get());
+        assertEquals("" + steps, machine.getState());
+    }
+}
@@ -0,0 +1,93 @@
+package com.mockservice.domain;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScenarioStrategyConcurrencyTest {
+
+    private static final String PATH = "/test";
+    private static final int THREADS = 8;
+    private static final int ALTS = 1000;
+    private static final int CALLS_PER_THREAD = 5000;
+
+    private static Scenario scenario(ScenarioType type) {
+        String data = IntStream.range(0, ALTS)
+                .mapToObj(i -> "GET;" + PATH + ";" + i)
+                .collect(Collectors.joining("\n"));
+        return new Scenario().setAlias("stress").setType(type).setData(data).setActive(true);
+    }
+
+    private static Map<String, AtomicInteger> callConcurrently(Scenario scenario) throws Exception {
+        Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = IntStream.range(0, THREADS)
+                    .mapToObj(t -> executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                            Optional<String> alt = scenario.getAltFor(RequestMethod.GET, PATH);
+                            alt.ifPresent(a -> counts.computeIfAbsent(a, k -> new AtomicInteger()).incrementAndGet());
+                        }
+                        return null;
+                    }))
+                    .collect(Collectors.toList());
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return counts;
+    }
+
+    @Test
+    public void queue_ConcurrentCalls_EachAltReturnedExactlyOnce() throws Exception {
+        Scenario scenario = scenario(ScenarioType.QUEUE);
+
+        Map<String, AtomicInteger> counts = callConcurrently(scenario);
+
+        assertEquals(ALTS, counts.size());
+        counts.forEach((alt, count) -> assertEquals(1, count.get(), "alt " + alt));
+        assertTrue(scenario.getAltFor(RequestMethod.GET, PATH).isEmpty());
+    }
+
+    @Test
+    public void circularQueue_ConcurrentCalls_AltsReturnedEvenly() throws Exception {
+        Scenario scenario = scenario(ScenarioType.CIRCULAR_QUEUE);
+
+        Map<String, AtomicInteger> counts = callConcurrently(scenario);
+
+        int expected = THREADS * CALLS_PER_THREAD / ALTS;
+        assertEquals(ALTS, counts.size());
+        counts.forEach((alt, count) -> assertEquals(expected, count.get(), "alt " + alt));
+        assertEquals(Optional.of("0"), scenario.getAltFor(RequestMethod.GET, PATH));
+    }
+
+    @Test
+    public void queue_Reactivated_StartsFromFirstAlt() {
+        Scenario scenario = scenario(ScenarioType.QUEUE);
+        scenario.getAltFor(RequestMethod.GET, PATH);
+        scenario.getAltFor(RequestMethod.GET, PATH);
+
+        scenario.setActive(false).setActive(true);
+
+        assertEquals(Optional.of("0"), scenario.getAltFor(RequestMethod.GET, PATH));
+    }
+}
@@ -4,6 +4,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.bind.annotation.RequestMethod;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ScenarioTest {
@@ -128,4 +132,82 @@ public class ScenarioTest {
         assertTrue(activeScenario.getActive());
         assertTrue(activeScenario.getAltFor(RequestMethod.valueOf(METHOD), PATH).isPresent());
     }
+
+    @Test
+    public void getAltFor_OtherEndpoint_Empty() {
+        Scenario activeScenario = new Scenario().setData(SCENARIO_WITH_ALT).setActive(true);
+        assertTrue(activeScenario.getAltFor(RequestMethod.POST, PATH).isEmpty());
+        assertTrue(activeScenario.getAltFor(RequestMethod.valueOf(METHOD), PATH + "/other").isEmpty());
+    }
+
+    @Test
+    public void getAltFor_CircularQueueOverTwoEndpoints_EachEndpointCyclesOwnAlts() {
+        String data = "GET;/a;1\nGET;/b;2\nGET;/a;3";
+        Scenario scenario = new Scenario().setType(ScenarioType.CIRCULAR_QUEUE).setData(data).setActive(true);
+
+        assertEquals("1", scenario.getAltFor(RequestMethod.GET, "/a").orElseThrow());
+        assertEquals("2", scenario.getAltFor(RequestMethod.GET, "/b").orElseThrow());
+        assertEquals("3", scenario.getAltFor(RequestMethod.GET, "/a").orElseThrow());
+        assertEquals("2", scenario.getAltFor(RequestMethod.GET, "/b").orElseThrow());
+        assertEquals("1", scenario.getAltFor(RequestMethod.GET, "/a").orElseThrow());
+    }
+
+    private static final String WEIGHTED_DATA = "GET;/a;200;95\nGET;/a;429;4\nGET;/a;500;1\nGET;/a;404;0";
+
+    private static Map<String, Integer> sampleWeighted(Scenario scenario, int samples) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < samples; i++) {
+            counts.merge(scenario.getAltFor(RequestMethod.GET, "/a").orElseThrow(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Test
+    public void getAltFor_Weighted_AltsPickedAccordingToWeights() {
+        Scenario scenario = new Scenario().setType(ScenarioType.WEIGHTED).setData(WEIGHTED_DATA).setActive(true);
+
+        Map<String, Integer> counts = sampleWeighted(scenario, 100_000);
+
+        assertEquals(95_000, counts.get("200"), 1_000);
+        assertEquals(4_000, counts.get("429"), 500);
+        assertEquals(1_000, counts.get("500"), 300);
+        assertNull(counts.get("404"));
+    }
+
+    @Test
+    public void getAltFor_WeightedWithSeed_SameSequence() {
+        Scenario scenario1 = new Scenario().setType(ScenarioType.WEIGHTED).setData(WEIGHTED_DATA).setSeed(42L).setActive(true);
+        Scenario scenario2 = new Scenario().setType(ScenarioType.WEIGHTED).setData(WEIGHTED_DATA).setSeed(42L).setActive(true);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(scenario1.getAltFor(RequestMethod.GET, "/a"), scenario2.getAltFor(RequestMethod.GET, "/a"));
+        }
+    }
+
+    @Test
+    public void getAltFor_WeightedWithoutWeights_AllAltsPicked() {
+        Scenario scenario = new Scenario().setType(ScenarioType.WEIGHTED).setData("GET;/a;1\nGET;/a;2").setActive(true);
+
+        assertEquals(Set.of("1", "2"), sampleWeighted(scenario, 1000).keySet());
+    }
+
+    @Test
+    public void setActive_InvalidWeight_ExceptionThrown() {
+        Scenario notNumber = new Scenario().setType(ScenarioType.WEIGHTED).setData("GET;/a;200;many");
+        Scenario negative = new Scenario().setType(ScenarioType.WEIGHTED).setData("GET;/a;200;-1");
+
+        assertThrows(ScenarioParseException.class, () -> notNumber.setActive(true));
+        assertThrows(ScenarioParseException.class, () -> negative.setActive(true));
+    }
+
+    @Test
+    public void setActive_NotFiniteWeight_ExceptionThrown() {
+        Scenario nan = new Scenario().setType(ScenarioType.WEIGHTED).setData("GET;/a;200;NaN");
+        Scenario infinity = new Scenario().setType(ScenarioType.WEIGHTED).setData("GET;/a;200;Infinity");
+
+        assertTrue(assertThrows(ScenarioParseException.class, () -> nan.setActive(true))
+                .getMessage().contains("finite"));
+        assertTrue(assertThrows(ScenarioParseException.class, () -> infinity.setActive(true))
+                .getMessage().contains("finite"));
+    }
 }
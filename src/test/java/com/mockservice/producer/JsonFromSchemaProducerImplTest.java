@@ -1,17 +1,22 @@
 package com.mockservice.producer;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mockservice.util.IOUtils;
 import com.mockservice.util.RandomUtils;
+import com.mockservice.util.RandomUtilsImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class JsonFromSchemaProducerImplTest {
@@ -33,4 +38,127 @@ public class JsonFromSchemaProducerImplTest {
 
         assertDoesNotThrow(() -> mapper.readTree(json));
     }
+
+    private static JsonNode generate(String schema) throws IOException {
+        RandomUtils random = new RandomUtilsImpl();
+        JsonFromSchemaProducer producer = new JsonFromSchemaProducerImpl(new ValueProducerImpl(random), random);
+        return new ObjectMapper().readTree(producer.jsonFromSchemaText(schema));
+    }
+
+    @Test
+    public void jsonFromSchemaText_Constraints_Honored() throws IOException {
+        String schema = """
+                {"type": "object", "required": ["id", "code", "tags", "price", "format"],
+                 "properties": {
+                    "id": {"type": "integer", "minimum": 10, "maximum": 20, "multipleOf": 5},
+                    "code": {"type": "string", "pattern": "^[A-Z]{3}-\\\\d{4}$"},
+                    "tags": {"type": "array", "minItems": 4, "maxItems": 5, "items": {"enum": ["a", "b"]}},
+                    "price": {"type": "number", "exclusiveMinimum": 0, "maximum": 1},
+                    "format": {"type": "string", "format": "unknown"}}}
+                """;
+
+        for (int i = 0; i < 20; i++) {
+            JsonNode json = generate(schema);
+
+            assertTrue(Set.of(10, 15, 20).contains(json.get("id").intValue()));
+            assertTrue(json.get("code").textValue().matches("[A-Z]{3}-\\d{4}"));
+            assertTrue(json.get("tags").size() >= 4 && json.get("tags").size() <= 5);
+            json.get("tags").forEach(tag -> assertTrue(Set.of("a", "b").contains(tag.textValue())));
+            assertTrue(json.get("price").doubleValue() > 0 && json.get("price").doubleValue() <= 1);
+            assertTrue(json.get("format").isTextual());
+        }
+    }
+
+    @Test
+    public void jsonFromSchemaText_RecursiveRef_Terminates() throws IOException {
+        String schema = """
+                {"$ref": "#/definitions/node",
+                 "definitions": {"node": {"type": "object", "required": ["id"], "properties": {
+                    "id": {"type": "integer"},
+                    "children": {"type": "array", "minItems": 0, "items": {"$ref": "#/definitions/node"}}}}}}
+                """;
+
+        JsonNode json = generate(schema);
+
+        assertTrue(json.get("id").isInt());
+    }
+
+    @Test
+    public void jsonFromSchemaText_MultipleOfWithoutBounds_Honored() throws IOException {
+        String schema = """
+                {"type": "object", "required": ["count", "amount"],
+                 "properties": {
+                    "count": {"type": "integer", "multipleOf": 5},
+                    "amount": {"type": "number", "multipleOf": 0.5}}}
+                """;
+
+        for (int i = 0; i < 20; i++) {
+            JsonNode json = generate(schema);
+
+            assertEquals(0, json.get("count").longValue() % 5);
+            assertTrue(json.get("count").longValue() >= 0);
+            assertEquals(0, json.get("amount").doubleValue() % 0.5);
+            assertTrue(json.get("amount").doubleValue() >= 0);
+        }
+    }
+
+    @Test
+    public void jsonFromSchemaText_RecursiveRefWithoutMinItems_NoNullItems() throws IOException {
+        String schema = """
+                {"$ref": "#/definitions/node",
+                 "definitions": {"node": {"type": "object", "required": ["id", "children"], "properties": {
+                    "id": {"type": "integer"},
+                    "children": {"type": "array", "items": {"$ref": "#/definitions/node"}}}}}}
+                """;
+
+        for (int i = 0; i < 5; i++) {
+            assertNoNullItems(generate(schema));
+        }
+    }
+
+    private static void assertNoNullItems(JsonNode node) {
+        JsonNode children = node.get("children");
+        assertTrue(children.isArray());
+        children.forEach(child -> {
+            assertTrue(child.isObject());
+            assertNoNullItems(child);
+        });
+    }
+
+    @Test
+    public void jsonFromSchemaText_AllOfAndOneOf_Resolved() throws IOException {
+        String schema = """
+                {"allOf": [
+                    {"type": "object", "properties": {"id": {"type": "integer"}}, "required": ["id"]},
+                    {"properties": {"kind": {"oneOf": [{"const": "x"}, {"const": 1}]}}, "required": ["kind"]}]}
+                """;
+
+        JsonNode json = generate(schema);
+
+        assertTrue(json.get("id").isInt());
+        assertTrue(json.get("kind").asText().equals("x") || json.get("kind").asInt() == 1);
+    }
+
+    @Test
+    public void jsonFromSchemaText_ValuesDrawnFromRandomUtils() {
+        when(randomUtils.rndLong(10, 21)).thenReturn(17L);
+
+        assertEquals("17", producer().jsonFromSchemaText("{\"type\": \"integer\", \"minimum\": 10, \"maximum\": 20}"));
+        assertEquals("\"aa\"", producer().jsonFromSchemaText("{\"type\": \"string\", \"pattern\": \"^[ab]{2}$\"}"));
+    }
+
+    @Test
+    public void jsonFromSchema_MapChangedAfterCall_NewContentUsed() {
+        JsonFromSchemaProducer producer = producer();
+        Map<String, Object> schema = new HashMap<>(Map.of("const", 1));
+
+        assertEquals("1", producer.jsonFromSchema(schema));
+        schema.put("const", 2);
+        assertEquals("2", producer.jsonFromSchema(schema));
+    }
+
+    @Test
+    public void jsonFromSchemaText_InvalidJson_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> producer().jsonFromSchemaText("{"));
+    }
 }
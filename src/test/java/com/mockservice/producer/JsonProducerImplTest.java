@@ -1,12 +1,19 @@
 package com.mockservice.producer;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mockservice.util.RandomUtils;
+import com.mockservice.util.RandomUtilsImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyInt;
 
@@ -83,6 +90,28 @@ public class JsonProducerImplTest {
         );
     }
 
+    @Test
+    public void generateArray_OfInteger_OnOneLine() {
+        Mockito.when(randomUtils.rnd(anyInt())).thenReturn(1);
+        String json = producer().generateArray(0, 3, JsonValueType.INTEGER);
+
+        assertTrue(json.matches("\\[-?\\d+(, -?\\d+){2}]"), json);
+    }
+
+    @Test
+    public void generate_Object_IndentedWithoutSpaceBeforeColon() {
+        Mockito.when(randomUtils.rnd(anyInt())).thenReturn(1);
+        Mockito.when(randomUtils.withChance(anyInt())).thenReturn(false);
+        String json = producer().generate(JsonValueType.OBJECT);
+
+        assertTrue(json.matches("\\{\n    \"[^\"]+\": -?\\d+\n}"), json);
+    }
+
+    @Test
+    public void generateArray_Empty_NoSpaceInside() {
+        assertEquals("[]", producer().generateArray(0, 0, JsonValueType.OBJECT));
+    }
+
     @Test
     public void generate_Object2_GeneratesObject() {
         Mockito.when(randomUtils.withChance(anyInt())).thenReturn(true);
@@ -121,6 +150,52 @@ public class JsonProducerImplTest {
         assertFalse(json.isEmpty());
     }
 
+    @Test
+    public void write_SizeGiven_WritesValidJsonOfAboutThatSize() throws IOException {
+        String json = write(100_000, 8, false);
+
+        JsonNode root = new ObjectMapper().readTree(json);
+        assertTrue(root.isContainerNode());
+        assertTrue(json.length() > 90_000);
+        assertTrue(json.length() < 110_000);
+    }
+
+    @Test
+    public void write_MaxDepthGiven_NotNestedDeeper() throws IOException {
+        for (int i = 0; i < 20; i++) {
+            JsonNode root = new ObjectMapper().readTree(write(10_000, 3, false));
+            assertTrue(depth(root) <= 3);
+        }
+    }
+
+    @Test
+    public void write_Pretty_LaidOutLikeGenerate() throws IOException {
+        String json = write(10_000, 3, true);
+
+        assertTrue(json.contains("\n") || json.contains(", "));
+        assertFalse(json.contains("\" : "));
+        assertFalse(json.contains("[ "));
+        assertDoesNotThrow(() -> new ObjectMapper().readTree(json));
+    }
+
+    private static String write(long size, int maxDepth, boolean pretty) throws IOException {
+        RandomUtils random = new RandomUtilsImpl();
+        JsonProducer producer = new JsonProducerImpl(new ValueProducerImpl(random), random);
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = new ObjectMapper().getFactory().createGenerator(writer)) {
+            producer.write(generator, size, maxDepth, pretty);
+        }
+        return writer.toString();
+    }
+
+    private static int depth(JsonNode node) {
+        int depth = 0;
+        for (JsonNode child : node) {
+            depth = Math.max(depth, depth(child));
+        }
+        return node.isContainerNode() ? depth + 1 : 0;
+    }
+
     @Test
     public void generate_Null_GeneratesNull() {
         String json = producer().generate(JsonValueType.NULL);
@@ -0,0 +1,148 @@
+package com.mockservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.mockservice.domain.Config;
+import com.mockservice.domain.Route;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryConfigSnapshotTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryConfigSnapshotTest.class);
+
+    private static final String PATH = "/test";
+    private static final String RESPONSE = "{\"id\": 1}";
+
+    @TempDir
+    File folder; // must not be private
+
+    private ObjectMapper getYamlMapper() {
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        yamlMapper.findAndRegisterModules();
+        return yamlMapper;
+    }
+
+    private Path snapshotPath() {
+        return new File(folder, "config.yml.snapshot").toPath();
+    }
+
+    private static Config config(int routes) {
+        Config config = new Config();
+        for (int i = 0; i < routes; i++) {
+            config.getRoutes().add(new Route().setGroup("group" + i % 100).setPath(PATH + i).setResponse(RESPONSE));
+        }
+        return config;
+    }
+
+    @Test
+    public void read_SnapshotOfSameYaml_ReturnsConfig() throws IOException {
+        ObjectMapper yamlMapper = getYamlMapper();
+        Config config = config(3);
+        byte[] yaml = yamlMapper.writeValueAsBytes(config);
+        BinaryConfigSnapshot snapshot = new BinaryConfigSnapshot(snapshotPath(), yamlMapper);
+        snapshot.write(snapshot.serialize(config, yaml));
+
+        Optional<Config> read = snapshot.read(yaml);
+
+        assertTrue(read.isPresent());
+        assertEquals(config.getRoutes(), read.get().getRoutes());
+        assertEquals(RESPONSE, read.get().getRoutes().get(0).getResponse());
+    }
+
+    @Test
+    public void read_YamlEdited_Empty() throws IOException {
+        ObjectMapper yamlMapper = getYamlMapper();
+        Config config = config(1);
+        byte[] yaml = yamlMapper.writeValueAsBytes(config);
+        BinaryConfigSnapshot snapshot = new BinaryConfigSnapshot(snapshotPath(), yamlMapper);
+        snapshot.write(snapshot.serialize(config, yaml));
+
+        byte[] edited = new String(yaml, StandardCharsets.UTF_8).replace(PATH, "/edit").getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(snapshot.read(edited).isEmpty());
+    }
+
+    @Test
+    public void read_PayloadCorrupted_Empty() throws IOException {
+        ObjectMapper yamlMapper = getYamlMapper();
+        Config config = config(1);
+        byte[] yaml = yamlMapper.writeValueAsBytes(config);
+        BinaryConfigSnapshot snapshot = new BinaryConfigSnapshot(snapshotPath(), yamlMapper);
+        byte[] data = snapshot.serialize(config, yaml);
+        data[data.length - 1] ^= 0x55;
+        Files.write(snapshotPath(), data);
+
+        assertTrue(snapshot.read(yaml).isEmpty());
+    }
+
+    @Test
+    public void read_NoSnapshot_Empty() throws IOException {
+        BinaryConfigSnapshot snapshot = new BinaryConfigSnapshot(snapshotPath(), getYamlMapper());
+        assertTrue(snapshot.read(new byte[0]).isEmpty());
+    }
+
+    @Test
+    public void fileConfigStore_Written_ReadsFromSnapshotAndFallsBackToYaml() throws IOException {
+        ObjectMapper yamlMapper = getYamlMapper();
+        File file = new File(folder, "config.yml");
+        Config config = config(2);
+        new FileConfigStore(file, yamlMapper, true).prepare(config, List.of()).execute();
+
+        assertTrue(Files.exists(Path.of(file.getPath() + ".snapshot")));
+        assertEquals(config.getRoutes(), new FileConfigStore(file, yamlMapper, true).read().getRoutes());
+
+        Files.writeString(file.toPath(), "routes:\n  - path: /edited\n", StandardCharsets.UTF_8);
+        List<Route> routes = new FileConfigStore(file, yamlMapper, true).read().getRoutes();
+        assertEquals(1, routes.size());
+        assertEquals("/edited", routes.get(0).getPath());
+    }
+
+    //----------------------------------------------------------------------
+    //
+    //   Startup benchmark, run with -Dbenchmark=true
+    //
+    //----------------------------------------------------------------------
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmark_LoadYamlVsSnapshot_SnapshotFaster() throws IOException {
+        for (int routes : new int[]{10_000, 100_000}) {
+            ObjectMapper yamlMapper = getYamlMapper();
+            Config config = config(routes);
+            byte[] yaml = yamlMapper.writeValueAsBytes(config);
+            BinaryConfigSnapshot snapshot = new BinaryConfigSnapshot(snapshotPath(), yamlMapper);
+            snapshot.write(snapshot.serialize(config, yaml));
+
+            long yamlNanos = Long.MAX_VALUE;
+            long snapshotNanos = Long.MAX_VALUE;
+            for (int i = 0; i < 5; i++) {
+                long start = System.nanoTime();
+                assertEquals(routes, yamlMapper.readValue(yaml, Config.class).getRoutes().size());
+                yamlNanos = Math.min(yamlNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                assertEquals(routes, snapshot.read(yaml).orElseThrow().getRoutes().size());
+                snapshotNanos = Math.min(snapshotNanos, System.nanoTime() - start);
+            }
+            log.info("{} routes: yaml {} ms ({} KB), snapshot {} ms ({} KB)",
+                    routes,
+                    yamlNanos / 1_000_000, yaml.length / 1024,
+                    snapshotNanos / 1_000_000, Files.size(snapshotPath()) / 1024);
+            assertTrue(snapshotNanos < yamlNanos, routes + " routes: snapshot is not faster than YAML");
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.mockservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockservice.model.Callback;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CallbackOutboxImplTest {
+
+    private static final String URL = "http://localhost:8087/test";
+    private static final long LARGE_SEGMENT = 1 << 20;
+    private static final long TINY_SEGMENT = 1;
+    private static final long NO_COMPACTION = 60_000;
+    private static final long FAST_COMPACTION = 10;
+
+    @TempDir
+    File folder; // must not be private
+
+    private CallbackOutboxImpl outbox(long segmentSize, long compactionIntervalMillis) {
+        return new CallbackOutboxImpl(true, folder.getAbsolutePath(), segmentSize, compactionIntervalMillis, new ObjectMapper());
+    }
+
+    private static Callback callback(long id) {
+        return new Callback()
+                .setId(id)
+                .setMethod(RequestMethod.POST)
+                .setUrl(URL)
+                .setHeaders(Map.of("Content-Type", List.of("application/json")))
+                .setBody("{\"id\": " + id + "}")
+                .setExecuteAt(1000 + id);
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(folder.toPath())) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void recover_Disabled_ReturnsEmptyList() throws IOException {
+        CallbackOutboxImpl outbox = new CallbackOutboxImpl(false, folder.getAbsolutePath(), LARGE_SEGMENT, NO_COMPACTION, new ObjectMapper());
+        outbox.append(callback(1));
+
+        assertFalse(outbox.isEnabled());
+        assertTrue(outbox.recover().isEmpty());
+        assertEquals(0, segmentCount());
+    }
+
+    @Test
+    public void recover_AppendedAndNotDone_CallbackRecovered() throws IOException {
+        try (CallbackOutboxImpl outbox = outbox(LARGE_SEGMENT, NO_COMPACTION)) {
+            outbox.append(callback(1));
+            outbox.append(callback(2));
+            outbox.markDone(1);
+        }
+
+        try (CallbackOutboxImpl outbox = outbox(LARGE_SEGMENT, NO_COMPACTION)) {
+            List<Callback> recovered = outbox.recover();
+            assertEquals(1, recovered.size());
+
+            Callback callback = recovered.get(0);
+            assertEquals(2, callback.getId());
+            assertEquals(RequestMethod.POST, callback.getMethod());
+            assertEquals(URL, callback.getUrl());
+            assertEquals(List.of("application/json"), callback.getHeaders().get("Content-Type"));
+            assertEquals("{\"id\": 2}", callback.getBody());
+            assertEquals(1002, callback.getExecuteAt());
+        }
+    }
+
+    @Test
+    public void recover_CalledTwice_SecondCallReturnsEmptyList() throws IOException {
+        try (CallbackOutboxImpl outbox = outbox(LARGE_SEGMENT, NO_COMPACTION)) {
+            outbox.append(callback(1));
+        }
+
+        try (CallbackOutboxImpl outbox = outbox(LARGE_SEGMENT, NO_COMPACTION)) {
+            assertEquals(1, outbox.recover().size());
+            assertTrue(outbox.recover().isEmpty());
+        }
+    }
+
+    @Test
+    public void recover_TornLastRecord_RecordSkipped() throws IOException {
+        try (CallbackOutboxImpl outbox = outbox(LARGE_SEGMENT, NO_COMPACTION)) {
+            outbox.append(callback(1));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(folder.toPath())) {
+            segment = files.filter(p -> Files.isRegularFile(p)).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        Files.writeString(segment, "{\"op\":\"add\",\"id\":2,\"callb", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (CallbackOutboxImpl outbox = outbox(LARGE_SEGMENT, NO_COMPACTION)) {
+            List<Callback> recovered = outbox.recover();
+            assertEquals(1, recovered.size());
+            assertEquals(1, recovered.get(0).getId());
+        }
+    }
+
+    @Test
+    public void append_Closed_ThrowsException() {
+        CallbackOutboxImpl outbox = outbox(LARGE_SEGMENT, NO_COMPACTION);
+        outbox.close();
+
+        Callback callback = callback(1);
+        assertThrows(IOException.class, () -> outbox.append(callback));
+    }
+
+    @Test
+    public void compaction_AllDone_SealedSegmentsDeleted() throws IOException, InterruptedException {
+        try (CallbackOutboxImpl outbox = outbox(TINY_SEGMENT, FAST_COMPACTION)) {
+            for (long id = 1; id <= 5; id++) {
+                outbox.append(callback(id));
+                outbox.markDone(id);
+            }
+            outbox.append(callback(6)); // forces the last "done" record to be written
+            waitFor(() -> segmentCount() <= 2);
+        }
+
+        try (CallbackOutboxImpl outbox = outbox(LARGE_SEGMENT, NO_COMPACTION)) {
+            List<Callback> recovered = outbox.recover();
+            assertEquals(1, recovered.size());
+            assertEquals(6, recovered.get(0).getId());
+        }
+    }
+
+    @Test
+    public void compaction_LiveRecordsMoved_CallbacksStillRecovered() throws IOException, InterruptedException {
+        try (CallbackOutboxImpl outbox = outbox(TINY_SEGMENT, FAST_COMPACTION)) {
+            outbox.append(callback(1));
+            outbox.append(callback(2));
+            outbox.markDone(2);
+            outbox.append(callback(3));
+            waitFor(() -> segmentCount() <= 2);
+        }
+
+        try (CallbackOutboxImpl outbox = outbox(LARGE_SEGMENT, NO_COMPACTION)) {
+            List<Long> ids = outbox.recover().stream().map(Callback::getId).sorted().toList();
+            assertEquals(List.of(1L, 3L), ids);
+        }
+    }
+
+    private interface Condition {
+        boolean test() throws IOException;
+    }
+
+    private static void waitFor(Condition condition) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.test() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.test());
+    }
+}
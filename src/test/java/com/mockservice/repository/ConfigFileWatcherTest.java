@@ -0,0 +1,105 @@
+package com.mockservice.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConfigFileWatcherTest {
+
+    @Mock
+    private ConfigRepository configRepository;
+
+    @TempDir
+    File folder; // must not be private
+
+    private String configFile() {
+        return new File(folder, "config.yml").getAbsolutePath();
+    }
+
+    private static ConfigDiff diff() {
+        ConfigDiff diff = new ConfigDiff();
+        diff.routeAdded();
+        diff.routeAdded();
+        diff.routeDeleted();
+        return diff;
+    }
+
+    @Test
+    public void reload_RoutesChanged_MetricsRecorded() throws IOException {
+        when(configRepository.reloadConfig()).thenReturn(diff());
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConfigFileWatcher watcher = new ConfigFileWatcher(false, configFile(), "", 0, configRepository, meterRegistry);
+
+        watcher.reload();
+
+        assertEquals(1, meterRegistry.get("mockservice.config.reload").timer().count());
+        assertEquals(2.0, meterRegistry.get("mockservice.config.reload.routes").tag("change", "added").counter().count());
+        assertEquals(1.0, meterRegistry.get("mockservice.config.reload.routes").tag("change", "deleted").counter().count());
+    }
+
+    @Test
+    public void reload_Fails_ErrorCounted() throws IOException {
+        when(configRepository.reloadConfig()).thenThrow(new IOException());
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConfigFileWatcher watcher = new ConfigFileWatcher(false, configFile(), "", 0, configRepository, meterRegistry);
+
+        assertDoesNotThrow(watcher::reload);
+        assertEquals(1.0, meterRegistry.get("mockservice.config.reload.errors").counter().count());
+    }
+
+    @Test
+    public void watch_BurstOfWrites_ReloadedOnce() throws IOException, InterruptedException {
+        when(configRepository.reloadConfig()).thenReturn(new ConfigDiff());
+        ConfigFileWatcher watcher = new ConfigFileWatcher(true, configFile(), "", 300, configRepository, new SimpleMeterRegistry());
+        try {
+            for (int i = 0; i < 5; i++) {
+                Files.writeString(new File(configFile()).toPath(), "routes: []\n# " + i, StandardCharsets.UTF_8);
+            }
+
+            verify(configRepository, timeout(5000).times(1)).reloadConfig();
+            Thread.sleep(500);
+            verify(configRepository, times(1)).reloadConfig();
+        } finally {
+            watcher.close();
+        }
+    }
+
+    @Test
+    public void watch_DirectoryGroupFileWritten_Reloaded() throws IOException {
+        when(configRepository.reloadConfig()).thenReturn(new ConfigDiff());
+        ConfigFileWatcher watcher = new ConfigFileWatcher(true, configFile(), folder.getAbsolutePath(), 0, configRepository, new SimpleMeterRegistry());
+        try {
+            Files.writeString(folder.toPath().resolve("routes").resolve("group-1.yml"), "[]", StandardCharsets.UTF_8);
+
+            verify(configRepository, timeout(5000).atLeastOnce()).reloadConfig();
+        } finally {
+            watcher.close();
+        }
+    }
+
+    @Test
+    public void watch_DirectoryOtherFileWritten_NotReloaded() throws IOException, InterruptedException {
+        ConfigFileWatcher watcher = new ConfigFileWatcher(true, configFile(), folder.getAbsolutePath(), 0, configRepository, new SimpleMeterRegistry());
+        try {
+            Files.writeString(folder.toPath().resolve("notes.txt"), "routes: []", StandardCharsets.UTF_8);
+            Thread.sleep(300);
+
+            verify(configRepository, never()).reloadConfig();
+        } finally {
+            watcher.close();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.mockservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.mockservice.domain.Route;
+import com.mockservice.domain.Settings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigJournalTest {
+
+    private static final String PATH = "/test";
+    private static final String RESPONSE = "line 1\n...\n---\nline 4";
+
+    @TempDir
+    File folder; // must not be private
+
+    private Path journalPath() {
+        return new File(folder, "config.yml.journal").toPath();
+    }
+
+    private ObjectMapper getYamlMapper() {
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        yamlMapper.findAndRegisterModules();
+        return yamlMapper;
+    }
+
+    @Test
+    public void read_AppendedChanges_ReturnsChangesInOrder() throws IOException {
+        try (ConfigJournal journal = new ConfigJournal(journalPath(), getYamlMapper())) {
+            journal.append(ConfigChange.putRoute(null, new Route().setPath(PATH).setResponse(RESPONSE)));
+            journal.append(ConfigChange.deleteRoute(new Route().setPath(PATH)));
+            journal.append(ConfigChange.settings(new Settings().setQuantum(true)));
+
+            List<ConfigChange> changes = journal.read();
+
+            assertEquals(3, changes.size());
+            assertEquals(ConfigChange.Type.PUT_ROUTE, changes.get(0).getType());
+            assertEquals(RESPONSE, changes.get(0).getRoute().getResponse());
+            assertNull(changes.get(0).getOriginalRoute());
+            assertEquals(ConfigChange.Type.DELETE_ROUTE, changes.get(1).getType());
+            assertTrue(changes.get(2).getSettings().getQuantum());
+        }
+    }
+
+    @Test
+    public void append_Batch_WrittenInOrder() throws IOException {
+        try (ConfigJournal journal = new ConfigJournal(journalPath(), getYamlMapper())) {
+            journal.append(
+                    ConfigChange.deleteRoute(new Route().setPath(PATH)),
+                    ConfigChange.settings(new Settings().setQuantum(true)));
+
+            List<ConfigChange> changes = journal.read();
+
+            assertEquals(2, changes.size());
+            assertEquals(ConfigChange.Type.DELETE_ROUTE, changes.get(0).getType());
+            assertEquals(ConfigChange.Type.SETTINGS, changes.get(1).getType());
+        }
+    }
+
+    @Test
+    public void read_TornLastChange_Ignored() throws IOException {
+        try (ConfigJournal journal = new ConfigJournal(journalPath(), getYamlMapper())) {
+            journal.append(ConfigChange.deleteRoute(new Route().setPath(PATH)));
+        }
+        Files.writeString(journalPath(), "---\ntype: PUT_ROUTE\nroute:\n  path: /te", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (ConfigJournal journal = new ConfigJournal(journalPath(), getYamlMapper())) {
+            List<ConfigChange> changes = journal.read();
+            assertEquals(1, changes.size());
+            assertEquals(ConfigChange.Type.DELETE_ROUTE, changes.get(0).getType());
+        }
+    }
+
+    @Test
+    public void truncateHead_ChangesAppendedAfterSnapshot_Kept() throws IOException {
+        try (ConfigJournal journal = new ConfigJournal(journalPath(), getYamlMapper())) {
+            journal.append(ConfigChange.deleteRoute(new Route().setPath(PATH)));
+            long length = journal.size();
+            journal.append(ConfigChange.settings(new Settings()));
+
+            journal.truncateHead(length);
+            journal.append(ConfigChange.deleteRoute(new Route().setPath(PATH)));
+
+            List<ConfigChange> changes = journal.read();
+            assertEquals(2, changes.size());
+            assertEquals(ConfigChange.Type.SETTINGS, changes.get(0).getType());
+            assertEquals(ConfigChange.Type.DELETE_ROUTE, changes.get(1).getType());
+        }
+    }
+
+    @Test
+    public void truncateHead_WholeJournal_Empty() throws IOException {
+        try (ConfigJournal journal = new ConfigJournal(journalPath(), getYamlMapper())) {
+            journal.append(ConfigChange.deleteRoute(new Route().setPath(PATH)));
+            journal.truncateHead(journal.size());
+
+            assertEquals(0, journal.size());
+            assertTrue(journal.read().isEmpty());
+        }
+    }
+}
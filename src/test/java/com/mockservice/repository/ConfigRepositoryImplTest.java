@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.mockservice.domain.*;
+import com.mockservice.model.DedupReport;
 import com.mockservice.model.RouteVariable;
 import com.mockservice.template.TemplateEngine;
 import org.junit.jupiter.api.DisplayName;
@@ -16,8 +17,17 @@ import org.springframework.web.bind.annotation.RequestMethod;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -37,6 +47,8 @@ public class ConfigRepositoryImplTest {
     private ConfigObserver configObserver;
     @Mock
     private RouteObserver routeObserver;
+    @Mock
+    private ScenarioObserver scenarioObserver;
 
     @TempDir
     File folder; // must not be private
@@ -45,11 +57,17 @@ public class ConfigRepositoryImplTest {
         ConfigRepositoryImpl configRepository = new ConfigRepositoryImpl(
                 getTempFile("config.yml"),
                 getTempFile("backup.yml"),
+                "",
+                false,
+                0,
+                false,
+                0,
                 getYamlMapper(),
                 templateEngine);
 
         configRepository.setConfigObservers(List.of(configObserver));
         configRepository.setRouteObservers(List.of(routeObserver));
+        configRepository.setScenarioObservers(List.of(scenarioObserver));
 
         return configRepository;
     }
@@ -58,6 +76,11 @@ public class ConfigRepositoryImplTest {
         return new ConfigRepositoryImpl(
                 getTempFile("config.yml"),
                 getTempFile("backup.yml"),
+                "",
+                false,
+                0,
+                false,
+                0,
                 getYamlMapper(),
                 templateEngine);
     }
@@ -359,6 +382,45 @@ public class ConfigRepositoryImplTest {
         assertEquals(STR1, route4Found.getResponse());
     }
 
+    @Test
+    public void putRoutes_EqualResponses_ShareOneInstance() throws IOException {
+        ConfigRepository configRepository = repositoryWithNoObservers();
+        Route route1 = new Route().setPath(PATH).setResponse(new String(RESPONSE_WITH_VARIABLES));
+        Route route2 = new Route().setPath(PATH + STR1).setResponse(new String(RESPONSE_WITH_VARIABLES));
+        configRepository.putRoutes(List.of(route1, route2), false);
+
+        assertSame(configRepository.findRoute(route1).orElseThrow().getResponse(),
+                configRepository.findRoute(route2).orElseThrow().getResponse());
+    }
+
+    @Test
+    public void getDedupReport_EqualResponses_BytesSaved() throws IOException {
+        ConfigRepository configRepository = repositoryWithNoObservers();
+        configRepository.putRoutes(List.of(
+                new Route().setPath(PATH).setResponse(new String(RESPONSE_WITH_VARIABLES)),
+                new Route().setPath(PATH + STR1).setResponse(new String(RESPONSE_WITH_VARIABLES)),
+                new Route().setPath(PATH + STR2).setResponse(STR1)
+        ), false);
+
+        DedupReport report = configRepository.getDedupReport();
+
+        assertEquals(3, report.getRoutes());
+        assertEquals(2, report.getDistinctBodies());
+        assertEquals(RESPONSE_WITH_VARIABLES.length(), report.getBytesSaved());
+    }
+
+    @Test
+    public void new_ConfigWithEqualResponses_ReadWithSharedInstance() throws IOException {
+        Route route1 = new Route().setPath(PATH).setResponse(RESPONSE_WITH_VARIABLES);
+        Route route2 = new Route().setPath(PATH + STR1).setResponse(RESPONSE_WITH_VARIABLES);
+        repositoryWithNoObservers().putRoutes(List.of(route1, route2), false);
+
+        ConfigRepository configRepository = repositoryWithNoObservers();
+
+        assertSame(configRepository.findRoute(route1).orElseThrow().getResponse(),
+                configRepository.findRoute(route2).orElseThrow().getResponse());
+    }
+
     @Test
     public void deleteRoutes_AddThenDeleteSameRoute_NoRoutesFound() throws IOException {
         ConfigRepository configRepository = repository();
@@ -437,6 +499,18 @@ public class ConfigRepositoryImplTest {
         assertEquals(STR2, scenarios.get(0).getData());
     }
 
+    @Test
+    public void putScenario_UpdateExisting_ListenersCalled() throws IOException {
+        ConfigRepository configRepository = repository();
+        Scenario scenario = new Scenario().setAlias(STR1);
+        configRepository.putScenario(null, scenario);
+        configRepository.putScenario(scenario, new Scenario().setAlias(STR1).setData(STR2));
+        configRepository.deleteScenario(scenario);
+
+        verify(scenarioObserver, times(2)).onScenarioCreated(any());
+        verify(scenarioObserver, times(2)).onScenarioDeleted(any());
+    }
+
     @Test
     public void putScenario_NoOriginalAndTryCreatingCopy_Throws() throws IOException {
         ConfigRepository configRepository = repository();
@@ -489,4 +563,378 @@ public class ConfigRepositoryImplTest {
 
         assertEquals(1, configRepository.findAllScenarios().size());
     }
+
+    //----------------------------------------------------------------------
+    //
+    //
+    //
+    //   Persistence
+    //
+    //
+    //
+    //----------------------------------------------------------------------
+
+    private ConfigRepositoryImpl writeBehindRepository(long flushIntervalMillis) {
+        return new ConfigRepositoryImpl(
+                getTempFile("config.yml"),
+                getTempFile("backup.yml"),
+                "",
+                false,
+                flushIntervalMillis,
+                false,
+                0,
+                getYamlMapper(),
+                templateEngine);
+    }
+
+    @Test
+    public void putRoute_Synchronous_OnlyConfigFileWritten() throws IOException {
+        ConfigRepository configRepository = repositoryWithNoObservers();
+        configRepository.putRoute(null, new Route().setPath(PATH));
+
+        assertArrayEquals(new String[]{"config.yml"}, folder.list());
+    }
+
+    @Test
+    public void putRoute_WriteBehind_WrittenOnClose() throws IOException {
+        Route route = new Route().setPath(PATH);
+        ConfigRepositoryImpl configRepository = writeBehindRepository(60_000);
+        configRepository.putRoute(null, route);
+
+        assertFalse(new File(getTempFile("config.yml")).exists());
+
+        configRepository.close();
+
+        assertTrue(repositoryWithNoObservers().findRoute(route).isPresent());
+    }
+
+    @Test
+    public void putRoute_WriteBehind_BurstWrittenAfterInterval() throws IOException, InterruptedException {
+        ConfigRepositoryImpl configRepository = writeBehindRepository(50);
+        for (int i = 0; i < 10; i++) {
+            configRepository.putRoute(null, new Route().setPath(PATH + i));
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (repositoryWithNoObservers().findAllRoutes().size() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(10, repositoryWithNoObservers().findAllRoutes().size());
+        configRepository.close();
+    }
+
+    /**
+     * Stops the first write either while serializing or before the file IO, until resumed.
+     */
+    private static class PausingStore implements ConfigStore {
+        private final ConfigStore store;
+        private final boolean inPrepare;
+        private final CountDownLatch paused = new CountDownLatch(1);
+        private final CountDownLatch resumed = new CountDownLatch(1);
+
+        PausingStore(ConfigStore store, boolean inPrepare) {
+            this.store = store;
+            this.inPrepare = inPrepare;
+        }
+
+        void awaitPaused() throws InterruptedException {
+            assertTrue(paused.await(5, TimeUnit.SECONDS));
+        }
+
+        void resume() {
+            resumed.countDown();
+        }
+
+        private void pause() throws IOException {
+            paused.countDown();
+            try {
+                resumed.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public boolean exists() {
+            return store.exists();
+        }
+
+        @Override
+        public Config read() throws IOException {
+            return store.read();
+        }
+
+        @Override
+        public Write prepare(Config config, List<ConfigChange> changes) throws IOException {
+            if (inPrepare) {
+                pause();
+                return store.prepare(config, changes);
+            }
+            Write write = store.prepare(config, changes);
+            return () -> {
+                pause();
+                write.execute();
+            };
+        }
+
+        @Override
+        public Path getJournalPath() {
+            return store.getJournalPath();
+        }
+
+        @Override
+        public boolean isModifiedExternally() throws IOException {
+            return store.isModifiedExternally();
+        }
+    }
+
+    private ConfigRepositoryImpl pausingRepository(boolean inPrepare, List<PausingStore> stores) {
+        return new ConfigRepositoryImpl(
+                getTempFile("config.yml"),
+                getTempFile("backup.yml"),
+                1,
+                false,
+                0,
+                getYamlMapper(),
+                templateEngine,
+                mapper -> {
+                    PausingStore store = new PausingStore(new FileConfigStore(new File(getTempFile("config.yml")), mapper), inPrepare);
+                    stores.add(store);
+                    return store;
+                });
+    }
+
+    @Test
+    public void getSettings_WriteBehindSerializing_DoesNotWait() throws IOException, InterruptedException {
+        List<PausingStore> stores = new ArrayList<>();
+        ConfigRepositoryImpl configRepository = pausingRepository(true, stores);
+        Route route = new Route().setPath(PATH);
+        configRepository.putRoute(null, route);
+        stores.get(0).awaitPaused();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            configRepository.getSettings();
+            configRepository.putRoute(route, new Route(route).setResponse(STR1));
+        });
+
+        stores.get(0).resume();
+        configRepository.close();
+        assertEquals(STR1, repositoryWithNoObservers().findRoute(route).orElseThrow().getResponse());
+    }
+
+    private ConfigRepositoryImpl journalRepository(long journalMaxSize) {
+        return new ConfigRepositoryImpl(
+                getTempFile("config.yml"),
+                getTempFile("backup.yml"),
+                "",
+                false,
+                0,
+                true,
+                journalMaxSize,
+                getYamlMapper(),
+                templateEngine);
+    }
+
+    @Test
+    public void putRoute_Journal_ConfigFileNotWrittenAndChangeReplayed() throws IOException {
+        Route route1 = new Route().setPath(PATH);
+        Route route2 = new Route().setPath(PATH + STR1);
+        Scenario scenario = new Scenario().setAlias(STR1);
+        ConfigRepositoryImpl configRepository = journalRepository(1 << 20);
+        configRepository.putRoute(null, route1);
+        configRepository.putRoutes(List.of(route2), false);
+        configRepository.deleteRoutes(List.of(route1));
+        configRepository.putScenario(null, scenario);
+
+        assertFalse(new File(getTempFile("config.yml")).exists());
+
+        ConfigRepositoryImpl replayed = journalRepository(1 << 20);
+        assertFalse(replayed.findRoute(route1).isPresent());
+        assertTrue(replayed.findRoute(route2).isPresent());
+        assertTrue(replayed.findScenario(scenario).isPresent());
+    }
+
+    @Test
+    public void putRoute_JournalOverLimit_CompactedIntoConfigFile() throws IOException {
+        Route route = new Route().setPath(PATH);
+        ConfigRepositoryImpl configRepository = journalRepository(1);
+        configRepository.putRoute(null, route);
+
+        assertEquals(0, new File(getTempFile("config.yml.journal")).length());
+        assertTrue(repositoryWithNoObservers().findRoute(route).isPresent());
+    }
+
+    @Test
+    public void close_Journal_CompactedIntoConfigFile() throws IOException {
+        Settings settings = new Settings().setQuantum(true);
+        ConfigRepositoryImpl configRepository = journalRepository(1 << 20);
+        configRepository.setSettings(settings);
+        configRepository.close();
+
+        assertEquals(0, new File(getTempFile("config.yml.journal")).length());
+        assertTrue(repositoryWithNoObservers().getSettings().getQuantum());
+    }
+
+    @Test
+    public void writeConfigData_Journal_ConfigReplaced() throws IOException {
+        Route route = new Route().setPath(PATH);
+        ConfigRepositoryImpl configRepository = journalRepository(1 << 20);
+        configRepository.putRoute(null, route);
+        String configData = configRepository.getConfigData();
+        configRepository.deleteRoutes(List.of(route));
+        configRepository.writeConfigData(configData);
+
+        assertTrue(journalRepository(1 << 20).findRoute(route).isPresent());
+    }
+
+    private ConfigRepositoryImpl directoryRepository() {
+        return new ConfigRepositoryImpl(
+                getTempFile("config.yml"),
+                getTempFile("backup.yml"),
+                getTempFile("config"),
+                false,
+                0,
+                false,
+                0,
+                getYamlMapper(),
+                templateEngine);
+    }
+
+    @Test
+    public void putRoute_Directory_RouteReadBack() throws IOException {
+        Route route = new Route().setGroup(STR1).setPath(PATH);
+        directoryRepository().putRoute(null, route);
+
+        assertTrue(new File(getTempFile("config"), "config.yml").exists());
+        assertTrue(directoryRepository().findRoute(route).isPresent());
+    }
+
+    @Test
+    public void new_DirectoryMissingAndConfigFileExists_ConfigMovedToDirectory() throws IOException {
+        Route route = new Route().setGroup(STR1).setPath(PATH);
+        repositoryWithNoObservers().putRoute(null, route);
+
+        directoryRepository().close();
+
+        assertTrue(new File(getTempFile("config"), "config.yml").exists());
+        assertTrue(directoryRepository().findRoute(route).isPresent());
+    }
+
+    //----------------------------------------------------------------------
+    //
+    //
+    //
+    //   Reload
+    //
+    //
+    //
+    //----------------------------------------------------------------------
+
+    @Test
+    public void reloadConfig_OwnWrite_EmptyDiff() throws IOException {
+        ConfigRepository configRepository = repository();
+        configRepository.putRoute(null, new Route().setPath(PATH));
+
+        assertTrue(configRepository.reloadConfig().isEmpty());
+    }
+
+    @Test
+    public void reloadConfig_FileChangedExternally_OnlyDifferenceApplied() throws IOException {
+        Route kept = new Route().setPath(PATH);
+        Route changed = new Route().setPath(PATH + STR1);
+        Route deleted = new Route().setPath(PATH + STR2);
+        Route added = new Route().setPath(PATH + STR1 + STR2);
+        ConfigRepository configRepository = repository();
+        configRepository.putRoutes(List.of(kept, changed, deleted), false);
+        clearInvocations(routeObserver);
+
+        ConfigRepository external = repositoryWithNoObservers();
+        external.putRoute(changed, new Route(changed).setResponse(STR1));
+        external.deleteRoutes(List.of(deleted));
+        external.putRoute(null, added);
+
+        ConfigDiff diff = configRepository.reloadConfig();
+
+        assertEquals(1, diff.getRoutesAdded());
+        assertEquals(1, diff.getRoutesChanged());
+        assertEquals(1, diff.getRoutesDeleted());
+        assertEquals(STR1, configRepository.findRoute(changed).orElseThrow().getResponse());
+        assertTrue(configRepository.findRoute(added).isPresent());
+        assertFalse(configRepository.findRoute(deleted).isPresent());
+        verify(routeObserver, never()).onRouteDeleted(kept);
+        verify(routeObserver, times(1)).onRouteDeleted(deleted);
+        verify(routeObserver, times(1)).onRouteCreated(added);
+        verify(configObserver, never()).onBeforeConfigChanged();
+    }
+
+    @Test
+    public void reloadConfig_FileChangedExternally_FileNotRewritten() throws IOException {
+        Route route = new Route().setPath(PATH);
+        ConfigRepository configRepository = repository();
+        configRepository.putRoute(null, route);
+
+        Path file = Path.of(getTempFile("config.yml"));
+        String edited = "# edited\n" + Files.readString(file).replace(PATH, PATH + STR1);
+        Files.writeString(file, edited);
+
+        ConfigDiff diff = configRepository.reloadConfig();
+
+        assertEquals(1, diff.getRoutesAdded());
+        assertEquals(1, diff.getRoutesDeleted());
+        assertEquals(edited, Files.readString(file));
+        assertTrue(configRepository.reloadConfig().isEmpty());
+    }
+
+    @Test
+    public void reloadConfig_ScenarioChangedExternally_StaysActive() throws IOException {
+        Scenario scenario = new Scenario().setAlias(STR1).setData("GET " + PATH);
+        ConfigRepository configRepository = repository();
+        configRepository.putScenario(null, scenario);
+        scenario.setActive(true);
+
+        ConfigRepository external = repositoryWithNoObservers();
+        external.putScenario(scenario, new Scenario().setAlias(STR1).setData("GET " + PATH + "\nGET " + PATH + STR1));
+
+        ConfigDiff diff = configRepository.reloadConfig();
+
+        assertEquals(1, diff.getScenariosChanged());
+        Scenario reloaded = configRepository.findScenario(scenario).orElseThrow();
+        assertTrue(reloaded.getActive());
+        assertTrue(reloaded.getData().contains(PATH + STR1));
+    }
+
+    @Test
+    public void reloadConfig_DuringWriteBehindFlush_WaitsAndFileMatchesConfig() throws Exception {
+        List<PausingStore> stores = new ArrayList<>();
+        ConfigRepositoryImpl configRepository = pausingRepository(false, stores);
+        configRepository.putRoute(null, new Route().setPath(PATH));
+        stores.get(0).awaitPaused();
+        repositoryWithNoObservers().putRoute(null, new Route().setPath(PATH + STR1));
+
+        CompletableFuture<ConfigDiff> reload = CompletableFuture.supplyAsync(() -> {
+            try {
+                return configRepository.reloadConfig();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        assertThrows(TimeoutException.class, () -> reload.get(200, TimeUnit.MILLISECONDS));
+        stores.get(0).resume();
+        reload.get(5, TimeUnit.SECONDS);
+
+        assertEquals(configRepository.findAllRoutes(), repositoryWithNoObservers().findAllRoutes());
+        assertTrue(configRepository.reloadConfig().isEmpty());
+        configRepository.close();
+    }
+
+    @Test
+    public void reloadConfig_Directory_EmptyDiff() throws IOException {
+        ConfigRepository configRepository = directoryRepository();
+        configRepository.putRoute(null, new Route().setPath(PATH));
+
+        assertTrue(configRepository.reloadConfig().isEmpty());
+    }
 }
@@ -0,0 +1,162 @@
+package com.mockservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.mockservice.domain.Config;
+import com.mockservice.domain.Route;
+import com.mockservice.domain.Scenario;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DirectoryConfigStoreTest {
+
+    private static final String GROUP1 = "group 1";
+    private static final String GROUP2 = "group/2";
+    private static final String MARKER = "# not rewritten";
+
+    @TempDir
+    File folder; // must not be private
+
+    private ConfigStore store() {
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        yamlMapper.findAndRegisterModules();
+        return new DirectoryConfigStore(folder.toPath(), yamlMapper);
+    }
+
+    private static Config config(Route... routes) {
+        Config config = new Config();
+        config.getRoutes().addAll(List.of(routes));
+        return config;
+    }
+
+    private Path routesDirectory() {
+        return folder.toPath().resolve("routes");
+    }
+
+    private static long fileCount(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void exists_EmptyDirectory_False() {
+        assertFalse(store().exists());
+    }
+
+    @Test
+    public void read_WrittenConfig_ReturnsAllGroups() throws IOException {
+        Route route1 = new Route().setGroup(GROUP1).setPath("/1");
+        Route route2 = new Route().setGroup(GROUP2).setPath("/2");
+        Config config = config(route1, route2);
+        Scenario scenario = new Scenario().setGroup(GROUP1).setAlias("s1");
+        config.getScenarios().add(scenario);
+        config.getSettings().setQuantum(true);
+
+        ConfigStore store = store();
+        store.prepare(config, List.of(ConfigChange.config(config))).execute();
+
+        assertTrue(store.exists());
+        assertEquals(2, fileCount(routesDirectory()));
+
+        Config read = store().read();
+        assertTrue(read.getRoutes().containsAll(List.of(route1, route2)));
+        assertEquals(List.of(scenario), read.getScenarios());
+        assertTrue(read.getSettings().getQuantum());
+    }
+
+    @Test
+    public void prepare_ChangeInOneGroup_OtherGroupNotRewritten() throws IOException {
+        Route route1 = new Route().setGroup(GROUP1).setPath("/1");
+        Route route2 = new Route().setGroup(GROUP2).setPath("/2");
+        Config config = config(route1, route2);
+        ConfigStore store = store();
+        store.prepare(config, List.of(ConfigChange.config(config))).execute();
+
+        Path group2File;
+        try (var files = Files.list(routesDirectory())) {
+            group2File = files.filter(p -> p.getFileName().toString().contains("group%2f2")).findFirst().orElseThrow();
+        }
+        Files.writeString(group2File, MARKER + "\n" + Files.readString(group2File), StandardCharsets.UTF_8);
+
+        Route route3 = new Route().setGroup(GROUP1).setPath("/3");
+        config.getRoutes().add(route3);
+        store.prepare(config, List.of(ConfigChange.putRoute(null, route3))).execute();
+
+        assertTrue(Files.readString(group2File).startsWith(MARKER));
+        assertEquals(3, store().read().getRoutes().size());
+    }
+
+    @Test
+    public void prepare_GroupsDifferingInCase_FileNamesDifferIgnoringCase() throws IOException {
+        Route route1 = new Route().setGroup("Orders").setPath("/1");
+        Route route2 = new Route().setGroup("orders").setPath("/2");
+        Config config = config(route1, route2);
+        ConfigStore store = store();
+        store.prepare(config, List.of(ConfigChange.config(config))).execute();
+
+        Set<String> names;
+        try (var files = Files.list(routesDirectory())) {
+            names = files.map(p -> p.getFileName().toString().toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        }
+        assertEquals(2, names.size());
+        assertTrue(store().read().getRoutes().containsAll(List.of(route1, route2)));
+    }
+
+    @Test
+    public void prepare_LastRouteOfGroupMoved_GroupFileDeleted() throws IOException {
+        Route route = new Route().setGroup(GROUP1).setPath("/1");
+        Config config = config(route);
+        ConfigStore store = store();
+        store.prepare(config, List.of(ConfigChange.config(config))).execute();
+
+        Route replaced = new Route(route);
+        route.setGroup(GROUP2);
+        store.prepare(config, List.of(ConfigChange.putRoute(replaced, route))).execute();
+
+        assertEquals(1, fileCount(routesDirectory()));
+        List<Route> routes = store().read().getRoutes();
+        assertEquals(1, routes.size());
+        assertEquals(GROUP2, routes.get(0).getGroup());
+    }
+
+    @Test
+    public void isModifiedExternally_OwnWrite_False() throws IOException {
+        Config config = config(new Route().setGroup(GROUP1).setPath("/1"));
+        ConfigStore store = store();
+        store.prepare(config, List.of(ConfigChange.config(config))).execute();
+
+        assertFalse(store.isModifiedExternally());
+
+        ConfigStore reader = store();
+        reader.read();
+        assertFalse(reader.isModifiedExternally());
+    }
+
+    @Test
+    public void isModifiedExternally_GroupFileEdited_True() throws IOException {
+        Config config = config(new Route().setGroup(GROUP1).setPath("/1"));
+        ConfigStore store = store();
+        store.prepare(config, List.of(ConfigChange.config(config))).execute();
+
+        Path groupFile;
+        try (var files = Files.list(routesDirectory())) {
+            groupFile = files.findFirst().orElseThrow();
+        }
+        Files.writeString(groupFile, MARKER + "\n" + Files.readString(groupFile), StandardCharsets.UTF_8);
+
+        assertTrue(store.isModifiedExternally());
+    }
+}
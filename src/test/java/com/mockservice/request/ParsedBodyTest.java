@@ -0,0 +1,50 @@
+package com.mockservice.request;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParsedBodyTest {
+
+    private static ParsedBody body(String text) {
+        return new ParsedBody(text, new ObjectMapper());
+    }
+
+    @Test
+    public void getJson_ValidJson_ParsedOnce() {
+        ParsedBody body = body("{\"id\": 42, \"price\": 1.10}");
+
+        Optional<JsonNode> json = body.getJson();
+        assertTrue(json.isPresent());
+        assertEquals(42, json.get().get("id").asInt());
+        assertTrue(json.get().get("price").isBigDecimal());
+        assertSame(json.get(), body.getJson().orElseThrow());
+    }
+
+    @Test
+    public void getJson_MalformedJson_Empty() {
+        assertTrue(body("{\"id\": ").getJson().isEmpty());
+    }
+
+    @Test
+    public void getJson_EmptyBody_Empty() {
+        assertTrue(body("").getJson().isEmpty());
+    }
+
+    @Test
+    public void readJson_MalformedJson_ThrowsException() {
+        ParsedBody body = body("{\"id\": ");
+        assertThrows(IOException.class, body::readJson);
+        assertThrows(IOException.class, body::readJson);
+    }
+
+    @Test
+    public void getText_ReturnsOriginalText() {
+        assertEquals("{\"id\": 42}", body("{\"id\": 42}").getText());
+    }
+}
@@ -167,6 +167,17 @@ public class RestRequestFacadeTest {
         assertEquals(JWT_SUB, facade.getVariables(Optional.empty()).get("sub"));
     }
 
+    @Test
+    public void getVariables_FloatsInBody_RenderedAsDouble() throws IOException {
+        when(request.getReader()).thenReturn(asReader("{\"price\": 10.50, \"total\": 1e3, \"items\": [0.1, 2]}"));
+
+        MockVariables variables = new RestRequestFacade(request, new ObjectMapper()).getVariables(Optional.empty());
+
+        assertEquals("10.5", variables.get("price"));
+        assertEquals("1000.0", variables.get("total"));
+        assertEquals("[0.1, 2]", variables.get("items"));
+    }
+
     @Test
     public void getVariables_HeaderVariableInvalidFormat_NoSuchVariable() {
         lenient().when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn(PATH1);
@@ -1,5 +1,7 @@
 package com.mockservice.response;
 
+import com.mockservice.template.MockFunctions;
+import com.mockservice.template.MockVariables;
 import com.mockservice.util.IOUtils;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpMethod;
@@ -49,4 +51,17 @@ public class RestMockResponseTest {
 
         assertThrows(IllegalArgumentException.class, () -> new RestMockResponse(RESPONSE_CODE, json));
     }
+
+    @Test
+    public void withVariables_TwoCopies_EachRendersOwnVariables() {
+        MockResponse template = new RestMockResponse(RESPONSE_CODE, "{\"id\": ${id}}");
+
+        MockResponse first = template.withVariables(new MockVariables().put("id", "1"), new MockFunctions());
+        MockResponse second = template.withVariables(new MockVariables().put("id", "2"), new MockFunctions());
+        first.addVariables(new MockVariables().put("id", "3"));
+
+        assertEquals("{\"id\": 3}", first.getResponseBody());
+        assertEquals("{\"id\": 2}", second.getResponseBody());
+        assertEquals(RESPONSE_CODE, second.getResponseCode());
+    }
 }
@@ -0,0 +1,66 @@
+package com.mockservice.service;
+
+import com.mockservice.domain.Route;
+import com.mockservice.validate.DataValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncValidationServiceImplTest {
+
+    private static final Route ROUTE = new Route().setPath("/test");
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private double count(String result) {
+        return meterRegistry.get("mockservice.validation.async").tag("result", result).counter().count();
+    }
+
+    @Test
+    public void submit_PassedAndFailed_Counted() throws InterruptedException {
+        AsyncValidationService service = new AsyncValidationServiceImpl(1, 16, meterRegistry);
+        CountDownLatch done = new CountDownLatch(1);
+
+        service.submit(ROUTE, () -> {});
+        service.submit(ROUTE, () -> {
+            throw new DataValidationException("invalid");
+        });
+        service.submit(ROUTE, done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        // the last validation is counted right after it returns
+        long deadline = System.currentTimeMillis() + 5000;
+        while (count("passed") < 2 && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(2, count("passed"));
+        assertEquals(1, count("failed"));
+    }
+
+    @Test
+    public void submit_QueueFull_Dropped() throws InterruptedException {
+        AsyncValidationService service = new AsyncValidationServiceImpl(1, 1, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        service.submit(ROUTE, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        service.submit(ROUTE, () -> {}); // queued
+        service.submit(ROUTE, () -> {}); // dropped
+        release.countDown();
+
+        assertEquals(1, count("dropped"));
+    }
+}
@@ -0,0 +1,186 @@
+package com.mockservice.service;
+
+import com.mockservice.domain.ChaosProfile;
+import com.mockservice.domain.LatencyDistribution;
+import com.mockservice.domain.Route;
+import com.mockservice.domain.Settings;
+import com.mockservice.repository.ConfigRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ChaosServiceImplTest {
+
+    private static final Route ROUTE = new Route().setGroup("orders").setPath("/api/orders");
+    private static final String BODY = "{\"id\": 1, \"name\": \"test\"}";
+
+    @Mock
+    private ConfigRepository configRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ChaosService service(ChaosProfile... profiles) {
+        Settings settings = new Settings().setChaosProfiles(List.of(profiles));
+        when(configRepository.getSettings()).thenReturn(settings);
+        return new ChaosServiceImpl(configRepository, meterRegistry);
+    }
+
+    private static List<String> decisions(ChaosService service, int count) {
+        List<String> decisions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            decisions.add(service.decide(ROUTE).map(ChaosFaults::toString).orElse(""));
+        }
+        return decisions;
+    }
+
+    @Test
+    public void decide_NoProfiles_Empty() {
+        assertTrue(service().decide(ROUTE).isEmpty());
+    }
+
+    @Test
+    public void decide_ProfileOfOtherGroup_Empty() {
+        ChaosService service = service(new ChaosProfile().setGroup("users").setErrorPercents(Map.of(503, 100.0)));
+        assertTrue(service.decide(ROUTE).isEmpty());
+    }
+
+    @Test
+    public void decide_ErrorPercent100_StatusReplaced() {
+        ChaosService service = service(new ChaosProfile().setPath("/api/orders").setErrorPercents(Map.of(503, 100.0)));
+
+        Optional<ChaosFaults> faults = service.decide(ROUTE);
+
+        assertTrue(faults.isPresent());
+        assertEquals(503, faults.get().apply(ResponseEntity.ok(BODY)).getStatusCode().value());
+        assertEquals(1, meterRegistry.get("mockservice.chaos.faults").tag("fault", "status").counter().count());
+    }
+
+    @Test
+    public void decide_SameSeed_SameDecisions() {
+        ChaosProfile profile = new ChaosProfile()
+                .setSeed(42L)
+                .setErrorPercents(Map.of(500, 20.0, 503, 10.0))
+                .setTruncatePercent(30)
+                .setCorruptPercent(30);
+
+        List<String> first = decisions(service(profile), 50);
+        List<String> second = decisions(service(profile), 50);
+
+        assertEquals(first, second);
+        assertTrue(first.stream().anyMatch(String::isEmpty));
+        assertTrue(first.stream().anyMatch(decision -> !decision.isEmpty()));
+    }
+
+    @Test
+    public void decide_ManyDecisions_RatesMatchAndConsecutiveIndependent() {
+        int count = 20_000;
+        ChaosService service = service(new ChaosProfile()
+                .setSeed(7L)
+                .setErrorPercents(Map.of(500, 20.0))
+                .setTruncatePercent(30)
+                .setCorruptPercent(40));
+
+        boolean[][] faults = new boolean[count][];
+        for (int i = 0; i < count; i++) {
+            Optional<ChaosFaults> decision = service.decide(ROUTE);
+            faults[i] = new boolean[]{
+                    decision.map(f -> f.getStatusCode() > 0).orElse(false),
+                    decision.map(ChaosFaults::isTruncated).orElse(false),
+                    decision.map(ChaosFaults::isCorrupted).orElse(false)};
+        }
+
+        double[] expected = {0.2, 0.3, 0.4};
+        for (int a = 0; a < 3; a++) {
+            assertEquals(expected[a], rate(faults, a, -1, 0), 0.015);
+            // any fault of a decision tells nothing about any fault of the next one
+            for (int b = 0; b < 3; b++) {
+                assertEquals(expected[a] * expected[b], rate(faults, a, b, 1), 0.015);
+            }
+        }
+    }
+
+    private static double rate(boolean[][] faults, int fault, int nextFault, int distance) {
+        int hits = 0;
+        int total = faults.length - distance;
+        for (int i = 0; i < total; i++) {
+            if (faults[i][fault] && (nextFault < 0 || faults[i + distance][nextFault])) {
+                hits++;
+            }
+        }
+        return (double) hits / total;
+    }
+
+    @Test
+    public void decide_NormalLatency_NeverNegative() {
+        ChaosService service = service(new ChaosProfile()
+                .setSeed(1L)
+                .setLatencyDistribution(LatencyDistribution.NORMAL)
+                .setLatencyMs(1)
+                .setLatencyJitterMs(1000));
+
+        for (int i = 0; i < 100; i++) {
+            service.decide(ROUTE).ifPresent(faults -> assertTrue(faults.getDelayMs() >= 0));
+        }
+    }
+
+    @Test
+    public void apply_TruncateAndRemoveHeaders_BodyCutAndHeadersRemoved() {
+        ChaosFaults faults = new ChaosFaults("test", 1, 0)
+                .setTruncateAt(0.5)
+                .setRemoveHeaders(List.of(HttpHeaders.CONTENT_TYPE));
+        ResponseEntity<String> response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(BODY);
+
+        ResponseEntity<String> result = faults.apply(response);
+
+        assertEquals(BODY.substring(0, BODY.length() / 2), result.getBody());
+        assertFalse(result.getHeaders().containsKey(HttpHeaders.CONTENT_TYPE));
+        assertTrue(result.getHeaders().containsKey(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    public void apply_Latency_NotWaited() {
+        ChaosFaults faults = new ChaosFaults("test", 1, 0).setDelayMs(5_000);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> faults.apply(ResponseEntity.ok(BODY)));
+    }
+
+    @Test
+    public void delay_Latency_CompletesAfterLatency() {
+        ChaosFaults faults = new ChaosFaults("test", 1, 0).setDelayMs(200);
+
+        long start = System.nanoTime();
+        CompletableFuture<String> delayed = faults.delay(BODY);
+
+        assertFalse(delayed.isDone());
+        assertEquals(BODY, delayed.join());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void apply_Corrupt_SameLengthReproducible() {
+        ResponseEntity<String> result = new ChaosFaults("test", 1, 0).setCorruptSeed(7).apply(ResponseEntity.ok(BODY));
+
+        assertEquals(BODY.length(), result.getBody().length());
+        assertEquals(result.getBody(), new ChaosFaults("test", 1, 0).setCorruptSeed(7).apply(ResponseEntity.ok(BODY)).getBody());
+    }
+}
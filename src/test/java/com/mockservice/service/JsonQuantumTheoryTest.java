@@ -4,12 +4,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mockservice.producer.JsonProducerImpl;
 import com.mockservice.producer.ValueProducerImpl;
 import com.mockservice.util.RandomUtils;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class JsonQuantumTheoryTest {
@@ -17,14 +20,19 @@ public class JsonQuantumTheoryTest {
     private static final String VALID_JSON = "{\"product_id\": 1, \"label\": \"label\", \"in_stock\": true}";
     private static final String EMPTY_OBJECT_JSON = "{}";
     private static final String NOT_A_JSON = "<test>test</test>";
+    private static final String NESTED_JSON = "{\"a\": [1, \"x\\\"y\", true, null], \"b\": {\"c\": 2.5, \"d\": [{\"e\": \"f\"}]}}";
 
     @Mock
     private RandomUtils randomUtils;
 
     private QuantumTheory theory() {
+        return theory(100);
+    }
+
+    private QuantumTheory theory(int mutatePercent) {
         ValueProducerImpl valueProducer = new ValueProducerImpl(randomUtils);
         JsonProducerImpl jsonProducer = new JsonProducerImpl(valueProducer, randomUtils);
-        return new JsonQuantumTheory(valueProducer, jsonProducer, randomUtils);
+        return new JsonQuantumTheory(valueProducer, jsonProducer, randomUtils, mutatePercent, 10);
     }
 
     @Test
@@ -62,4 +70,28 @@ public class JsonQuantumTheoryTest {
         ObjectMapper mapper = new ObjectMapper();
         assertDoesNotThrow(() -> mapper.readTree(json));
     }
+
+    @Test
+    public void apply_ToNestedJson_AllValuesRandomizedStructureKept() throws Exception {
+        // only the 100% chance of mutation comes true
+        when(randomUtils.withChance(anyInt())).thenAnswer(invocation -> invocation.getArgument(0, Integer.class) >= 100);
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode json = mapper.readTree(theory(100).apply(NESTED_JSON));
+
+        assertEquals(4, json.get("a").size());
+        assertTrue(json.get("a").get(0).isNumber());
+        assertTrue(json.get("a").get(1).isTextual());
+        assertNotEquals("x\"y", json.get("a").get(1).asText());
+        assertTrue(json.get("a").get(2).isBoolean());
+        assertTrue(json.get("a").get(3).isNull());
+        assertTrue(json.get("b").get("c").isNumber());
+        assertTrue(json.get("b").get("d").get(0).get("e").isTextual());
+    }
+
+    @Test
+    public void apply_MutateChanceZero_ValuesKept() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(mapper.readTree(NESTED_JSON), mapper.readTree(theory(0).apply(NESTED_JSON)));
+    }
 }
@@ -0,0 +1,159 @@
+package com.mockservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockservice.domain.Route;
+import com.mockservice.domain.RouteType;
+import com.mockservice.model.Callback;
+import com.mockservice.repository.ConfigRepository;
+import com.mockservice.request.RequestFacade;
+import com.mockservice.request.SoapRequestFacade;
+import com.mockservice.template.MockVariables;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LoopbackServiceImplTest {
+
+    private static final int PORT = 8082;
+    private static final String BODY = "{\"id\": 42}";
+
+    @Mock
+    private MockService mockService;
+    @Mock
+    private ConfigRepository configRepository;
+
+    private LoopbackService service(boolean enabled) {
+        return service(enabled, "");
+    }
+
+    private LoopbackService service(boolean enabled, String contextPath) {
+        return new LoopbackServiceImpl(enabled, PORT, contextPath, mockService, configRepository, new ObjectMapper());
+    }
+
+    private static Callback callback(RequestMethod method, String url) {
+        return new Callback()
+                .setMethod(method)
+                .setUrl(url)
+                .setHeaders(Map.of("Mock-Alt", List.of("api-v1-item-id/400")))
+                .setBody(BODY);
+    }
+
+    @Test
+    public void isLoopback_LocalhostAndServerPort_True() {
+        LoopbackService service = service(true);
+
+        assertTrue(service.isLoopback(callback(RequestMethod.GET, "http://localhost:" + PORT + "/test")));
+        assertTrue(service.isLoopback(callback(RequestMethod.GET, "http://127.0.0.1:" + PORT + "/test")));
+    }
+
+    @Test
+    public void isLoopback_OtherPort_False() {
+        assertFalse(service(true).isLoopback(callback(RequestMethod.GET, "http://localhost:9999/test")));
+    }
+
+    @Test
+    public void isLoopback_Disabled_False() {
+        assertFalse(service(false).isLoopback(callback(RequestMethod.GET, "http://localhost:" + PORT + "/test")));
+    }
+
+    @Test
+    public void isLoopback_OutsideOfContextPath_False() {
+        LoopbackService service = service(true, "/mock");
+
+        assertFalse(service.isLoopback(callback(RequestMethod.GET, "http://localhost:" + PORT + "/test")));
+        assertFalse(service.isLoopback(callback(RequestMethod.GET, "http://localhost:" + PORT + "/mocktest")));
+        assertTrue(service.isLoopback(callback(RequestMethod.GET, "http://localhost:" + PORT + "/mock/test")));
+    }
+
+    @Test
+    public void dispatch_ContextPath_StrippedBeforeMatching() {
+        when(configRepository.findAllRoutes()).thenReturn(List.of(
+                new Route().setMethod(RequestMethod.GET).setPath("/api/v1/item/{id}")));
+        when(mockService.mock(any())).thenReturn(ResponseEntity.ok(""));
+
+        service(true, "/mock").dispatch(callback(RequestMethod.GET, "http://localhost:" + PORT + "/mock/api/v1/item/1"));
+
+        ArgumentCaptor<RequestFacade> captor = ArgumentCaptor.forClass(RequestFacade.class);
+        verify(mockService).mock(captor.capture());
+        assertEquals("/api/v1/item/{id}", captor.getValue().getEndpoint());
+    }
+
+    @Test
+    public void dispatch_NotLoopback_Empty() {
+        assertTrue(service(true).dispatch(callback(RequestMethod.GET, "http://example.com:" + PORT + "/test")).isEmpty());
+        verifyNoInteractions(mockService);
+    }
+
+    @Test
+    public void dispatch_NoMatchingRoute_Empty() {
+        when(configRepository.findAllRoutes()).thenReturn(List.of(
+                new Route().setMethod(RequestMethod.POST).setPath("/api/v1/item/{id}")));
+
+        assertTrue(service(true).dispatch(callback(RequestMethod.GET, "http://localhost:" + PORT + "/api/v1/item/1")).isEmpty());
+        verifyNoInteractions(mockService);
+    }
+
+    @Test
+    public void dispatch_MatchingRoute_MockServiceCalledWithFacade() {
+        when(configRepository.findAllRoutes()).thenReturn(List.of(
+                new Route().setMethod(RequestMethod.GET).setPath("/api/v1/item/{id}"),
+                new Route().setMethod(RequestMethod.GET).setPath("/api/v1/item/all")));
+        when(mockService.mock(any())).thenReturn(ResponseEntity.ok("done"));
+
+        Optional<ResponseEntity<String>> response = service(true)
+                .dispatch(callback(RequestMethod.GET, "http://localhost:" + PORT + "/api/v1/item/42?q=a%20b"));
+
+        assertTrue(response.isPresent());
+        assertEquals("done", response.get().getBody());
+
+        ArgumentCaptor<RequestFacade> captor = ArgumentCaptor.forClass(RequestFacade.class);
+        verify(mockService).mock(captor.capture());
+        RequestFacade facade = captor.getValue();
+        assertEquals(RequestMethod.GET, facade.getRequestMethod());
+        assertEquals("/api/v1/item/{id}", facade.getEndpoint());
+        assertEquals(BODY, facade.getBody());
+        assertEquals(Optional.of("400"), facade.getAlt());
+
+        MockVariables variables = facade.getVariables(Optional.empty());
+        assertEquals("42", variables.get("id"));
+        assertEquals("a b", variables.get("q"));
+    }
+
+    @Test
+    public void dispatch_MostSpecificRouteWins() {
+        when(configRepository.findAllRoutes()).thenReturn(List.of(
+                new Route().setMethod(RequestMethod.GET).setPath("/api/v1/item/{id}"),
+                new Route().setMethod(RequestMethod.GET).setPath("/api/v1/item/all")));
+        when(mockService.mock(any())).thenReturn(ResponseEntity.ok(""));
+
+        service(true).dispatch(callback(RequestMethod.GET, "http://localhost:" + PORT + "/api/v1/item/all"));
+
+        ArgumentCaptor<RequestFacade> captor = ArgumentCaptor.forClass(RequestFacade.class);
+        verify(mockService).mock(captor.capture());
+        assertEquals("/api/v1/item/all", captor.getValue().getEndpoint());
+    }
+
+    @Test
+    public void dispatch_SoapRoute_SoapFacadeUsed() {
+        when(configRepository.findAllRoutes()).thenReturn(List.of(
+                new Route().setType(RouteType.SOAP).setMethod(RequestMethod.POST).setPath("/soap")));
+        when(mockService.mock(any())).thenReturn(ResponseEntity.ok(""));
+
+        service(true).dispatch(callback(RequestMethod.POST, "http://localhost:" + PORT + "/soap"));
+
+        verify(mockService).mock(any(SoapRequestFacade.class));
+    }
+}
@@ -1,11 +1,18 @@
 package com.mockservice.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockservice.domain.ConnectionFault;
 import com.mockservice.domain.Route;
 import com.mockservice.domain.RouteType;
 import com.mockservice.domain.Settings;
+import com.mockservice.domain.ValidationMode;
 import com.mockservice.exception.NoRouteFoundException;
+import com.mockservice.producer.JsonFromSchemaProducer;
 import com.mockservice.repository.ConfigRepository;
+import com.mockservice.request.ParsedBody;
 import com.mockservice.request.RequestFacade;
+import com.mockservice.response.FaultyBody;
+import com.mockservice.response.MappedBody;
 import com.mockservice.template.MockFunctions;
 import com.mockservice.template.MockVariables;
 import com.mockservice.template.TemplateEngine;
@@ -23,6 +30,8 @@ import org.springframework.boot.test.system.OutputCaptureExtension;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMethod;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +45,7 @@ public class MockServiceImplTest {
     private static final RequestMethod GET_METHOD = RequestMethod.GET;
     private static final String PATH = "/api/v1/test";
     private static final String ALT_400 = "400";
+    private static final String SESSION = "suite-1";
 
     private static final String JSON_SCHEMA = """
             {
@@ -67,11 +77,20 @@ public class MockServiceImplTest {
     private QuantumTheory quantumTheoryNonApplicable;
     @Mock
     private DataValidator dataValidator;
+    @Mock
+    private ResponseBodyStore responseBodyStore;
+    @Mock
+    private AsyncValidationService asyncValidationService;
+    @Mock
+    private ChaosService chaosService;
+    @Mock
+    private JsonFromSchemaProducer jsonFromSchemaProducer;
 
     private MockService createMockService() {
         return new MockServiceImpl(
                 2, templateEngine, routeService, scenarioService, configRepository, requestService,
-                List.of(quantumTheoryNonApplicable, quantumTheory), List.of(dataValidator));
+                List.of(quantumTheoryNonApplicable, quantumTheory), List.of(dataValidator), responseBodyStore,
+                asyncValidationService, chaosService, jsonFromSchemaProducer);
     }
 
     @BeforeEach
@@ -93,6 +112,61 @@ public class MockServiceImplTest {
         assertEquals(bodyWithoutVariables, responseEntity.getBody());
     }
 
+    @Test
+    public void serve_ConstantBodyMapped_ReturnsMappedBody() {
+        String body = "[1, 2, 3]";
+        Route route = new Route().setMethod(GET_METHOD).setPath(PATH).setResponse(body);
+        when(routeService.getEnabledRoute(any())).thenReturn(Optional.of(route));
+        MappedBody mappedBody = new MappedBody(ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8)));
+        when(responseBodyStore.store(body)).thenReturn(Optional.of(mappedBody));
+
+        MockService mockService = createMockService();
+
+        assertSame(mappedBody, mockService.serve(request).join().getBody());
+        assertEquals(body, mockService.mock(request).getBody());
+    }
+
+    @Test
+    public void serve_RoutesWithEqualResponses_CompiledOnce() {
+        String body = "[1, 2, 3]";
+        Route route1 = new Route().setMethod(GET_METHOD).setPath(PATH).setResponse(body);
+        Route route2 = new Route().setMethod(GET_METHOD).setPath(PATH + "/other").setResponse(new String(body));
+        when(routeService.getEnabledRoute(any())).thenReturn(Optional.of(route1), Optional.of(route2));
+
+        MockService mockService = createMockService();
+        mockService.serve(request);
+        mockService.serve(request);
+
+        verify(responseBodyStore, times(1)).store(body);
+    }
+
+    @Test
+    public void serve_BodyWithVariables_NotMapped() {
+        String bodyWithVariables = "{\"test\": ${id:1}}";
+        Route route = new Route().setMethod(GET_METHOD).setPath(PATH).setResponse(bodyWithVariables);
+        when(routeService.getEnabledRoute(any())).thenReturn(Optional.of(route));
+
+        MockService mockService = createMockService();
+
+        assertEquals("{\"test\": 1}", mockService.serve(request).join().getBody());
+        verify(responseBodyStore, never()).store(any());
+    }
+
+    @Test
+    public void mock_RouteWithResponseSchema_FromSchemaGeneratesEveryTime() {
+        String schema = "{\"type\": \"integer\"}";
+        Route route = new Route().setMethod(GET_METHOD).setPath(PATH)
+                .setResponse("{\"test\": ${from_schema}}")
+                .setResponseSchema(schema);
+        when(routeService.getEnabledRoute(any())).thenReturn(Optional.of(route));
+        when(jsonFromSchemaProducer.jsonFromSchemaText(schema)).thenReturn("1", "2");
+
+        MockService mockService = createMockService();
+
+        assertEquals("{\"test\": 1}", mockService.mock(request).getBody());
+        assertEquals("{\"test\": 2}", mockService.mock(request).getBody());
+    }
+
     @Test
     public void mock_RouteResponseHasVariable_VariableSubstitutedWithValue() {
         String variableName = "id";
@@ -156,6 +230,27 @@ public class MockServiceImplTest {
         assertEquals(ALT_400, argument.getValue().getAlt());
     }
 
+    @Test
+    public void mock_RequestWithinSession_SessionScenarioAndVariablesUsed() {
+        when(request.getRequestMethod()).thenReturn(GET_METHOD);
+        when(request.getEndpoint()).thenReturn(PATH);
+        when(request.getSession()).thenReturn(Optional.of(SESSION));
+        when(scenarioService.getAltFor(SESSION, GET_METHOD, PATH)).thenReturn(Optional.of(ALT_400));
+
+        Route route = new Route().setMethod(GET_METHOD).setPath(PATH).setAlt(ALT_400).setResponse(VALID_JSON);
+        when(routeService.getEnabledRoute(any())).thenReturn(Optional.of(route));
+
+        MockService mockService = createMockService();
+        mockService.mock(request);
+
+        ArgumentCaptor<Route> argument = ArgumentCaptor.forClass(Route.class);
+        verify(routeService).getEnabledRoute(argument.capture());
+        assertEquals(ALT_400, argument.getValue().getAlt());
+        verify(scenarioService, never()).getAltFor(any(), any());
+        verify(routeService).getRouteVariables(SESSION, route);
+        verify(routeService, never()).getRouteVariables(any());
+    }
+
     @Test
     public void mock_SoapRoute_ReturnsBody() {
         Route route = new Route().setType(RouteType.SOAP).setMethod(GET_METHOD).setPath(PATH).setResponse(XML_DATA);
@@ -192,6 +287,36 @@ public class MockServiceImplTest {
         assertEquals(INVALID_JSON, responseEntity.getBody());
     }
 
+    @Test
+    public void serve_ChaosFaultsDecided_AppliedToMappedBody() {
+        String body = "[1, 2, 3]";
+        Route route = new Route().setMethod(GET_METHOD).setPath(PATH).setResponse(body);
+        when(routeService.getEnabledRoute(any())).thenReturn(Optional.of(route));
+        MappedBody mappedBody = new MappedBody(ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8)));
+        when(responseBodyStore.store(body)).thenReturn(Optional.of(mappedBody));
+        when(chaosService.decide(route)).thenReturn(Optional.of(new ChaosFaults("test", 1, 0).setStatusCode(503)));
+
+        MockService mockService = createMockService();
+        ResponseEntity<?> responseEntity = mockService.serve(request).join();
+
+        assertEquals(503, responseEntity.getStatusCode().value());
+        assertEquals(body, responseEntity.getBody());
+    }
+
+    @Test
+    public void serve_RouteWithConnectionFault_ReturnsFaultyBody() {
+        String body = "[1, 2, 3]";
+        Route route = new Route().setMethod(GET_METHOD).setPath(PATH).setResponse(body).setFault(ConnectionFault.RESET);
+        when(routeService.getEnabledRoute(any())).thenReturn(Optional.of(route));
+
+        MockService mockService = createMockService();
+        Object responseBody = mockService.serve(request).join().getBody();
+
+        assertTrue(responseBody instanceof FaultyBody);
+        assertEquals(ConnectionFault.RESET, ((FaultyBody) responseBody).getFault());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), ((FaultyBody) responseBody).getBody());
+    }
+
     //----------------------------------------------------------------------
     //
     //   cache
@@ -247,7 +372,7 @@ public class MockServiceImplTest {
     public void mock_RouteHasRequestBodySchema_ValidJson_NoExceptionThrown() {
         Route route = new Route().setMethod(GET_METHOD).setPath(PATH).setRequestBodySchema(JSON_SCHEMA);
         when(routeService.getEnabledRoute(any())).thenReturn(Optional.of(route));
-        when(request.getBody()).thenReturn(VALID_JSON);
+        when(request.getParsedBody()).thenReturn(new ParsedBody(VALID_JSON, new ObjectMapper()));
 
         MockService mockService = createMockService();
         assertDoesNotThrow(() -> mockService.mock(request));
@@ -262,7 +387,7 @@ public class MockServiceImplTest {
         settings.setAlt400OnFailedRequestValidation(false);
         when(configRepository.getSettings()).thenReturn(settings);
 
-        when(dataValidator.applicable(any())).thenReturn(true);
+        when(dataValidator.applicable(any(), any())).thenReturn(true);
         Mockito.doThrow(DataValidationException.class).when(dataValidator).validate(any(), any());
 
         MockService mockService = createMockService();
@@ -280,7 +405,7 @@ public class MockServiceImplTest {
         settings.setAlt400OnFailedRequestValidation(true);
         when(configRepository.getSettings()).thenReturn(settings);
 
-        when(dataValidator.applicable(any())).thenReturn(true);
+        when(dataValidator.applicable(any(), any())).thenReturn(true);
         Mockito.doThrow(DataValidationException.class).when(dataValidator).validate(any(), any());
 
         MockService mockService = createMockService();
@@ -299,10 +424,57 @@ public class MockServiceImplTest {
         settings.setAlt400OnFailedRequestValidation(true);
         when(configRepository.getSettings()).thenReturn(settings);
 
-        when(dataValidator.applicable(any())).thenReturn(true);
+        when(dataValidator.applicable(any(), any())).thenReturn(true);
         Mockito.doThrow(DataValidationException.class).when(dataValidator).validate(any(), any());
 
         MockService mockService = createMockService();
         assertDoesNotThrow(() -> mockService.mock(request));
     }
+
+    @Test
+    public void mock_ValidationModeAsync_ValidatedInBackground() {
+        Route route = new Route().setMethod(GET_METHOD).setPath(PATH).setRequestBodySchema(JSON_SCHEMA);
+        when(routeService.getEnabledRoute(any())).thenReturn(Optional.of(route));
+        when(configRepository.getSettings()).thenReturn(new Settings().setValidationMode(ValidationMode.ASYNC));
+        when(request.getParsedBody()).thenReturn(new ParsedBody(VALID_JSON, new ObjectMapper()));
+
+        MockService mockService = createMockService();
+        assertDoesNotThrow(() -> mockService.mock(request));
+
+        ArgumentCaptor<Runnable> validation = ArgumentCaptor.forClass(Runnable.class);
+        verify(asyncValidationService).submit(eq(route), validation.capture());
+        verify(dataValidator, never()).validate(any(), any());
+
+        when(dataValidator.applicable(any(), any())).thenReturn(true);
+        validation.getValue().run();
+        verify(dataValidator).validate(any(), eq(JSON_SCHEMA));
+    }
+
+    @Test
+    public void mock_ValidationModeSampledZeroPercent_NotValidated() {
+        Route route = new Route().setMethod(GET_METHOD).setPath(PATH).setRequestBodySchema(JSON_SCHEMA);
+        when(routeService.getEnabledRoute(any())).thenReturn(Optional.of(route));
+        when(configRepository.getSettings()).thenReturn(
+                new Settings().setValidationMode(ValidationMode.SAMPLED).setValidationSamplePercent(0));
+
+        MockService mockService = createMockService();
+        assertDoesNotThrow(() -> mockService.mock(request));
+
+        verify(dataValidator, never()).applicable(any(), any());
+        verifyNoInteractions(asyncValidationService);
+    }
+
+    @Test
+    public void mock_ValidationModeSampledAllPercent_Validated() {
+        Route route = new Route().setMethod(GET_METHOD).setPath(PATH).setRequestBodySchema(JSON_SCHEMA);
+        when(routeService.getEnabledRoute(any())).thenReturn(Optional.of(route));
+        when(configRepository.getSettings()).thenReturn(
+                new Settings().setValidationMode(ValidationMode.SAMPLED).setValidationSamplePercent(100)
+                        .setAlt400OnFailedRequestValidation(false));
+        when(dataValidator.applicable(any(), any())).thenReturn(true);
+        Mockito.doThrow(DataValidationException.class).when(dataValidator).validate(any(), any());
+
+        MockService mockService = createMockService();
+        assertThrows(DataValidationException.class, () -> mockService.mock(request));
+    }
 }
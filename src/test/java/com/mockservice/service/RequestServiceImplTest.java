@@ -1,35 +1,67 @@
 package com.mockservice.service;
 
+import com.mockservice.model.Callback;
+import com.mockservice.repository.CallbackOutbox;
 import com.mockservice.response.MockResponse;
+import com.mockservice.util.HashedWheelTimer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
+@ExtendWith({MockitoExtension.class, OutputCaptureExtension.class})
 public class RequestServiceImplTest {
 
+    private static final String URL = "http://localhost:8087";
+    private static final long DELAY_MILLIS = 100;
+    private static final long LONG_DELAY_MILLIS = 60_000;
+
     @Mock
     private MockResponse response;
+    @Mock
+    private CallbackOutbox outbox;
+    @Mock
+    private LoopbackService loopbackService;
 
-    @DisplayName("TODO: Find a better way to test async action with WebClient in it")
-    @Test
-    public void schedule() {
-        String url = "http://localhost:8087";
-        when(response.getRequestUrl()).thenReturn(url);
+    private final HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 64, ForkJoinPool.commonPool());
+
+    @AfterEach
+    public void stopTimer() {
+        timer.close();
+    }
+
+    private void mockResponse() {
+        when(response.getRequestUrl()).thenReturn(URL);
         when(response.getRequestMethod()).thenReturn(HttpMethod.GET);
         when(response.getRequestBody()).thenReturn("");
         when(response.getRequestHeaders()).thenReturn(new HttpHeaders());
+    }
 
-        RequestService service = new RequestServiceImpl();
+    @DisplayName("TODO: Find a better way to test async action with WebClient in it")
+    @Test
+    public void schedule() {
+        mockResponse();
+
+        RequestService service = new RequestServiceImpl(DELAY_MILLIS, timer, outbox, loopbackService);
         service.schedule(response);
         try {
-            Thread.sleep(2500);
+            Thread.sleep(DELAY_MILLIS * 5);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -38,5 +70,123 @@ public class RequestServiceImplTest {
         verify(response, atLeastOnce()).getRequestMethod();
         verify(response, atLeastOnce()).getRequestBody();
         verify(response, atLeastOnce()).getRequestHeaders();
+        assertTrue(service.getPendingCallbacks(10).isEmpty());
+        verify(outbox).markDone(anyLong());
+    }
+
+    @Test
+    public void schedule_LoopbackCallback_DispatchedInProcess() throws InterruptedException {
+        mockResponse();
+        when(loopbackService.dispatch(any())).thenReturn(Optional.of(ResponseEntity.ok("")));
+
+        RequestService service = new RequestServiceImpl(DELAY_MILLIS, timer, outbox, loopbackService);
+        service.schedule(response);
+        Thread.sleep(DELAY_MILLIS * 5);
+
+        verify(loopbackService).dispatch(any(Callback.class));
+        verify(outbox).markDone(anyLong());
+        assertTrue(service.getPendingCallbacks(10).isEmpty());
+    }
+
+    @Test
+    public void schedule_LoopbackCallbackFails_HandledAsRemoteError(CapturedOutput output) throws InterruptedException {
+        mockResponse();
+        when(loopbackService.dispatch(any())).thenReturn(Optional.of(ResponseEntity.status(503).body("down")));
+
+        RequestService service = new RequestServiceImpl(DELAY_MILLIS, timer, outbox, loopbackService);
+        service.schedule(response);
+        Thread.sleep(DELAY_MILLIS * 5);
+
+        verify(outbox).markDone(anyLong());
+        assertTrue(output.getOut().contains("503"));
+        assertFalse(output.getOut().contains("response (loopback)"));
+    }
+
+    @Test
+    public void schedule_CallbackAppendedToOutbox() throws IOException {
+        mockResponse();
+
+        RequestService service = new RequestServiceImpl(LONG_DELAY_MILLIS, timer, outbox, loopbackService);
+        service.schedule(response);
+
+        verify(outbox).append(any(Callback.class));
+    }
+
+    @Test
+    public void schedule_OutboxFails_CallbackIsStillPending() throws IOException {
+        mockResponse();
+        doThrow(new IOException("disk full")).when(outbox).append(any());
+
+        RequestService service = new RequestServiceImpl(LONG_DELAY_MILLIS, timer, outbox, loopbackService);
+        service.schedule(response);
+
+        assertEquals(1, service.getPendingCallbacks(10).size());
+    }
+
+    @Test
+    public void new_OutboxHasCallbacks_CallbacksRescheduled() {
+        Callback callback = new Callback().setId(7).setUrl(URL).setExecuteAt(System.currentTimeMillis() + LONG_DELAY_MILLIS);
+        when(outbox.recover()).thenReturn(List.of(callback));
+
+        RequestService service = new RequestServiceImpl(LONG_DELAY_MILLIS, timer, outbox, loopbackService);
+
+        List<Callback> pending = service.getPendingCallbacks(10);
+        assertEquals(1, pending.size());
+        assertEquals(7, pending.get(0).getId());
+    }
+
+    @Test
+    public void new_OutboxHasCallbacks_NewIdsContinueSequence() {
+        mockResponse();
+        Callback callback = new Callback().setId(7).setUrl(URL).setExecuteAt(System.currentTimeMillis() + LONG_DELAY_MILLIS);
+        when(outbox.recover()).thenReturn(List.of(callback));
+
+        RequestService service = new RequestServiceImpl(LONG_DELAY_MILLIS, timer, outbox, loopbackService);
+        service.schedule(response);
+
+        assertTrue(service.getPendingCallbacks(10).stream().anyMatch(c -> c.getId() == 8));
+    }
+
+    @Test
+    public void schedule_NotExpired_CallbackIsPending() {
+        mockResponse();
+
+        RequestService service = new RequestServiceImpl(LONG_DELAY_MILLIS, timer, outbox, loopbackService);
+        service.schedule(response);
+
+        List<Callback> pending = service.getPendingCallbacks(10);
+        assertEquals(1, pending.size());
+        assertEquals(URL, pending.get(0).getUrl());
+    }
+
+    @Test
+    public void getPendingCallbacks_LimitApplied() {
+        mockResponse();
+
+        RequestService service = new RequestServiceImpl(LONG_DELAY_MILLIS, timer, outbox, loopbackService);
+        service.schedule(response);
+        service.schedule(response);
+
+        assertEquals(1, service.getPendingCallbacks(1).size());
+    }
+
+    @Test
+    public void cancelCallback_Pending_RemovedAndTimeoutCancelled() {
+        mockResponse();
+
+        RequestService service = new RequestServiceImpl(LONG_DELAY_MILLIS, timer, outbox, loopbackService);
+        service.schedule(response);
+        long id = service.getPendingCallbacks(10).get(0).getId();
+
+        assertTrue(service.cancelCallback(id));
+        assertTrue(service.getPendingCallbacks(10).isEmpty());
+        assertEquals(0, timer.pendingTimeouts());
+        verify(outbox).markDone(id);
+    }
+
+    @Test
+    public void cancelCallback_Unknown_ReturnsFalse() {
+        RequestService service = new RequestServiceImpl(LONG_DELAY_MILLIS, timer, outbox, loopbackService);
+        assertFalse(service.cancelCallback(42));
     }
 }
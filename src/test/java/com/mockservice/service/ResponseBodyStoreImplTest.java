@@ -0,0 +1,58 @@
+package com.mockservice.service;
+
+import com.mockservice.response.MappedBody;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseBodyStoreImplTest {
+
+    private static final String BODY = "{\"name\": \"Ёжик\", \"items\": [1, 2, 3]}";
+
+    @TempDir
+    File folder; // must not be private
+
+    private ResponseBodyStore store(int threshold) {
+        return new ResponseBodyStoreImpl(threshold, folder.getAbsolutePath());
+    }
+
+    @Test
+    public void store_BodyUnderThreshold_Empty() {
+        assertTrue(store(BODY.length() + 1).store(BODY).isEmpty());
+    }
+
+    @Test
+    public void store_ThresholdZero_Empty() {
+        assertTrue(store(0).store(BODY).isEmpty());
+    }
+
+    @Test
+    public void store_BodyOverThreshold_MappedWithSameContent() throws IOException {
+        Optional<MappedBody> body = store(1).store(BODY);
+
+        assertTrue(body.isPresent());
+        assertEquals(BODY.getBytes(StandardCharsets.UTF_8).length, body.get().length());
+        assertEquals(BODY, body.get().asString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.get().writeTo(out);
+        body.get().writeTo(out);
+        assertEquals(BODY + BODY, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void store_BodyOverThreshold_NoFilesLeft() {
+        store(1).store(BODY);
+
+        String[] files = folder.list();
+        assertNotNull(files);
+        assertEquals(0, files.length);
+    }
+}
@@ -4,6 +4,7 @@ import com.mockservice.domain.Scenario;
 import com.mockservice.domain.ScenarioType;
 import com.mockservice.repository.ConfigObserver;
 import com.mockservice.repository.ConfigRepository;
+import com.mockservice.repository.ScenarioObserver;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +25,9 @@ public class ScenarioServiceImplTest {
     private static final String STR_1 = "line 1";
     private static final String ALIAS = "alias";
     private static final String NOT_EXISTING_ALIAS = "not-existing-alias";
+    private static final String SESSION1 = "suite-1";
+    private static final String SESSION2 = "suite-2";
+    private static final long SESSION_IDLE_TIMEOUT_MS = 60_000;
     private static final RequestMethod METHOD = RequestMethod.POST;
     private static final String PATH = "/test";
     private static final String ALT1 = "400";
@@ -34,7 +39,7 @@ public class ScenarioServiceImplTest {
     private ConfigRepository configRepository;
 
     private ScenarioService service() {
-        return new ScenarioServiceImpl(configRepository);
+        return new ScenarioServiceImpl(configRepository, new SessionServiceImpl(SESSION_IDLE_TIMEOUT_MS));
     }
 
     @Test
@@ -184,6 +189,128 @@ public class ScenarioServiceImplTest {
         assertEquals(ALT1, alt.get());
     }
 
+    @Test
+    public void getAltFor_TwoActiveScenariosForSameEndpoint_FirstScenarioWins() {
+        Scenario scenario1 = new Scenario().setAlias(ALIAS).setData(SCENARIO_DATA1);
+        Scenario scenario2 = new Scenario().setAlias(NOT_EXISTING_ALIAS).setData(METHOD + ";" + PATH + ";" + ALT2);
+        when(configRepository.findAllScenarios()).thenReturn(List.of(scenario1, scenario2));
+
+        ScenarioService service = service();
+        service.activateScenario(NOT_EXISTING_ALIAS);
+        service.activateScenario(ALIAS);
+
+        assertEquals(Optional.of(ALT1), service.getAltFor(METHOD, PATH));
+    }
+
+    @Test
+    public void getAltFor_QueueOfFirstScenarioDepleted_NextScenarioUsed() {
+        Scenario scenario1 = new Scenario().setAlias(ALIAS).setData(SCENARIO_DATA1).setType(ScenarioType.QUEUE);
+        Scenario scenario2 = new Scenario().setAlias(NOT_EXISTING_ALIAS).setData(METHOD + ";" + PATH + ";" + ALT2);
+        when(configRepository.findAllScenarios()).thenReturn(List.of(scenario1, scenario2));
+
+        ScenarioService service = service();
+        service.activateScenario(ALIAS);
+        service.activateScenario(NOT_EXISTING_ALIAS);
+
+        assertEquals(Optional.of(ALT1), service.getAltFor(METHOD, PATH));
+        assertEquals(Optional.of(ALT2), service.getAltFor(METHOD, PATH));
+    }
+
+    @Test
+    public void getAltFor_ScenarioDeactivated_ReturnsEmpty() {
+        Scenario scenario = new Scenario().setAlias(ALIAS).setData(SCENARIO_DATA1);
+        when(configRepository.findAllScenarios()).thenReturn(List.of(scenario));
+
+        ScenarioService service = service();
+        service.activateScenario(ALIAS);
+        service.deactivateScenario(ALIAS);
+
+        assertTrue(service.getAltFor(METHOD, PATH).isEmpty());
+    }
+
+    @Test
+    public void getAltFor_OtherEndpoint_ReturnsEmpty() {
+        Scenario scenario = new Scenario().setAlias(ALIAS).setData(SCENARIO_DATA1);
+        when(configRepository.findAllScenarios()).thenReturn(List.of(scenario));
+
+        ScenarioService service = service();
+        service.activateScenario(ALIAS);
+
+        assertTrue(service.getAltFor(RequestMethod.GET, PATH).isEmpty());
+        assertTrue(service.getAltFor(METHOD, PATH + "/other").isEmpty());
+    }
+
+    // --- session scenarios ----------------------------------------------------------------
+
+    @Test
+    public void activateScenario_WithinSession_GlobalScenarioNotActivated() {
+        Scenario scenario = new Scenario().setAlias(ALIAS).setData(SCENARIO_DATA1);
+        when(configRepository.findAllScenarios()).thenReturn(List.of(scenario));
+
+        ScenarioService service = service();
+
+        assertEquals(Set.of(ALIAS), service.activateScenario(SESSION1, ALIAS));
+        assertFalse(scenario.getActive());
+        assertTrue(service.getAltFor(METHOD, PATH).isEmpty());
+        assertTrue(service.getActiveScenarios(SESSION2).isEmpty());
+        assertEquals(Optional.of(ALT1), service.getAltFor(SESSION1, METHOD, PATH));
+    }
+
+    @Test
+    public void getAltFor_QueueInTwoSessions_EachSessionHasOwnPosition() {
+        Scenario scenario = new Scenario().setAlias(ALIAS).setData(SCENARIO_DATA2).setType(ScenarioType.QUEUE);
+        when(configRepository.findAllScenarios()).thenReturn(List.of(scenario));
+
+        ScenarioService service = service();
+        service.activateScenario(SESSION1, ALIAS);
+        service.activateScenario(SESSION2, ALIAS);
+
+        assertEquals(Optional.of(ALT1), service.getAltFor(SESSION1, METHOD, PATH));
+        assertEquals(Optional.of(ALT2), service.getAltFor(SESSION1, METHOD, PATH));
+        assertEquals(Optional.of(ALT1), service.getAltFor(SESSION2, METHOD, PATH));
+        assertTrue(service.getAltFor(SESSION1, METHOD, PATH).isEmpty());
+    }
+
+    @Test
+    public void deactivateScenario_WithinSession_ReturnsEmpty() {
+        Scenario scenario = new Scenario().setAlias(ALIAS).setData(SCENARIO_DATA1);
+        when(configRepository.findAllScenarios()).thenReturn(List.of(scenario));
+
+        ScenarioService service = service();
+        service.activateScenario(SESSION1, ALIAS);
+
+        assertTrue(service.deactivateScenario(SESSION1, ALIAS).isEmpty());
+        assertTrue(service.getAltFor(SESSION1, METHOD, PATH).isEmpty());
+    }
+
+    @Test
+    public void getAltFor_StatefulInTwoSessions_EachSessionHasOwnState() {
+        String data = METHOD + ";" + PATH + ";" + ALT1 + ";next\n[next]\n" + METHOD + ";" + PATH + ";" + ALT2;
+        Scenario scenario = new Scenario().setAlias(ALIAS).setData(data).setType(ScenarioType.STATEFUL);
+        when(configRepository.findAllScenarios()).thenReturn(List.of(scenario));
+
+        ScenarioService service = service();
+        service.activateScenario(SESSION1, ALIAS);
+        service.activateScenario(SESSION2, ALIAS);
+
+        assertEquals(Optional.of(ALT1), service.getAltFor(SESSION1, METHOD, PATH));
+        assertEquals(Optional.of(ALT2), service.getAltFor(SESSION1, METHOD, PATH));
+        assertEquals(Optional.of(ALT1), service.getAltFor(SESSION2, METHOD, PATH));
+    }
+
+    @Test
+    public void onScenarioCreated_ScenarioActiveInSession_SessionSeesNewData() {
+        Scenario scenario = new Scenario().setAlias(ALIAS).setData(SCENARIO_DATA1);
+        when(configRepository.findAllScenarios()).thenReturn(List.of(scenario));
+
+        ScenarioService service = service();
+        service.activateScenario(SESSION1, ALIAS);
+        scenario.setData(METHOD + ";" + PATH + ";" + ALT2);
+        ((ScenarioObserver) service).onScenarioCreated(scenario);
+
+        assertEquals(Optional.of(ALT2), service.getAltFor(SESSION1, METHOD, PATH));
+    }
+
     // --- listeners ----------------------------------------------------------------
 
     @Test
@@ -198,4 +325,30 @@ public class ScenarioServiceImplTest {
 
         assertTrue(scenario.getActive());
     }
+
+    @Test
+    public void onScenarioDeleted_ActiveScenario_AltNoLongerReturned() {
+        Scenario scenario = new Scenario().setAlias(ALIAS).setData(SCENARIO_DATA1);
+        when(configRepository.findAllScenarios()).thenReturn(List.of(scenario), List.of(scenario), List.of());
+
+        ScenarioService service = service();
+        service.activateScenario(ALIAS);
+        ((ScenarioObserver) service).onScenarioDeleted(scenario);
+
+        assertTrue(service.getAltFor(METHOD, PATH).isEmpty());
+    }
+
+    @Test
+    public void onScenarioCreated_ActiveScenarioChanged_NewAltReturned() {
+        Scenario scenario = new Scenario().setAlias(ALIAS).setData(SCENARIO_DATA1);
+        when(configRepository.findAllScenarios()).thenReturn(List.of(scenario));
+
+        ScenarioService service = service();
+        service.activateScenario(ALIAS);
+        scenario.assignFrom(new Scenario().setAlias(ALIAS).setData("GET;" + PATH + ";" + ALT2));
+        ((ScenarioObserver) service).onScenarioCreated(scenario);
+
+        assertTrue(service.getAltFor(METHOD, PATH).isEmpty());
+        assertEquals(Optional.of(ALT2), service.getAltFor(RequestMethod.GET, PATH));
+    }
 }
@@ -29,6 +29,7 @@ public class RouteMapperImplTest {
             .setResponseCode(INT)
             .setResponse(STR)
             .setRequestBodySchema(STR)
+            .setResponseSchema(STR)
             .setDisabled(true);
     }
 
@@ -42,6 +43,7 @@ public class RouteMapperImplTest {
             .setResponseCode(INT)
             .setResponse(STR)
             .setRequestBodySchema(STR)
+            .setResponseSchema(STR)
             .setDisabled(true);
     }
 
@@ -60,6 +62,7 @@ public class RouteMapperImplTest {
             assertEquals(route.getResponseCode(), routeDto.getResponseCode());
             assertEquals(route.getResponse(), routeDto.getResponse());
             assertEquals(route.getRequestBodySchema(), routeDto.getRequestBodySchema());
+            assertEquals(route.getResponseSchema(), routeDto.getResponseSchema());
             assertEquals(route.getDisabled(), routeDto.getDisabled());
         });
     }
@@ -86,6 +89,7 @@ public class RouteMapperImplTest {
             assertEquals(route.getResponseCode(), routeDto.getResponseCode());
             assertEquals(route.getResponse(), routeDto.getResponse());
             assertEquals(route.getRequestBodySchema(), routeDto.getRequestBodySchema());
+            assertEquals(route.getResponseSchema(), routeDto.getResponseSchema());
             assertEquals(route.getDisabled(), routeDto.getDisabled());
         });
     }
@@ -108,6 +112,7 @@ public class RouteMapperImplTest {
             assertEquals(route.getResponseCode(), routeDto.getResponseCode());
             assertEquals(route.getResponse(), routeDto.getResponse());
             assertEquals(route.getRequestBodySchema(), routeDto.getRequestBodySchema());
+            assertEquals(route.getResponseSchema(), routeDto.getResponseSchema());
             assertEquals(route.getDisabled(), routeDto.getDisabled());
         });
     }
@@ -134,6 +139,7 @@ public class RouteMapperImplTest {
             assertEquals(route.getResponseCode(), routeDto.getResponseCode());
             assertEquals(route.getResponse(), routeDto.getResponse());
             assertEquals(route.getRequestBodySchema(), routeDto.getRequestBodySchema());
+            assertEquals(route.getResponseSchema(), routeDto.getResponseSchema());
             assertEquals(route.getDisabled(), routeDto.getDisabled());
         });
     }
@@ -153,6 +159,7 @@ public class RouteMapperImplTest {
             assertEquals(routeDto.getResponseCode(), route.getResponseCode());
             assertEquals(routeDto.getResponse(), route.getResponse());
             assertEquals(routeDto.getRequestBodySchema(), route.getRequestBodySchema());
+            assertEquals(routeDto.getResponseSchema(), route.getResponseSchema());
             assertEquals(routeDto.getDisabled(), route.getDisabled());
         });
     }
@@ -175,6 +182,7 @@ public class RouteMapperImplTest {
             assertEquals(routeDto.getResponseCode(), route.getResponseCode());
             assertEquals(routeDto.getResponse(), route.getResponse());
             assertEquals(routeDto.getRequestBodySchema(), route.getRequestBodySchema());
+            assertEquals(routeDto.getResponseSchema(), route.getResponseSchema());
             assertEquals(routeDto.getDisabled(), route.getDisabled());
         });
     }
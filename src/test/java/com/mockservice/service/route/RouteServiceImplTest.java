@@ -8,6 +8,7 @@ import com.mockservice.model.RouteVariableDto;
 import com.mockservice.repository.ConfigRepository;
 import com.mockservice.service.RouteService;
 import com.mockservice.service.RouteServiceImpl;
+import com.mockservice.service.SessionServiceImpl;
 import com.mockservice.template.MockVariables;
 import com.mockservice.util.RandomUtils;
 import org.junit.jupiter.api.Test;
@@ -37,6 +38,8 @@ class RouteServiceImplTest {
     private static final String PATH_OTHER = "/api/test";
     private static final String ALT1 = "400";
     private static final String ALT2 = "204";
+    private static final String SESSION = "suite-1";
+    private static final long SESSION_IDLE_TIMEOUT_MS = 60_000;
     private static final String RESPONSE_WITH_VARIABLES = "${id} ... ${name:default} ...";
 
     @Mock
@@ -47,7 +50,7 @@ class RouteServiceImplTest {
     private RandomUtils randomUtils;
 
     private RouteService service() {
-        return new RouteServiceImpl(configRepository, routeMapper, randomUtils);
+        return new RouteServiceImpl(configRepository, routeMapper, randomUtils, new SessionServiceImpl(SESSION_IDLE_TIMEOUT_MS));
     }
 
     @Test
@@ -293,6 +296,29 @@ class RouteServiceImplTest {
         assertEquals("123", routeVariables.get("id"));
     }
 
+    @Test
+    void setRouteVariable_WithinSession_NotVisibleGloballyOrInOtherSession() {
+        RouteService service = service();
+        service.setRouteVariable(SESSION, new RouteVariableDto().setPath(PATH).setName("id").setValue("123"));
+        Route route = new Route().setPath(PATH);
+
+        assertEquals("123", service.getRouteVariables(SESSION, route).get("id"));
+        assertNull(service.getRouteVariables(route));
+        assertNull(service.getRouteVariables("suite-2", route));
+    }
+
+    @Test
+    void clearRouteVariable_WithinSession_GlobalVariableKept() {
+        RouteService service = service();
+        service.setRouteVariable(new RouteVariableDto().setPath(PATH).setName("id").setValue("1"));
+        service.setRouteVariable(SESSION, new RouteVariableDto().setPath(PATH).setName("id").setValue("2"));
+        service.clearRouteVariable(SESSION, new RouteVariableDto().setPath(PATH).setName("id"));
+        Route route = new Route().setPath(PATH);
+
+        assertNull(service.getRouteVariables(SESSION, route));
+        assertEquals("1", service.getRouteVariables(route).get("id"));
+    }
+
     // --- random alt -----------------------------------------------------
 
     @Test
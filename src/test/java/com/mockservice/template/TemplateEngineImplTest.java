@@ -152,4 +152,13 @@ public class TemplateEngineImplTest {
         assertEquals(expected.getMonth(), dateTime.getMonth());
         assertEquals(expected.getDayOfMonth(), dateTime.getDayOfMonth());
     }
+
+    @Test
+    public void getFunctions_FromSchemaWithoutRouteSchema_Null() {
+        TemplateEngine engine = new TemplateEngineImpl();
+        Function<String[], String> fn = engine.getFunctions().get(TemplateEngine.FROM_SCHEMA);
+
+        assertEquals("null", fn.apply(EMPTY_ARGS));
+        assertTrue(engine.isFunction(TemplateEngine.FROM_SCHEMA));
+    }
 }
@@ -0,0 +1,44 @@
+package com.mockservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentPoolTest {
+
+    private static final String CONTENT = "{\"id\": 1}";
+
+    @Test
+    public void intern_EqualContents_SameInstance() {
+        ContentPool pool = new ContentPool();
+        String first = new String(CONTENT);
+        String second = new String(CONTENT);
+
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void intern_DifferentContents_NotShared() {
+        ContentPool pool = new ContentPool();
+
+        assertNotSame(pool.intern(CONTENT), pool.intern(CONTENT + " "));
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    public void intern_NullOrEmpty_ReturnedAsIs() {
+        ContentPool pool = new ContentPool();
+
+        assertNull(pool.intern(null));
+        assertEquals("", pool.intern(""));
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void sizeOf_Latin1AndWide_ByteAndTwoBytesPerChar() {
+        assertEquals(3, ContentPool.sizeOf("abc"));
+        assertEquals(6, ContentPool.sizeOf("abЖ"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.mockservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpiringMapTest {
+
+    private static final long IDLE_TIMEOUT_MS = 1000;
+    private static final String KEY = "key";
+    private static final String VALUE = "value";
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private ExpiringMap<String, String> map() {
+        return new ExpiringMap<>(IDLE_TIMEOUT_MS, clock::get);
+    }
+
+    @Test
+    public void computeIfAbsent_KeyExists_ExistingValueReturned() {
+        ExpiringMap<String, String> map = map();
+        map.computeIfAbsent(KEY, k -> VALUE);
+
+        assertSame(VALUE, map.computeIfAbsent(KEY, k -> "other"));
+        assertEquals(Set.of(KEY), map.keySet());
+    }
+
+    @Test
+    public void get_IdleLongerThanTimeout_Null() {
+        ExpiringMap<String, String> map = map();
+        map.computeIfAbsent(KEY, k -> VALUE);
+
+        clock.addAndGet(IDLE_TIMEOUT_MS);
+
+        assertNull(map.get(KEY));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void get_AccessedWithinTimeout_EntryKeptAlive() {
+        ExpiringMap<String, String> map = map();
+        map.computeIfAbsent(KEY, k -> VALUE);
+
+        clock.addAndGet(IDLE_TIMEOUT_MS - 1);
+        assertEquals(VALUE, map.get(KEY));
+        clock.addAndGet(IDLE_TIMEOUT_MS - 1);
+
+        assertEquals(VALUE, map.get(KEY));
+    }
+
+    @Test
+    public void computeIfAbsent_EntryExpired_NewValueCreated() {
+        ExpiringMap<String, String> map = map();
+        map.computeIfAbsent(KEY, k -> VALUE);
+
+        clock.addAndGet(IDLE_TIMEOUT_MS);
+
+        assertEquals("other", map.computeIfAbsent(KEY, k -> "other"));
+    }
+
+    @Test
+    public void remove_KeyExists_ValueReturnedAndRemoved() {
+        ExpiringMap<String, String> map = map();
+        map.computeIfAbsent(KEY, k -> VALUE);
+
+        assertEquals(VALUE, map.remove(KEY));
+        assertNull(map.get(KEY));
+    }
+
+    @Test
+    public void get_TimeoutNotPositive_NeverExpires() {
+        ExpiringMap<String, String> map = new ExpiringMap<>(0, clock::get);
+        map.computeIfAbsent(KEY, k -> VALUE);
+
+        clock.addAndGet(Long.MAX_VALUE / 2);
+
+        assertEquals(VALUE, map.get(KEY));
+    }
+}
@@ -0,0 +1,97 @@
+package com.mockservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedWheelTimerTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    public void schedule_TaskRunsAfterDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        try (HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8, DIRECT)) {
+            long start = System.nanoTime();
+            HashedWheelTimer.Timeout timeout = timer.schedule(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+            assertTrue(timeout.isExpired());
+            assertEquals(0, timer.pendingTimeouts());
+        }
+    }
+
+    @Test
+    public void schedule_DelayLongerThanWheelRound_TaskRunsAfterDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        try (HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 4, DIRECT)) {
+            long start = System.nanoTime();
+            timer.schedule(latch::countDown, 120, TimeUnit.MILLISECONDS);
+
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 120);
+        }
+    }
+
+    @Test
+    public void schedule_ManyTasks_AllRun() throws InterruptedException {
+        int count = 10_000;
+        CountDownLatch latch = new CountDownLatch(count);
+        try (HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 16, DIRECT)) {
+            for (int i = 0; i < count; i++) {
+                timer.schedule(latch::countDown, i % 200, TimeUnit.MILLISECONDS);
+            }
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(0, timer.pendingTimeouts());
+        }
+    }
+
+    @Test
+    public void cancel_PendingTask_TaskDoesNotRun() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        try (HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8, DIRECT)) {
+            HashedWheelTimer.Timeout timeout = timer.schedule(counter::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+            assertEquals(1, timer.pendingTimeouts());
+
+            assertTrue(timeout.cancel());
+            assertFalse(timeout.cancel());
+            assertTrue(timeout.isCancelled());
+            assertEquals(0, timer.pendingTimeouts());
+
+            Thread.sleep(150);
+            assertEquals(0, counter.get());
+        }
+    }
+
+    @Test
+    public void cancel_ExpiredTask_ReturnsFalse() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        try (HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8, DIRECT)) {
+            HashedWheelTimer.Timeout timeout = timer.schedule(latch::countDown, 0, TimeUnit.MILLISECONDS);
+
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+            assertFalse(timeout.cancel());
+        }
+    }
+
+    @Test
+    public void schedule_StoppedTimer_Throws() {
+        HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8, DIRECT);
+        timer.close();
+
+        assertThrows(IllegalStateException.class, () -> timer.schedule(() -> {}, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void create_InvalidArguments_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer(0, TimeUnit.MILLISECONDS, 8, DIRECT));
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 0, DIRECT));
+    }
+}
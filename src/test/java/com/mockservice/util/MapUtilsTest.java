@@ -1,5 +1,8 @@
 package com.mockservice.util;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
@@ -26,6 +29,15 @@ public class MapUtilsTest {
         assertEquals("[value 1, value 2]", map.get("key2.key2.key3"));
     }
 
+    @Test
+    public void jsonToMap_TreeWithBigDecimals_SameAsParsedFromText() throws IOException {
+        String json = "{\"a\": 10.50, \"b\": 1e3, \"c\": {\"d\": [1, true, null, \"x\"]}}";
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode tree = mapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS).readTree(json);
+
+        assertEquals(MapUtils.jsonToMap(json, mapper), MapUtils.jsonToMap(tree));
+    }
+
     @Test
     public void jsonToMap_EmptyString_ReturnsEmptyMap() throws IOException {
         Map<String, Object> objectMap = MapUtils.jsonToMap("");
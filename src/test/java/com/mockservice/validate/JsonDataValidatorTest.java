@@ -1,10 +1,25 @@
 package com.mockservice.validate;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.mockservice.domain.Route;
+import com.mockservice.repository.ConfigObserver;
+import com.mockservice.repository.ConfigRepository;
+import com.mockservice.repository.RouteObserver;
+import com.mockservice.request.ParsedBody;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
 
+@ExtendWith(MockitoExtension.class)
 public class JsonDataValidatorTest {
 
     private static final String JSON_SCHEMA = "{\"type\": \"object\",\n" +
@@ -21,47 +36,184 @@ public class JsonDataValidatorTest {
             "  }";
     private static final String MALFORMED_JSON = "{\"product_id\": \"\",";
 
+    @Mock
+    private ConfigRepository configRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private DataValidator validator() {
-        return new JsonDataValidator(JsonSchemaFactory.byDefault());
+        return new JsonDataValidator(JsonSchemaFactory.byDefault(), configRepository, meterRegistry, 0);
+    }
+
+    private DataValidator streamingValidator() {
+        return new JsonDataValidator(JsonSchemaFactory.byDefault(), configRepository, meterRegistry, 1);
+    }
+
+    private static ParsedBody body(String text) {
+        return new ParsedBody(text, new ObjectMapper());
+    }
+
+    private double cacheCount(String result) {
+        return meterRegistry.get("mockservice.validation.schema.cache").tag("result", result).counter().count();
+    }
+
+    private double cacheSize() {
+        return meterRegistry.get("mockservice.validation.schema.cache.size").gauge().value();
+    }
+
+    private static Route route(String path) {
+        return new Route().setPath(path).setRequestBodySchema(JSON_SCHEMA);
     }
 
     @Test
     public void applicable_EmptyObject_ReturnsTrue() {
-        assertTrue(validator().applicable("{}"));
+        assertTrue(validator().applicable(body("{}"), JSON_SCHEMA));
     }
 
     @Test
     public void applicable_EmptyArray_ReturnsTrue() {
-        assertTrue(validator().applicable("[]"));
+        assertTrue(validator().applicable(body("[]"), JSON_SCHEMA));
     }
 
     @Test
     public void applicable_ValidJson_ReturnsTrue() {
-        assertTrue(validator().applicable(VALID_JSON));
+        assertTrue(validator().applicable(body(VALID_JSON), JSON_SCHEMA));
     }
 
     @Test
     public void applicable_MalformedJson_ReturnsFalse() {
-        assertFalse(validator().applicable(MALFORMED_JSON));
+        assertFalse(validator().applicable(body(MALFORMED_JSON), JSON_SCHEMA));
+    }
+
+    @Test
+    public void applicable_XsdSchema_ReturnsFalse() {
+        assertFalse(validator().applicable(body(VALID_JSON), "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\"/>"));
     }
 
     @Test
     public void validate_ValidJson_DoesNotThrow() {
-        assertDoesNotThrow(() -> validator().validate(VALID_JSON, JSON_SCHEMA));
+        assertDoesNotThrow(() -> validator().validate(body(VALID_JSON), JSON_SCHEMA));
     }
 
     @Test
     public void validate_InvalidJson_ThrowsException() {
-        assertThrows(DataValidationException.class, () -> validator().validate(INVALID_JSON, JSON_SCHEMA));
+        assertThrows(DataValidationException.class, () -> validator().validate(body(INVALID_JSON), JSON_SCHEMA));
     }
 
     @Test
     public void validate_MalformedJson_ThrowsException() {
-        assertThrows(DataValidationException.class, () -> validator().validate(MALFORMED_JSON, JSON_SCHEMA));
+        assertThrows(DataValidationException.class, () -> validator().validate(body(MALFORMED_JSON), JSON_SCHEMA));
     }
 
     @Test
     public void validate_MalformedJsonSchema_ThrowsException() {
-        assertThrows(DataValidationException.class, () -> validator().validate(VALID_JSON, MALFORMED_JSON_SCHEMA));
+        assertThrows(DataValidationException.class, () -> validator().validate(body(VALID_JSON), MALFORMED_JSON_SCHEMA));
+    }
+
+    // --- schema cache ----------------------------------------------------------------
+
+    @Test
+    public void validate_SameSchemaTwice_CompiledOnce() {
+        DataValidator validator = validator();
+        validator.validate(body(VALID_JSON), JSON_SCHEMA);
+        validator.validate(body(VALID_JSON), JSON_SCHEMA);
+
+        assertEquals(1, cacheCount("miss"));
+        assertEquals(1, cacheCount("hit"));
+        assertEquals(1, meterRegistry.get("mockservice.validation.schema.compile").timer().count());
+    }
+
+    @Test
+    public void create_RoutesWithSchema_CacheWarmed() {
+        when(configRepository.findAllRoutes()).thenReturn(List.of(route("/a")));
+
+        DataValidator validator = validator();
+        validator.validate(body(VALID_JSON), JSON_SCHEMA);
+
+        assertEquals(0, cacheCount("miss"));
+        assertEquals(1, cacheCount("hit"));
+    }
+
+    @Test
+    public void onRouteDeleted_LastRouteWithSchema_SchemaEvicted() {
+        DataValidator validator = validator();
+        ((RouteObserver) validator).onRouteCreated(route("/a"));
+        ((RouteObserver) validator).onRouteCreated(route("/b"));
+
+        ((RouteObserver) validator).onRouteDeleted(route("/a"));
+        assertEquals(1, cacheSize());
+
+        ((RouteObserver) validator).onRouteDeleted(route("/b"));
+        assertEquals(0, cacheSize());
+    }
+
+    @Test
+    public void onRouteCreated_SameRouteTwice_OneDeleteEvicts() {
+        DataValidator validator = validator();
+        ((RouteObserver) validator).onRouteCreated(route("/a"));
+        ((RouteObserver) validator).onRouteCreated(route("/a"));
+
+        ((RouteObserver) validator).onRouteDeleted(route("/a"));
+        assertEquals(0, cacheSize());
+    }
+
+    @Test
+    public void onAfterConfigChanged_RoutesReloaded_CacheRebuilt() {
+        DataValidator validator = validator();
+        ((RouteObserver) validator).onRouteCreated(route("/a"));
+        when(configRepository.findAllRoutes()).thenReturn(List.of());
+
+        ((ConfigObserver) validator).onBeforeConfigChanged();
+        ((ConfigObserver) validator).onAfterConfigChanged();
+
+        assertEquals(0, cacheSize());
+    }
+
+    @Test
+    public void onRouteCreated_MalformedSchema_NotCached() {
+        DataValidator validator = validator();
+
+        ((RouteObserver) validator).onRouteCreated(new Route().setPath("/a").setRequestBodySchema(MALFORMED_JSON_SCHEMA));
+
+        assertEquals(0, cacheSize());
+    }
+
+    // --- streaming validation --------------------------------------------------------
+
+    @Test
+    public void validate_Streaming_ValidJson_DoesNotThrow() {
+        assertDoesNotThrow(() -> streamingValidator().validate(body(VALID_JSON), JSON_SCHEMA));
+    }
+
+    @Test
+    public void validate_Streaming_InvalidJson_SameMessageAsTree() {
+        DataValidationException tree = assertThrows(DataValidationException.class,
+                () -> validator().validate(body("{\"product_id\": \"\"}"), JSON_SCHEMA));
+        DataValidationException streaming = assertThrows(DataValidationException.class,
+                () -> streamingValidator().validate(body("{\"product_id\": \"\"}"), JSON_SCHEMA));
+
+        assertEquals(tree.getMessage(), streaming.getMessage());
+    }
+
+    @Test
+    public void validate_Streaming_MalformedJson_ThrowsException() {
+        assertThrows(DataValidationException.class, () -> streamingValidator().validate(body(MALFORMED_JSON), JSON_SCHEMA));
+    }
+
+    @Test
+    public void validate_Streaming_SchemaNotStreamable_ValidatedAsTree() {
+        String schema = "{\"properties\": {\"product_id\": {\"anyOf\": [{\"type\": \"integer\"}]}}}";
+        assertDoesNotThrow(() -> streamingValidator().validate(body(VALID_JSON), schema));
+        assertThrows(DataValidationException.class, () -> streamingValidator().validate(body(INVALID_JSON), schema));
+    }
+
+    @Test
+    public void applicable_Streaming_MalformedJson_ReturnsTrue() {
+        assertTrue(streamingValidator().applicable(body(MALFORMED_JSON), JSON_SCHEMA));
+    }
+
+    @Test
+    public void applicable_Streaming_NotJson_ReturnsFalse() {
+        assertFalse(streamingValidator().applicable(body("<xml/>"), JSON_SCHEMA));
     }
 }
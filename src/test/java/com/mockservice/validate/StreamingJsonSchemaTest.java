@@ -0,0 +1,95 @@
+package com.mockservice.validate;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingJsonSchemaTest {
+
+    private static final String ITEMS_SCHEMA = "{\"type\": \"array\", \"maxItems\": 3, \"items\": {" +
+            "\"type\": \"object\", \"required\": [\"id\"], \"additionalProperties\": false, \"properties\": {" +
+            "\"id\": {\"type\": \"integer\", \"minimum\": 1}," +
+            "\"name\": {\"type\": \"string\", \"maxLength\": 5}," +
+            "\"kind\": {\"enum\": [\"a\", \"b\"]}}}}";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Optional<StreamingJsonSchema> compile(String schema, int maxErrors) throws IOException {
+        return StreamingJsonSchema.compile(mapper.readTree(schema), maxErrors);
+    }
+
+    private List<ObjectNode> validate(String schema, String data) throws IOException {
+        return compile(schema, 100).orElseThrow().validate(new JsonFactory().createParser(data));
+    }
+
+    @Test
+    public void compile_SupportedKeywords_Compiled() throws IOException {
+        assertTrue(compile(ITEMS_SCHEMA, 100).isPresent());
+    }
+
+    @Test
+    public void compile_RefOrCombinators_Empty() throws IOException {
+        assertTrue(compile("{\"properties\": {\"a\": {\"$ref\": \"#\"}}}", 100).isEmpty());
+        assertTrue(compile("{\"items\": {\"oneOf\": [{}]}}", 100).isEmpty());
+        assertTrue(compile("{\"uniqueItems\": true}", 100).isEmpty());
+    }
+
+    @Test
+    public void validate_ValidData_NoErrors() throws IOException {
+        assertTrue(validate(ITEMS_SCHEMA, "[{\"id\": 1, \"name\": \"x\", \"kind\": \"a\"}, {\"id\": 2}]").isEmpty());
+    }
+
+    @Test
+    public void validate_InvalidItems_ErrorsWithPointers() throws IOException {
+        List<ObjectNode> errors = validate(ITEMS_SCHEMA,
+                "[{\"id\": 0}, {\"name\": \"too long\", \"extra\": 1}, {\"id\": 1, \"kind\": \"c\"}, {\"id\": 2}]");
+
+        assertEquals(6, errors.size());
+        assertError(errors.get(0), "minimum", "/0/id", "/items/properties/id");
+        assertError(errors.get(1), "maxLength", "/1/name", "/items/properties/name");
+        assertError(errors.get(2), "additionalProperties", "/1", "/items");
+        assertError(errors.get(3), "required", "/1", "/items");
+        assertError(errors.get(4), "enum", "/2/kind", "/items/properties/kind");
+        assertError(errors.get(5), "maxItems", "", "");
+    }
+
+    @Test
+    public void validate_WrongType_TypeError() throws IOException {
+        List<ObjectNode> errors = validate(ITEMS_SCHEMA, "{\"id\": 1}");
+
+        assertEquals(1, errors.size());
+        assertEquals("object", errors.get(0).get("found").asText());
+        assertEquals("[\"array\"]", errors.get(0).get("expected").toString());
+    }
+
+    @Test
+    public void validate_NumberAllowsInteger_NoErrors() throws IOException {
+        assertTrue(validate("{\"type\": \"number\", \"multipleOf\": 0.5}", "2").isEmpty());
+    }
+
+    @Test
+    public void validate_MoreErrorsThanMax_StopsAtMax() throws IOException {
+        StreamingJsonSchema schema = compile("{\"items\": {\"type\": \"string\"}}", 2).orElseThrow();
+        List<ObjectNode> errors = schema.validate(new JsonFactory().createParser("[1, 2, 3, 4]"));
+        assertEquals(2, errors.size());
+    }
+
+    @Test
+    public void validate_MalformedData_ThrowsException() throws IOException {
+        StreamingJsonSchema schema = compile(ITEMS_SCHEMA, 100).orElseThrow();
+        assertThrows(IOException.class, () -> schema.validate(new JsonFactory().createParser("[{\"id\": 1},")));
+    }
+
+    private static void assertError(ObjectNode error, String keyword, String instance, String schema) {
+        assertEquals(keyword, error.get("keyword").asText());
+        assertEquals(instance, error.get("instance").get("pointer").asText());
+        assertEquals(schema, error.get("schema").get("pointer").asText());
+    }
+}
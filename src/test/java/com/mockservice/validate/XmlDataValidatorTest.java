@@ -0,0 +1,145 @@
+package com.mockservice.validate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockservice.domain.Route;
+import com.mockservice.repository.ConfigRepository;
+import com.mockservice.repository.RouteObserver;
+import com.mockservice.request.ParsedBody;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class XmlDataValidatorTest {
+
+    private static final String XSD = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\" " +
+            "targetNamespace=\"urn:test\" elementFormDefault=\"qualified\">" +
+            "<xs:element name=\"GetItem\"><xs:complexType><xs:sequence>" +
+            "<xs:element name=\"id\" type=\"xs:int\"/>" +
+            "</xs:sequence></xs:complexType></xs:element></xs:schema>";
+    private static final String MALFORMED_XSD = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">";
+    private static final String ENVELOPE = "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" " +
+            "xmlns:t=\"urn:test\"><soapenv:Header><t:Unknown/></soapenv:Header><soapenv:Body>%s</soapenv:Body></soapenv:Envelope>";
+    private static final String VALID_ITEM = "<t:GetItem><t:id>1</t:id></t:GetItem>";
+    private static final String INVALID_ITEM = "<t:GetItem><t:id>one</t:id></t:GetItem>";
+
+    @Mock
+    private ConfigRepository configRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private XmlDataValidator validator() {
+        return new XmlDataValidator(configRepository, meterRegistry);
+    }
+
+    private static ParsedBody body(String text) {
+        return new ParsedBody(text, new ObjectMapper());
+    }
+
+    private static ParsedBody envelope(String payload) {
+        return body(String.format(ENVELOPE, payload));
+    }
+
+    private double cacheCount(String result) {
+        return meterRegistry.get("mockservice.validation.xsd.cache").tag("result", result).counter().count();
+    }
+
+    @Test
+    public void applicable_XmlBodyAndXsd_ReturnsTrue() {
+        assertTrue(validator().applicable(envelope(VALID_ITEM), XSD));
+    }
+
+    @Test
+    public void applicable_JsonSchema_ReturnsFalse() {
+        assertFalse(validator().applicable(envelope(VALID_ITEM), "{\"type\": \"object\"}"));
+    }
+
+    @Test
+    public void applicable_JsonBody_ReturnsFalse() {
+        assertFalse(validator().applicable(body("{\"id\": 1}"), XSD));
+    }
+
+    @Test
+    public void validate_ValidSoapBody_DoesNotThrow() {
+        assertDoesNotThrow(() -> validator().validate(envelope(VALID_ITEM), XSD));
+    }
+
+    @Test
+    public void validate_InvalidSoapBody_ThrowsException() {
+        DataValidationException e = assertThrows(DataValidationException.class,
+                () -> validator().validate(envelope(INVALID_ITEM), XSD));
+        assertTrue(e.getMessage().contains("\"level\":\"error\""));
+        assertTrue(e.getMessage().contains("'one'"));
+    }
+
+    @Test
+    public void validate_EachElementOfSoapBody_Validated() {
+        assertThrows(DataValidationException.class,
+                () -> validator().validate(envelope(VALID_ITEM + INVALID_ITEM), XSD));
+    }
+
+    @Test
+    public void validate_PlainXml_ValidatedAsWhole() {
+        XmlDataValidator validator = validator();
+        assertDoesNotThrow(() -> validator.validate(body("<t:GetItem xmlns:t=\"urn:test\"><t:id>1</t:id></t:GetItem>"), XSD));
+        assertThrows(DataValidationException.class,
+                () -> validator.validate(body("<t:GetItem xmlns:t=\"urn:test\"/>"), XSD));
+    }
+
+    @Test
+    public void validate_MalformedXml_ThrowsException() {
+        assertThrows(DataValidationException.class, () -> validator().validate(body("<t:GetItem xmlns:t=\"urn:test\">"), XSD));
+    }
+
+    @Test
+    public void validate_ExternalEntity_ThrowsException() {
+        String body = "<!DOCTYPE t [<!ENTITY e SYSTEM \"file:///etc/passwd\">]>" +
+                "<t:GetItem xmlns:t=\"urn:test\"><t:id>&e;</t:id></t:GetItem>";
+        assertThrows(DataValidationException.class, () -> validator().validate(body(body), XSD));
+    }
+
+    @Test
+    public void validate_MalformedXsd_ThrowsException() {
+        assertThrows(DataValidationException.class, () -> validator().validate(envelope(VALID_ITEM), MALFORMED_XSD));
+    }
+
+    @Test
+    public void validate_XsdImportsExternalSchema_ThrowsException() {
+        String xsd = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\" targetNamespace=\"urn:test\">" +
+                "<xs:import namespace=\"urn:other\" schemaLocation=\"file:///etc/other.xsd\"/></xs:schema>";
+        DataValidationException e = assertThrows(DataValidationException.class, () -> validator().validate(envelope(VALID_ITEM), xsd));
+        assertTrue(e.getCause().getMessage().contains("accessExternalSchema"));
+    }
+
+    @Test
+    public void create_RoutesWithXsd_CacheWarmed() {
+        when(configRepository.findAllRoutes()).thenReturn(List.of(
+                new Route().setPath("/a").setRequestBodySchema(XSD),
+                new Route().setPath("/b").setRequestBodySchema("{\"type\": \"object\"}")));
+
+        XmlDataValidator validator = validator();
+        validator.validate(envelope(VALID_ITEM), XSD);
+
+        assertEquals(0, cacheCount("miss"));
+        assertEquals(1, cacheCount("hit"));
+        assertEquals(1, meterRegistry.get("mockservice.validation.xsd.cache.size").gauge().value());
+    }
+
+    @Test
+    public void onRouteDeleted_LastRouteWithXsd_SchemaEvicted() {
+        XmlDataValidator validator = validator();
+        ((RouteObserver) validator).onRouteCreated(new Route().setPath("/a").setRequestBodySchema(XSD));
+        assertEquals(1, meterRegistry.get("mockservice.validation.xsd.cache.size").gauge().value());
+
+        ((RouteObserver) validator).onRouteDeleted(new Route().setPath("/a").setRequestBodySchema(XSD));
+        assertEquals(0, meterRegistry.get("mockservice.validation.xsd.cache.size").gauge().value());
+    }
+}
@@ -1,9 +1,11 @@
 package com.mockservice.web.internal;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockservice.domain.ConnectionFault;
 import com.mockservice.domain.Route;
 import com.mockservice.domain.RouteType;
 import com.mockservice.repository.ConfigRepository;
+import com.mockservice.response.FaultyBody;
 import com.mockservice.service.MockService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Test;
@@ -22,6 +24,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +37,7 @@ public class ConfigBasedRestControllerTest {
     private static final RequestMethod METHOD = RequestMethod.PUT;
     private static final String PATH = "/api/v1/test";
     private static final String ALT = "400";
+    private static final long STALL_MS = 200;
 
     @Mock
     private HttpServletRequest request;
@@ -48,7 +52,7 @@ public class ConfigBasedRestControllerTest {
 
     private ConfigBasedRestController controller() {
         try {
-            return new ConfigBasedRestController(request, mockService, requestMappingHandlerMapping, configRepository,
+            return new ConfigBasedRestController(STALL_MS, request, mockService, requestMappingHandlerMapping, configRepository,
                     jsonMapper);
         } catch (NoSuchMethodException e) {
             throw new RuntimeException(e);
@@ -58,13 +62,25 @@ public class ConfigBasedRestControllerTest {
     @Test
     public void mock_CompletesSuccessfully_ReturnsResponseEntity() throws ExecutionException, InterruptedException {
         ResponseEntity<String> responseEntity = ResponseEntity.ok().body(BODY);
-        when(mockService.mock(any())).thenReturn(responseEntity);
+        doReturn(CompletableFuture.completedFuture(responseEntity)).when(mockService).serve(any());
 
-        CompletableFuture<ResponseEntity<String>> mock = controller().mock();
+        CompletableFuture<ResponseEntity<?>> mock = controller().mock();
 
         assertEquals(responseEntity, mock.get());
     }
 
+    @Test
+    public void mock_StallHeadersFault_CompletesAfterStall() throws ExecutionException, InterruptedException {
+        ResponseEntity<FaultyBody> responseEntity = ResponseEntity.ok().body(new FaultyBody(BODY, ConnectionFault.STALL_HEADERS));
+        doReturn(CompletableFuture.completedFuture(responseEntity)).when(mockService).serve(any());
+
+        long start = System.nanoTime();
+        CompletableFuture<ResponseEntity<?>> mock = controller().mock();
+
+        assertEquals(responseEntity, mock.get());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= STALL_MS);
+    }
+
     @Test
     public void getType_ReturnsRest() {
         assertEquals(RouteType.REST, controller().getType());
@@ -33,6 +33,7 @@ public class ConfigBasedSoapControllerTest {
     private static final RequestMethod METHOD = RequestMethod.POST;
     private static final String PATH = "/api/v1/test";
     private static final String ALT = "400";
+    private static final long STALL_MS = 200;
 
     @Mock
     private HttpServletRequest request;
@@ -47,7 +48,7 @@ public class ConfigBasedSoapControllerTest {
 
     private ConfigBasedSoapController controller() {
         try {
-            return new ConfigBasedSoapController("hopefully-a-not-existing-file-name",
+            return new ConfigBasedSoapController("hopefully-a-not-existing-file-name", STALL_MS,
                     request, mockService, requestMappingHandlerMapping, configRepository, jsonMapper);
         } catch (NoSuchMethodException e) {
             throw new RuntimeException(e);
@@ -57,9 +58,9 @@ public class ConfigBasedSoapControllerTest {
     @Test
     public void mock_CompletesSuccessfully_ReturnsResponseEntity() throws ExecutionException, InterruptedException {
         ResponseEntity<String> responseEntity = ResponseEntity.ok().body(BODY);
-        when(mockService.mock(any())).thenReturn(responseEntity);
+        doReturn(CompletableFuture.completedFuture(responseEntity)).when(mockService).serve(any());
 
-        CompletableFuture<ResponseEntity<String>> mock = controller().mock();
+        CompletableFuture<ResponseEntity<?>> mock = controller().mock();
 
         assertEquals(responseEntity, mock.get());
     }
@@ -0,0 +1,73 @@
+package com.mockservice.web.internal;
+
+import com.mockservice.domain.ConnectionFault;
+import com.mockservice.response.FaultyBody;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FaultyBodyHttpMessageConverterTest {
+
+    private static final String BODY = "{\"id\": 42}";
+
+    private static MockHttpOutputMessage write(ConnectionFault fault) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        new FaultyBodyHttpMessageConverter().write(new FaultyBody(BODY, fault), MediaType.APPLICATION_JSON, message);
+        return message;
+    }
+
+    @Test
+    public void write_Reset_HalfOfBodyInOneChunkWithoutLastChunk() throws IOException {
+        MockHttpOutputMessage message = write(ConnectionFault.RESET);
+
+        HttpHeaders headers = message.getHeaders();
+        assertEquals("close", headers.getFirst(HttpHeaders.CONNECTION));
+        assertEquals("chunked", headers.getFirst(HttpHeaders.TRANSFER_ENCODING));
+        assertFalse(headers.containsKey(HttpHeaders.CONTENT_LENGTH));
+        assertEquals("5\r\n{\"id\"\r\n", message.getBodyAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_ShortBody_ContentLengthOverBodyLength() throws IOException {
+        MockHttpOutputMessage message = write(ConnectionFault.SHORT_BODY);
+
+        HttpHeaders headers = message.getHeaders();
+        assertEquals("close", headers.getFirst(HttpHeaders.CONNECTION));
+        assertFalse(headers.containsKey(HttpHeaders.TRANSFER_ENCODING));
+        assertEquals(BODY.length() + 1024, headers.getContentLength());
+        assertEquals(BODY, message.getBodyAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_MalformedChunked_SecondChunkSizeNotHex() throws IOException {
+        MockHttpOutputMessage message = write(ConnectionFault.MALFORMED_CHUNKED);
+
+        HttpHeaders headers = message.getHeaders();
+        assertEquals("close", headers.getFirst(HttpHeaders.CONNECTION));
+        assertEquals("chunked", headers.getFirst(HttpHeaders.TRANSFER_ENCODING));
+        assertFalse(headers.containsKey(HttpHeaders.CONTENT_LENGTH));
+        assertEquals("5\r\n{\"id\"\r\nzz\r\n: 42}\r\n", message.getBodyAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_StallHeaders_BodyFramedNormally() throws IOException {
+        MockHttpOutputMessage message = write(ConnectionFault.STALL_HEADERS);
+
+        HttpHeaders headers = message.getHeaders();
+        assertFalse(headers.containsKey(HttpHeaders.CONNECTION));
+        assertFalse(headers.containsKey(HttpHeaders.TRANSFER_ENCODING));
+        assertEquals(BODY.length(), headers.getContentLength());
+        assertEquals(BODY, message.getBodyAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void canRead_ReturnsFalse() {
+        assertFalse(new FaultyBodyHttpMessageConverter().canRead(FaultyBody.class, MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,80 @@
+package com.mockservice.web.internal;
+
+import com.mockservice.domain.ConnectionFault;
+import com.mockservice.response.FaultyBody;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the framing of a faulty body as sent by the embedded container.
+ */
+@EnableAutoConfiguration()
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class FaultyBodyResponseTest {
+
+    private static final String BODY = "{\"id\": 42}";
+
+    @LocalServerPort
+    private int port;
+
+    @RestController
+    static class FaultyBodyController {
+        @GetMapping("/faulty-body-test/{fault}")
+        public ResponseEntity<FaultyBody> faultyBody(@PathVariable ConnectionFault fault) {
+            return ResponseEntity.ok(new FaultyBody(BODY, fault));
+        }
+    }
+
+    @TestConfiguration
+    static class FaultyBodyConfig {
+        @Bean
+        FaultyBodyController faultyBodyController() {
+            return new FaultyBodyController();
+        }
+    }
+
+    private String exchange(ConnectionFault fault) throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /faulty-body-test/" + fault + " HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            // the container closes the connection after the body, so the stream ends
+            InputStream in = socket.getInputStream();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void reset_ChunkedHeadersKeptAndBodyCutWithoutLastChunk() throws IOException {
+        String response = exchange(ConnectionFault.RESET);
+
+        int headersEnd = response.indexOf("\r\n\r\n");
+        assertTrue(headersEnd > 0, response);
+        String headers = response.substring(0, headersEnd).toLowerCase();
+        String body = response.substring(headersEnd + 4);
+
+        assertTrue(headers.startsWith("http/1.1 200"), headers);
+        assertTrue(headers.contains("\r\ntransfer-encoding: chunked"), headers);
+        assertTrue(headers.contains("\r\nconnection: close"), headers);
+        assertFalse(headers.contains("content-length"), headers);
+        assertEquals("5\r\n{\"id\"\r\n", body);
+    }
+}
@@ -0,0 +1,76 @@
+package com.mockservice.web.webapp;
+
+import com.mockservice.model.Callback;
+import com.mockservice.service.RequestService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc
+@EnableAutoConfiguration()
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class WebApiCallbacksControllerTest {
+
+    private static final String WEB_API_CALLBACKS = "/web-api/callbacks";
+    private static final String URL = "http://localhost:8087/test";
+
+    @Autowired
+    private MockMvc mvc;
+    @MockBean
+    private RequestService requestService;
+
+    @Test
+    public void getPendingCallbacks() throws Exception {
+        Callback callback = new Callback().setId(1).setUrl(URL);
+        when(requestService.getPendingCallbacks(anyInt())).thenReturn(List.of(callback));
+
+        mvc.perform(
+                get(WEB_API_CALLBACKS).contentType(MediaType.APPLICATION_JSON)
+        )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].url", is(URL)));
+    }
+
+    @Test
+    public void getPendingCallbacks_ExceptionThrown_ReturnsBadRequest() throws Exception {
+        when(requestService.getPendingCallbacks(anyInt())).thenThrow(RuntimeException.class);
+
+        mvc.perform(
+                get(WEB_API_CALLBACKS).contentType(MediaType.APPLICATION_JSON)
+        )
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void cancelCallback() throws Exception {
+        when(requestService.cancelCallback(anyLong())).thenReturn(true);
+
+        mvc.perform(
+                delete(WEB_API_CALLBACKS + "/1").contentType(MediaType.APPLICATION_JSON)
+        )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.mockservice.web.webapp;
 
+import com.mockservice.model.DedupReport;
 import com.mockservice.repository.ConfigRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +17,7 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -26,6 +28,7 @@ public class WebApiConfigControllerTest {
     private static final String WEB_API_CONFIG = "/web-api/config";
     private static final String WEB_API_CONFIG_BACKUP = WEB_API_CONFIG + "/backup";
     private static final String WEB_API_CONFIG_RESTORE = WEB_API_CONFIG + "/restore";
+    private static final String WEB_API_CONFIG_DEDUP = WEB_API_CONFIG + "/dedup";
 
     private static final String STR_1 = "line 1";
 
@@ -59,6 +62,20 @@ public class WebApiConfigControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void getDedupReport() throws Exception {
+        when(configRepository.getDedupReport()).thenReturn(
+                new DedupReport().setRoutes(2).setDistinctBodies(1).setBytesWithoutDedup(20).setBytesWithDedup(10));
+
+        mvc.perform(
+                get(WEB_API_CONFIG_DEDUP)
+        )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.distinctBodies").value(1))
+                .andExpect(jsonPath("$.bytesSaved").value(10));
+    }
+
     @Test
     public void putConfig() throws Exception {
         mvc.perform(
@@ -1,5 +1,6 @@
 package com.mockservice.web.webapp;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.mockservice.producer.JsonFromSchemaProducer;
 import com.mockservice.producer.JsonProducer;
 import org.junit.jupiter.api.Test;
@@ -13,10 +14,19 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -61,6 +71,53 @@ public class WebApiGenerateControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void jsonOfSize_StreamsProducerOutput() throws Exception {
+        doAnswer(invocation -> {
+            JsonGenerator generator = invocation.getArgument(0);
+            generator.writeStartObject();
+            generator.writeNumberField("test", 1);
+            generator.writeEndObject();
+            return null;
+        }).when(jsonProducer).write(any(), eq(100L), eq(8), eq(false));
+
+        MvcResult result = mvc.perform(
+                get(WEB_API_GENERATE_JSON)
+                        .param("size", "100")
+        )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        assertEquals("{\"test\":1}", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    public void jsonOfSize_OverMaxSize_ReturnsBadRequest() throws Exception {
+        mvc.perform(
+                get(WEB_API_GENERATE_JSON)
+                        .param("size", "1048577")
+        )
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verify(jsonProducer, never()).write(any(), anyLong(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    public void jsonOfSize_OverMaxDepth_ReturnsBadRequest() throws Exception {
+        mvc.perform(
+                get(WEB_API_GENERATE_JSON)
+                        .param("size", "100")
+                        .param("depth", "65")
+        )
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verify(jsonProducer, never()).write(any(), anyLong(), anyInt(), anyBoolean());
+    }
+
     @Test
     public void jsonFromSchema_FromJson() throws Exception {
         when(jsonFromSchemaProducer.jsonFromSchema(any())).thenReturn(JSON);
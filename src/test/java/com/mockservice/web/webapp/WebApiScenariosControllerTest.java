@@ -24,7 +24,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +38,7 @@ public class WebApiScenariosControllerTest {
     private static final String WEB_API_SCENARIOS_ACTIVE = "/web-api/scenarios/active";
 
     private static final String ALIAS = "alias";
+    private static final String SESSION = "suite-1";
 
     @Autowired
     private MockMvc mvc;
@@ -175,4 +176,53 @@ public class WebApiScenariosControllerTest {
                 .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(1))))
                 .andExpect(jsonPath("$[0]", is(ALIAS)));
     }
+
+    @Test
+    public void putActiveScenario_SessionHeader_ActivatedWithinSession() throws Exception {
+        when(scenarioService.activateScenario(SESSION, ALIAS)).thenReturn(Set.of(ALIAS));
+
+        mvc.perform(
+                put(WEB_API_SCENARIOS_ACTIVE)
+                        .header("Mock-Session", SESSION)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(ALIAS)
+        )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is(ALIAS)));
+
+        verify(scenarioService, never()).activateScenario(any());
+    }
+
+    @Test
+    public void putActiveScenario_BlankSessionHeader_ActivatedGlobally() throws Exception {
+        when(scenarioService.activateScenario(ALIAS)).thenReturn(Set.of(ALIAS));
+
+        mvc.perform(
+                put(WEB_API_SCENARIOS_ACTIVE)
+                        .header("Mock-Session", "  ")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(ALIAS)
+        )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is(ALIAS)));
+
+        verify(scenarioService, never()).activateScenario(any(), any());
+    }
+
+    @Test
+    public void deleteActiveScenario_PaddedSessionHeader_DeactivatedWithinTrimmedSession() throws Exception {
+        when(scenarioService.deactivateScenario(SESSION, ALIAS)).thenReturn(Set.of(ALIAS));
+
+        mvc.perform(
+                delete(WEB_API_SCENARIOS_ACTIVE)
+                        .header("Mock-Session", " " + SESSION + " ")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(ALIAS)
+        )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is(ALIAS)));
+    }
 }
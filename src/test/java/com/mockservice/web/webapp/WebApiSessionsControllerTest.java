@@ -0,0 +1,72 @@
+package com.mockservice.web.webapp;
+
+import com.mockservice.repository.ConfigObserver;
+import com.mockservice.repository.RouteObserver;
+import com.mockservice.service.SessionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@EnableAutoConfiguration()
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class WebApiSessionsControllerTest {
+
+    private static final String WEB_API_SESSIONS = "/web-api/sessions";
+    private static final String SESSION = "suite-1";
+
+    @Autowired
+    private MockMvc mvc;
+    @MockBean
+    private SessionService sessionService;
+
+    @MockBean
+    private List<ConfigObserver> configObservers;
+    @MockBean
+    private List<RouteObserver> routeObservers;
+
+    @Test
+    public void getSessions() throws Exception {
+        when(sessionService.getSessionKeys()).thenReturn(Set.of(SESSION));
+
+        mvc.perform(get(WEB_API_SESSIONS))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]", is(SESSION)));
+    }
+
+    @Test
+    public void deleteSession() throws Exception {
+        when(sessionService.getSessionKeys()).thenReturn(Set.of());
+
+        mvc.perform(
+                delete(WEB_API_SESSIONS)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(SESSION)
+        )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        verify(sessionService).deleteSession(SESSION);
+    }
+}